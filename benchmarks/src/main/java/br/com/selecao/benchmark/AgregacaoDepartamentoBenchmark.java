@@ -0,0 +1,92 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.dto.DepartamentoDTO;
+import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.Tarefa;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Agregação de pessoas e tarefas por departamento ({@code GET /departamentos}).
+ * <p>
+ * {@link #agruparEmMemoria()} reproduz a implementação original, que carregava
+ * todas as entidades e agrupava com Streams (hoje pelo ID do departamento).
+ * {@link #mapearLinhasAgregadas()} mede o que sobrou em Java depois que a
+ * agregação passou para o banco: mapear uma linha por departamento e resolver
+ * o nome no dicionário, independentemente do tamanho das tabelas.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class AgregacaoDepartamentoBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int quantidade;
+
+    private List<Pessoa> pessoas;
+
+    private List<Tarefa> tarefas;
+
+    private List<Object[]> linhas;
+
+    @Setup
+    public void preparar() {
+        pessoas = Dados.pessoasComTarefas(quantidade);
+        tarefas = Dados.tarefas(quantidade);
+        linhas = new ArrayList<>(Dados.DEPARTAMENTOS);
+        for (int i = 0; i < Dados.DEPARTAMENTOS; i++) {
+            linhas.add(new Object[]{Dados.departamentoId(i), (long) quantidade / Dados.DEPARTAMENTOS,
+                    (long) quantidade / Dados.DEPARTAMENTOS});
+        }
+    }
+
+    @Benchmark
+    public List<DepartamentoDTO> agruparEmMemoria() {
+        Map<Integer, Long> pessoasPorDepto = pessoas.stream()
+                .collect(Collectors.groupingBy(pessoa -> pessoa.departamentoId, Collectors.counting()));
+        Map<Integer, Long> tarefasPorDepto = tarefas.stream()
+                .collect(Collectors.groupingBy(tarefa -> tarefa.departamentoId, Collectors.counting()));
+
+        Set<Integer> todosOsDepartamentos = new HashSet<>();
+        todosOsDepartamentos.addAll(pessoasPorDepto.keySet());
+        todosOsDepartamentos.addAll(tarefasPorDepto.keySet());
+
+        List<DepartamentoDTO> resultado = new ArrayList<>();
+        for (Integer departamentoId : todosOsDepartamentos) {
+            resultado.add(new DepartamentoDTO(Dados.nomeDepartamento(departamentoId),
+                    pessoasPorDepto.getOrDefault(departamentoId, 0L),
+                    tarefasPorDepto.getOrDefault(departamentoId, 0L)));
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public List<DepartamentoDTO> mapearLinhasAgregadas() {
+        List<DepartamentoDTO> resultado = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            resultado.add(new DepartamentoDTO(Dados.nomeDepartamento((Integer) linha[0]), ((Number) linha[1]).longValue(),
+                    ((Number) linha[2]).longValue()));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.service.ColunasTarefas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumo de tarefas por departamento e por pessoa sobre as colunas em memória
+ * ({@code GET /departamentos/tarefas} e {@code GET /pessoas/tarefas}).
+ * <p>
+ * {@link #somarEmParalelo()} usa um pool com uma thread por processador, como
+ * a aplicação; {@link #somarEmUmaThread()} usa um pool de uma única thread,
+ * para medir o ganho do paralelismo. {@link #somarNoPeriodo()} soma apenas as
+ * tarefas com prazo em um semestre e {@link #somarPorPessoa()} soma todas as
+ * tarefas por pessoa, com um total por pessoa em vez de um por departamento.
+ * Para comparar com a agregação sobre entidades, ver
+ * {@link AgregacaoDepartamentoBenchmark#agruparEmMemoria()}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ColunasTarefasBenchmark {
+    private static final LocalDate PRAZO_BASE = LocalDate.of(2025, 1, 1);
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 3, 1);
+
+    private static final LocalDate FIM = LocalDate.of(2025, 8, 31);
+
+    @Param({"1000", "1000000", "10000000"})
+    int quantidade;
+
+    private ColunasTarefas colunas;
+
+    private ForkJoinPool paralelo;
+
+    private ForkJoinPool sequencial;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        colunas = new ColunasTarefas(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            // Uma em cada cinco tarefas fica sem pessoa alocada.
+            Long pessoaId = i % 5 == 0 ? null : (long) (i / Dados.TAREFAS_POR_PESSOA) + 1;
+            colunas.gravar(i + 1, Dados.departamentoId(i), PRAZO_BASE.plusDays(aleatorio.nextInt(365)),
+                    1 + aleatorio.nextInt(40), aleatorio.nextInt(4) == 0, pessoaId);
+        }
+        paralelo = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        sequencial = new ForkJoinPool(1);
+    }
+
+    @TearDown
+    public void encerrar() {
+        paralelo.shutdownNow();
+        sequencial.shutdownNow();
+    }
+
+    @Benchmark
+    public ColunasTarefas.Totais somarEmParalelo() {
+        return colunas.totaisPorDepartamento(paralelo, null, null);
+    }
+
+    @Benchmark
+    public ColunasTarefas.Totais somarEmUmaThread() {
+        return colunas.totaisPorDepartamento(sequencial, null, null);
+    }
+
+    @Benchmark
+    public ColunasTarefas.Totais somarNoPeriodo() {
+        return colunas.totaisPorDepartamento(paralelo, INICIO, FIM);
+    }
+
+    @Benchmark
+    public ColunasTarefas.Totais somarPorPessoa() {
+        return colunas.totaisPorPessoa(paralelo, null, null);
+    }
+}
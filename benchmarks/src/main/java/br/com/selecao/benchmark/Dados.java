@@ -0,0 +1,117 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.Tarefa;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gera massas de dados determinísticas para os benchmarks.
+ * <p>
+ * A semente é fixa para que duas execuções meçam exatamente os mesmos dados.
+ * </p>
+ */
+final class Dados {
+    static final int DEPARTAMENTOS = 20;
+
+    static final int TAREFAS_POR_PESSOA = 4;
+
+    private static final LocalDate PRAZO_BASE = LocalDate.of(2025, 1, 1);
+
+    /**
+     * ID para nome dos departamentos, na mesma estrutura do
+     * {@code DicionarioDepartamentos} da aplicação.
+     */
+    private static final Map<Integer, String> NOMES_DEPARTAMENTOS = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < DEPARTAMENTOS; i++) {
+            NOMES_DEPARTAMENTOS.put(departamentoId(i), departamento(i));
+        }
+    }
+
+    private Dados() {
+    }
+
+    static String departamento(int i) {
+        return "Departamento " + (i % DEPARTAMENTOS);
+    }
+
+    static Integer departamentoId(int i) {
+        return i % DEPARTAMENTOS + 1;
+    }
+
+    /**
+     * Resolve o nome de um departamento pelo ID, como o dicionário da aplicação.
+     */
+    static String nomeDepartamento(Integer id) {
+        return id == null ? null : NOMES_DEPARTAMENTOS.get(id);
+    }
+
+    /**
+     * Cria {@code quantidade} pessoas, cada uma com {@link #TAREFAS_POR_PESSOA}
+     * tarefas na lista {@code tarefas}, como ficariam após carregar a coleção lazy.
+     */
+    static List<Pessoa> pessoasComTarefas(int quantidade) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        List<Pessoa> pessoas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.id = (long) i + 1;
+            pessoa.nome = "Pessoa " + i;
+            pessoa.departamentoId = departamentoId(i);
+            pessoa.tarefas = new ArrayList<>(TAREFAS_POR_PESSOA);
+            for (int j = 0; j < TAREFAS_POR_PESSOA; j++) {
+                pessoa.tarefas.add(tarefa((long) i * TAREFAS_POR_PESSOA + j + 1, pessoa.departamentoId, aleatorio));
+            }
+            pessoas.add(pessoa);
+        }
+        return pessoas;
+    }
+
+    /**
+     * Cria {@code quantidade} tarefas sem pessoa alocada.
+     */
+    static List<Tarefa> tarefas(int quantidade) {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        List<Tarefa> tarefas = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            tarefas.add(tarefa((long) i + 1, departamentoId(i), aleatorio));
+        }
+        return tarefas;
+    }
+
+    /**
+     * Linhas no formato devolvido pelas consultas de projeção de tarefas:
+     * id, título, descrição, prazo, ID do departamento, duração, finalizado,
+     * ID, nome e ID do departamento da pessoa alocada.
+     */
+    static List<Object[]> linhasDeTarefa(int quantidade) {
+        List<Object[]> linhas = new ArrayList<>(quantidade);
+        for (Tarefa tarefa : tarefas(quantidade)) {
+            long pessoaId = tarefa.id % 3 == 0 ? 0 : tarefa.id;
+            linhas.add(new Object[]{tarefa.id, tarefa.titulo, tarefa.descricao, tarefa.prazo, tarefa.departamentoId,
+                    tarefa.duracao, tarefa.finalizado,
+                    pessoaId == 0 ? null : pessoaId, pessoaId == 0 ? null : "Pessoa " + pessoaId,
+                    pessoaId == 0 ? null : tarefa.departamentoId});
+        }
+        return linhas;
+    }
+
+    private static Tarefa tarefa(long id, Integer departamentoId, SplittableRandom aleatorio) {
+        Tarefa tarefa = new Tarefa();
+        tarefa.id = id;
+        tarefa.titulo = "Tarefa " + id;
+        tarefa.descricao = "Descrição da tarefa " + id;
+        tarefa.prazo = PRAZO_BASE.plusDays(aleatorio.nextInt(365));
+        tarefa.departamentoId = departamentoId;
+        tarefa.duracao = 1 + aleatorio.nextInt(40);
+        tarefa.finalizado = aleatorio.nextInt(4) == 0;
+        return tarefa;
+    }
+}
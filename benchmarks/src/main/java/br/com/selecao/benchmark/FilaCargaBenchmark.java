@@ -0,0 +1,62 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.service.FilaCargaDepartamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações da fila de carga usada pelo motor de alocação.
+ * <p>
+ * {@link #reservar()} é o passo executado a cada {@code PUT /tarefas/alocar/{id}}:
+ * escolher a pessoa menos carregada do departamento e somar a duração à sua carga.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FilaCargaBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int pessoas;
+
+    private FilaCargaDepartamento fila;
+
+    private SplittableRandom aleatorio;
+
+    @Setup
+    public void preparar() {
+        aleatorio = new SplittableRandom(42);
+        fila = new FilaCargaDepartamento();
+        for (long id = 1; id <= pessoas; id++) {
+            fila.adicionar(id, aleatorio.nextInt(1000));
+        }
+    }
+
+    @Benchmark
+    public Long reservar() {
+        Long pessoaId = fila.menosCarregada();
+        fila.somar(pessoaId, 1 + aleatorio.nextInt(40));
+        return pessoaId;
+    }
+
+    @Benchmark
+    public long liberar() {
+        long pessoaId = 1 + aleatorio.nextInt(pessoas);
+        fila.somar(pessoaId, -1);
+        return fila.maiorCarga();
+    }
+}
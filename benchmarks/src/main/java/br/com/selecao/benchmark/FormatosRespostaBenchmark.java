@@ -0,0 +1,96 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.dto.TarefaDetalheDTO;
+import br.com.selecao.model.Tarefa;
+import br.com.selecao.serializacao.EscritorCbor;
+import br.com.selecao.serializacao.SerializadoresJson;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Custo e tamanho da listagem de tarefas em cada formato de resposta da API:
+ * JSON e CBOR, com e sem gzip.
+ * <p>
+ * Cada benchmark mede a CPU gasta para serializar (e comprimir) a lista e
+ * devolve a quantidade de bytes que iria para a rede. Como os dados são
+ * determinísticos, esses tamanhos são calculados uma vez na preparação e
+ * impressos na saída do JMH.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class FormatosRespostaBenchmark {
+    @Param({"1000", "100000"})
+    int quantidade;
+
+    private ObjectWriter json;
+
+    private ObjectWriter cbor;
+
+    private List<TarefaDetalheDTO> tarefas;
+
+    @Setup
+    public void preparar() throws IOException {
+        ObjectMapper mapper = SerializacaoJsonBenchmark.mapper().registerModule(SerializadoresJson.modulo());
+        json = mapper.writer();
+        cbor = EscritorCbor.mapeador(mapper).writer();
+
+        tarefas = new ArrayList<>(quantidade);
+        for (Tarefa tarefa : Dados.tarefas(quantidade)) {
+            tarefas.add(TarefaDetalheDTO.de(tarefa, Dados::nomeDepartamento));
+        }
+
+        System.out.printf("%nBytes na rede para %d tarefas: json=%d, json+gzip=%d, cbor=%d, cbor+gzip=%d%n",
+                quantidade, serializarJson(), serializarJsonComGzip(), serializarCbor(), serializarCborComGzip());
+    }
+
+    @Benchmark
+    public long serializarJson() throws IOException {
+        return escrever(json, false);
+    }
+
+    @Benchmark
+    public long serializarJsonComGzip() throws IOException {
+        return escrever(json, true);
+    }
+
+    @Benchmark
+    public long serializarCbor() throws IOException {
+        return escrever(cbor, false);
+    }
+
+    @Benchmark
+    public long serializarCborComGzip() throws IOException {
+        return escrever(cbor, true);
+    }
+
+    private long escrever(ObjectWriter escritor, boolean comprimir) throws IOException {
+        SerializacaoJsonBenchmark.ContadorDeBytes contador = new SerializacaoJsonBenchmark.ContadorDeBytes();
+        OutputStream saida = comprimir ? new GZIPOutputStream(contador, 8192) : contador;
+        escritor.writeValue(saida, tarefas);
+        saida.close();
+        return contador.total;
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.dto.PessoaComHorasDTO;
+import br.com.selecao.dto.PessoaMediaHorasDTO;
+import br.com.selecao.model.Pessoa;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Soma e média de horas por pessoa ({@code GET /pessoas} e {@code GET /pessoas/gastos}).
+ * <p>
+ * {@link #somarHorasPorPessoa()} e {@link #mediaHorasNoPeriodo()} reproduzem a
+ * implementação original, que percorria a coleção de tarefas de cada pessoa
+ * com Streams. {@link #mapearProjecaoHoras()} mede o mapeamento das linhas já
+ * somadas pelo banco, como faz hoje a consulta de projeção.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class HorasPorPessoaBenchmark {
+    private static final LocalDate INICIO = LocalDate.of(2025, 3, 1);
+
+    private static final LocalDate FIM = LocalDate.of(2025, 8, 31);
+
+    @Param({"1000", "100000", "1000000"})
+    int quantidade;
+
+    private List<Pessoa> pessoas;
+
+    private List<Object[]> linhas;
+
+    @Setup
+    public void preparar() {
+        pessoas = Dados.pessoasComTarefas(quantidade);
+        linhas = new ArrayList<>(quantidade);
+        for (Pessoa pessoa : pessoas) {
+            long total = pessoa.tarefas.stream().mapToLong(tarefa -> tarefa.duracao).sum();
+            linhas.add(new Object[]{pessoa.id, pessoa.nome, pessoa.departamentoId, total});
+        }
+    }
+
+    @Benchmark
+    public List<PessoaComHorasDTO> somarHorasPorPessoa() {
+        return pessoas.stream().map(pessoa -> {
+            int totalHoras = pessoa.tarefas.stream()
+                    .mapToInt(tarefa -> tarefa.duracao)
+                    .sum();
+            return new PessoaComHorasDTO(pessoa.nome, Dados.nomeDepartamento(pessoa.departamentoId), totalHoras);
+        }).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PessoaMediaHorasDTO> mediaHorasNoPeriodo() {
+        return pessoas.stream().map(pessoa -> {
+            double media = pessoa.tarefas.stream()
+                    .filter(tarefa -> !tarefa.prazo.isBefore(INICIO) && !tarefa.prazo.isAfter(FIM))
+                    .mapToInt(tarefa -> tarefa.duracao)
+                    .average()
+                    .orElse(0.0);
+            return new PessoaMediaHorasDTO(pessoa.nome, media);
+        }).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<PessoaComHorasDTO> mapearProjecaoHoras() {
+        List<PessoaComHorasDTO> resultado = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            resultado.add(new PessoaComHorasDTO((Long) linha[0], (String) linha[1],
+                    Dados.nomeDepartamento((Integer) linha[2]), (Long) linha[3]));
+        }
+        return resultado;
+    }
+}
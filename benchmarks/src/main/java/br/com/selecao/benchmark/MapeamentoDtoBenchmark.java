@@ -0,0 +1,70 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.dto.TarefaDetalheDTO;
+import br.com.selecao.evento.TarefaEstado;
+import br.com.selecao.model.Tarefa;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento de linhas e entidades para DTOs e estados de evento.
+ * <p>
+ * {@link #mapearLinhasParaDetalhe()} é o caminho das consultas de projeção de
+ * tarefas; {@link #copiarEstadoDaEntidade()} é a cópia feita a cada evento
+ * {@code TarefaAlterada}.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class MapeamentoDtoBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int quantidade;
+
+    private List<Object[]> linhas;
+
+    private List<Tarefa> tarefas;
+
+    @Setup
+    public void preparar() {
+        linhas = Dados.linhasDeTarefa(quantidade);
+        tarefas = Dados.tarefas(quantidade);
+    }
+
+    @Benchmark
+    public List<TarefaDetalheDTO> mapearLinhasParaDetalhe() {
+        List<TarefaDetalheDTO> resultado = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            resultado.add(new TarefaDetalheDTO((Long) linha[0], (String) linha[1], (String) linha[2],
+                    (LocalDate) linha[3], Dados.nomeDepartamento((Integer) linha[4]), (Integer) linha[5],
+                    (Boolean) linha[6], (Long) linha[7], (String) linha[8], Dados.nomeDepartamento((Integer) linha[9])));
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public List<TarefaEstado> copiarEstadoDaEntidade() {
+        List<TarefaEstado> resultado = new ArrayList<>(tarefas.size());
+        for (Tarefa tarefa : tarefas) {
+            resultado.add(TarefaEstado.de(tarefa));
+        }
+        return resultado;
+    }
+}
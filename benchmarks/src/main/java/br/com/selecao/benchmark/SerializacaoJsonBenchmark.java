@@ -0,0 +1,148 @@
+package br.com.selecao.benchmark;
+
+import br.com.selecao.dto.DepartamentoDTO;
+import br.com.selecao.dto.PessoaComHorasDTO;
+import br.com.selecao.dto.TarefaDetalheDTO;
+import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.Tarefa;
+import br.com.selecao.serializacao.SerializadoresJson;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das listas devolvidas pela API.
+ * <p>
+ * O {@link ObjectMapper} é configurado como o do Quarkus (datas ISO-8601 e
+ * propriedades desconhecidas ignoradas) e escreve em um fluxo que apenas conta
+ * os bytes, para que o custo medido seja só o da serialização.
+ * </p>
+ * <p>
+ * As tarefas são medidas de três formas: a entidade, o {@link TarefaDetalheDTO}
+ * serializado por reflexão e o mesmo DTO com os serializadores escritos à mão
+ * de {@link SerializadoresJson}, que é o que a API usa.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SerializacaoJsonBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int quantidade;
+
+    private ObjectWriter escritor;
+
+    private ObjectWriter escritorComSerializadores;
+
+    private List<Tarefa> tarefas;
+
+    private List<TarefaDetalheDTO> detalhes;
+
+    private List<PessoaComHorasDTO> pessoas;
+
+    private List<DepartamentoDTO> departamentos;
+
+    /**
+     * Fluxo de saída que descarta os bytes, apenas contando-os.
+     */
+    static final class ContadorDeBytes extends OutputStream {
+        long total;
+
+        @Override
+        public void write(int b) {
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            total += len;
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        escritor = mapper().writer();
+        escritorComSerializadores = mapper().registerModule(SerializadoresJson.modulo()).writer();
+
+        tarefas = Dados.tarefas(quantidade);
+        detalhes = new ArrayList<>(quantidade);
+        for (Tarefa tarefa : tarefas) {
+            detalhes.add(TarefaDetalheDTO.de(tarefa, Dados::nomeDepartamento));
+        }
+
+        pessoas = new ArrayList<>(quantidade);
+        for (Pessoa pessoa : Dados.pessoasComTarefas(quantidade)) {
+            long total = pessoa.tarefas.stream().mapToLong(tarefa -> tarefa.duracao).sum();
+            pessoas.add(new PessoaComHorasDTO(pessoa.id, pessoa.nome, Dados.nomeDepartamento(pessoa.departamentoId),
+                    total));
+        }
+
+        departamentos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            departamentos.add(new DepartamentoDTO(Dados.departamento(i) + "-" + i, i % 50, i % 200));
+        }
+    }
+
+    @Benchmark
+    public long serializarTarefas() throws IOException {
+        return escrever(tarefas);
+    }
+
+    @Benchmark
+    public long serializarTarefasDetalhePorReflexao() throws IOException {
+        return escrever(detalhes);
+    }
+
+    @Benchmark
+    public long serializarTarefasDetalhe() throws IOException {
+        ContadorDeBytes saida = new ContadorDeBytes();
+        escritorComSerializadores.writeValue(saida, detalhes);
+        return saida.total;
+    }
+
+    @Benchmark
+    public long serializarPessoasComHoras() throws IOException {
+        return escrever(pessoas);
+    }
+
+    @Benchmark
+    public long serializarDepartamentos() throws IOException {
+        return escrever(departamentos);
+    }
+
+    static ObjectMapper mapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private long escrever(List<?> lista) throws IOException {
+        ContadorDeBytes saida = new ContadorDeBytes();
+        escritor.writeValue(saida, lista);
+        return saida.total;
+    }
+}
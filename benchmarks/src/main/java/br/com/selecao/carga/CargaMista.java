@@ -0,0 +1,340 @@
+package br.com.selecao.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carga mista sobre todos os endpoints da API, com taxa de chegada fixa ou com
+ * um número fixo de clientes.
+ * <p>
+ * Com taxa fixa, as requisições são iniciadas em instantes previstos
+ * ({@code inicio + i / taxa}) sem esperar as anteriores terminarem, e a latência
+ * é medida a partir do instante previsto, não do envio. Assim, se a API (ou o
+ * próprio gerador) atrasar, o atraso aparece nos percentis em vez de reduzir
+ * silenciosamente a taxa de chegada (o problema conhecido como "coordinated omission").
+ * </p>
+ * <p>
+ * Com clientes fixos ({@code --clientes}), cada cliente é uma virtual thread que
+ * envia uma requisição, espera a resposta e envia a próxima. É o modo usado para
+ * comparar a escala da API com muitas conexões simultâneas; a latência é medida
+ * a partir do envio, e a vazão obtida entra no relatório.
+ * </p>
+ */
+final class CargaMista {
+    /**
+     * Resultado acumulado de um endpoint durante a medição.
+     */
+    static final class Medicao {
+        final Histogram latenciasMicros = new ConcurrentHistogram(3);
+
+        final AtomicLong sucessos = new AtomicLong();
+
+        final AtomicLong rejeicoes = new AtomicLong();
+
+        final AtomicLong falhas = new AtomicLong();
+
+        final AtomicLong semAlvo = new AtomicLong();
+    }
+
+    /**
+     * Um endpoint da carga: seu peso no sorteio, como montar a requisição e o
+     * que fazer com a resposta. A requisição é {@code null} quando não há alvo
+     * disponível (por exemplo, nenhuma tarefa pendente para alocar).
+     */
+    private record Operacao(String nome, int peso, Supplier<HttpRequest> requisicao,
+                            Consumer<HttpResponse<byte[]>> aoResponder) {
+    }
+
+    /**
+     * Departamento das pessoas criadas durante a carga, no qual nenhuma tarefa é criada.
+     */
+    private static final String DEPARTAMENTO_SEM_TAREFAS = "Carga Departamento Sem Tarefas";
+
+    private final ConfiguracaoCarga configuracao;
+
+    private final HttpClient cliente;
+
+    private final ObjectMapper mapper;
+
+    private final SplittableRandom aleatorio;
+
+    private final List<Long> pessoaIds;
+
+    private final List<String> pessoaDepartamentos;
+
+    private final Queue<Long> tarefasPendentes;
+
+    private final Queue<Long> tarefasAlocadas;
+
+    private final Queue<Long> pessoasCriadas = new ConcurrentLinkedQueue<>();
+
+    private final List<Operacao> operacoes = new ArrayList<>();
+
+    private final Map<String, Medicao> medicoes = new TreeMap<>();
+
+    /**
+     * Protege o sorteio e a montagem das requisições quando há vários clientes,
+     * pois o gerador de números aleatórios não é thread-safe.
+     */
+    private final ReentrantLock travaSorteio = new ReentrantLock();
+
+    private int pesoTotal;
+
+    CargaMista(ConfiguracaoCarga configuracao, HttpClient cliente, ObjectMapper mapper, Semeadura semeadura) {
+        this.configuracao = configuracao;
+        this.cliente = cliente;
+        this.mapper = mapper;
+        this.aleatorio = new SplittableRandom(configuracao.semente());
+        this.pessoaIds = semeadura.pessoaIds;
+        this.pessoaDepartamentos = semeadura.pessoaDepartamentos;
+        this.tarefasPendentes = new ConcurrentLinkedQueue<>(semeadura.tarefasPendentes);
+        this.tarefasAlocadas = new ConcurrentLinkedQueue<>(semeadura.tarefasAlocadas);
+
+        adicionar("GET /pessoas", 10, () -> get("/pessoas?after=" + pessoaAleatoria() + "&limit=100"), null);
+        adicionar("GET /pessoas/{id}", 15, () -> get("/pessoas/" + pessoaAleatoria()), null);
+        // Busca seletiva, como a de um nome: os números a partir de pessoas / 10 não são prefixo de quase nenhum
+        // outro (com 1.000 ou 1.000.000 de pessoas, de nenhum), enquanto "Carga Pessoa 3" encontraria uma em dez.
+        int primeiraBuscada = configuracao.pessoas() / 10;
+        adicionar("GET /pessoas/gastos", 5, () -> get("/pessoas/gastos?nome="
+                + URLEncoder.encode("Carga Pessoa " + (primeiraBuscada
+                        + aleatorio.nextInt(configuracao.pessoas() - primeiraBuscada)), StandardCharsets.UTF_8)
+                + "&dataInicio=2025-01-01&dataFim=2025-06-30&limit=10"), null);
+        // As pessoas criadas ficam em um departamento sem tarefas: sem tarefas alocadas, o DELETE que as remove
+        // mede a remoção, e não a violação da chave estrangeira de Tarefa.
+        adicionar("POST /pessoas", 3, () -> enviar("POST", "/pessoas", Map.of(
+                        "nome", "Carga Pessoa Nova", "departamento", DEPARTAMENTO_SEM_TAREFAS)),
+                resposta -> guardarId(resposta, pessoasCriadas));
+        adicionar("PUT /pessoas/{id}", 3, () -> {
+            int i = aleatorio.nextInt(pessoaIds.size());
+            return enviar("PUT", "/pessoas/" + pessoaIds.get(i), Map.of(
+                    "nome", "Carga Pessoa Alterada " + i, "departamento", pessoaDepartamentos.get(i)));
+        }, null);
+        adicionar("DELETE /pessoas/{id}", 1, () -> {
+            Long id = pessoasCriadas.poll();
+            return id == null ? null : HttpRequest.newBuilder(uri("/pessoas/" + id)).DELETE().build();
+        }, null);
+        adicionar("GET /departamentos", 5, () -> get("/departamentos"), null);
+        adicionar("GET /tarefas", 1, () -> get("/tarefas"), null);
+        adicionar("GET /tarefas/fluxo", 1, () -> get("/tarefas/fluxo"), null);
+        adicionar("GET /tarefas/pendentes", 10, () -> get("/tarefas/pendentes?limit=10"), null);
+        adicionar("POST /tarefas", 8, () -> enviar("POST", "/tarefas", Map.of(
+                        "titulo", "Carga Tarefa Nova",
+                        "descricao", "Tarefa criada durante a carga",
+                        "prazo", "2025-12-31",
+                        "departamento", departamentoAleatorio(),
+                        "duracao", 1 + aleatorio.nextInt(40))),
+                resposta -> guardarId(resposta, tarefasPendentes));
+        adicionar("PUT /tarefas/alocar/{id}", 8, () -> {
+            Long id = tarefasPendentes.poll();
+            return id == null ? null : enviar("PUT", "/tarefas/alocar/" + id, null);
+        }, resposta -> guardarId(resposta, tarefasAlocadas));
+        adicionar("PUT /tarefas/finalizar/{id}", 8, () -> {
+            Long id = tarefasAlocadas.poll();
+            return id == null ? null : enviar("PUT", "/tarefas/finalizar/" + id, null);
+        }, null);
+        // Fica fora da carga padrão (ver ConfiguracaoCarga): ao alocar todas as pendentes de uma vez, deixaria as
+        // alocações individuais sem alvo. Quando selecionado, os IDs guardados deixam de ser pendentes.
+        adicionar("POST /tarefas/alocar-lote", 1, () -> enviar("POST", "/tarefas/alocar-lote", null),
+                resposta -> tarefasPendentes.clear());
+        if (operacoes.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum endpoint corresponde a --operacoes=" + configuracao.operacoes());
+        }
+    }
+
+    /**
+     * Executa o aquecimento e a medição e devolve as medições por endpoint,
+     * ordenadas pelo nome do endpoint.
+     */
+    Map<String, Medicao> executar() throws InterruptedException {
+        return configuracao.clientes() > 0 ? executarComClientes() : executarComTaxa();
+    }
+
+    private Map<String, Medicao> executarComTaxa() throws InterruptedException {
+        long aquecimento = TimeUnit.SECONDS.toNanos(configuracao.aquecimento());
+        long fim = aquecimento + TimeUnit.SECONDS.toNanos(configuracao.duracao());
+        double intervalo = 1e9 / configuracao.taxa();
+        AtomicLong emVoo = new AtomicLong();
+
+        long inicio = System.nanoTime();
+        for (long i = 0; ; i++) {
+            long deslocamento = (long) (i * intervalo);
+            if (deslocamento >= fim) {
+                break;
+            }
+            long previsto = inicio + deslocamento;
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+
+            Operacao operacao = sortear();
+            boolean medir = deslocamento >= aquecimento;
+            Medicao medicao = medicoes.get(operacao.nome());
+            HttpRequest requisicao = operacao.requisicao().get();
+            if (requisicao == null) {
+                if (medir) {
+                    medicao.semAlvo.incrementAndGet();
+                }
+                continue;
+            }
+
+            emVoo.incrementAndGet();
+            cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((resposta, erro) -> {
+                registrar(operacao, medir ? medicao : null, previsto, resposta, erro);
+                emVoo.decrementAndGet();
+            });
+        }
+
+        while (emVoo.get() > 0) {
+            Thread.sleep(10);
+        }
+        return medicoes;
+    }
+
+    private Map<String, Medicao> executarComClientes() throws InterruptedException {
+        long inicio = System.nanoTime();
+        long aquecimento = inicio + TimeUnit.SECONDS.toNanos(configuracao.aquecimento());
+        long fim = aquecimento + TimeUnit.SECONDS.toNanos(configuracao.duracao());
+
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < configuracao.clientes(); i++) {
+                clientes.submit(() -> {
+                    for (long envio = System.nanoTime(); envio < fim; envio = System.nanoTime()) {
+                        Operacao operacao;
+                        HttpRequest requisicao;
+                        travaSorteio.lock();
+                        try {
+                            operacao = sortear();
+                            requisicao = operacao.requisicao().get();
+                        } finally {
+                            travaSorteio.unlock();
+                        }
+
+                        Medicao medicao = envio >= aquecimento ? medicoes.get(operacao.nome()) : null;
+                        if (requisicao == null) {
+                            if (medicao != null) {
+                                medicao.semAlvo.incrementAndGet();
+                            }
+                            continue;
+                        }
+                        try {
+                            registrar(operacao, medicao, envio,
+                                    cliente.send(requisicao, HttpResponse.BodyHandlers.ofByteArray()), null);
+                        } catch (IOException e) {
+                            registrar(operacao, medicao, envio, null, e);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        return medicoes;
+    }
+
+    /**
+     * Contabiliza uma resposta. A medição é {@code null} durante o aquecimento.
+     */
+    private void registrar(Operacao operacao, Medicao medicao, long inicio,
+                           HttpResponse<byte[]> resposta, Throwable erro) {
+        long latencia = System.nanoTime() - inicio;
+        if (medicao != null) {
+            medicao.latenciasMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencia));
+            if (erro != null || resposta.statusCode() >= 500) {
+                medicao.falhas.incrementAndGet();
+            } else if (resposta.statusCode() >= 400) {
+                medicao.rejeicoes.incrementAndGet();
+            } else {
+                medicao.sucessos.incrementAndGet();
+            }
+        }
+        if (erro == null && resposta.statusCode() < 300 && operacao.aoResponder() != null) {
+            operacao.aoResponder().accept(resposta);
+        }
+    }
+
+    private void adicionar(String nome, int peso, Supplier<HttpRequest> requisicao,
+                           Consumer<HttpResponse<byte[]>> aoResponder) {
+        if (!configuracao.operacoes().matcher(nome).matches()) {
+            return;
+        }
+        operacoes.add(new Operacao(nome, peso, requisicao, aoResponder));
+        medicoes.put(nome, new Medicao());
+        pesoTotal += peso;
+    }
+
+    private Operacao sortear() {
+        int sorteio = aleatorio.nextInt(pesoTotal);
+        for (Operacao operacao : operacoes) {
+            sorteio -= operacao.peso();
+            if (sorteio < 0) {
+                return operacao;
+            }
+        }
+        throw new IllegalStateException("Pesos inconsistentes");
+    }
+
+    private long pessoaAleatoria() {
+        return pessoaIds.get(aleatorio.nextInt(pessoaIds.size()));
+    }
+
+    private String departamentoAleatorio() {
+        return configuracao.departamento(aleatorio.nextInt(configuracao.departamentos()));
+    }
+
+    private void guardarId(HttpResponse<byte[]> resposta, Queue<Long> destino) {
+        try {
+            destino.add(mapper.readTree(resposta.body()).path("id").asLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest get(String caminho) {
+        return HttpRequest.newBuilder(uri(caminho)).GET().build();
+    }
+
+    private HttpRequest enviar(String metodo, String caminho, Object corpo) {
+        try {
+            HttpRequest.BodyPublisher publicador = corpo == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(corpo));
+            return HttpRequest.newBuilder(uri(caminho))
+                    .header("Content-Type", "application/json")
+                    .method(metodo, publicador)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private URI uri(String caminho) {
+        return configuracao.url().resolve(caminho);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.selecao.carga;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Parâmetros de uma execução do teste de carga, lidos da linha de comando
+ * no formato {@code --chave=valor}.
+ *
+ * @param url           O endereço base da API.
+ * @param pessoas       Quantidade de pessoas semeadas antes da carga.
+ * @param tarefas       Quantidade de tarefas semeadas antes da carga.
+ * @param departamentos Quantidade de departamentos entre os quais pessoas e tarefas são distribuídas.
+ * @param taxa          Requisições iniciadas por segundo, independentemente do tempo de resposta.
+ * @param clientes      Quantidade de clientes simultâneos, cada um esperando a resposta antes de enviar a
+ *                      próxima requisição; quando maior que zero, substitui a {@code taxa}.
+ * @param operacoes     Expressão regular que seleciona, pelo nome, os endpoints incluídos na carga. O padrão
+ *                      inclui todos, exceto {@code POST /tarefas/alocar-lote}, que aloca todas as tarefas
+ *                      pendentes e tiraria o alvo de {@code PUT /tarefas/alocar/{id}}.
+ * @param aquecimento   Segundos iniciais de carga que não entram nos histogramas.
+ * @param duracao       Segundos de carga medidos após o aquecimento.
+ * @param semente       Semente dos sorteios, para que duas execuções gerem a mesma sequência.
+ * @param semear        Indica se os dados devem ser semeados antes da carga.
+ * @param saida         Arquivo do relatório.
+ */
+record ConfiguracaoCarga(
+        URI url,
+        int pessoas,
+        int tarefas,
+        int departamentos,
+        int taxa,
+        int clientes,
+        Pattern operacoes,
+        int aquecimento,
+        int duracao,
+        long semente,
+        boolean semear,
+        Path saida) {
+
+    /**
+     * Todos os endpoints, exceto a alocação em lote.
+     */
+    static final String OPERACOES_PADRAO = "(?!POST /tarefas/alocar-lote$).*";
+
+    static ConfiguracaoCarga de(String[] argumentos) {
+        Map<String, String> valores = new HashMap<>();
+        for (String argumento : argumentos) {
+            if (!argumento.startsWith("--") || !argumento.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido: " + argumento + " (use --chave=valor)");
+            }
+            int separador = argumento.indexOf('=');
+            valores.put(argumento.substring(2, separador), argumento.substring(separador + 1));
+        }
+
+        return new ConfiguracaoCarga(
+                URI.create(valores.getOrDefault("url", "http://localhost:8080")),
+                Integer.parseInt(valores.getOrDefault("pessoas", "1000")),
+                Integer.parseInt(valores.getOrDefault("tarefas", "10000")),
+                Integer.parseInt(valores.getOrDefault("departamentos", "20")),
+                Integer.parseInt(valores.getOrDefault("taxa", "200")),
+                Integer.parseInt(valores.getOrDefault("clientes", "0")),
+                Pattern.compile(valores.getOrDefault("operacoes", OPERACOES_PADRAO)),
+                Integer.parseInt(valores.getOrDefault("aquecimento", "10")),
+                Integer.parseInt(valores.getOrDefault("duracao", "60")),
+                Long.parseLong(valores.getOrDefault("semente", "42")),
+                Boolean.parseBoolean(valores.getOrDefault("semear", "true")),
+                Path.of(valores.getOrDefault("saida", "target/relatorio-carga.txt")));
+    }
+
+    String departamento(int i) {
+        return "Carga Departamento " + (i % departamentos);
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.selecao.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Popula a API com pessoas e tarefas antes da carga e coleta os IDs gerados.
+ * <p>
+ * Os dados são enviados pelas importações NDJSON, que são os mesmos endpoints
+ * usados em produção para cargas em lote; o tempo de cada importação entra no
+ * relatório. Cada corpo leva no máximo {@value #REGISTROS_POR_IMPORTACAO}
+ * registros, para ficar abaixo do tamanho máximo de corpo aceito pela API. Três em cada quatro tarefas são criadas já alocadas a uma pessoa
+ * do mesmo departamento; as demais ficam pendentes.
+ * </p>
+ */
+final class Semeadura {
+    private static final LocalDate PRAZO_BASE = LocalDate.of(2025, 1, 1);
+
+    private static final int TAMANHO_PAGINA = 1000;
+
+    private static final int REGISTROS_POR_IMPORTACAO = 50_000;
+
+    private final ConfiguracaoCarga configuracao;
+
+    private final HttpClient cliente;
+
+    private final ObjectMapper mapper;
+
+    /**
+     * Tempo de cada importação, em milissegundos, somado entre os seus lotes, na
+     * ordem em que foram feitas.
+     */
+    final Map<String, Long> tempos = new LinkedHashMap<>();
+
+    final List<Long> pessoaIds = new ArrayList<>();
+
+    final List<String> pessoaDepartamentos = new ArrayList<>();
+
+    final List<Long> tarefasPendentes = new ArrayList<>();
+
+    final List<Long> tarefasAlocadas = new ArrayList<>();
+
+    Semeadura(ConfiguracaoCarga configuracao, HttpClient cliente, ObjectMapper mapper) {
+        this.configuracao = configuracao;
+        this.cliente = cliente;
+        this.mapper = mapper;
+    }
+
+    void executar() throws IOException, InterruptedException {
+        SplittableRandom aleatorio = new SplittableRandom(configuracao.semente());
+
+        if (configuracao.semear()) {
+            StringBuilder pessoas = new StringBuilder();
+            for (int i = 0; i < configuracao.pessoas(); i++) {
+                pessoas.append(mapper.writeValueAsString(Map.of(
+                        "nome", "Carga Pessoa " + i,
+                        "departamento", configuracao.departamento(i)))).append('\n');
+                if ((i + 1) % REGISTROS_POR_IMPORTACAO == 0 || i + 1 == configuracao.pessoas()) {
+                    importar("POST /pessoas/importacao", "/pessoas/importacao", pessoas.toString());
+                    pessoas.setLength(0);
+                }
+            }
+        }
+
+        coletarPessoas();
+        if (pessoaIds.isEmpty()) {
+            throw new IllegalStateException("Nenhuma pessoa cadastrada; rode com --semear=true.");
+        }
+
+        if (configuracao.semear()) {
+            StringBuilder tarefas = new StringBuilder();
+            for (int i = 0; i < configuracao.tarefas(); i++) {
+                Map<String, Object> tarefa = new LinkedHashMap<>();
+                tarefa.put("titulo", "Carga Tarefa " + i);
+                tarefa.put("descricao", "Tarefa gerada pelo teste de carga");
+                tarefa.put("prazo", PRAZO_BASE.plusDays(aleatorio.nextInt(365)).toString());
+                tarefa.put("duracao", 1 + aleatorio.nextInt(40));
+                if (i % 4 == 3) {
+                    tarefa.put("departamento", configuracao.departamento(aleatorio.nextInt(configuracao.departamentos())));
+                } else {
+                    int pessoa = aleatorio.nextInt(pessoaIds.size());
+                    tarefa.put("departamento", pessoaDepartamentos.get(pessoa));
+                    tarefa.put("pessoaAlocadaId", pessoaIds.get(pessoa));
+                }
+                tarefas.append(mapper.writeValueAsString(tarefa)).append('\n');
+                if ((i + 1) % REGISTROS_POR_IMPORTACAO == 0 || i + 1 == configuracao.tarefas()) {
+                    importar("POST /tarefas/importacao", "/tarefas/importacao", tarefas.toString());
+                    tarefas.setLength(0);
+                }
+            }
+        }
+
+        coletarTarefas();
+    }
+
+    private void importar(String nome, String caminho, String corpo) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta = cliente.send(HttpRequest.newBuilder(uri(caminho))
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        tempos.merge(nome, (System.nanoTime() - inicio) / 1_000_000, Long::sum);
+
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException(nome + " respondeu " + resposta.statusCode() + ": " + resposta.body());
+        }
+        JsonNode resumo = mapper.readTree(resposta.body());
+        if (!resumo.path("erros").isEmpty()) {
+            throw new IllegalStateException(nome + " rejeitou registros: " + resumo.path("erros"));
+        }
+    }
+
+    private void coletarPessoas() throws IOException, InterruptedException {
+        long depois = 0;
+        while (true) {
+            HttpResponse<String> resposta = cliente.send(
+                    HttpRequest.newBuilder(uri("/pessoas?after=" + depois + "&limit=" + TAMANHO_PAGINA)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            JsonNode pagina = mapper.readTree(resposta.body());
+            for (JsonNode pessoa : pagina) {
+                depois = pessoa.path("id").asLong();
+                pessoaIds.add(depois);
+                pessoaDepartamentos.add(pessoa.path("departamento").asText(null));
+            }
+            if (pagina.size() < TAMANHO_PAGINA) {
+                return;
+            }
+        }
+    }
+
+    private void coletarTarefas() throws IOException, InterruptedException {
+        HttpResponse<Stream<String>> resposta = cliente.send(
+                HttpRequest.newBuilder(uri("/tarefas/fluxo")).GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        for (String linha : (Iterable<String>) resposta.body()::iterator) {
+            if (linha.isBlank()) {
+                continue;
+            }
+            JsonNode tarefa = mapper.readTree(linha);
+            if (tarefa.path("finalizado").asBoolean()) {
+                continue;
+            }
+            if (tarefa.path("pessoaAlocada").isNull() || tarefa.path("pessoaAlocada").isMissingNode()) {
+                tarefasPendentes.add(tarefa.path("id").asLong());
+            } else {
+                tarefasAlocadas.add(tarefa.path("id").asLong());
+            }
+        }
+    }
+
+    private URI uri(String caminho) {
+        return configuracao.url().resolve(caminho);
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.selecao.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Teste de carga de ponta a ponta da API.
+ * <p>
+ * Semeia os dados pelas importações NDJSON, aplica a {@link CargaMista} e
+ * grava um relatório em texto com os percentis p50, p99 e p99,9 de cada
+ * endpoint. O relatório não contém datas nem nomes de máquina, para que duas
+ * execuções possam ser comparadas com {@code diff}; ao lado dele é gravado um
+ * arquivo {@code .hgrm} com a distribuição completa de cada endpoint.
+ * </p>
+ * <p>
+ * A API deve estar em execução, de preferência com o perfil {@code carga},
+ * que usa um banco local próprio e o recria a cada inicialização:
+ * </p>
+ * <pre>
+ * java -Dquarkus.profile=carga -jar target/quarkus-app/quarkus-run.jar
+ * java -cp benchmarks/target/benchmarks.jar br.com.selecao.carga.TesteDeCarga --taxa=500 --duracao=120
+ * </pre>
+ */
+public final class TesteDeCarga {
+    private TesteDeCarga() {
+    }
+
+    public static void main(String[] argumentos) throws IOException, InterruptedException {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.de(argumentos);
+        ObjectMapper mapper = new ObjectMapper();
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("Semeando %d pessoas e %d tarefas em %s...%n",
+                configuracao.pessoas(), configuracao.tarefas(), configuracao.url());
+        Semeadura semeadura = new Semeadura(configuracao, cliente, mapper);
+        semeadura.executar();
+
+        if (configuracao.clientes() > 0) {
+            System.out.printf("Aplicando %d clientes simultâneos por %d s (+%d s de aquecimento)...%n",
+                    configuracao.clientes(), configuracao.duracao(), configuracao.aquecimento());
+        } else {
+            System.out.printf("Aplicando %d req/s por %d s (+%d s de aquecimento)...%n",
+                    configuracao.taxa(), configuracao.duracao(), configuracao.aquecimento());
+        }
+        Map<String, CargaMista.Medicao> medicoes = new CargaMista(configuracao, cliente, mapper, semeadura).executar();
+
+        String relatorio = relatorio(configuracao, semeadura, medicoes);
+        gravar(configuracao.saida(), relatorio);
+        gravar(Path.of(configuracao.saida() + ".hgrm"), distribuicoes(medicoes));
+        System.out.print(relatorio);
+        System.out.println("Relatório gravado em " + configuracao.saida());
+    }
+
+    private static String relatorio(ConfiguracaoCarga configuracao, Semeadura semeadura,
+                                    Map<String, CargaMista.Medicao> medicoes) {
+        StringBuilder texto = new StringBuilder();
+        // A taxa só vale com chegadas em ritmo fixo; com clientes, cada um espera a resposta antes da próxima requisição.
+        String modo = configuracao.clientes() > 0
+                ? String.format(Locale.ROOT, "modo=malha-fechada clientes=%d", configuracao.clientes())
+                : String.format(Locale.ROOT, "modo=chegada-fixa taxa=%d/s", configuracao.taxa());
+        texto.append(String.format(Locale.ROOT,
+                "# pessoas=%d tarefas=%d departamentos=%d %s operacoes=%s aquecimento=%ds duracao=%ds semente=%d%n",
+                configuracao.pessoas(), configuracao.tarefas(), configuracao.departamentos(), modo,
+                configuracao.operacoes(), configuracao.aquecimento(), configuracao.duracao(), configuracao.semente()));
+        for (Map.Entry<String, Long> tempo : semeadura.tempos.entrySet()) {
+            texto.append(String.format(Locale.ROOT, "# semeadura %s: %d ms%n", tempo.getKey(), tempo.getValue()));
+        }
+        long respondidas = medicoes.values().stream().mapToLong(medicao -> medicao.latenciasMicros.getTotalCount()).sum();
+        texto.append(String.format(Locale.ROOT, "# vazao: %.1f req/s%n", (double) respondidas / configuracao.duracao()));
+        texto.append(String.format(Locale.ROOT, "%-30s %8s %8s %8s %8s %8s %10s %10s %10s %10s%n",
+                "endpoint", "total", "2xx", "4xx", "falhas", "sem-alvo", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+        for (Map.Entry<String, CargaMista.Medicao> entrada : medicoes.entrySet()) {
+            CargaMista.Medicao medicao = entrada.getValue();
+            Histogram latencias = medicao.latenciasMicros;
+            texto.append(String.format(Locale.ROOT, "%-30s %8d %8d %8d %8d %8d %10.2f %10.2f %10.2f %10.2f%n",
+                    entrada.getKey(), latencias.getTotalCount(), medicao.sucessos.get(), medicao.rejeicoes.get(),
+                    medicao.falhas.get(), medicao.semAlvo.get(),
+                    milissegundos(latencias, 50.0), milissegundos(latencias, 99.0),
+                    milissegundos(latencias, 99.9), latencias.getMaxValue() / 1000.0));
+        }
+        return texto.toString();
+    }
+
+    private static String distribuicoes(Map<String, CargaMista.Medicao> medicoes) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (PrintStream impressao = new PrintStream(saida, true, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, CargaMista.Medicao> entrada : medicoes.entrySet()) {
+                impressao.println("## " + entrada.getKey());
+                // Valores gravados em microssegundos; a escala 1000.0 imprime milissegundos.
+                entrada.getValue().latenciasMicros.outputPercentileDistribution(impressao, 1000.0);
+                impressao.println();
+            }
+        }
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+
+    private static double milissegundos(Histogram latencias, double percentil) {
+        return latencias.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    private static void gravar(Path arquivo, String conteudo) throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        Files.writeString(arquivo, conteudo, StandardCharsets.UTF_8);
+    }
+}
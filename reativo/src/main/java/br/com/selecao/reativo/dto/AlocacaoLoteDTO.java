@@ -0,0 +1,12 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Resumo de {@code POST /tarefas/alocar-lote}.
+ *
+ * @param tarefasAlocadas    A quantidade de tarefas alocadas.
+ * @param tarefasNaoAlocadas A quantidade de tarefas pendentes que não puderam ser alocadas.
+ * @param makespan           A maior carga em aberto, em minutos, entre as pessoas dos departamentos do lote.
+ * @param tempoMs            O tempo do lote, em milissegundos.
+ */
+public record AlocacaoLoteDTO(int tarefasAlocadas, int tarefasNaoAlocadas, long makespan, long tempoMs) {
+}
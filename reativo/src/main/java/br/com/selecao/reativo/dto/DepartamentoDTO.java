@@ -0,0 +1,11 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Departamento com a quantidade de pessoas e de tarefas, em {@code GET /departamentos}.
+ *
+ * @param departamento      O nome do departamento.
+ * @param quantidadePessoas A quantidade de pessoas do departamento.
+ * @param quantidadeTarefas A quantidade de tarefas do departamento.
+ */
+public record DepartamentoDTO(String departamento, long quantidadePessoas, long quantidadeTarefas) {
+}
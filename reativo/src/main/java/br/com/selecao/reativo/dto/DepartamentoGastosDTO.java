@@ -0,0 +1,13 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Tarefas com prazo em um período de um departamento, em {@code GET /departamentos/gastos}.
+ *
+ * @param departamento          O nome do departamento.
+ * @param quantidadeTarefas     A quantidade de tarefas com prazo no período.
+ * @param totalMinutos          A soma das durações, em minutos.
+ * @param mediaMinutosPorTarefa A média de minutos por tarefa.
+ */
+public record DepartamentoGastosDTO(String departamento, long quantidadeTarefas, long totalMinutos,
+                                    double mediaMinutosPorTarefa) {
+}
@@ -0,0 +1,14 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Resumo das tarefas de um departamento, em {@code GET /departamentos/tarefas}.
+ *
+ * @param departamento          O nome do departamento, ou {@code null} para as tarefas sem departamento.
+ * @param quantidadeTarefas     A quantidade de tarefas.
+ * @param tarefasAbertas        A quantidade de tarefas não finalizadas.
+ * @param totalMinutos          A soma das durações, em minutos.
+ * @param mediaMinutosPorTarefa A média de minutos por tarefa.
+ */
+public record DepartamentoTarefasDTO(String departamento, long quantidadeTarefas, long tarefasAbertas,
+                                     long totalMinutos, double mediaMinutosPorTarefa) {
+}
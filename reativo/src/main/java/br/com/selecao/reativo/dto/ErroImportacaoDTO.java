@@ -0,0 +1,11 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Erro de uma importação em lote.
+ *
+ * @param lote      O número do lote, a partir de 1.
+ * @param registro  O número do registro no corpo, a partir de 1, ou {@code null} se o erro for do lote inteiro.
+ * @param mensagem  A descrição do erro.
+ */
+public record ErroImportacaoDTO(int lote, Long registro, String mensagem) {
+}
@@ -0,0 +1,12 @@
+package br.com.selecao.reativo.dto;
+
+import java.util.List;
+
+/**
+ * Resumo de {@code PUT /tarefas/finalizar}.
+ *
+ * @param tarefasFinalizadas    A quantidade de tarefas finalizadas por esta requisição.
+ * @param tarefasNaoEncontradas Os IDs da lista que não correspondem a nenhuma tarefa.
+ */
+public record FinalizacaoLoteDTO(int tarefasFinalizadas, List<Long> tarefasNaoEncontradas) {
+}
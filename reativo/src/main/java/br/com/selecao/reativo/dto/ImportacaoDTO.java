@@ -0,0 +1,19 @@
+package br.com.selecao.reativo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo de uma importação em lote NDJSON.
+ */
+public class ImportacaoDTO {
+    public long registrosLidos;
+
+    public long registrosImportados;
+
+    public int lotesGravados;
+
+    public long tempoMs;
+
+    public List<ErroImportacaoDTO> erros = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Pessoa com o total de horas das suas tarefas, em {@code GET /pessoas}.
+ *
+ * @param id               O ID da pessoa, também usado como cursor da paginação.
+ * @param nome             O nome da pessoa.
+ * @param departamento     O nome do departamento.
+ * @param totalHorasGastas O total de horas das tarefas da pessoa.
+ */
+public record PessoaComHorasDTO(Long id, String nome, String departamento, long totalHorasGastas) {
+}
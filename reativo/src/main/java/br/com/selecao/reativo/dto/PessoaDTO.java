@@ -0,0 +1,10 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Dados de entrada de uma pessoa, em {@code POST /pessoas}, {@code PUT /pessoas/{id}} e na importação.
+ *
+ * @param nome         O nome da pessoa.
+ * @param departamento O nome do departamento.
+ */
+public record PessoaDTO(String nome, String departamento) {
+}
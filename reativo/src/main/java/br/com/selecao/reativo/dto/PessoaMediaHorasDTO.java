@@ -0,0 +1,11 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Pessoa com a média de horas por tarefa em um período, em {@code GET /pessoas/gastos}.
+ *
+ * @param id                  O ID da pessoa, também usado como cursor da paginação.
+ * @param nome                O nome da pessoa.
+ * @param mediaHorasPorTarefa A média de horas por tarefa com prazo no período.
+ */
+public record PessoaMediaHorasDTO(Long id, String nome, double mediaHorasPorTarefa) {
+}
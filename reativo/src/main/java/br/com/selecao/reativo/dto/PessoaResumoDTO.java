@@ -0,0 +1,11 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Dados básicos de uma pessoa, sem as suas tarefas.
+ *
+ * @param id           O ID da pessoa.
+ * @param nome         O nome da pessoa.
+ * @param departamento O nome do departamento.
+ */
+public record PessoaResumoDTO(Long id, String nome, String departamento) {
+}
@@ -0,0 +1,14 @@
+package br.com.selecao.reativo.dto;
+
+/**
+ * Resumo das tarefas alocadas a uma pessoa, em {@code GET /pessoas/tarefas}.
+ *
+ * @param pessoaId              O ID da pessoa.
+ * @param quantidadeTarefas     A quantidade de tarefas.
+ * @param tarefasAbertas        A quantidade de tarefas não finalizadas.
+ * @param totalMinutos          A soma das durações, em minutos.
+ * @param mediaMinutosPorTarefa A média de minutos por tarefa.
+ */
+public record PessoaTarefasDTO(long pessoaId, long quantidadeTarefas, long tarefasAbertas, long totalMinutos,
+                               double mediaMinutosPorTarefa) {
+}
@@ -0,0 +1,17 @@
+package br.com.selecao.reativo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Dados de entrada de uma tarefa, em {@code POST /tarefas} e na importação.
+ *
+ * @param titulo          O título da tarefa.
+ * @param descricao       A descrição da tarefa.
+ * @param prazo           A data limite da tarefa.
+ * @param departamento    O nome do departamento.
+ * @param duracao         A duração da tarefa em minutos.
+ * @param pessoaAlocadaId O ID da pessoa a alocar na tarefa, ou {@code null}.
+ */
+public record TarefaDTO(String titulo, String descricao, LocalDate prazo, String departamento, int duracao,
+                        Long pessoaAlocadaId) {
+}
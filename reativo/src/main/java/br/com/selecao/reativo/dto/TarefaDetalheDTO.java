@@ -0,0 +1,19 @@
+package br.com.selecao.reativo.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Tarefa com o resumo da pessoa alocada.
+ *
+ * @param id            O ID da tarefa.
+ * @param titulo        O título da tarefa.
+ * @param descricao     A descrição da tarefa.
+ * @param prazo         A data limite da tarefa.
+ * @param departamento  O nome do departamento.
+ * @param duracao       A duração da tarefa em minutos.
+ * @param finalizado    Indica se a tarefa foi finalizada.
+ * @param pessoaAlocada A pessoa alocada, ou {@code null} se a tarefa estiver pendente.
+ */
+public record TarefaDetalheDTO(Long id, String titulo, String descricao, LocalDate prazo, String departamento,
+                               int duracao, boolean finalizado, PessoaResumoDTO pessoaAlocada) {
+}
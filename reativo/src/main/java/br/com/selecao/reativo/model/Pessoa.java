@@ -0,0 +1,25 @@
+package br.com.selecao.reativo.model;
+
+import io.quarkus.hibernate.reactive.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+
+/**
+ * Pessoa, mapeada sobre a mesma tabela da aplicação bloqueante.
+ * <p>
+ * O ID vem da sequence {@code Pessoa_SEQ}, em blocos de 50, como na entidade
+ * bloqueante. Não há a coleção de tarefas: com o Hibernate Reactive, cada
+ * carga lazy seria uma etapa assíncrona explícita, e os endpoints leem as
+ * tarefas por consultas.
+ * </p>
+ */
+@Entity
+public class Pessoa extends PanacheEntity {
+    public String nome;
+
+    /**
+     * O ID do departamento da pessoa, na tabela {@code Departamento}.
+     */
+    @Column(name = "departamento_id")
+    public Integer departamentoId;
+}
@@ -0,0 +1,42 @@
+package br.com.selecao.reativo.model;
+
+import io.quarkus.hibernate.reactive.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Version;
+
+import java.time.LocalDate;
+
+/**
+ * Tarefa, mapeada sobre a mesma tabela da aplicação bloqueante.
+ * <p>
+ * A pessoa alocada é mapeada apenas pelo ID ({@code pessoaAlocada_id}), sem a
+ * associação, pelo mesmo motivo da coleção ausente em {@link Pessoa}. A
+ * {@link #versao} é a mesma do controle de concorrência otimista da entidade
+ * bloqueante, e os {@code UPDATE}s feitos por SQL também a incrementam.
+ * </p>
+ */
+@Entity
+public class Tarefa extends PanacheEntity {
+    public String titulo;
+
+    public String descricao;
+
+    public LocalDate prazo;
+
+    @Column(name = "departamento_id")
+    public Integer departamentoId;
+
+    /**
+     * A duração da tarefa em minutos.
+     */
+    public int duracao;
+
+    public boolean finalizado;
+
+    @Column(name = "pessoaAlocada_id")
+    public Long pessoaAlocadaId;
+
+    @Version
+    public long versao;
+}
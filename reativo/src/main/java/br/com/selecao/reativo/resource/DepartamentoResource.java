@@ -0,0 +1,132 @@
+package br.com.selecao.reativo.resource;
+
+import br.com.selecao.reativo.dto.DepartamentoDTO;
+import br.com.selecao.reativo.service.GastosPorPeriodo;
+import br.com.selecao.reativo.service.ResumoTarefas;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recurso REST reativo com as informações consolidadas dos departamentos, com
+ * o mesmo contrato de {@code /departamentos} da aplicação bloqueante.
+ */
+@Path("/departamentos")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class DepartamentoResource {
+    /**
+     * Conta pessoas e tarefas por departamento, como na versão bloqueante, e lê
+     * o nome de cada departamento.
+     */
+    private static final String CONSULTA_DEPARTAMENTOS = """
+            SELECT d.nome, c.quantidade_pessoas, c.quantidade_tarefas FROM (
+                SELECT departamento_id, SUM(quantidade_pessoas) AS quantidade_pessoas,
+                       SUM(quantidade_tarefas) AS quantidade_tarefas
+                  FROM (SELECT departamento_id, COUNT(*) AS quantidade_pessoas, 0 AS quantidade_tarefas
+                          FROM Pessoa
+                         GROUP BY departamento_id
+                        UNION ALL
+                        SELECT departamento_id, 0, COUNT(*)
+                          FROM Tarefa
+                         GROUP BY departamento_id) contagens
+                 GROUP BY departamento_id
+            ) c
+              LEFT JOIN Departamento d ON d.id = c.departamento_id
+            """;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    @Inject
+    ResumoTarefas resumoTarefas;
+
+    /**
+     * Lista todos os departamentos com a contagem total de pessoas e tarefas.
+     *
+     * @return 200 OK com os departamentos.
+     */
+    @GET
+    @WithSession
+    public Uni<List<DepartamentoDTO>> listarDepartamentos() {
+        return Panache.getSession()
+                .chain(sessao -> sessao.<Object[]>createNativeQuery(CONSULTA_DEPARTAMENTOS).getResultList())
+                .map(linhas -> {
+                    List<DepartamentoDTO> resultado = new ArrayList<>(linhas.size());
+                    for (Object[] linha : linhas) {
+                        resultado.add(new DepartamentoDTO((String) linha[0], ((Number) linha[1]).longValue(),
+                                ((Number) linha[2]).longValue()));
+                    }
+                    return resultado;
+                });
+    }
+
+    /**
+     * Lista, por departamento, a quantidade de tarefas com prazo no período, o
+     * total de minutos e a média de minutos por tarefa.
+     *
+     * @param dataInicioStr A data de início do período (formato AAAA-MM-DD).
+     * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD).
+     * @return 200 OK com os gastos por departamento, ou 400 Bad Request se as datas forem inválidas.
+     */
+    @GET
+    @Path("/gastos")
+    @WithSession
+    public Uni<Response> buscarGastosPorDepartamento(
+            @QueryParam("dataInicio") String dataInicioStr,
+            @QueryParam("dataFim") String dataFimStr) {
+
+        if (dataInicioStr == null || dataFimStr == null) {
+            return Uni.createFrom().item(Respostas.dataInvalida());
+        }
+        LocalDate dataInicio;
+        LocalDate dataFim;
+        try {
+            dataInicio = LocalDate.parse(dataInicioStr);
+            dataFim = LocalDate.parse(dataFimStr);
+        } catch (DateTimeParseException e) {
+            return Uni.createFrom().item(Respostas.dataInvalida());
+        }
+
+        return Panache.getSession()
+                .chain(sessao -> gastosPorPeriodo.porDepartamento(sessao, dataInicio, dataFim))
+                .map(resultado -> Response.ok(resultado).build());
+    }
+
+    /**
+     * Resume as tarefas de cada departamento, opcionalmente apenas das tarefas
+     * com prazo em um período.
+     *
+     * @param dataInicioStr A data de início do período (formato AAAA-MM-DD), ou ausente.
+     * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD), ou ausente.
+     * @return 200 OK com o resumo por departamento, ou 400 Bad Request se apenas
+     *         uma das datas for informada ou se alguma for inválida.
+     */
+    @GET
+    @Path("/tarefas")
+    @WithSession
+    public Uni<Response> resumirTarefasPorDepartamento(
+            @QueryParam("dataInicio") String dataInicioStr,
+            @QueryParam("dataFim") String dataFimStr) {
+
+        Response invalido = Respostas.validarPeriodoOpcional(dataInicioStr, dataFimStr);
+        if (invalido != null) {
+            return Uni.createFrom().item(invalido);
+        }
+        LocalDate dataInicio = dataInicioStr == null ? null : LocalDate.parse(dataInicioStr);
+        LocalDate dataFim = dataFimStr == null ? null : LocalDate.parse(dataFimStr);
+
+        return Panache.getSession()
+                .chain(sessao -> resumoTarefas.porDepartamento(sessao, dataInicio, dataFim))
+                .map(resultado -> Response.ok(resultado).build());
+    }
+}
@@ -0,0 +1,310 @@
+package br.com.selecao.reativo.resource;
+
+import br.com.selecao.reativo.dto.PessoaComHorasDTO;
+import br.com.selecao.reativo.dto.PessoaDTO;
+import br.com.selecao.reativo.dto.PessoaResumoDTO;
+import br.com.selecao.reativo.model.Pessoa;
+import br.com.selecao.reativo.service.DicionarioDepartamentos;
+import br.com.selecao.reativo.service.GastosPorPeriodo;
+import br.com.selecao.reativo.service.ImportacaoService;
+import br.com.selecao.reativo.service.ResumoTarefas;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recurso REST reativo para gerenciar as Pessoas, com o mesmo contrato de
+ * {@code /pessoas} da aplicação bloqueante.
+ * <p>
+ * Os métodos rodam na thread de eventos e devolvem um {@link Uni}. As leituras
+ * usam a sessão aberta por {@link WithSession}; as gravações resolvem o
+ * departamento antes e abrem a sua própria transação, como na versão
+ * bloqueante.
+ * </p>
+ */
+@Path("/pessoas")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class PessoaResource {
+    /**
+     * Uma página das pessoas por ID, com o total de horas de
+     * {@code PessoaEstatistica} e o nome do departamento.
+     */
+    private static final String CONSULTA_PESSOAS_COM_HORAS = """
+            SELECT p.id, p.nome, d.nome AS departamento, coalesce(e.horasTotais, 0) AS horas
+              FROM Pessoa p
+              LEFT JOIN PessoaEstatistica e ON e.pessoa_id = p.id
+              LEFT JOIN Departamento d ON d.id = p.departamento_id
+             WHERE p.id > :after
+             ORDER BY p.id
+             LIMIT :limite
+            """;
+
+    private static final String CONSULTA_PESSOA = """
+            SELECT p.nome, d.nome AS departamento
+              FROM Pessoa p LEFT JOIN Departamento d ON d.id = p.departamento_id
+             WHERE p.id = :id
+            """;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    @Inject
+    ResumoTarefas resumoTarefas;
+
+    @Inject
+    ImportacaoService importacaoService;
+
+    @ConfigProperty(name = "gerenciador.pessoas.limite-padrao", defaultValue = "100")
+    int limitePadrao;
+
+    @ConfigProperty(name = "gerenciador.pessoas.limite-maximo", defaultValue = "1000")
+    int limiteMaximo;
+
+    /**
+     * Lista as pessoas, uma página por ID, com o total de horas gastas em suas tarefas.
+     *
+     * @param after   O ID a partir do qual a página começa (exclusivo). Padrão: 0.
+     * @param limit   A quantidade máxima de pessoas na página.
+     * @param uriInfo Informações da requisição, usadas para montar o link da próxima página.
+     * @return 200 OK com a página, e o cabeçalho {@code Link} (rel="next") se ela
+     *         estiver cheia, ou 400 Bad Request se o limite for inválido.
+     */
+    @GET
+    @WithSession
+    public Uni<Response> listarPessoas(
+            @QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") Integer limit,
+            @Context UriInfo uriInfo) {
+
+        int limite = limit == null ? limitePadrao : limit;
+        if (limite < 1 || limite > limiteMaximo) {
+            return Uni.createFrom().item(limiteInvalido());
+        }
+        UriBuilder proxima = uriInfo.getRequestUriBuilder();
+
+        return Panache.getSession()
+                .chain(sessao -> sessao.<Object[]>createNativeQuery(CONSULTA_PESSOAS_COM_HORAS)
+                        .setParameter("after", after)
+                        .setParameter("limite", limite)
+                        .getResultList())
+                .map(linhas -> {
+                    List<PessoaComHorasDTO> resultado = new ArrayList<>(linhas.size());
+                    for (Object[] linha : linhas) {
+                        resultado.add(new PessoaComHorasDTO(((Number) linha[0]).longValue(), (String) linha[1],
+                                (String) linha[2], ((Number) linha[3]).longValue()));
+                    }
+                    Long ultimoId = resultado.isEmpty() ? null : resultado.get(resultado.size() - 1).id();
+                    return pagina(resultado, resultado.size(), ultimoId, limite, proxima);
+                });
+    }
+
+    /**
+     * Busca uma única pessoa pelo seu ID.
+     *
+     * @param id O ID da pessoa.
+     * @return 200 OK com os dados da pessoa, ou 404 Not Found.
+     */
+    @GET
+    @Path("/{id}")
+    @WithSession
+    public Uni<Response> buscarPessoaPorId(@PathParam("id") Long id) {
+        return Panache.getSession()
+                .chain(sessao -> sessao.<Object[]>createNativeQuery(CONSULTA_PESSOA)
+                        .setParameter("id", id)
+                        .getResultList())
+                .map(linhas -> linhas.isEmpty()
+                        ? Response.status(Response.Status.NOT_FOUND).build()
+                        : Response.ok(new PessoaResumoDTO(id, (String) linhas.get(0)[0], (String) linhas.get(0)[1]))
+                                .build());
+    }
+
+    /**
+     * Busca pessoas por trecho do nome, uma página por ID, com a média de horas
+     * por tarefa com prazo no período.
+     *
+     * @param nome          O trecho do nome (ignora maiúsculas/minúsculas).
+     * @param dataInicioStr A data de início do período (formato AAAA-MM-DD).
+     * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD).
+     * @param after         O ID a partir do qual a página começa (exclusivo). Padrão: 0.
+     * @param limit         A quantidade máxima de pessoas na página.
+     * @param uriInfo       Informações da requisição, usadas para montar o link da próxima página.
+     * @return 200 OK com a página, ou 400 Bad Request se uma data ou o limite forem inválidos.
+     */
+    @GET
+    @Path("/gastos")
+    @WithSession
+    public Uni<Response> buscarGastosPorPessoa(
+            @QueryParam("nome") String nome,
+            @QueryParam("dataInicio") String dataInicioStr,
+            @QueryParam("dataFim") String dataFimStr,
+            @QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") Integer limit,
+            @Context UriInfo uriInfo) {
+
+        int limite = limit == null ? limitePadrao : limit;
+        if (limite < 1 || limite > limiteMaximo) {
+            return Uni.createFrom().item(limiteInvalido());
+        }
+
+        if (dataInicioStr == null || dataFimStr == null) {
+            return Uni.createFrom().item(Respostas.dataInvalida());
+        }
+        LocalDate dataInicio;
+        LocalDate dataFim;
+        try {
+            dataInicio = LocalDate.parse(dataInicioStr);
+            dataFim = LocalDate.parse(dataFimStr);
+        } catch (DateTimeParseException e) {
+            return Uni.createFrom().item(Respostas.dataInvalida());
+        }
+
+        String trecho = nome == null ? "" : nome.toLowerCase();
+        UriBuilder proxima = uriInfo.getRequestUriBuilder();
+
+        return Panache.getSession()
+                .chain(sessao -> gastosPorPeriodo.mediasPorPessoa(sessao, trecho, dataInicio, dataFim, after, limite))
+                .map(resultado -> {
+                    Long ultimoId = resultado.isEmpty() ? null : resultado.get(resultado.size() - 1).id();
+                    return pagina(resultado, resultado.size(), ultimoId, limite, proxima);
+                });
+    }
+
+    /**
+     * Resume as tarefas alocadas a cada pessoa, opcionalmente apenas das
+     * tarefas com prazo em um período.
+     *
+     * @param dataInicioStr A data de início do período (formato AAAA-MM-DD), ou ausente.
+     * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD), ou ausente.
+     * @return 200 OK com o resumo por pessoa, em ordem de ID, ou 400 Bad Request
+     *         se apenas uma das datas for informada ou se alguma for inválida.
+     */
+    @GET
+    @Path("/tarefas")
+    @WithSession
+    public Uni<Response> resumirTarefasPorPessoa(
+            @QueryParam("dataInicio") String dataInicioStr,
+            @QueryParam("dataFim") String dataFimStr) {
+
+        Response invalido = Respostas.validarPeriodoOpcional(dataInicioStr, dataFimStr);
+        if (invalido != null) {
+            return Uni.createFrom().item(invalido);
+        }
+        LocalDate dataInicio = dataInicioStr == null ? null : LocalDate.parse(dataInicioStr);
+        LocalDate dataFim = dataFimStr == null ? null : LocalDate.parse(dataFimStr);
+
+        return Panache.getSession()
+                .chain(sessao -> resumoTarefas.porPessoa(sessao, dataInicio, dataFim))
+                .map(resultado -> Response.ok(resultado).build());
+    }
+
+    /**
+     * Cria uma nova Pessoa. O departamento é resolvido antes da transação que grava a pessoa.
+     *
+     * @param pessoaDTO Os dados da nova pessoa.
+     * @return 201 Created com os dados da pessoa criada.
+     */
+    @POST
+    public Uni<Response> adicionarPessoa(PessoaDTO pessoaDTO) {
+        return departamentos.registrar(pessoaDTO.departamento())
+                .chain(departamentoId -> Panache.withTransaction(() -> {
+                    Pessoa novaPessoa = new Pessoa();
+                    novaPessoa.nome = pessoaDTO.nome();
+                    novaPessoa.departamentoId = departamentoId;
+                    return novaPessoa.<Pessoa>persist();
+                }))
+                .map(pessoa -> Response.status(Response.Status.CREATED)
+                        .entity(new PessoaResumoDTO(pessoa.id, pessoa.nome, pessoaDTO.departamento()))
+                        .build());
+    }
+
+    /**
+     * Importa pessoas em lote a partir de um corpo NDJSON, com um {@link PessoaDTO} por linha.
+     *
+     * @param corpo O corpo da requisição.
+     * @return 200 OK com o resumo da importação e os erros por lote.
+     */
+    @POST
+    @Path("/importacao")
+    @Consumes(TarefaResource.APPLICATION_NDJSON)
+    public Uni<Response> importarPessoas(String corpo) {
+        return importacaoService.importarPessoas(corpo)
+                .map(resultado -> Response.ok(resultado).build());
+    }
+
+    /**
+     * Atualiza os dados de uma pessoa existente. Como na criação, o departamento
+     * é resolvido antes da transação.
+     *
+     * @param id        O ID da pessoa.
+     * @param pessoaDTO Os novos dados da pessoa.
+     * @return 200 OK com os dados da pessoa atualizada, ou 404 Not Found.
+     */
+    @PUT
+    @Path("/{id}")
+    public Uni<Response> alterarPessoa(@PathParam("id") Long id, PessoaDTO pessoaDTO) {
+        return departamentos.registrar(pessoaDTO.departamento())
+                .chain(departamentoId -> Panache.withTransaction(() -> Pessoa.<Pessoa>findById(id)
+                        .map(pessoa -> {
+                            if (pessoa == null) {
+                                return Response.status(Response.Status.NOT_FOUND).build();
+                            }
+                            // As alterações são salvas ao final da transação.
+                            pessoa.nome = pessoaDTO.nome();
+                            pessoa.departamentoId = departamentoId;
+                            return Response.ok(new PessoaResumoDTO(pessoa.id, pessoa.nome, pessoaDTO.departamento()))
+                                    .build();
+                        })));
+    }
+
+    /**
+     * Remove uma pessoa pelo seu ID. Os totais da pessoa são removidos pelo
+     * banco na mesma transação ({@code ON DELETE CASCADE}).
+     *
+     * @param id O ID da pessoa.
+     * @return 204 No Content em caso de sucesso, ou 404 Not Found.
+     */
+    @DELETE
+    @Path("/{id}")
+    public Uni<Response> removerPessoa(@PathParam("id") Long id) {
+        return Panache.withTransaction(() -> Pessoa.deleteById(id))
+                .map(removida -> removida
+                        ? Response.noContent().build()
+                        : Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    /**
+     * Monta a resposta de uma página, com o link da próxima quando ela está cheia.
+     */
+    private static Response pagina(Object resultado, int tamanho, Long ultimoId, int limite, UriBuilder proxima) {
+        Response.ResponseBuilder resposta = Response.ok(resultado);
+        if (tamanho == limite) {
+            resposta.link(proxima.replaceQueryParam("after", ultimoId)
+                                 .replaceQueryParam("limit", limite)
+                                 .build(), "next");
+        }
+        return resposta.build();
+    }
+
+    private Response limiteInvalido() {
+        return Response.status(Response.Status.BAD_REQUEST)
+                       .entity("O parâmetro limit deve estar entre 1 e " + limiteMaximo + ".")
+                       .build();
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.selecao.reativo.resource;
+
+import jakarta.ws.rs.core.Response;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Respostas de erro de validação comuns aos recursos, com as mesmas mensagens
+ * da aplicação bloqueante.
+ */
+final class Respostas {
+    private Respostas() {
+    }
+
+    static Response dataInvalida() {
+        return Response.status(Response.Status.BAD_REQUEST)
+                       .entity("Formato de data inválido. Use o padrão AAAA-MM-DD.")
+                       .build();
+    }
+
+    /**
+     * Valida um período opcional: as duas datas, ou nenhuma.
+     *
+     * @param dataInicioStr A data de início (formato AAAA-MM-DD), ou {@code null}.
+     * @param dataFimStr    A data de fim (formato AAAA-MM-DD), ou {@code null}.
+     * @return A resposta 400 Bad Request, ou {@code null} se o período for válido.
+     */
+    static Response validarPeriodoOpcional(String dataInicioStr, String dataFimStr) {
+        if ((dataInicioStr == null) != (dataFimStr == null)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("Informe dataInicio e dataFim, ou nenhuma das duas.")
+                           .build();
+        }
+        try {
+            if (dataInicioStr != null) {
+                LocalDate.parse(dataInicioStr);
+                LocalDate.parse(dataFimStr);
+            }
+        } catch (DateTimeParseException e) {
+            return dataInvalida();
+        }
+        return null;
+    }
+}
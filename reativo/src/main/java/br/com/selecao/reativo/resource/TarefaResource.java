@@ -0,0 +1,353 @@
+package br.com.selecao.reativo.resource;
+
+import br.com.selecao.reativo.dto.FinalizacaoLoteDTO;
+import br.com.selecao.reativo.dto.PessoaResumoDTO;
+import br.com.selecao.reativo.dto.TarefaDTO;
+import br.com.selecao.reativo.dto.TarefaDetalheDTO;
+import br.com.selecao.reativo.model.Tarefa;
+import br.com.selecao.reativo.service.AlocacaoService;
+import br.com.selecao.reativo.service.DicionarioDepartamentos;
+import br.com.selecao.reativo.service.ImportacaoService;
+import br.com.selecao.reativo.service.TarefaService;
+import br.com.selecao.reativo.service.TotaisTarefas;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.quarkus.hibernate.reactive.panache.common.WithSession;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.http.HttpServerResponse;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.reactive.mutiny.Mutiny;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recurso REST reativo para gerenciar as Tarefas, com o mesmo contrato de
+ * {@code /tarefas} da aplicação bloqueante.
+ * <p>
+ * Cada alteração de estado é um único {@code UPDATE} condicional de
+ * {@link TarefaService}, na transação aberta pelo próprio método. As
+ * finalizações são sempre imediatas: não há a fila de finalizações nem os
+ * modos agrupado e adiado da versão bloqueante.
+ * </p>
+ */
+@Path("/tarefas")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class TarefaResource {
+    /**
+     * Tipo de mídia NDJSON (JSON delimitado por quebras de linha), o mesmo da versão bloqueante.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final String CONSULTA_TAREFAS = TarefaService.PROJECAO + "  FROM Tarefa t\n"
+            + TarefaService.JUNCOES + " ORDER BY t.id";
+
+    /**
+     * Uma página da listagem em fluxo, por ID.
+     */
+    private static final String CONSULTA_PAGINA = TarefaService.PROJECAO + "  FROM Tarefa t\n"
+            + TarefaService.JUNCOES + " WHERE t.id > :after ORDER BY t.id LIMIT :limite";
+
+    /**
+     * As tarefas pendentes com os prazos mais antigos (sem prazo por último),
+     * pelo índice parcial {@code idx_tarefa_pendente_prazo}.
+     */
+    private static final String CONSULTA_PENDENTES = TarefaService.PROJECAO + "  FROM Tarefa t\n"
+            + TarefaService.JUNCOES + " WHERE t.pessoaAlocada_id IS NULL ORDER BY t.prazo, t.id LIMIT :limite";
+
+    private static final String CONSULTA_PESSOA = """
+            SELECT p.nome, d.nome AS departamento
+              FROM Pessoa p LEFT JOIN Departamento d ON d.id = p.departamento_id
+             WHERE p.id = :id
+            """;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    TarefaService tarefaService;
+
+    @Inject
+    AlocacaoService alocacaoService;
+
+    @Inject
+    ImportacaoService importacaoService;
+
+    @Inject
+    TotaisTarefas totais;
+
+    @ConfigProperty(name = "gerenciador.tarefas.fluxo.tamanho-busca", defaultValue = "500")
+    int tamanhoBusca;
+
+    @ConfigProperty(name = "gerenciador.alocacao.tentativas", defaultValue = "3")
+    int tentativasAlocacao;
+
+    /**
+     * Maior quantidade de IDs distintos em {@code PUT /tarefas/finalizar}, a
+     * capacidade da fila de finalizações da versão bloqueante.
+     */
+    @ConfigProperty(name = "gerenciador.finalizacao.tamanho-maximo", defaultValue = "10000")
+    int tamanhoMaximoFinalizacao;
+
+    @ConfigProperty(name = "gerenciador.tarefas.pendentes.limite-padrao", defaultValue = "3")
+    int limitePendentesPadrao;
+
+    @ConfigProperty(name = "gerenciador.tarefas.pendentes.limite-maximo", defaultValue = "100")
+    int limitePendentesMaximo;
+
+    /**
+     * Cria uma nova tarefa, opcionalmente já alocada a uma pessoa.
+     * <p>
+     * O departamento é resolvido antes da transação; na transação, a pessoa é
+     * lida, a tarefa é gravada e os totais são somados.
+     * </p>
+     *
+     * @param tarefaDTO Os dados da nova tarefa.
+     * @return 201 Created com a tarefa criada, ou 404 Not Found se a pessoa informada não existir.
+     */
+    @POST
+    public Uni<Response> adicionarTarefa(TarefaDTO tarefaDTO) {
+        return departamentos.registrar(tarefaDTO.departamento())
+                .chain(departamentoId -> Panache.withTransaction(() -> Panache.getSession().chain(sessao ->
+                        pessoa(sessao, tarefaDTO.pessoaAlocadaId()).chain(pessoa -> {
+                            if (tarefaDTO.pessoaAlocadaId() != null && pessoa == null) {
+                                return Uni.createFrom().item(Response.status(Response.Status.NOT_FOUND)
+                                        .entity("Pessoa com id " + tarefaDTO.pessoaAlocadaId() + " não encontrada.")
+                                        .build());
+                            }
+
+                            Tarefa novaTarefa = new Tarefa();
+                            novaTarefa.titulo = tarefaDTO.titulo();
+                            novaTarefa.descricao = tarefaDTO.descricao();
+                            novaTarefa.prazo = tarefaDTO.prazo();
+                            novaTarefa.departamentoId = departamentoId;
+                            novaTarefa.duracao = tarefaDTO.duracao();
+                            novaTarefa.pessoaAlocadaId = tarefaDTO.pessoaAlocadaId();
+                            novaTarefa.finalizado = false;
+
+                            return sessao.persist(novaTarefa)
+                                    .call(sessao::flush)
+                                    .call(() -> totais.criadas(sessao, List.of(novaTarefa.id)))
+                                    .map(gravada -> Response.status(Response.Status.CREATED)
+                                            .entity(new TarefaDetalheDTO(novaTarefa.id, novaTarefa.titulo,
+                                                    novaTarefa.descricao, novaTarefa.prazo, tarefaDTO.departamento(),
+                                                    novaTarefa.duracao, false, pessoa))
+                                            .build());
+                        }))));
+    }
+
+    /**
+     * Importa tarefas em lote a partir de um corpo NDJSON, com um {@link TarefaDTO} por linha.
+     *
+     * @param corpo O corpo da requisição.
+     * @return 200 OK com o resumo da importação e os erros por lote.
+     */
+    @POST
+    @Path("/importacao")
+    @Consumes(APPLICATION_NDJSON)
+    public Uni<Response> importarTarefas(String corpo) {
+        return importacaoService.importarTarefas(corpo)
+                .map(resultado -> Response.ok(resultado).build());
+    }
+
+    /**
+     * Lista todas as tarefas, com o resumo da pessoa alocada.
+     *
+     * @return 200 OK com as tarefas, em ordem de ID.
+     */
+    @GET
+    @WithSession
+    public Uni<List<TarefaDetalheDTO>> listarTarefas() {
+        return Panache.getSession()
+                .chain(sessao -> sessao.<Object[]>createNativeQuery(CONSULTA_TAREFAS).getResultList())
+                .map(TarefaResource::tarefas);
+    }
+
+    /**
+     * Lista todas as tarefas em NDJSON, uma por linha, à medida que são lidas.
+     * <p>
+     * As tarefas são lidas em páginas de {@code gerenciador.tarefas.fluxo.tamanho-busca}
+     * tarefas por ID, cada página em sua própria sessão, e a página seguinte só
+     * é lida quando o cliente consome a anterior. Se o cliente se desconectar,
+     * nenhuma outra página é lida. Se a leitura de uma página falhar depois de
+     * o status ter sido enviado, a conexão é encerrada, para que o cliente veja
+     * a resposta incompleta em vez de esperar indefinidamente pelo restante.
+     * </p>
+     *
+     * @param resposta A resposta HTTP, encerrada se o fluxo falhar no meio.
+     * @return O fluxo das tarefas, em ordem de ID.
+     */
+    @GET
+    @Path("/fluxo")
+    @Produces(APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<TarefaDetalheDTO> listarTarefasEmFluxo(@Context HttpServerResponse resposta) {
+        return Multi.createBy().repeating()
+                .uni(() -> new long[1], ultimoId -> Panache.withSession(() -> Panache.getSession()
+                                .chain(sessao -> sessao.<Object[]>createNativeQuery(CONSULTA_PAGINA)
+                                        .setParameter("after", ultimoId[0])
+                                        .setParameter("limite", tamanhoBusca)
+                                        .getResultList()))
+                        .map(linhas -> {
+                            List<TarefaDetalheDTO> pagina = tarefas(linhas);
+                            if (!pagina.isEmpty()) {
+                                ultimoId[0] = pagina.get(pagina.size() - 1).id();
+                            }
+                            return pagina;
+                        }))
+                // A página incompleta é a última, e também é emitida.
+                .whilst(pagina -> pagina.size() == tamanhoBusca)
+                .onItem().<TarefaDetalheDTO>disjoint()
+                .onFailure().invoke(e -> {
+                    if (resposta.headWritten()) {
+                        resposta.reset();
+                    }
+                });
+    }
+
+    /**
+     * Marca uma tarefa como finalizada.
+     *
+     * @param id O ID da tarefa.
+     * @return 200 OK com a tarefa, finalizada agora ou antes, ou 404 Not Found.
+     */
+    @PUT
+    @Path("/finalizar/{id}")
+    public Uni<Response> finalizarTarefa(@PathParam("id") Long id) {
+        return Panache.withTransaction(() -> Panache.getSession().chain(sessao ->
+                        tarefaService.finalizar(sessao, id).chain(finalizada -> finalizada != null
+                                ? Uni.createFrom().item(finalizada)
+                                // Se nada foi alterado, a tarefa não existe ou já estava finalizada.
+                                : tarefaService.buscar(sessao, id))))
+                .map(tarefa -> tarefa == null
+                        ? Response.status(Response.Status.NOT_FOUND).build()
+                        : Response.ok(tarefa).build());
+    }
+
+    /**
+     * Finaliza de uma vez uma lista de tarefas, com um único comando.
+     *
+     * @param ids Os IDs das tarefas.
+     * @return 200 OK com a quantidade finalizada e os IDs não encontrados, ou
+     *         400 Bad Request se a lista estiver vazia, tiver nulos ou for grande demais.
+     */
+    @PUT
+    @Path("/finalizar")
+    public Uni<Response> finalizarTarefas(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Informe uma lista com os IDs das tarefas.")
+                    .build());
+        }
+        List<Long> distintos = ids.stream().distinct().toList();
+        if (distintos.size() > tamanhoMaximoFinalizacao) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("A lista deve ter no máximo " + tamanhoMaximoFinalizacao + " tarefas.")
+                    .build());
+        }
+
+        return Panache.withTransaction(() -> Panache.getSession()
+                        .chain(sessao -> tarefaService.finalizarTodas(sessao, distintos)))
+                .map(naoEncontradas -> Response.ok(new FinalizacaoLoteDTO(distintos.size() - naoEncontradas.size(),
+                        List.copyOf(naoEncontradas))).build());
+    }
+
+    /**
+     * Aloca a tarefa para a pessoa com a menor carga de trabalho em aberto no
+     * departamento da tarefa.
+     *
+     * @param id O ID da tarefa.
+     * @return 200 OK com a tarefa alocada; 404 Not Found se a tarefa não existir ou
+     *         se não houver pessoas no departamento; 400 Bad Request se a tarefa já
+     *         estiver alocada; 409 Conflict se as tentativas se esgotarem.
+     */
+    @PUT
+    @Path("/alocar/{id}")
+    public Uni<Response> alocarPessoaNaTarefa(@PathParam("id") Long id) {
+        return Panache.withTransaction(() -> Panache.getSession()
+                        .chain(sessao -> alocacaoService.alocar(sessao, id, tentativasAlocacao)))
+                .map(alocacao -> {
+                    if (alocacao.erro() == null) {
+                        return Response.ok(alocacao.tarefa()).build();
+                    }
+                    return switch (alocacao.erro()) {
+                        case TAREFA_NAO_ENCONTRADA -> Response.status(Response.Status.NOT_FOUND)
+                                .entity("Tarefa não encontrada.").build();
+                        case TAREFA_ALOCADA -> Response.status(Response.Status.BAD_REQUEST)
+                                .entity("Esta tarefa já está alocada.").build();
+                        case SEM_PESSOAS -> Response.status(Response.Status.NOT_FOUND)
+                                .entity("Nenhuma pessoa disponível no departamento: " + alocacao.departamento())
+                                .build();
+                        case TENTATIVAS_ESGOTADAS -> Response.status(Response.Status.CONFLICT)
+                                .entity("Não foi possível alocar a tarefa após " + tentativasAlocacao + " tentativas.")
+                                .build();
+                    };
+                });
+    }
+
+    /**
+     * Aloca de uma só vez todas as tarefas pendentes que têm departamento.
+     *
+     * @return 200 OK com o resumo do lote.
+     */
+    @POST
+    @Path("/alocar-lote")
+    @Consumes(MediaType.WILDCARD)
+    public Uni<Response> alocarTarefasPendentesEmLote() {
+        return Panache.withTransaction(() -> Panache.getSession().chain(alocacaoService::alocarPendentes))
+                .map(resultado -> Response.ok(resultado).build());
+    }
+
+    /**
+     * Lista as tarefas pendentes com os prazos mais antigos.
+     *
+     * @param limit A quantidade máxima de tarefas.
+     * @return 200 OK com as tarefas, ou 400 Bad Request se o limite for inválido.
+     */
+    @GET
+    @Path("/pendentes")
+    @WithSession
+    public Uni<Response> listarTarefasPendentes(@QueryParam("limit") Integer limit) {
+        int quantidade = limit == null ? limitePendentesPadrao : limit;
+        if (quantidade < 1 || quantidade > limitePendentesMaximo) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("O parâmetro limit deve estar entre 1 e " + limitePendentesMaximo + ".")
+                    .build());
+        }
+
+        return Panache.getSession()
+                .chain(sessao -> sessao.<Object[]>createNativeQuery(CONSULTA_PENDENTES)
+                        .setParameter("limite", quantidade)
+                        .getResultList())
+                .map(linhas -> Response.ok(tarefas(linhas)).build());
+    }
+
+    /**
+     * Lê o resumo da pessoa a alocar em uma tarefa nova.
+     *
+     * @return O resumo, ou {@code null} se o ID for {@code null} ou a pessoa não existir.
+     */
+    private static Uni<PessoaResumoDTO> pessoa(Mutiny.Session sessao, Long id) {
+        if (id == null) {
+            return Uni.createFrom().nullItem();
+        }
+        return sessao.<Object[]>createNativeQuery(CONSULTA_PESSOA)
+                .setParameter("id", id)
+                .getResultList()
+                .map(linhas -> linhas.isEmpty() ? null
+                        : new PessoaResumoDTO(id, (String) linhas.get(0)[0], (String) linhas.get(0)[1]));
+    }
+
+    private static List<TarefaDetalheDTO> tarefas(List<Object[]> linhas) {
+        List<TarefaDetalheDTO> tarefas = new ArrayList<>(linhas.size());
+        linhas.forEach(linha -> tarefas.add(TarefaService.tarefa(linha)));
+        return tarefas;
+    }
+}
@@ -0,0 +1,271 @@
+package br.com.selecao.reativo.service;
+
+import br.com.selecao.reativo.dto.AlocacaoLoteDTO;
+import br.com.selecao.reativo.dto.TarefaDetalheDTO;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Alocação de tarefas à pessoa do departamento com a menor carga de trabalho
+ * em aberto (a soma das durações das suas tarefas não finalizadas).
+ * <p>
+ * A versão bloqueante mantém as cargas em memória e serializa as escolhas de
+ * cada departamento com uma trava local. Aqui as cargas são calculadas pelo
+ * banco a cada escolha, pelo índice {@code idx_tarefa_pessoa_prazo}, e a trava
+ * do departamento é uma trava consultiva do PostgreSQL
+ * ({@code pg_advisory_xact_lock}), mantida até o fim da transação: duas
+ * alocações no mesmo departamento não escolhem a mesma pessoa com a mesma
+ * carga, e nenhuma thread espera pela trava, apenas a transação no banco.
+ * </p>
+ */
+@ApplicationScoped
+public class AlocacaoService {
+    /**
+     * Primeira chave das travas consultivas de departamento, para não colidir
+     * com outras travas consultivas do banco.
+     */
+    private static final int CLASSE_TRAVA = 1;
+
+    /**
+     * O {@code CAST} dá ao resultado um tipo que o cliente reativo sabe ler,
+     * pois a função não devolve valor.
+     */
+    private static final String TRAVA_DEPARTAMENTO =
+            "SELECT CAST(pg_advisory_xact_lock(:classe, :departamento) AS text)";
+
+    private static final String CONSULTA_TAREFA = """
+            SELECT t.departamento_id, t.pessoaAlocada_id, d.nome
+              FROM Tarefa t LEFT JOIN Departamento d ON d.id = t.departamento_id
+             WHERE t.id = :id
+            """;
+
+    /**
+     * Carga em aberto de cada pessoa dos departamentos informados.
+     */
+    private static final String CONSULTA_CARGAS = """
+            SELECT p.id, p.departamento_id, c.carga
+              FROM Pessoa p
+              CROSS JOIN LATERAL (SELECT coalesce(sum(t.duracao), 0) AS carga FROM Tarefa t
+                                   WHERE t.pessoaAlocada_id = p.id AND NOT t.finalizado) c
+             WHERE p.departamento_id IN (:departamentos)
+            """;
+
+    private static final String CONSULTA_MENOS_CARREGADA = CONSULTA_CARGAS + " ORDER BY c.carga, p.id LIMIT 1";
+
+    /**
+     * Tarefas pendentes que têm departamento, como na versão bloqueante.
+     */
+    private static final String CONSULTA_PENDENTES = """
+            SELECT id, departamento_id, prazo, duracao FROM Tarefa
+             WHERE pessoaAlocada_id IS NULL AND departamento_id IS NOT NULL
+            """;
+
+    /**
+     * Ordem em que as tarefas de um lote são distribuídas, a mesma da versão
+     * bloqueante: prazo mais próximo primeiro (sem prazo por último), depois a
+     * mais longa primeiro.
+     */
+    private static final Comparator<Pendente> ORDEM_DO_LOTE = Comparator
+            .comparing(Pendente::prazo, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(Comparator.comparingInt(Pendente::duracao).reversed())
+            .thenComparingLong(Pendente::id);
+
+    @Inject
+    TarefaService tarefaService;
+
+    /**
+     * Resultado de uma alocação individual.
+     *
+     * @param tarefa       A tarefa alocada, ou {@code null} se a alocação não foi feita.
+     * @param erro         O motivo de a alocação não ter sido feita, ou {@code null}.
+     * @param departamento O nome do departamento da tarefa.
+     */
+    public record Alocacao(TarefaDetalheDTO tarefa, Erro erro, String departamento) {
+        static Alocacao falha(Erro erro, String departamento) {
+            return new Alocacao(null, erro, departamento);
+        }
+    }
+
+    /**
+     * Motivos pelos quais uma alocação individual não é feita.
+     */
+    public enum Erro {
+        TAREFA_NAO_ENCONTRADA, TAREFA_ALOCADA, SEM_PESSOAS, TENTATIVAS_ESGOTADAS
+    }
+
+    private record Pendente(long id, int departamento, LocalDate prazo, int duracao) {
+    }
+
+    private record Carga(long pessoaId, long carga) {
+    }
+
+    /**
+     * Aloca uma tarefa para a pessoa menos carregada do seu departamento.
+     * <p>
+     * A alocação é gravada pelo {@code UPDATE} condicional de
+     * {@link TarefaService#alocar}. Se nada for alterado com a tarefa ainda
+     * pendente, a pessoa escolhida deixou de existir, e a próxima é escolhida,
+     * até {@code tentativas} vezes.
+     * </p>
+     *
+     * @param sessao     A sessão da transação atual.
+     * @param id         O ID da tarefa.
+     * @param tentativas A quantidade máxima de pessoas escolhidas.
+     * @return O resultado da alocação.
+     */
+    public Uni<Alocacao> alocar(Mutiny.Session sessao, Long id, int tentativas) {
+        return sessao.<Object[]>createNativeQuery(CONSULTA_TAREFA)
+                .setParameter("id", id)
+                .getResultList()
+                .chain(linhas -> {
+                    if (linhas.isEmpty()) {
+                        return Uni.createFrom().item(Alocacao.falha(Erro.TAREFA_NAO_ENCONTRADA, null));
+                    }
+                    Object[] tarefa = linhas.get(0);
+                    String nome = (String) tarefa[2];
+                    if (tarefa[1] != null) {
+                        return Uni.createFrom().item(Alocacao.falha(Erro.TAREFA_ALOCADA, nome));
+                    }
+                    if (tarefa[0] == null) {
+                        return Uni.createFrom().item(Alocacao.falha(Erro.SEM_PESSOAS, nome));
+                    }
+                    int departamento = ((Number) tarefa[0]).intValue();
+                    return travar(sessao, departamento).chain(() -> tentar(sessao, id, departamento, nome, tentativas));
+                });
+    }
+
+    private Uni<Alocacao> tentar(Mutiny.Session sessao, Long id, int departamento, String nome,
+                                 int tentativasRestantes) {
+        if (tentativasRestantes == 0) {
+            return Uni.createFrom().item(Alocacao.falha(Erro.TENTATIVAS_ESGOTADAS, nome));
+        }
+        return sessao.<Object[]>createNativeQuery(CONSULTA_MENOS_CARREGADA)
+                .setParameter("departamentos", List.of(departamento))
+                .getResultList()
+                .chain(pessoas -> {
+                    if (pessoas.isEmpty()) {
+                        return Uni.createFrom().item(Alocacao.falha(Erro.SEM_PESSOAS, nome));
+                    }
+                    long pessoaId = ((Number) pessoas.get(0)[0]).longValue();
+                    return tarefaService.alocar(sessao, List.of(id), pessoaId).chain(alocadas -> {
+                        if (!alocadas.isEmpty()) {
+                            return Uni.createFrom().item(new Alocacao(alocadas.get(0), null, nome));
+                        }
+                        // Nada foi alterado: a tarefa foi alocada ou removida por
+                        // outra requisição, ou a pessoa escolhida não existe mais.
+                        return sessao.<Object[]>createNativeQuery(CONSULTA_TAREFA)
+                                .setParameter("id", id)
+                                .getResultList()
+                                .chain(atual -> {
+                                    if (atual.isEmpty()) {
+                                        return Uni.createFrom().item(Alocacao.falha(Erro.TAREFA_NAO_ENCONTRADA, nome));
+                                    }
+                                    if (atual.get(0)[1] != null) {
+                                        return Uni.createFrom().item(Alocacao.falha(Erro.TAREFA_ALOCADA, nome));
+                                    }
+                                    return tentar(sessao, id, departamento, nome, tentativasRestantes - 1);
+                                });
+                    });
+                });
+    }
+
+    /**
+     * Aloca de uma só vez todas as tarefas pendentes que têm departamento.
+     * <p>
+     * Em cada departamento, as tarefas são distribuídas na mesma ordem e pelo
+     * mesmo critério da versão bloqueante. As travas dos departamentos são
+     * tomadas em ordem de ID, e as atribuições são gravadas com um
+     * {@code UPDATE} por pessoa, todas na transação da sessão.
+     * </p>
+     *
+     * @param sessao A sessão da transação atual.
+     * @return O resumo do lote.
+     */
+    public Uni<AlocacaoLoteDTO> alocarPendentes(Mutiny.Session sessao) {
+        long inicio = System.nanoTime();
+        return sessao.<Object[]>createNativeQuery(CONSULTA_PENDENTES).getResultList().chain(linhas -> {
+            Map<Integer, List<Pendente>> pendentesPorDepartamento = new TreeMap<>();
+            for (Object[] linha : linhas) {
+                Pendente pendente = new Pendente(((Number) linha[0]).longValue(), ((Number) linha[1]).intValue(),
+                        (LocalDate) linha[2], linha[3] == null ? 0 : ((Number) linha[3]).intValue());
+                pendentesPorDepartamento.computeIfAbsent(pendente.departamento(), d -> new ArrayList<>()).add(pendente);
+            }
+            if (pendentesPorDepartamento.isEmpty()) {
+                return Uni.createFrom().item(new AlocacaoLoteDTO(0, 0, 0, tempoMs(inicio)));
+            }
+
+            return Multi.createFrom().iterable(pendentesPorDepartamento.keySet())
+                    .onItem().transformToUniAndConcatenate(departamento -> travar(sessao, departamento))
+                    .collect().last()
+                    .chain(() -> sessao.<Object[]>createNativeQuery(CONSULTA_CARGAS)
+                            .setParameter("departamentos", pendentesPorDepartamento.keySet())
+                            .getResultList())
+                    .chain(cargas -> distribuirEGravar(sessao, pendentesPorDepartamento, cargas, inicio));
+        });
+    }
+
+    private Uni<AlocacaoLoteDTO> distribuirEGravar(Mutiny.Session sessao, Map<Integer, List<Pendente>> pendentes,
+                                                  List<Object[]> linhasCargas, long inicio) {
+        Comparator<Carga> menosCarregada = Comparator.comparingLong(Carga::carga).thenComparingLong(Carga::pessoaId);
+        Map<Integer, PriorityQueue<Carga>> filas = new TreeMap<>();
+        for (Object[] linha : linhasCargas) {
+            filas.computeIfAbsent(((Number) linha[1]).intValue(), d -> new PriorityQueue<>(menosCarregada))
+                    .add(new Carga(((Number) linha[0]).longValue(), ((Number) linha[2]).longValue()));
+        }
+
+        int totalPendentes = 0;
+        long makespan = 0;
+        Map<Long, List<Long>> tarefasPorPessoa = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Pendente>> departamento : pendentes.entrySet()) {
+            totalPendentes += departamento.getValue().size();
+            PriorityQueue<Carga> fila = filas.get(departamento.getKey());
+            if (fila == null) {
+                continue;
+            }
+            List<Pendente> ordenadas = new ArrayList<>(departamento.getValue());
+            ordenadas.sort(ORDEM_DO_LOTE);
+            for (Pendente tarefa : ordenadas) {
+                Carga pessoa = fila.poll();
+                fila.add(new Carga(pessoa.pessoaId(), pessoa.carga() + tarefa.duracao()));
+                tarefasPorPessoa.computeIfAbsent(pessoa.pessoaId(), p -> new ArrayList<>()).add(tarefa.id());
+            }
+            for (Carga pessoa : fila) {
+                makespan = Math.max(makespan, pessoa.carga());
+            }
+        }
+
+        int pendentesTotal = totalPendentes;
+        long maiorCarga = makespan;
+        return Multi.createFrom().iterable(tarefasPorPessoa.entrySet())
+                .onItem().transformToUniAndConcatenate(atribuicao ->
+                        tarefaService.alocar(sessao, atribuicao.getValue(), atribuicao.getKey()).map(List::size))
+                .collect().with(Collectors.summingInt(Integer::intValue))
+                .map(alocadas -> new AlocacaoLoteDTO(alocadas, pendentesTotal - alocadas, maiorCarga, tempoMs(inicio)));
+    }
+
+    private static Uni<Void> travar(Mutiny.Session sessao, int departamento) {
+        return sessao.createNativeQuery(TRAVA_DEPARTAMENTO)
+                .setParameter("classe", CLASSE_TRAVA)
+                .setParameter("departamento", departamento)
+                .getSingleResult()
+                .replaceWithVoid();
+    }
+
+    private static long tempoMs(long inicio) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+}
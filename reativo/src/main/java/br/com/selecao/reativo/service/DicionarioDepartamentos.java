@@ -0,0 +1,64 @@
+package br.com.selecao.reativo.service;
+
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IDs dos departamentos por nome, usados ao gravar pessoas e tarefas.
+ * <p>
+ * Diferente do dicionário da versão bloqueante, guarda apenas o sentido nome
+ * para ID: as respostas trazem o nome do departamento pelo {@code JOIN} com a
+ * tabela {@code Departamento} na própria consulta, sem uma etapa assíncrona a
+ * mais para resolvê-lo.
+ * </p>
+ */
+@ApplicationScoped
+public class DicionarioDepartamentos {
+    /**
+     * Grava o departamento, se ainda não existir, e devolve o seu ID, como na
+     * versão bloqueante.
+     */
+    private static final String INSERCAO_DEPARTAMENTO = """
+            INSERT INTO Departamento (nome) VALUES (:nome)
+            ON CONFLICT (nome) DO UPDATE SET nome = EXCLUDED.nome
+            RETURNING id
+            """;
+
+    private final Map<String, Integer> idPorNome = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna o ID de um departamento, criando-o se ainda não existir.
+     * <p>
+     * O departamento novo é gravado em uma transação própria, que deve ser
+     * aberta antes da transação da requisição: o {@code ON CONFLICT DO UPDATE}
+     * trava a linha do departamento até o fim da transação, e, dentro da
+     * transação da requisição, todas as criações no mesmo departamento
+     * esperariam umas pelas outras.
+     * </p>
+     *
+     * @param nome O nome do departamento, ou {@code null}.
+     * @return O ID do departamento, ou {@code null} se o nome for {@code null}.
+     */
+    public Uni<Integer> registrar(String nome) {
+        if (nome == null) {
+            return Uni.createFrom().nullItem();
+        }
+        Integer id = idPorNome.get(nome);
+        if (id != null) {
+            return Uni.createFrom().item(id);
+        }
+        return Panache.withTransaction(() -> Panache.getSession().chain(sessao -> sessao
+                        .createNativeQuery(INSERCAO_DEPARTAMENTO)
+                        .setParameter("nome", nome)
+                        .getSingleResult()))
+                .map(criado -> {
+                    int departamentoId = ((Number) criado).intValue();
+                    idPorNome.put(nome, departamentoId);
+                    return departamentoId;
+                });
+    }
+}
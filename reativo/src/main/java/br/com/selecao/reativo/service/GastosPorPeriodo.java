@@ -0,0 +1,155 @@
+package br.com.selecao.reativo.service;
+
+import br.com.selecao.reativo.dto.DepartamentoGastosDTO;
+import br.com.selecao.reativo.dto.PessoaMediaHorasDTO;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Médias e somas de tarefas por prazo, lidas dos baldes diários e mensais
+ * ({@code GastoPessoa} e {@code GastoDepartamento}) com as mesmas consultas da
+ * versão bloqueante. Os baldes são mantidos por {@link TotaisTarefas}.
+ */
+@ApplicationScoped
+public class GastosPorPeriodo {
+    /**
+     * Baldes que compõem um período: os meses inteiros em
+     * {@code [:mesInicial, :mesFinal)} e os dias das bordas.
+     */
+    private static final String BALDES_PESSOA = """
+            SELECT horas, tarefas FROM GastoPessoa
+             WHERE pessoa_id = p.id AND mensal AND inicio >= :mesInicial AND inicio < :mesFinal
+            UNION ALL
+            SELECT horas, tarefas FROM GastoPessoa
+             WHERE pessoa_id = p.id AND NOT mensal AND inicio >= :dataInicio AND inicio < :mesInicial
+            UNION ALL
+            SELECT horas, tarefas FROM GastoPessoa
+             WHERE pessoa_id = p.id AND NOT mensal AND inicio >= :mesFinal AND inicio <= :dataFim
+            """;
+
+    /**
+     * Busca uma página das pessoas por trecho do nome e soma, apenas para as
+     * pessoas da página, os baldes do período.
+     */
+    private static final String CONSULTA_PESSOAS = """
+            SELECT p.id, p.nome, coalesce(g.horas, 0) AS horas, coalesce(g.tarefas, 0) AS tarefas
+              FROM (SELECT id, nome FROM Pessoa
+                     WHERE lower(nome) LIKE :nome AND id > :after
+                     ORDER BY id
+                     LIMIT :limite) p
+              LEFT JOIN LATERAL (SELECT sum(horas) AS horas, sum(tarefas) AS tarefas FROM (
+            """ + BALDES_PESSOA + """
+                   ) baldes) g ON true
+             ORDER BY p.id
+            """;
+
+    /**
+     * Soma os baldes do período de todos os departamentos, com todas as faixas
+     * de cada balde, e lê o nome de cada departamento.
+     */
+    private static final String CONSULTA_DEPARTAMENTOS = """
+            SELECT d.nome, g.horas, g.tarefas FROM (
+                SELECT departamento_id, sum(horas) AS horas, sum(tarefas) AS tarefas FROM (
+                    SELECT departamento_id, horas, tarefas FROM GastoDepartamento
+                     WHERE mensal AND inicio >= :mesInicial AND inicio < :mesFinal
+                    UNION ALL
+                    SELECT departamento_id, horas, tarefas FROM GastoDepartamento
+                     WHERE NOT mensal AND inicio >= :dataInicio AND inicio < :mesInicial
+                    UNION ALL
+                    SELECT departamento_id, horas, tarefas FROM GastoDepartamento
+                     WHERE NOT mensal AND inicio >= :mesFinal AND inicio <= :dataFim
+                ) baldes
+                 GROUP BY departamento_id
+                HAVING sum(tarefas) > 0
+            ) g
+              JOIN Departamento d ON d.id = g.departamento_id
+             ORDER BY g.departamento_id
+            """;
+
+    /**
+     * Limites de um período, calculados como na versão bloqueante.
+     */
+    private record Periodo(LocalDate dataInicio, LocalDate dataFim, LocalDate mesInicial, LocalDate mesFinal) {
+        static Periodo de(LocalDate dataInicio, LocalDate dataFim) {
+            LocalDate diaSeguinte = dataFim.plusDays(1);
+            LocalDate mesInicial = dataInicio.getDayOfMonth() == 1 ? dataInicio : dataInicio.withDayOfMonth(1).plusMonths(1);
+            LocalDate mesFinal = diaSeguinte.withDayOfMonth(1);
+            if (!mesInicial.isBefore(mesFinal)) {
+                mesInicial = diaSeguinte;
+                mesFinal = diaSeguinte;
+            }
+            return new Periodo(dataInicio, dataFim, mesInicial, mesFinal);
+        }
+
+        Mutiny.SelectionQuery<Object[]> parametros(Mutiny.SelectionQuery<Object[]> consulta) {
+            return consulta.setParameter("dataInicio", dataInicio)
+                    .setParameter("dataFim", dataFim)
+                    .setParameter("mesInicial", mesInicial)
+                    .setParameter("mesFinal", mesFinal);
+        }
+    }
+
+    /**
+     * Calcula a média de horas por tarefa, com prazo no período, de cada pessoa
+     * cujo nome contém o trecho informado, uma página por vez.
+     *
+     * @param sessao     A sessão atual.
+     * @param trecho     O trecho do nome, em letras minúsculas.
+     * @param dataInicio O primeiro dia do período.
+     * @param dataFim    O último dia do período.
+     * @param after      O ID a partir do qual a página começa (exclusivo).
+     * @param limite     A quantidade máxima de pessoas na página.
+     * @return As pessoas encontradas, em ordem de ID; pessoas sem tarefas no período têm média zero.
+     */
+    public Uni<List<PessoaMediaHorasDTO>> mediasPorPessoa(Mutiny.Session sessao, String trecho, LocalDate dataInicio,
+                                                          LocalDate dataFim, long after, int limite) {
+        return Periodo.de(dataInicio, dataFim)
+                .parametros(sessao.createNativeQuery(CONSULTA_PESSOAS))
+                .setParameter("nome", "%" + trecho + "%")
+                .setParameter("after", after)
+                .setParameter("limite", limite)
+                .getResultList()
+                .map(linhas -> {
+                    List<PessoaMediaHorasDTO> resultado = new ArrayList<>(linhas.size());
+                    for (Object[] linha : linhas) {
+                        resultado.add(new PessoaMediaHorasDTO(((Number) linha[0]).longValue(), (String) linha[1],
+                                media(((Number) linha[2]).longValue(), ((Number) linha[3]).longValue())));
+                    }
+                    return resultado;
+                });
+    }
+
+    /**
+     * Soma a duração, em minutos, e as tarefas, com prazo no período, de cada departamento.
+     *
+     * @param sessao     A sessão atual.
+     * @param dataInicio O primeiro dia do período.
+     * @param dataFim    O último dia do período.
+     * @return Os departamentos com tarefas no período, em ordem de ID.
+     */
+    public Uni<List<DepartamentoGastosDTO>> porDepartamento(Mutiny.Session sessao, LocalDate dataInicio,
+                                                            LocalDate dataFim) {
+        return Periodo.de(dataInicio, dataFim)
+                .parametros(sessao.createNativeQuery(CONSULTA_DEPARTAMENTOS))
+                .getResultList()
+                .map(linhas -> {
+                    List<DepartamentoGastosDTO> resultado = new ArrayList<>(linhas.size());
+                    for (Object[] linha : linhas) {
+                        long minutos = ((Number) linha[1]).longValue();
+                        long tarefas = ((Number) linha[2]).longValue();
+                        resultado.add(new DepartamentoGastosDTO((String) linha[0], tarefas, minutos,
+                                media(minutos, tarefas)));
+                    }
+                    return resultado;
+                });
+    }
+
+    private static double media(long horas, long tarefas) {
+        return tarefas == 0 ? 0.0 : (double) horas / tarefas;
+    }
+}
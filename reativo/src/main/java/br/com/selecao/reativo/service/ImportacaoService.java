@@ -0,0 +1,272 @@
+package br.com.selecao.reativo.service;
+
+import br.com.selecao.reativo.dto.ErroImportacaoDTO;
+import br.com.selecao.reativo.dto.ImportacaoDTO;
+import br.com.selecao.reativo.dto.PessoaDTO;
+import br.com.selecao.reativo.dto.TarefaDTO;
+import br.com.selecao.reativo.model.Pessoa;
+import br.com.selecao.reativo.model.Tarefa;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.hibernate.reactive.panache.Panache;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.reactive.mutiny.Mutiny;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Importação em lote de pessoas e tarefas a partir de NDJSON (um objeto JSON
+ * por linha), com os mesmos lotes, resumo e mensagens de erro da versão bloqueante.
+ * <p>
+ * Diferente da versão bloqueante, que lê o corpo de forma incremental, o corpo
+ * chega inteiro: ler um {@code InputStream} bloquearia a thread de eventos.
+ * Os lotes são gravados um após o outro, cada um em sua própria transação, com
+ * as entidades persistidas em lotes de {@code INSERT}s
+ * ({@code quarkus.hibernate-orm.jdbc.statement-batch-size}).
+ * </p>
+ */
+@ApplicationScoped
+public class ImportacaoService {
+    private static final Logger LOG = Logger.getLogger(ImportacaoService.class);
+
+    private static final String CONSULTA_PESSOAS_EXISTENTES = "SELECT id FROM Pessoa WHERE id IN (:ids)";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    TotaisTarefas totais;
+
+    /**
+     * Quantidade de registros gravados em cada transação.
+     */
+    @ConfigProperty(name = "gerenciador.importacao.tamanho-lote", defaultValue = "5000")
+    int tamanhoLote;
+
+    /**
+     * Grava os registros de um lote na transação da sessão e retorna quantos
+     * foram gravados. Erros de registros individuais devem ser acrescentados à
+     * lista de erros.
+     */
+    @FunctionalInterface
+    private interface GravadorLote<T> {
+        Uni<Integer> gravar(Mutiny.Session sessao, Lote<T> lote, List<ErroImportacaoDTO> erros);
+    }
+
+    /**
+     * Um lote de registros lidos do corpo da requisição.
+     *
+     * @param numero           O número do lote, começando em 1.
+     * @param primeiroRegistro A posição no arquivo do primeiro registro do lote.
+     * @param registros        Os registros do lote.
+     * @param departamentoIds  O ID de cada departamento citado pelos registros, por nome.
+     */
+    private record Lote<T>(int numero, long primeiroRegistro, List<T> registros,
+                           Map<String, Integer> departamentoIds) {
+    }
+
+    /**
+     * Importa pessoas a partir de um corpo NDJSON de {@link PessoaDTO}.
+     *
+     * @param corpo O corpo da requisição.
+     * @return O resumo da importação.
+     */
+    public Uni<ImportacaoDTO> importarPessoas(String corpo) {
+        return importar(corpo, PessoaDTO.class, PessoaDTO::departamento, this::gravarPessoas);
+    }
+
+    /**
+     * Importa tarefas a partir de um corpo NDJSON de {@link TarefaDTO}.
+     *
+     * @param corpo O corpo da requisição.
+     * @return O resumo da importação.
+     */
+    public Uni<ImportacaoDTO> importarTarefas(String corpo) {
+        return importar(corpo, TarefaDTO.class, TarefaDTO::departamento, this::gravarTarefas);
+    }
+
+    /**
+     * Lê os registros do corpo e os grava lote a lote.
+     * <p>
+     * Como na versão bloqueante, um registro com JSON malformado interrompe a
+     * leitura, e os lotes anteriores a ele, inclusive o que estava sendo
+     * montado, ainda são gravados.
+     * </p>
+     */
+    private <T> Uni<ImportacaoDTO> importar(String corpo, Class<T> tipo, Function<T, String> departamento,
+                                            GravadorLote<T> gravador) {
+        long inicio = System.nanoTime();
+        ImportacaoDTO resultado = new ImportacaoDTO();
+
+        List<T> registros = new ArrayList<>();
+        ErroImportacaoDTO erroLeitura = null;
+        try (MappingIterator<T> leitor = objectMapper.readerFor(tipo).readValues(corpo)) {
+            while (leitor.hasNextValue()) {
+                registros.add(leitor.nextValue());
+            }
+        } catch (IOException e) {
+            erroLeitura = new ErroImportacaoDTO(registros.size() / tamanhoLote + 1, (long) registros.size() + 1,
+                    "Registro inválido, importação interrompida: " + e.getMessage());
+        }
+        resultado.registrosLidos = registros.size();
+
+        // Os lotes completos são gravados antes de o erro de leitura ser registrado, e o incompleto depois.
+        List<Lote<T>> lotes = new ArrayList<>();
+        for (int primeiro = 0; primeiro < registros.size(); primeiro += tamanhoLote) {
+            lotes.add(new Lote<>(lotes.size() + 1, primeiro + 1L,
+                    registros.subList(primeiro, Math.min(primeiro + tamanhoLote, registros.size())), new HashMap<>()));
+        }
+        Lote<T> incompleto = lotes.isEmpty() || lotes.get(lotes.size() - 1).registros().size() == tamanhoLote
+                ? null : lotes.remove(lotes.size() - 1);
+        ErroImportacaoDTO erro = erroLeitura;
+
+        return Multi.createFrom().iterable(lotes)
+                .onItem().transformToUniAndConcatenate(lote -> gravarLote(lote, departamento, gravador, resultado))
+                .collect().last()
+                .invoke(() -> {
+                    if (erro != null) {
+                        resultado.erros.add(erro);
+                    }
+                })
+                .chain(() -> incompleto == null ? Uni.createFrom().voidItem()
+                        : gravarLote(incompleto, departamento, gravador, resultado))
+                .map(gravado -> {
+                    resultado.tempoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                    LOG.infof("Importação de %s: %d registros lidos, %d importados em %d ms.",
+                            tipo.getSimpleName(), resultado.registrosLidos, resultado.registrosImportados,
+                            resultado.tempoMs);
+                    return resultado;
+                });
+    }
+
+    /**
+     * Obtém o ID de cada departamento citado pelo lote, criando os que ainda
+     * não existem, e grava o lote em uma transação própria. Se a gravação
+     * falhar, o lote inteiro é descartado e o erro é registrado no resultado.
+     */
+    private <T> Uni<Void> gravarLote(Lote<T> lote, Function<T, String> departamento, GravadorLote<T> gravador,
+                                     ImportacaoDTO resultado) {
+        Set<String> nomes = new HashSet<>();
+        for (T registro : lote.registros()) {
+            String nome = departamento.apply(registro);
+            if (nome != null) {
+                nomes.add(nome);
+            }
+        }
+
+        List<ErroImportacaoDTO> errosDoLote = new ArrayList<>();
+        return Multi.createFrom().iterable(nomes)
+                .onItem().transformToUniAndConcatenate(nome -> departamentos.registrar(nome)
+                        .invoke(id -> lote.departamentoIds().put(nome, id)))
+                .collect().last()
+                .chain(() -> Panache.withTransaction(() -> Panache.getSession()
+                        .chain(sessao -> gravador.gravar(sessao, lote, errosDoLote))))
+                .invoke(gravados -> {
+                    resultado.registrosImportados += gravados;
+                    resultado.lotesGravados++;
+                    resultado.erros.addAll(errosDoLote);
+                })
+                .onFailure().invoke(e -> LOG.warnf(e, "Lote %d da importação descartado.", lote.numero()))
+                .onFailure().recoverWithItem(e -> {
+                    resultado.erros.add(new ErroImportacaoDTO(lote.numero(), null,
+                            "Lote descartado: " + mensagemDaCausa(e)));
+                    return 0;
+                })
+                .replaceWithVoid();
+    }
+
+    private Uni<Integer> gravarPessoas(Mutiny.Session sessao, Lote<PessoaDTO> lote, List<ErroImportacaoDTO> erros) {
+        List<Pessoa> pessoas = new ArrayList<>(lote.registros().size());
+        for (PessoaDTO dto : lote.registros()) {
+            Pessoa pessoa = new Pessoa();
+            pessoa.nome = dto.nome();
+            pessoa.departamentoId = lote.departamentoIds().get(dto.departamento());
+            pessoas.add(pessoa);
+        }
+        return sessao.persistAll(pessoas.toArray())
+                .call(sessao::flush)
+                .replaceWith(pessoas.size());
+    }
+
+    private Uni<Integer> gravarTarefas(Mutiny.Session sessao, Lote<TarefaDTO> lote, List<ErroImportacaoDTO> erros) {
+        return pessoasExistentes(sessao, lote.registros()).chain(pessoasExistentes -> {
+            // Descarta os registros que referenciam pessoas inexistentes.
+            List<Tarefa> tarefas = new ArrayList<>(lote.registros().size());
+            for (int i = 0; i < lote.registros().size(); i++) {
+                TarefaDTO dto = lote.registros().get(i);
+                if (dto.pessoaAlocadaId() != null && !pessoasExistentes.contains(dto.pessoaAlocadaId())) {
+                    erros.add(new ErroImportacaoDTO(lote.numero(), lote.primeiroRegistro() + i,
+                            "Pessoa com id " + dto.pessoaAlocadaId() + " não encontrada."));
+                    continue;
+                }
+                Tarefa tarefa = new Tarefa();
+                tarefa.titulo = dto.titulo();
+                tarefa.descricao = dto.descricao();
+                tarefa.prazo = dto.prazo();
+                tarefa.departamentoId = lote.departamentoIds().get(dto.departamento());
+                tarefa.duracao = dto.duracao();
+                tarefa.pessoaAlocadaId = dto.pessoaAlocadaId();
+                tarefas.add(tarefa);
+            }
+            if (tarefas.isEmpty()) {
+                return Uni.createFrom().item(0);
+            }
+
+            return sessao.persistAll(tarefas.toArray())
+                    .call(sessao::flush)
+                    .chain(() -> {
+                        List<Long> ids = new ArrayList<>(tarefas.size());
+                        tarefas.forEach(tarefa -> ids.add(tarefa.id));
+                        return totais.criadas(sessao, ids);
+                    })
+                    .replaceWith(tarefas.size());
+        });
+    }
+
+    /**
+     * Verifica, com uma única consulta, quais das pessoas referenciadas pelo lote existem.
+     */
+    private static Uni<Set<Long>> pessoasExistentes(Mutiny.Session sessao, List<TarefaDTO> tarefas) {
+        Set<Long> referenciadas = new HashSet<>();
+        for (TarefaDTO tarefa : tarefas) {
+            if (tarefa.pessoaAlocadaId() != null) {
+                referenciadas.add(tarefa.pessoaAlocadaId());
+            }
+        }
+        if (referenciadas.isEmpty()) {
+            return Uni.createFrom().item(new HashSet<>());
+        }
+        return sessao.createNativeQuery(CONSULTA_PESSOAS_EXISTENTES)
+                .setParameter("ids", referenciadas)
+                .getResultList()
+                .map(linhas -> {
+                    Set<Long> existentes = new HashSet<>();
+                    linhas.forEach(id -> existentes.add(((Number) id).longValue()));
+                    return existentes;
+                });
+    }
+
+    private static String mensagemDaCausa(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        return causa.getMessage();
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.selecao.reativo.service;
+
+import br.com.selecao.reativo.dto.DepartamentoTarefasDTO;
+import br.com.selecao.reativo.dto.PessoaTarefasDTO;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumos das tarefas por pessoa e por departamento, calculados pelo banco.
+ * <p>
+ * A versão bloqueante calcula estes resumos sobre uma cópia em colunas das
+ * tarefas mantida em memória e atualizada pelos eventos das alterações. Aqui
+ * cada resumo é uma consulta: sem período, o resumo por pessoa lê os totais
+ * pré-agregados de {@code PessoaEstatistica}; com período, e no resumo por
+ * departamento, as tarefas são agregadas pelo {@code GROUP BY}.
+ * </p>
+ */
+@ApplicationScoped
+public class ResumoTarefas {
+    private static final String TOTAIS_PESSOAS = """
+            SELECT pessoa_id, quantidadeTarefas, tarefasAbertas, horasTotais
+              FROM PessoaEstatistica
+             WHERE quantidadeTarefas > 0
+             ORDER BY pessoa_id
+            """;
+
+    private static final String TOTAIS_PESSOAS_NO_PERIODO = """
+            SELECT pessoaAlocada_id, count(*) AS tarefas, count(*) FILTER (WHERE NOT finalizado) AS abertas,
+                   coalesce(sum(duracao), 0) AS minutos
+              FROM Tarefa
+             WHERE pessoaAlocada_id IS NOT NULL AND prazo >= :dataInicio AND prazo <= :dataFim
+             GROUP BY pessoaAlocada_id
+             ORDER BY pessoaAlocada_id
+            """;
+
+    private static final String TOTAIS_DEPARTAMENTOS = """
+            SELECT d.nome, g.tarefas, g.abertas, g.minutos FROM (
+                SELECT departamento_id, count(*) AS tarefas, count(*) FILTER (WHERE NOT finalizado) AS abertas,
+                       coalesce(sum(duracao), 0) AS minutos
+                  FROM Tarefa
+                 %s
+                 GROUP BY departamento_id
+            ) g
+              LEFT JOIN Departamento d ON d.id = g.departamento_id
+             ORDER BY g.departamento_id NULLS FIRST
+            """;
+
+    private static final String NO_PERIODO = "WHERE prazo >= :dataInicio AND prazo <= :dataFim";
+
+    /**
+     * Conta e soma as tarefas alocadas a cada pessoa.
+     *
+     * @param sessao     A sessão atual.
+     * @param dataInicio O primeiro dia do período, ou {@code null} para todas as tarefas.
+     * @param dataFim    O último dia do período, ou {@code null} para todas as tarefas.
+     * @return As pessoas com tarefas, em ordem de ID.
+     */
+    public Uni<List<PessoaTarefasDTO>> porPessoa(Mutiny.Session sessao, LocalDate dataInicio, LocalDate dataFim) {
+        Mutiny.SelectionQuery<Object[]> consulta = dataInicio == null
+                ? sessao.createNativeQuery(TOTAIS_PESSOAS)
+                : sessao.<Object[]>createNativeQuery(TOTAIS_PESSOAS_NO_PERIODO)
+                        .setParameter("dataInicio", dataInicio)
+                        .setParameter("dataFim", dataFim);
+        return consulta.getResultList().map(linhas -> {
+            List<PessoaTarefasDTO> resultado = new ArrayList<>(linhas.size());
+            for (Object[] linha : linhas) {
+                long tarefas = ((Number) linha[1]).longValue();
+                long minutos = ((Number) linha[3]).longValue();
+                resultado.add(new PessoaTarefasDTO(((Number) linha[0]).longValue(), tarefas,
+                        ((Number) linha[2]).longValue(), minutos, (double) minutos / tarefas));
+            }
+            return resultado;
+        });
+    }
+
+    /**
+     * Conta e soma as tarefas de cada departamento.
+     *
+     * @param sessao     A sessão atual.
+     * @param dataInicio O primeiro dia do período, ou {@code null} para todas as tarefas.
+     * @param dataFim    O último dia do período, ou {@code null} para todas as tarefas.
+     * @return Os departamentos com tarefas, em ordem de ID; as tarefas sem
+     *         departamento, se houver, vêm primeiro, com departamento {@code null}.
+     */
+    public Uni<List<DepartamentoTarefasDTO>> porDepartamento(Mutiny.Session sessao, LocalDate dataInicio,
+                                                             LocalDate dataFim) {
+        Mutiny.SelectionQuery<Object[]> consulta = dataInicio == null
+                ? sessao.createNativeQuery(TOTAIS_DEPARTAMENTOS.formatted(""))
+                : sessao.<Object[]>createNativeQuery(TOTAIS_DEPARTAMENTOS.formatted(NO_PERIODO))
+                        .setParameter("dataInicio", dataInicio)
+                        .setParameter("dataFim", dataFim);
+        return consulta.getResultList().map(linhas -> {
+            List<DepartamentoTarefasDTO> resultado = new ArrayList<>(linhas.size());
+            for (Object[] linha : linhas) {
+                long tarefas = ((Number) linha[1]).longValue();
+                long minutos = ((Number) linha[3]).longValue();
+                resultado.add(new DepartamentoTarefasDTO((String) linha[0], tarefas,
+                        ((Number) linha[2]).longValue(), minutos, (double) minutos / tarefas));
+            }
+            return resultado;
+        });
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.selecao.reativo.service;
+
+import br.com.selecao.reativo.dto.PessoaResumoDTO;
+import br.com.selecao.reativo.dto.TarefaDetalheDTO;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Leituras e alterações de estado de tarefas, cada uma em um único comando
+ * SQL, com os mesmos {@code UPDATE}s condicionais da versão bloqueante.
+ * <p>
+ * O {@code RETURNING} devolve a tarefa alterada, já com o resumo da pessoa
+ * alocada e os nomes dos departamentos, sem uma consulta antes nem depois. Os
+ * métodos recebem a sessão da transação atual; os totais das pessoas são
+ * atualizados apenas quando a linha foi de fato alterada.
+ * </p>
+ */
+@ApplicationScoped
+public class TarefaService {
+    /**
+     * Colunas da tarefa e do resumo da pessoa alocada, lidas de uma tabela ou
+     * de um {@code UPDATE ... RETURNING} de apelido {@code t}. Cada coluna tem
+     * um apelido próprio, pois os nomes se repetem entre as tabelas.
+     */
+    public static final String PROJECAO = """
+            SELECT t.id AS tarefa_id, t.titulo, t.descricao, t.prazo, dt.nome AS tarefa_departamento,
+                   t.duracao, t.finalizado, t.pessoaAlocada_id AS pessoa_id, p.nome AS pessoa_nome,
+                   dp.nome AS pessoa_departamento
+            """;
+
+    /**
+     * Pessoa alocada e departamentos, para a {@link #PROJECAO}.
+     */
+    public static final String JUNCOES = """
+              LEFT JOIN Pessoa p ON p.id = t.pessoaAlocada_id
+              LEFT JOIN Departamento dt ON dt.id = t.departamento_id
+              LEFT JOIN Departamento dp ON dp.id = p.departamento_id
+            """;
+
+    private static final String RETORNO = """
+            RETURNING id, titulo, descricao, prazo, departamento_id, duracao, finalizado, pessoaAlocada_id)
+            """;
+
+    private static final String CONSULTA_TAREFA = PROJECAO + "  FROM Tarefa t\n" + JUNCOES + " WHERE t.id = :id";
+
+    /**
+     * Finaliza a tarefa apenas se ela ainda não estiver finalizada e, no mesmo
+     * comando, desconta uma tarefa aberta da pessoa alocada.
+     */
+    private static final String FINALIZACAO = """
+            WITH t AS (
+                UPDATE Tarefa SET finalizado = true, versao = versao + 1
+                 WHERE id IN (:ids) AND finalizado = false
+            """ + RETORNO + """
+            , abertas AS (
+                UPDATE PessoaEstatistica e SET tarefasAbertas = e.tarefasAbertas - f.quantidade
+                  FROM (SELECT pessoaAlocada_id, count(*) AS quantidade FROM t
+                         WHERE pessoaAlocada_id IS NOT NULL GROUP BY pessoaAlocada_id) f
+                 WHERE e.pessoa_id = f.pessoaAlocada_id)
+            """ + PROJECAO + "  FROM t\n" + JUNCOES;
+
+    /**
+     * Aloca a tarefa apenas se ela continuar pendente e se a pessoa ainda existir.
+     */
+    private static final String ALOCACAO = """
+            WITH t AS (
+                UPDATE Tarefa SET pessoaAlocada_id = :pessoa, versao = versao + 1
+                 WHERE id IN (:ids) AND pessoaAlocada_id IS NULL
+                   AND EXISTS (SELECT 1 FROM Pessoa WHERE id = :pessoa)
+            """ + RETORNO + PROJECAO + "  FROM t\n" + JUNCOES;
+
+    private static final String CONSULTA_EXISTENTES = "SELECT id FROM Tarefa WHERE id IN (:ids)";
+
+    @Inject
+    TotaisTarefas totais;
+
+    /**
+     * Lê uma tarefa, sem carregar a entidade.
+     *
+     * @param sessao A sessão atual.
+     * @param id     O ID da tarefa.
+     * @return A tarefa, ou {@code null} se ela não existir.
+     */
+    public Uni<TarefaDetalheDTO> buscar(Mutiny.Session sessao, Long id) {
+        return sessao.<Object[]>createNativeQuery(CONSULTA_TAREFA)
+                .setParameter("id", id)
+                .getResultList()
+                .map(linhas -> linhas.isEmpty() ? null : tarefa(linhas.get(0)));
+    }
+
+    /**
+     * Marca a tarefa como finalizada, se ainda não estiver.
+     *
+     * @param sessao A sessão da transação atual.
+     * @param id     O ID da tarefa.
+     * @return A tarefa finalizada, ou {@code null} se ela não existir ou já estiver finalizada.
+     */
+    public Uni<TarefaDetalheDTO> finalizar(Mutiny.Session sessao, Long id) {
+        return executar(sessao, FINALIZACAO, List.of(id), null)
+                .map(tarefas -> tarefas.isEmpty() ? null : tarefas.get(0));
+    }
+
+    /**
+     * Finaliza de uma vez, com um único comando, as tarefas da lista que ainda
+     * não estiverem finalizadas.
+     *
+     * @param sessao A sessão da transação atual.
+     * @param ids    Os IDs das tarefas, sem repetições.
+     * @return Os IDs da lista que não correspondem a nenhuma tarefa.
+     */
+    public Uni<Set<Long>> finalizarTodas(Mutiny.Session sessao, Collection<Long> ids) {
+        return executar(sessao, FINALIZACAO, ids, null).chain(finalizadas -> {
+            Set<Long> naoEncontradas = new HashSet<>(ids);
+            finalizadas.forEach(tarefa -> naoEncontradas.remove(tarefa.id()));
+            if (naoEncontradas.isEmpty()) {
+                return Uni.createFrom().item(naoEncontradas);
+            }
+            // As demais já estavam finalizadas ou não existem.
+            return sessao.createNativeQuery(CONSULTA_EXISTENTES)
+                    .setParameter("ids", naoEncontradas)
+                    .getResultList()
+                    .map(existentes -> {
+                        existentes.forEach(existente -> naoEncontradas.remove(((Number) existente).longValue()));
+                        return naoEncontradas;
+                    });
+        });
+    }
+
+    /**
+     * Aloca a pessoa nas tarefas que estiverem pendentes, se a pessoa existir,
+     * e soma as tarefas alocadas aos totais da pessoa.
+     *
+     * @param sessao   A sessão da transação atual.
+     * @param ids      Os IDs das tarefas.
+     * @param pessoaId O ID da pessoa.
+     * @return As tarefas alocadas; vazia se nenhuma estava pendente ou se a pessoa não existir.
+     */
+    public Uni<List<TarefaDetalheDTO>> alocar(Mutiny.Session sessao, Collection<Long> ids, Long pessoaId) {
+        return executar(sessao, ALOCACAO, ids, pessoaId).call(alocadas -> {
+            List<Long> alocadasIds = new ArrayList<>(alocadas.size());
+            alocadas.forEach(tarefa -> alocadasIds.add(tarefa.id()));
+            return totais.alocadas(sessao, alocadasIds);
+        });
+    }
+
+    private static Uni<List<TarefaDetalheDTO>> executar(Mutiny.Session sessao, String sql, Collection<Long> ids,
+                                                         Long pessoaId) {
+        Mutiny.SelectionQuery<Object[]> consulta = sessao.<Object[]>createNativeQuery(sql).setParameter("ids", ids);
+        if (pessoaId != null) {
+            consulta.setParameter("pessoa", pessoaId);
+        }
+        return consulta.getResultList().map(linhas -> {
+            List<TarefaDetalheDTO> tarefas = new ArrayList<>(linhas.size());
+            linhas.forEach(linha -> tarefas.add(tarefa(linha)));
+            return tarefas;
+        });
+    }
+
+    /**
+     * Converte uma linha com as colunas da {@link #PROJECAO}.
+     *
+     * @param linha A linha lida.
+     * @return A tarefa com o resumo da pessoa alocada.
+     */
+    public static TarefaDetalheDTO tarefa(Object[] linha) {
+        PessoaResumoDTO pessoa = linha[7] == null ? null
+                : new PessoaResumoDTO(((Number) linha[7]).longValue(), (String) linha[8], (String) linha[9]);
+        return new TarefaDetalheDTO(((Number) linha[0]).longValue(), (String) linha[1], (String) linha[2],
+                (LocalDate) linha[3], (String) linha[4], linha[5] == null ? 0 : ((Number) linha[5]).intValue(),
+                (Boolean) linha[6], pessoa);
+    }
+}
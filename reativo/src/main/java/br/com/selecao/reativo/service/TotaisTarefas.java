@@ -0,0 +1,113 @@
+package br.com.selecao.reativo.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.reactive.mutiny.Mutiny;
+
+import java.util.Collection;
+
+/**
+ * Mantém os totais pré-agregados das tarefas, nas mesmas tabelas da versão
+ * bloqueante: {@code PessoaEstatistica}, {@code GastoPessoa} e
+ * {@code GastoDepartamento}.
+ * <p>
+ * A versão bloqueante soma no Java a variação de cada tarefa alterada e grava
+ * os totais com arrays. Aqui a variação é calculada pelo próprio banco, a
+ * partir das tarefas já gravadas na transação, pelos seus IDs: como uma tarefa
+ * só entra nos totais de uma pessoa ao ser criada ou alocada, a variação é a
+ * contribuição atual da tarefa. Como na versão bloqueante, as linhas são
+ * gravadas sempre na mesma ordem, e cada balde de departamento na faixa da
+ * transação.
+ * </p>
+ */
+@ApplicationScoped
+public class TotaisTarefas {
+    /**
+     * Quantidade de faixas de cada balde de departamento, a mesma da versão bloqueante.
+     */
+    private static final int FAIXAS = 16;
+
+    private static final String ACUMULO_ESTATISTICAS = """
+            INSERT INTO PessoaEstatistica AS e (pessoa_id, horasTotais, quantidadeTarefas, tarefasAbertas)
+            SELECT pessoaAlocada_id, sum(duracao), count(*), count(*) FILTER (WHERE NOT finalizado)
+              FROM Tarefa
+             WHERE id IN (:ids) AND pessoaAlocada_id IS NOT NULL
+             GROUP BY pessoaAlocada_id
+             ORDER BY pessoaAlocada_id
+            ON CONFLICT (pessoa_id) DO UPDATE
+               SET horasTotais = e.horasTotais + EXCLUDED.horasTotais,
+                   quantidadeTarefas = e.quantidadeTarefas + EXCLUDED.quantidadeTarefas,
+                   tarefasAbertas = e.tarefasAbertas + EXCLUDED.tarefasAbertas
+            """;
+
+    /**
+     * Baldes diário e mensal de cada tarefa com prazo.
+     */
+    private static final String BALDES_DAS_TAREFAS = """
+              FROM Tarefa
+             CROSS JOIN LATERAL (VALUES (false, prazo), (true, CAST(date_trunc('month', prazo) AS date))) AS b (mensal, inicio)
+             WHERE id IN (:ids) AND prazo IS NOT NULL
+            """;
+
+    private static final String ACUMULO_PESSOAS = """
+            INSERT INTO GastoPessoa AS g (pessoa_id, mensal, inicio, horas, tarefas)
+            SELECT pessoaAlocada_id, b.mensal, b.inicio, sum(duracao), count(*)
+            """ + BALDES_DAS_TAREFAS + """
+               AND pessoaAlocada_id IS NOT NULL
+             GROUP BY pessoaAlocada_id, b.mensal, b.inicio
+             ORDER BY pessoaAlocada_id, b.mensal, b.inicio
+            ON CONFLICT (pessoa_id, mensal, inicio) DO UPDATE
+               SET horas = g.horas + EXCLUDED.horas,
+                   tarefas = g.tarefas + EXCLUDED.tarefas
+            """;
+
+    private static final String ACUMULO_DEPARTAMENTOS = """
+            INSERT INTO GastoDepartamento AS g (departamento_id, mensal, inicio, faixa, horas, tarefas)
+            SELECT departamento_id, b.mensal, b.inicio, txid_current() %% %d, sum(duracao), count(*)
+            """.formatted(FAIXAS) + BALDES_DAS_TAREFAS + """
+               AND departamento_id IS NOT NULL
+             GROUP BY departamento_id, b.mensal, b.inicio
+             ORDER BY b.mensal, b.inicio, departamento_id
+            ON CONFLICT (mensal, inicio, departamento_id, faixa) DO UPDATE
+               SET horas = g.horas + EXCLUDED.horas,
+                   tarefas = g.tarefas + EXCLUDED.tarefas
+            """;
+
+    /**
+     * Soma aos totais das pessoas e dos departamentos as tarefas criadas na transação da sessão.
+     *
+     * @param sessao A sessão da transação atual.
+     * @param ids    Os IDs das tarefas criadas.
+     * @return Um {@link Uni} concluído depois das gravações.
+     */
+    public Uni<Void> criadas(Mutiny.Session sessao, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return alocadas(sessao, ids)
+                .chain(() -> executar(sessao, ACUMULO_DEPARTAMENTOS, ids));
+    }
+
+    /**
+     * Soma aos totais das pessoas as tarefas alocadas na transação da sessão.
+     * Os baldes dos departamentos não mudam, pois o departamento é o da tarefa.
+     *
+     * @param sessao A sessão da transação atual.
+     * @param ids    Os IDs das tarefas alocadas.
+     * @return Um {@link Uni} concluído depois das gravações.
+     */
+    public Uni<Void> alocadas(Mutiny.Session sessao, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Uni.createFrom().voidItem();
+        }
+        return executar(sessao, ACUMULO_ESTATISTICAS, ids)
+                .chain(() -> executar(sessao, ACUMULO_PESSOAS, ids));
+    }
+
+    private static Uni<Void> executar(Mutiny.Session sessao, String sql, Collection<Long> ids) {
+        return sessao.createNativeQuery(sql)
+                .setParameter("ids", ids)
+                .executeUpdate()
+                .replaceWithVoid();
+    }
+}
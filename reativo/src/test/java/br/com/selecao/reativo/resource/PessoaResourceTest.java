@@ -0,0 +1,107 @@
+package br.com.selecao.reativo.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static br.com.selecao.reativo.resource.TarefaResourceTest.criarPessoa;
+import static br.com.selecao.reativo.resource.TarefaResourceTest.criarTarefa;
+import static br.com.selecao.reativo.resource.TarefaResourceTest.departamentoUnico;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Testes do contrato de {@code /pessoas} na variante reativa.
+ */
+@QuarkusTest
+public class PessoaResourceTest {
+
+    @Test
+    public void deveCriarAlterarERemoverUmaPessoa() {
+        String departamento = departamentoUnico();
+        long id = criarPessoa("Ana", departamento);
+
+        given()
+            .when().get("/pessoas/" + id)
+            .then()
+                .statusCode(200)
+                .body("nome", equalTo("Ana"))
+                .body("departamento", equalTo(departamento));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("nome", "Ana Maria", "departamento", departamento))
+            .when().put("/pessoas/" + id)
+            .then()
+                .statusCode(200)
+                .body("nome", equalTo("Ana Maria"));
+
+        given().when().delete("/pessoas/" + id).then().statusCode(204);
+        given().when().get("/pessoas/" + id).then().statusCode(404);
+        given().when().delete("/pessoas/" + id).then().statusCode(404);
+    }
+
+    @Test
+    public void deveBuscarGastosPorPaginas() {
+        String departamento = departamentoUnico();
+        String nome = "Gastos " + departamento;
+        long primeira = criarPessoa(nome + " A", departamento);
+        long segunda = criarPessoa(nome + " B", departamento);
+        criarTarefa(departamento, 4, primeira);
+        criarTarefa(departamento, 2, segunda);
+
+        given()
+            .queryParam("nome", nome.toUpperCase())
+            .queryParam("dataInicio", "2025-03-01")
+            .queryParam("dataFim", "2025-03-31")
+            .queryParam("limit", 1)
+            .when().get("/pessoas/gastos")
+            .then()
+                .statusCode(200)
+                .header("Link", containsString("after=" + primeira))
+                .body("$", hasSize(1))
+                .body("[0].id", equalTo((int) primeira))
+                .body("[0].mediaHorasPorTarefa", equalTo(4.0f));
+
+        given()
+            .queryParam("nome", nome)
+            .queryParam("dataInicio", "2025-03-01")
+            .queryParam("dataFim", "2025-03-31")
+            .queryParam("after", primeira)
+            .queryParam("limit", 2)
+            .when().get("/pessoas/gastos")
+            .then()
+                .statusCode(200)
+                .header("Link", nullValue())
+                .body("$", hasSize(1))
+                .body("[0].id", equalTo((int) segunda))
+                .body("[0].mediaHorasPorTarefa", equalTo(2.0f));
+    }
+
+    @Test
+    public void deveRecusarParametrosInvalidos() {
+        given()
+            .queryParam("dataInicio", "2025-03-01")
+            .when().get("/pessoas/gastos")
+            .then()
+                .statusCode(400);
+
+        given()
+            .queryParam("limit", 0)
+            .when().get("/pessoas")
+            .then()
+                .statusCode(400)
+                .body(equalTo("O parâmetro limit deve estar entre 1 e 1000."));
+
+        given()
+            .queryParam("dataInicio", "2025-03-01")
+            .when().get("/pessoas/tarefas")
+            .then()
+                .statusCode(400);
+    }
+}
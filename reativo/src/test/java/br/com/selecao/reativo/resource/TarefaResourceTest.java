@@ -0,0 +1,198 @@
+package br.com.selecao.reativo.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do contrato de {@code /tarefas} na variante reativa.
+ * <p>
+ * O banco é o mesmo dos testes da aplicação bloqueante e não é limpo entre os
+ * testes: cada teste cria os seus próprios departamentos, com nomes únicos.
+ * </p>
+ */
+@QuarkusTest
+public class TarefaResourceTest {
+
+    @Test
+    public void deveAlocarParaAPessoaMenosCarregada() {
+        String departamento = departamentoUnico();
+        long ocupada = criarPessoa("Ocupada", departamento);
+        long livre = criarPessoa("Livre", departamento);
+        criarTarefa(departamento, 30, ocupada);
+        long pendente = criarTarefa(departamento, 10, null);
+
+        given()
+            .when().put("/tarefas/alocar/" + pendente)
+            .then()
+                .statusCode(200)
+                .body("pessoaAlocada.id", equalTo((int) livre))
+                .body("pessoaAlocada.departamento", equalTo(departamento));
+
+        given()
+            .when().put("/tarefas/alocar/" + pendente)
+            .then()
+                .statusCode(400)
+                .body(equalTo("Esta tarefa já está alocada."));
+    }
+
+    @Test
+    public void deveRecusarAlocacaoSemPessoasNoDepartamento() {
+        String departamento = departamentoUnico();
+        long tarefa = criarTarefa(departamento, 10, null);
+
+        given()
+            .when().put("/tarefas/alocar/" + tarefa)
+            .then()
+                .statusCode(404)
+                .body(equalTo("Nenhuma pessoa disponível no departamento: " + departamento));
+
+        given()
+            .when().put("/tarefas/alocar/-1")
+            .then()
+                .statusCode(404)
+                .body(equalTo("Tarefa não encontrada."));
+    }
+
+    @Test
+    public void deveRecusarTarefaComPessoaInexistente() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("titulo", "Sem pessoa", "departamento", departamentoUnico(), "duracao", 5,
+                    "pessoaAlocadaId", -1))
+            .when().post("/tarefas")
+            .then()
+                .statusCode(404)
+                .body(equalTo("Pessoa com id -1 não encontrada."));
+    }
+
+    @Test
+    public void deveFinalizarUmaListaInformandoAsNaoEncontradas() {
+        String departamento = departamentoUnico();
+        long primeira = criarTarefa(departamento, 10, null);
+        long segunda = criarTarefa(departamento, 20, null);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(List.of(primeira, segunda, primeira, -5))
+            .when().put("/tarefas/finalizar")
+            .then()
+                .statusCode(200)
+                .body("tarefasFinalizadas", equalTo(2))
+                .body("tarefasNaoEncontradas", equalTo(List.of(-5)));
+
+        // Finalizar de novo responde com a tarefa, que já estava finalizada.
+        given()
+            .when().put("/tarefas/finalizar/" + primeira)
+            .then()
+                .statusCode(200)
+                .body("finalizado", equalTo(true));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(List.of())
+            .when().put("/tarefas/finalizar")
+            .then()
+                .statusCode(400)
+                .body(equalTo("Informe uma lista com os IDs das tarefas."));
+    }
+
+    @Test
+    public void deveImportarTarefasDescartandoAsDePessoasInexistentes() {
+        String departamento = departamentoUnico();
+        String corpo = "{\"titulo\":\"Importada\",\"departamento\":\"" + departamento + "\",\"duracao\":5}\n"
+                + "{\"titulo\":\"Sem pessoa\",\"departamento\":\"" + departamento + "\",\"duracao\":5,\"pessoaAlocadaId\":-1}\n";
+
+        given()
+            .contentType(TarefaResource.APPLICATION_NDJSON)
+            .body(corpo)
+            .when().post("/tarefas/importacao")
+            .then()
+                .statusCode(200)
+                .body("registrosLidos", equalTo(2))
+                .body("registrosImportados", equalTo(1))
+                .body("erros[0].lote", equalTo(1))
+                .body("erros[0].registro", equalTo(2))
+                .body("erros[0].mensagem", equalTo("Pessoa com id -1 não encontrada."));
+    }
+
+    @Test
+    public void deveListarAsTarefasEmFluxoNdjson() {
+        String departamento = departamentoUnico();
+        long tarefa = criarTarefa(departamento, 10, null);
+
+        String corpo = given()
+            .accept(TarefaResource.APPLICATION_NDJSON)
+            .when().get("/tarefas/fluxo")
+            .then()
+                .statusCode(200)
+                .extract().asString();
+
+        boolean encontrada = false;
+        long anterior = 0;
+        for (String linha : corpo.split("\n")) {
+            JsonPath json = JsonPath.from(linha);
+            long id = json.getLong("id");
+            assertTrue(id > anterior, "As tarefas devem vir em ordem de ID.");
+            anterior = id;
+            if (id == tarefa) {
+                assertEquals(departamento, json.getString("departamento"));
+                encontrada = true;
+            }
+        }
+        assertTrue(encontrada);
+    }
+
+    @Test
+    public void deveValidarOLimiteDasPendentes() {
+        given()
+            .when().get("/tarefas/pendentes?limit=101")
+            .then()
+                .statusCode(400)
+                .body(equalTo("O parâmetro limit deve estar entre 1 e 100."));
+
+        given()
+            .when().get("/tarefas/pendentes?limit=1")
+            .then()
+                .statusCode(200)
+                .body("[0].pessoaAlocada", nullValue());
+    }
+
+    static String departamentoUnico() {
+        return "Reativo " + System.nanoTime();
+    }
+
+    static long criarPessoa(String nome, String departamento) {
+        return given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("nome", nome, "departamento", departamento))
+            .when().post("/pessoas")
+            .then()
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+
+    static long criarTarefa(String departamento, int duracao, Long pessoaId) {
+        Map<String, Object> tarefa = pessoaId == null
+                ? Map.of("titulo", "Tarefa", "prazo", "2025-03-10", "departamento", departamento, "duracao", duracao)
+                : Map.of("titulo", "Tarefa", "prazo", "2025-03-10", "departamento", departamento, "duracao", duracao,
+                        "pessoaAlocadaId", pessoaId);
+        return given()
+            .contentType(ContentType.JSON)
+            .body(tarefa)
+            .when().post("/tarefas")
+            .then()
+                .statusCode(201)
+                .extract().jsonPath().getLong("id");
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.selecao.dto;
+
+/**
+ * DTO que resume o resultado de uma alocação em lote das tarefas pendentes.
+ */
+public class AlocacaoLoteDTO {
+    /**
+     * Quantidade de tarefas que foram alocadas a alguma pessoa.
+     */
+    public int tarefasAlocadas;
+
+    /**
+     * Quantidade de tarefas pendentes que continuaram sem pessoa, seja porque o
+     * departamento não tem pessoas, seja porque foram alocadas por outra
+     * requisição durante o lote.
+     */
+    public int tarefasNaoAlocadas;
+
+    /**
+     * A maior carga de trabalho em aberto entre as pessoas dos departamentos
+     * envolvidos, depois do lote (o <i>makespan</i>).
+     */
+    public long makespan;
+
+    /**
+     * Tempo total gasto pelo lote, em milissegundos.
+     */
+    public long tempoMs;
+
+    /**
+     * Construtor para inicializar o DTO com todos os dados.
+     *
+     * @param tarefasAlocadas    A quantidade de tarefas alocadas.
+     * @param tarefasNaoAlocadas A quantidade de tarefas que continuaram pendentes.
+     * @param makespan           A maior carga em aberto após o lote.
+     * @param tempoMs            O tempo gasto, em milissegundos.
+     */
+    public AlocacaoLoteDTO(int tarefasAlocadas, int tarefasNaoAlocadas, long makespan, long tempoMs) {
+        this.tarefasAlocadas = tarefasAlocadas;
+        this.tarefasNaoAlocadas = tarefasNaoAlocadas;
+        this.makespan = makespan;
+        this.tempoMs = tempoMs;
+    }
+}
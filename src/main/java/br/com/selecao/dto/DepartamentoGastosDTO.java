@@ -0,0 +1,42 @@
+package br.com.selecao.dto;
+
+/**
+ * DTO que representa o tempo, em minutos, gasto nas tarefas de um departamento em um período.
+ */
+public class DepartamentoGastosDTO {
+    /**
+     * O nome do departamento.
+     */
+    public String departamento;
+
+    /**
+     * O número de tarefas do departamento com prazo no período.
+     */
+    public long quantidadeTarefas;
+
+    /**
+     * A soma da duração, em minutos, dessas tarefas.
+     */
+    public long totalMinutos;
+
+    /**
+     * A média de minutos por tarefa no período.
+     */
+    public double mediaMinutosPorTarefa;
+
+    /**
+     * Construtor para inicializar o DTO com todos os dados.
+     *
+     * @param departamento          O nome do departamento.
+     * @param quantidadeTarefas     A contagem de tarefas no período.
+     * @param totalMinutos          A soma da duração das tarefas no período, em minutos.
+     * @param mediaMinutosPorTarefa A média de minutos por tarefa no período.
+     */
+    public DepartamentoGastosDTO(String departamento, long quantidadeTarefas, long totalMinutos,
+                                 double mediaMinutosPorTarefa) {
+        this.departamento = departamento;
+        this.quantidadeTarefas = quantidadeTarefas;
+        this.totalMinutos = totalMinutos;
+        this.mediaMinutosPorTarefa = mediaMinutosPorTarefa;
+    }
+}
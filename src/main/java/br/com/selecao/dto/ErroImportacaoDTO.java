@@ -0,0 +1,35 @@
+package br.com.selecao.dto;
+
+/**
+ * DTO que descreve um erro ocorrido durante uma importação em lote.
+ */
+public class ErroImportacaoDTO {
+    /**
+     * O número do lote (começando em 1) em que o erro ocorreu.
+     */
+    public int lote;
+
+    /**
+     * A posição do registro no arquivo (começando em 1), ou {@code null} quando
+     * o erro se refere ao lote inteiro.
+     */
+    public Long registro;
+
+    /**
+     * A descrição do erro.
+     */
+    public String mensagem;
+
+    /**
+     * Construtor para inicializar o DTO com todos os dados.
+     *
+     * @param lote     O número do lote.
+     * @param registro A posição do registro, ou {@code null} para erros do lote inteiro.
+     * @param mensagem A descrição do erro.
+     */
+    public ErroImportacaoDTO(int lote, Long registro, String mensagem) {
+        this.lote = lote;
+        this.registro = registro;
+        this.mensagem = mensagem;
+    }
+}
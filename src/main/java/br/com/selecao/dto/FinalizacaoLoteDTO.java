@@ -0,0 +1,29 @@
+package br.com.selecao.dto;
+
+import java.util.List;
+
+/**
+ * DTO que resume o resultado de uma finalização de tarefas em lote.
+ */
+public class FinalizacaoLoteDTO {
+    /**
+     * Quantidade de tarefas finalizadas, incluindo as que já estavam finalizadas.
+     */
+    public int tarefasFinalizadas;
+
+    /**
+     * Os IDs informados que não correspondem a nenhuma tarefa.
+     */
+    public List<Long> tarefasNaoEncontradas;
+
+    /**
+     * Construtor para inicializar o DTO com todos os dados.
+     *
+     * @param tarefasFinalizadas    A quantidade de tarefas finalizadas.
+     * @param tarefasNaoEncontradas Os IDs que não correspondem a nenhuma tarefa.
+     */
+    public FinalizacaoLoteDTO(int tarefasFinalizadas, List<Long> tarefasNaoEncontradas) {
+        this.tarefasFinalizadas = tarefasFinalizadas;
+        this.tarefasNaoEncontradas = tarefasNaoEncontradas;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.selecao.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO que resume o resultado de uma importação em lote.
+ * <p>
+ * Cada lote é gravado em sua própria transação: um lote com erro é descartado
+ * por inteiro, sem afetar os lotes já gravados.
+ * </p>
+ */
+public class ImportacaoDTO {
+    /**
+     * Quantidade de registros lidos do corpo da requisição.
+     */
+    public long registrosLidos;
+
+    /**
+     * Quantidade de registros efetivamente gravados no banco.
+     */
+    public long registrosImportados;
+
+    /**
+     * Quantidade de lotes gravados com sucesso.
+     */
+    public int lotesGravados;
+
+    /**
+     * Tempo total gasto pela importação, em milissegundos.
+     */
+    public long tempoMs;
+
+    /**
+     * Os erros encontrados, por registro ou por lote.
+     */
+    public List<ErroImportacaoDTO> erros = new ArrayList<>();
+}
@@ -8,6 +8,15 @@ package br.com.selecao.dto;
  * </p>
  */
 public class PessoaComHorasDTO {
+    /**
+     * O ID da pessoa.
+     * <p>
+     * Também serve de cursor para a paginação: a próxima página começa após o
+     * maior ID retornado.
+     * </p>
+     */
+    public Long id;
+
     /**
      * O nome da pessoa.
      */
@@ -21,7 +30,7 @@ public class PessoaComHorasDTO {
     /**
      * Representa o total de horas gastas pela pessoa em todas as suas tarefas.
      */
-    public int totalHorasGastas;
+    public long totalHorasGastas;
 
     /**
      * Construtor para facilitar a criação do DTO.
@@ -30,9 +39,23 @@ public class PessoaComHorasDTO {
      * @param departamento     O departamento da pessoa.
      * @param totalHorasGastas O total de horas calculado a partir das tarefas.
      */
-    public PessoaComHorasDTO(String nome, String departamento, int totalHorasGastas) {
+    public PessoaComHorasDTO(String nome, String departamento, long totalHorasGastas) {
         this.nome = nome;
         this.departamento = departamento;
         this.totalHorasGastas = totalHorasGastas;
     }
+
+    /**
+     * Construtor utilizado a partir das linhas da consulta de projeção, que já
+     * trazem o total de horas somado pelo banco de dados.
+     *
+     * @param id               O ID da pessoa.
+     * @param nome             O nome da pessoa.
+     * @param departamento     O departamento da pessoa.
+     * @param totalHorasGastas O total de horas somado pelo banco de dados.
+     */
+    public PessoaComHorasDTO(Long id, String nome, String departamento, Long totalHorasGastas) {
+        this(nome, departamento, totalHorasGastas.longValue());
+        this.id = id;
+    }
 }
\ No newline at end of file
@@ -8,6 +8,15 @@ package br.com.selecao.dto;
  * </p>
  */
 public class PessoaMediaHorasDTO {
+    /**
+     * O ID da pessoa.
+     * <p>
+     * Também serve de cursor para a paginação: a próxima página começa após o
+     * maior ID retornado.
+     * </p>
+     */
+    public Long id;
+
     /**
      * O nome da pessoa.
      */
@@ -28,4 +37,17 @@ public class PessoaMediaHorasDTO {
         this.nome = nome;
         this.mediaHorasPorTarefa = mediaHorasPorTarefa;
     }
+
+    /**
+     * Construtor utilizado a partir das linhas da consulta de gastos, que
+     * também trazem o ID da pessoa.
+     *
+     * @param id                  O ID da pessoa.
+     * @param nome                O nome da pessoa.
+     * @param mediaHorasPorTarefa A média de horas por tarefa calculada.
+     */
+    public PessoaMediaHorasDTO(Long id, String nome, double mediaHorasPorTarefa) {
+        this(nome, mediaHorasPorTarefa);
+        this.id = id;
+    }
 }
\ No newline at end of file
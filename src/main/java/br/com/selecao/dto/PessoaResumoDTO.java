@@ -0,0 +1,51 @@
+package br.com.selecao.dto;
+
+import br.com.selecao.model.Pessoa;
+
+import java.util.function.Function;
+
+/**
+ * DTO com os dados básicos de uma pessoa. É a representação de uma pessoa nas
+ * respostas da API, isoladamente ou dentro de outro recurso, como a pessoa
+ * alocada de uma tarefa.
+ */
+public class PessoaResumoDTO {
+    /**
+     * O ID da pessoa.
+     */
+    public Long id;
+
+    /**
+     * O nome da pessoa.
+     */
+    public String nome;
+
+    /**
+     * O departamento da pessoa.
+     */
+    public String departamento;
+
+    /**
+     * Construtor para inicializar o DTO com todos os dados.
+     *
+     * @param id           O ID da pessoa.
+     * @param nome         O nome da pessoa.
+     * @param departamento O departamento da pessoa.
+     */
+    public PessoaResumoDTO(Long id, String nome, String departamento) {
+        this.id = id;
+        this.nome = nome;
+        this.departamento = departamento;
+    }
+
+    /**
+     * Cria o DTO a partir de uma entidade já carregada, sem acessar a lista de tarefas da pessoa.
+     *
+     * @param pessoa           A entidade pessoa.
+     * @param nomeDepartamento Resolve o nome do departamento a partir do seu ID.
+     * @return O DTO com os dados básicos da pessoa.
+     */
+    public static PessoaResumoDTO de(Pessoa pessoa, Function<Integer, String> nomeDepartamento) {
+        return new PessoaResumoDTO(pessoa.id, pessoa.nome, nomeDepartamento.apply(pessoa.departamentoId));
+    }
+}
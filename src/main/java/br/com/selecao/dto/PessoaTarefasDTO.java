@@ -0,0 +1,50 @@
+package br.com.selecao.dto;
+
+/**
+ * DTO que representa o resumo das tarefas alocadas a uma pessoa: quantas são,
+ * quantas continuam abertas e quantos minutos somam.
+ */
+public class PessoaTarefasDTO {
+    /**
+     * O ID da pessoa.
+     */
+    public long pessoaId;
+
+    /**
+     * O número de tarefas alocadas à pessoa.
+     */
+    public long quantidadeTarefas;
+
+    /**
+     * O número dessas tarefas que ainda não foram finalizadas.
+     */
+    public long tarefasAbertas;
+
+    /**
+     * A soma da duração, em minutos, das tarefas.
+     */
+    public long totalMinutos;
+
+    /**
+     * A média de minutos por tarefa.
+     */
+    public double mediaMinutosPorTarefa;
+
+    /**
+     * Construtor para inicializar o DTO com todos os dados.
+     *
+     * @param pessoaId              O ID da pessoa.
+     * @param quantidadeTarefas     A contagem de tarefas.
+     * @param tarefasAbertas        A contagem de tarefas não finalizadas.
+     * @param totalMinutos          A soma da duração das tarefas, em minutos.
+     * @param mediaMinutosPorTarefa A média de minutos por tarefa.
+     */
+    public PessoaTarefasDTO(long pessoaId, long quantidadeTarefas, long tarefasAbertas, long totalMinutos,
+                            double mediaMinutosPorTarefa) {
+        this.pessoaId = pessoaId;
+        this.quantidadeTarefas = quantidadeTarefas;
+        this.tarefasAbertas = tarefasAbertas;
+        this.totalMinutos = totalMinutos;
+        this.mediaMinutosPorTarefa = mediaMinutosPorTarefa;
+    }
+}
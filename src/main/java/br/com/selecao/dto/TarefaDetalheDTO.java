@@ -0,0 +1,103 @@
+package br.com.selecao.dto;
+
+import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.Tarefa;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * DTO de leitura que representa uma tarefa com todos os seus dados.
+ * <p>
+ * Tem os mesmos campos da entidade {@code Tarefa}, mas a pessoa alocada traz
+ * apenas seus dados básicos, sem a lista de tarefas dela.
+ * </p>
+ */
+public class TarefaDetalheDTO {
+    /**
+     * O ID da tarefa.
+     */
+    public Long id;
+
+    /**
+     * O título da tarefa.
+     */
+    public String titulo;
+
+    /**
+     * Descrição detalhada da tarefa.
+     */
+    public String descricao;
+
+    /**
+     * Data limite para conclusão da tarefa.
+     */
+    public LocalDate prazo;
+
+    /**
+     * Nome do departamento associado à tarefa.
+     */
+    public String departamento;
+
+    /**
+     * Duração da tarefa.
+     */
+    public int duracao;
+
+    /**
+     * Indica se a tarefa foi finalizada.
+     */
+    public boolean finalizado;
+
+    /**
+     * A pessoa alocada para a tarefa, ou {@code null} se a tarefa estiver pendente.
+     */
+    public PessoaResumoDTO pessoaAlocada;
+
+    /**
+     * Construtor para inicializar o DTO com todos os dados.
+     * <p>
+     * Recebe os dados da pessoa alocada de forma achatada, como vêm das
+     * linhas das consultas de projeção.
+     * </p>
+     *
+     * @param id                 O ID da tarefa.
+     * @param titulo             O título da tarefa.
+     * @param descricao          A descrição da tarefa.
+     * @param prazo              O prazo da tarefa.
+     * @param departamento       O departamento da tarefa.
+     * @param duracao            A duração da tarefa.
+     * @param finalizado         Se a tarefa foi finalizada.
+     * @param pessoaId           O ID da pessoa alocada, ou {@code null}.
+     * @param pessoaNome         O nome da pessoa alocada.
+     * @param pessoaDepartamento O departamento da pessoa alocada.
+     */
+    public TarefaDetalheDTO(Long id, String titulo, String descricao, LocalDate prazo, String departamento,
+                            Integer duracao, Boolean finalizado,
+                            Long pessoaId, String pessoaNome, String pessoaDepartamento) {
+        this.id = id;
+        this.titulo = titulo;
+        this.descricao = descricao;
+        this.prazo = prazo;
+        this.departamento = departamento;
+        this.duracao = duracao == null ? 0 : duracao;
+        this.finalizado = finalizado != null && finalizado;
+        this.pessoaAlocada = pessoaId == null ? null : new PessoaResumoDTO(pessoaId, pessoaNome, pessoaDepartamento);
+    }
+
+    /**
+     * Cria o DTO a partir de uma entidade já carregada.
+     *
+     * @param tarefa           A entidade tarefa.
+     * @param nomeDepartamento Resolve o nome de um departamento a partir do seu ID.
+     * @return O DTO com os dados da tarefa e o resumo da pessoa alocada.
+     */
+    public static TarefaDetalheDTO de(Tarefa tarefa, Function<Integer, String> nomeDepartamento) {
+        Pessoa pessoa = tarefa.pessoaAlocada;
+        return new TarefaDetalheDTO(tarefa.id, tarefa.titulo, tarefa.descricao, tarefa.prazo,
+                nomeDepartamento.apply(tarefa.departamentoId), tarefa.duracao, tarefa.finalizado,
+                pessoa == null ? null : pessoa.id,
+                pessoa == null ? null : pessoa.nome,
+                pessoa == null ? null : nomeDepartamento.apply(pessoa.departamentoId));
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.selecao.evento;
+
+/**
+ * Evento CDI disparado pelos endpoints que criam, alteram ou removem pessoas.
+ * <p>
+ * Assim como {@link TarefaAlterada}, é observado na fase {@code AFTER_SUCCESS}
+ * da transação.
+ * </p>
+ *
+ * @param antes  O estado da pessoa antes da operação, ou {@code null} se ela foi criada.
+ * @param depois O estado da pessoa depois da operação, ou {@code null} se ela foi removida.
+ */
+public record PessoaAlterada(PessoaEstado antes, PessoaEstado depois) {
+}
@@ -0,0 +1,23 @@
+package br.com.selecao.evento;
+
+import br.com.selecao.model.Pessoa;
+
+/**
+ * Cópia imutável dos dados de uma pessoa em um determinado momento.
+ *
+ * @param id             O ID da pessoa.
+ * @param nome           O nome da pessoa.
+ * @param departamentoId O ID do departamento da pessoa.
+ */
+public record PessoaEstado(Long id, String nome, Integer departamentoId) {
+
+    /**
+     * Cria a cópia a partir do estado atual da entidade.
+     *
+     * @param pessoa A entidade pessoa.
+     * @return O estado atual da pessoa.
+     */
+    public static PessoaEstado de(Pessoa pessoa) {
+        return new PessoaEstado(pessoa.id, pessoa.nome, pessoa.departamentoId);
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.selecao.evento;
+
+/**
+ * Evento CDI disparado pelos endpoints que criam ou alteram tarefas.
+ * <p>
+ * As estruturas mantidas em memória observam este evento na fase
+ * {@code AFTER_SUCCESS} da transação, de modo que só enxergam alterações
+ * efetivamente gravadas no banco de dados.
+ * </p>
+ *
+ * @param antes  O estado da tarefa antes da operação, ou {@code null} se ela foi criada.
+ * @param depois O estado da tarefa depois da operação.
+ */
+public record TarefaAlterada(TarefaEstado antes, TarefaEstado depois) {
+}
@@ -0,0 +1,50 @@
+package br.com.selecao.evento;
+
+import br.com.selecao.model.Tarefa;
+import java.time.LocalDate;
+
+/**
+ * Cópia imutável dos dados de uma tarefa em um determinado momento.
+ * <p>
+ * Usada nos eventos de alteração para que os observadores saibam como a
+ * tarefa estava antes e como ficou depois da operação, sem depender da
+ * entidade gerenciada pelo Hibernate.
+ * </p>
+ *
+ * @param id              O ID da tarefa.
+ * @param titulo          O título da tarefa.
+ * @param descricao       A descrição da tarefa.
+ * @param prazo           A data limite para a conclusão da tarefa.
+ * @param departamentoId  O ID do departamento responsável pela tarefa.
+ * @param duracao         A duração da tarefa.
+ * @param finalizado      Indica se a tarefa foi finalizada.
+ * @param pessoaAlocadaId O ID da pessoa alocada, ou {@code null} se a tarefa estiver pendente.
+ */
+public record TarefaEstado(
+        Long id,
+        String titulo,
+        String descricao,
+        LocalDate prazo,
+        Integer departamentoId,
+        int duracao,
+        boolean finalizado,
+        Long pessoaAlocadaId) {
+
+    /**
+     * Cria a cópia a partir do estado atual da entidade.
+     *
+     * @param tarefa A entidade tarefa.
+     * @return O estado atual da tarefa.
+     */
+    public static TarefaEstado de(Tarefa tarefa) {
+        return new TarefaEstado(
+                tarefa.id,
+                tarefa.titulo,
+                tarefa.descricao,
+                tarefa.prazo,
+                tarefa.departamentoId,
+                tarefa.duracao,
+                tarefa.finalizado,
+                tarefa.pessoaAlocada == null ? null : tarefa.pessoaAlocada.id);
+    }
+}
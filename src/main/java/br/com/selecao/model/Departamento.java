@@ -0,0 +1,38 @@
+package br.com.selecao.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+/**
+ * Representa um departamento no dicionário de departamentos.
+ * <p>
+ * Cada nome de departamento é gravado uma única vez e {@link Pessoa} e
+ * {@link Tarefa} o referenciam pelo ID inteiro. Os departamentos nunca são
+ * alterados nem removidos, de modo que o par ID/nome pode ser mantido em
+ * memória pelo {@code DicionarioDepartamentos} sem invalidação.
+ * </p>
+ *
+ * <ul>
+ * <li><b>id</b>: O ID do departamento, gerado pelo banco.</li>
+ * <li><b>nome</b>: O nome do departamento, único.</li>
+ * </ul>
+ */
+@Entity
+public class Departamento extends PanacheEntityBase {
+    /**
+     * O ID do departamento.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Integer id;
+
+    /**
+     * O nome do departamento.
+     */
+    @Column(nullable = false, unique = true)
+    public String nome;
+}
@@ -1,6 +1,8 @@
 package br.com.selecao.model;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.OneToMany;
@@ -15,7 +17,8 @@ import java.util.List;
  *
  * <ul>
  * <li><b>nome</b>: O nome da pessoa.</li>
- * <li><b>departamento</b>: O departamento onde a pessoa trabalha.</li>
+ * <li><b>departamentoId</b>: O ID do departamento onde a pessoa trabalha, no
+ * dicionário de departamentos ({@link Departamento}).</li>
  * <li><b>tarefas</b>: A lista de tarefas atribuídas a esta pessoa. É uma
  * relação um-para-muitos, onde cada tarefa referencia a pessoa à qual
  * está atribuída.</li>
@@ -25,8 +28,15 @@ import java.util.List;
  * Esta entidade estende {@code PanacheEntity} para utilizar o padrão
  * <i>active record</i> do Panache, simplificando as operações de banco de dados.
  * </p>
+ *
+ * <p>
+ * A entidade fica no cache de segundo nível do Hibernate ({@code @Cacheable}),
+ * de modo que buscas por ID, como as feitas ao criar e alocar tarefas, não
+ * precisam ir ao banco. Os limites do cache ficam no {@code application.properties}.
+ * </p>
  */
 @Entity
+@Cacheable
 public class Pessoa extends PanacheEntity {
     /**
      * O nome da pessoa.
@@ -34,9 +44,10 @@ public class Pessoa extends PanacheEntity {
     public String nome;
 
     /**
-     * O departamento onde a pessoa trabalha.
+     * O ID do departamento onde a pessoa trabalha, ou {@code null} se ela não tiver departamento.
      */
-    public String departamento;
+    @Column(name = "departamento_id")
+    public Integer departamentoId;
 
     /**
      * A lista de tarefas atribuídas a esta pessoa.
@@ -0,0 +1,47 @@
+package br.com.selecao.model;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Totais das tarefas alocadas a uma {@link Pessoa}.
+ * <p>
+ * Os totais não são calculados a partir das tarefas a cada leitura: eles são
+ * incrementados na mesma transação que cria, aloca ou finaliza uma tarefa
+ * (ver {@code EstatisticasPessoas}). Uma pessoa sem linha nesta tabela não
+ * tem tarefas. A linha é removida pelo banco junto com a pessoa.
+ * </p>
+ *
+ * <ul>
+ * <li><b>pessoaId</b>: O ID da pessoa.</li>
+ * <li><b>horasTotais</b>: A soma da duração de todas as tarefas da pessoa.</li>
+ * <li><b>quantidadeTarefas</b>: A quantidade de tarefas da pessoa.</li>
+ * <li><b>tarefasAbertas</b>: A quantidade de tarefas da pessoa ainda não finalizadas.</li>
+ * </ul>
+ */
+@Entity
+public class PessoaEstatistica extends PanacheEntityBase {
+    /**
+     * O ID da pessoa.
+     */
+    @Id
+    @Column(name = "pessoa_id")
+    public Long pessoaId;
+
+    /**
+     * A soma da duração de todas as tarefas da pessoa, finalizadas ou não.
+     */
+    public long horasTotais;
+
+    /**
+     * A quantidade de tarefas da pessoa, finalizadas ou não.
+     */
+    public int quantidadeTarefas;
+
+    /**
+     * A quantidade de tarefas da pessoa ainda não finalizadas.
+     */
+    public int tarefasAbertas;
+}
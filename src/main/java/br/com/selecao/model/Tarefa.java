@@ -1,8 +1,11 @@
 package br.com.selecao.model;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
 import java.time.LocalDate;
 
 /**
@@ -16,18 +19,27 @@ import java.time.LocalDate;
  * <li><b>titulo</b>: O título da tarefa.</li>
  * <li><b>descricao</b>: Uma descrição detalhada da tarefa.</li>
  * <li><b>prazo</b>: A data limite para a conclusão da tarefa.</li>
- * <li><b>departamento</b>: O departamento responsável pela tarefa.</li>
+ * <li><b>departamentoId</b>: O ID do departamento responsável pela tarefa, no
+ * dicionário de departamentos ({@link Departamento}).</li>
  * <li><b>duracao</b>: A duração da tarefa em minutos.</li>
  * <li><b>finalizado</b>: Indica se a tarefa foi finalizada.</li>
  * <li><b>pessoaAlocada</b>: A pessoa alocada para esta tarefa.</li>
+ * <li><b>versao</b>: A versão da tarefa, para o controle de concorrência otimista.</li>
  * </ul>
  *
  * <p>
  * Esta entidade estende {@link PanacheEntity} para utilizar o padrão
  * <i>active record</i> do Panache.
  * </p>
+ *
+ * <p>
+ * A entidade fica no cache de segundo nível do Hibernate ({@code @Cacheable}).
+ * Alterações feitas por JDBC, fora do Hibernate, precisam retirar as tarefas
+ * alteradas do cache e incrementar a {@link #versao}.
+ * </p>
  */
 @Entity
+@Cacheable
 public class Tarefa extends PanacheEntity {
     /**
      * O título da tarefa.
@@ -45,9 +57,10 @@ public class Tarefa extends PanacheEntity {
     public LocalDate prazo;
 
     /**
-     * O departamento responsável pela tarefa.
+     * O ID do departamento responsável pela tarefa, ou {@code null} se ela não tiver departamento.
      */
-    public String departamento;
+    @Column(name = "departamento_id")
+    public Integer departamentoId;
 
     /**
      * A duração da tarefa em minutos.
@@ -68,4 +81,14 @@ public class Tarefa extends PanacheEntity {
      */
     @ManyToOne
     public Pessoa pessoaAlocada;
-}
\ No newline at end of file
+
+    /**
+     * A versão da tarefa, incrementada a cada alteração gravada.
+     * <p>
+     * Uma entidade carregada antes de uma alteração concorrente falha ao ser
+     * gravada ({@code OptimisticLockException}), em vez de sobrescrevê-la.
+     * </p>
+     */
+    @Version
+    public long versao;
+}
@@ -0,0 +1,35 @@
+package br.com.selecao.monitoramento;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Configuração das métricas publicadas em {@code /q/metrics}.
+ */
+@Singleton
+public class ConfiguracaoMetricas {
+    /**
+     * Publica histogramas (e não só contagem, soma e máximo) para a latência
+     * das requisições HTTP, tagueada pelo caminho do método de recurso, e para
+     * as métricas próprias da aplicação, permitindo calcular percentis no Prometheus.
+     */
+    @Produces
+    @Singleton
+    public MeterFilter histogramas() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().startsWith("http.server.requests") || id.getName().startsWith("gerenciador.")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.selecao.monitoramento;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Registra no Hibernate os listeners que contam, na {@link MedicaoRequisicao},
+ * as entidades carregadas e as coleções lazy inicializadas.
+ * <p>
+ * Declarado em {@code META-INF/services/org.hibernate.integrator.spi.Integrator}.
+ * </p>
+ */
+public class ContadorCargasIntegrator implements Integrator {
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registro = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        registro.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) evento -> {
+            MedicaoRequisicao medicao = MedicaoRequisicao.atual();
+            if (medicao != null) {
+                medicao.registrarEntidadeCarregada();
+            }
+        });
+        registro.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) evento -> {
+            MedicaoRequisicao medicao = MedicaoRequisicao.atual();
+            if (medicao != null) {
+                medicao.registrarColecaoBuscada();
+            }
+        });
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.selecao.monitoramento;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registra na {@link MedicaoRequisicao} cada comando SQL preparado pelo Hibernate.
+ * <p>
+ * Comandos executados diretamente pelo JDBC (listagem em fluxo, importação e
+ * alocação em lote) não passam pelo Hibernate e não são contados.
+ * </p>
+ */
+@ApplicationScoped
+@PersistenceUnitExtension
+public class InspetorComandos implements StatementInspector {
+    @Override
+    public String inspect(String sql) {
+        MedicaoRequisicao medicao = MedicaoRequisicao.atual();
+        if (medicao != null) {
+            medicao.registrarComando(sql);
+        }
+        return sql;
+    }
+}
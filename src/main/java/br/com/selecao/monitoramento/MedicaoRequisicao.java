@@ -0,0 +1,125 @@
+package br.com.selecao.monitoramento;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contadores do acesso ao banco feito pelo Hibernate durante uma requisição HTTP.
+ * <p>
+ * Os comandos SQL são registrados pelo {@link InspetorComandos}, e as cargas de
+ * entidades e buscas de coleções pelos listeners do {@link ContadorCargasIntegrator}.
+ * O {@link RegistroMedicaoRequisicao} informa qual método de recurso atende a
+ * requisição.
+ * </p>
+ * <p>
+ * Os contadores são publicados quando o contexto da requisição é encerrado, e
+ * não ao fim do método de recurso, para incluir as cargas lazy disparadas
+ * durante a serialização da resposta. As métricas são
+ * {@code gerenciador.requisicao.sql.comandos},
+ * {@code gerenciador.requisicao.entidades.carregadas} e
+ * {@code gerenciador.requisicao.colecoes.buscadas}, com a tag {@code endpoint};
+ * em seguida é disparado o evento {@link RequisicaoMedida}.
+ * </p>
+ */
+@RequestScoped
+public class MedicaoRequisicao {
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Event<RequisicaoMedida> requisicaoMedida;
+
+    private final List<String> comandos = new ArrayList<>();
+
+    private String endpoint;
+
+    private long inicio;
+
+    private long entidadesCarregadas;
+
+    private long colecoesBuscadas;
+
+    /**
+     * Retorna a medição da requisição em andamento na thread atual.
+     *
+     * @return A medição, ou {@code null} fora de uma requisição (por exemplo,
+     *         na inicialização da aplicação ou em observadores assíncronos).
+     */
+    public static MedicaoRequisicao atual() {
+        ArcContainer container = Arc.container();
+        if (container == null || !container.requestContext().isActive()) {
+            return null;
+        }
+        return container.instance(MedicaoRequisicao.class).get();
+    }
+
+    void identificar(String endpoint) {
+        this.endpoint = endpoint;
+        this.inicio = System.nanoTime();
+    }
+
+    void registrarComando(String sql) {
+        comandos.add(sql);
+    }
+
+    void registrarEntidadeCarregada() {
+        entidadesCarregadas++;
+    }
+
+    void registrarColecaoBuscada() {
+        colecoesBuscadas++;
+    }
+
+    /**
+     * @return Os comandos SQL preparados pelo Hibernate, na ordem em que foram executados.
+     */
+    public List<String> comandos() {
+        return List.copyOf(comandos);
+    }
+
+    /**
+     * @return A quantidade de entidades carregadas (do banco ou do cache de segundo nível).
+     */
+    public long entidadesCarregadas() {
+        return entidadesCarregadas;
+    }
+
+    /**
+     * @return A quantidade de coleções lazy inicializadas.
+     */
+    public long colecoesBuscadas() {
+        return colecoesBuscadas;
+    }
+
+    @PreDestroy
+    void publicar() {
+        if (endpoint == null) {
+            return;
+        }
+        registrar("gerenciador.requisicao.sql.comandos", "Comandos SQL por requisição", comandos.size());
+        registrar("gerenciador.requisicao.entidades.carregadas", "Entidades carregadas por requisição",
+                entidadesCarregadas);
+        registrar("gerenciador.requisicao.colecoes.buscadas", "Coleções lazy inicializadas por requisição",
+                colecoesBuscadas);
+
+        requisicaoMedida.fire(new RequisicaoMedida(endpoint, inicio, comandos(), entidadesCarregadas,
+                colecoesBuscadas));
+    }
+
+    private void registrar(String nome, String descricao, long valor) {
+        DistributionSummary.builder(nome)
+                .description(descricao)
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(valor);
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.selecao.monitoramento;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecta virtual threads presas à sua carrier thread ("pinning").
+ * <p>
+ * Uma virtual thread que bloqueia dentro de um bloco {@code synchronized} ou de
+ * código nativo não libera a carrier thread, e com poucas carriers isso faz a
+ * aplicação inteira parar de responder. Este monitor assina o evento JFR
+ * {@code jdk.VirtualThreadPinned}, conta as ocorrências na métrica
+ * {@code gerenciador.virtual.threads.pinagens} e registra no log a pilha de
+ * chamadas de cada ponto de bloqueio, uma única vez por ponto.
+ * </p>
+ */
+@ApplicationScoped
+public class MonitorPinagem {
+    private static final Logger LOG = Logger.getLogger(MonitorPinagem.class);
+
+    private static final String EVENTO_PINAGEM = "jdk.VirtualThreadPinned";
+
+    private static final int QUADROS_NO_LOG = 12;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "gerenciador.virtual-threads.monitorar-pinagem", defaultValue = "true")
+    boolean habilitado;
+
+    @ConfigProperty(name = "gerenciador.virtual-threads.limite-pinagem", defaultValue = "20ms")
+    Duration limite;
+
+    /**
+     * Pontos de bloqueio já registrados no log, identificados pelo quadro do topo da pilha.
+     */
+    private final Set<String> pontosRegistrados = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream gravacao;
+
+    private Counter pinagens;
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        pinagens = Counter.builder("gerenciador.virtual.threads.pinagens")
+                .description("Virtual threads presas à carrier thread por mais tempo que o limite configurado")
+                .register(registry);
+
+        gravacao = new RecordingStream();
+        gravacao.enable(EVENTO_PINAGEM).withThreshold(limite).withStackTrace();
+        gravacao.onEvent(EVENTO_PINAGEM, this::registrar);
+        gravacao.startAsync();
+        LOG.infof("Monitor de pinagem de virtual threads ativo (limite de %d ms).", limite.toMillis());
+    }
+
+    void aoEncerrar(@Observes ShutdownEvent evento) {
+        if (gravacao != null) {
+            gravacao.close();
+        }
+    }
+
+    private void registrar(RecordedEvent evento) {
+        pinagens.increment();
+
+        RecordedStackTrace pilha = evento.getStackTrace();
+        if (pilha == null || pilha.getFrames().isEmpty()) {
+            return;
+        }
+        String ponto = descrever(pilha.getFrames().get(0));
+        if (!pontosRegistrados.add(ponto)) {
+            return;
+        }
+
+        StringBuilder mensagem = new StringBuilder();
+        int quadros = Math.min(QUADROS_NO_LOG, pilha.getFrames().size());
+        for (int i = 0; i < quadros; i++) {
+            mensagem.append("\n\tat ").append(descrever(pilha.getFrames().get(i)));
+        }
+        LOG.warnf("Virtual thread presa à carrier thread por %d ms em %s:%s",
+                evento.getDuration().toMillis(), ponto, mensagem);
+    }
+
+    private static String descrever(RecordedFrame quadro) {
+        return quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName()
+                + ":" + quadro.getLineNumber();
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.selecao.monitoramento;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Inicia a {@link MedicaoRequisicao} de cada requisição atendida por um método
+ * de recurso, identificando-a no formato {@code Classe.metodo}.
+ * <p>
+ * A medição é injetada, e não obtida por {@link MedicaoRequisicao#atual()}: o
+ * Quarkus REST só ativa o contexto de requisição do CDI quando algum filtro ou
+ * recurso depende de um bean {@code @RequestScoped}, e é esta injeção que o
+ * ativa antes de o método de recurso executar.
+ * </p>
+ */
+@Provider
+public class RegistroMedicaoRequisicao implements ContainerRequestFilter {
+    @Context
+    ResourceInfo resourceInfo;
+
+    @Inject
+    MedicaoRequisicao medicao;
+
+    @Override
+    public void filter(ContainerRequestContext requisicao) {
+        if (resourceInfo.getResourceMethod() == null) {
+            return;
+        }
+        medicao.identificar(resourceInfo.getResourceClass().getSimpleName() + "."
+                + resourceInfo.getResourceMethod().getName());
+    }
+}
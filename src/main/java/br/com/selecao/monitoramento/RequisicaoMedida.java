@@ -0,0 +1,22 @@
+package br.com.selecao.monitoramento;
+
+import java.util.List;
+
+/**
+ * Evento disparado ao final de cada requisição HTTP atendida por um método de
+ * recurso, com o acesso ao banco feito pelo Hibernate durante a requisição.
+ *
+ * @param endpoint            O método de recurso, no formato {@code Classe.metodo}.
+ * @param inicio              O instante em que o método de recurso foi identificado
+ *                            ({@link System#nanoTime()}), no início da requisição.
+ * @param comandos            Os comandos SQL preparados, na ordem de execução.
+ * @param entidadesCarregadas A quantidade de entidades carregadas.
+ * @param colecoesBuscadas    A quantidade de coleções lazy inicializadas.
+ */
+public record RequisicaoMedida(
+        String endpoint,
+        long inicio,
+        List<String> comandos,
+        long entidadesCarregadas,
+        long colecoesBuscadas) {
+}
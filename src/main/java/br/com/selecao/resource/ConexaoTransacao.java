@@ -0,0 +1,31 @@
+package br.com.selecao.resource;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+/**
+ * Apoio às criações de entidades cujo id vem de uma sequence.
+ * <p>
+ * O otimizador de sequence do Hibernate é compartilhado por todas as
+ * requisições e, a cada bloco de ids esgotado, busca o próximo bloco no banco
+ * segurando uma trava. Se essa busca for a primeira instrução da transação, a
+ * espera por uma conexão do pool acontece com a trava tomada, e todas as
+ * criações simultâneas ficam enfileiradas atrás dela até o tempo de aquisição.
+ * </p>
+ */
+final class ConexaoTransacao {
+    private ConexaoTransacao() {
+    }
+
+    /**
+     * Obtém a conexão da transação atual antes da geração do id, para que a
+     * busca de um novo bloco de ids reutilize essa conexão em vez de esperar
+     * pelo pool com a trava do otimizador tomada.
+     *
+     * @param entityManager O gerenciador de entidades da transação atual.
+     */
+    static void reservar(EntityManager entityManager) {
+        entityManager.unwrap(Session.class).doWork(conexao -> {
+        });
+    }
+}
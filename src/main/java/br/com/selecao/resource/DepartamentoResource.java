@@ -1,21 +1,32 @@
 package br.com.selecao.resource;
 
 import br.com.selecao.dto.DepartamentoDTO;
-import br.com.selecao.model.Pessoa;
-import br.com.selecao.model.Tarefa;
+import br.com.selecao.dto.DepartamentoGastosDTO;
+import br.com.selecao.dto.DepartamentoTarefasDTO;
+import br.com.selecao.serializacao.EscritorCbor;
+import br.com.selecao.service.DicionarioDepartamentos;
+import br.com.selecao.service.GastosPorPeriodo;
+import br.com.selecao.service.InstantaneoTarefas;
+import br.com.selecao.service.VersaoDados;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Recurso REST para obter informações consolidadas sobre os departamentos.
@@ -25,45 +36,196 @@ import java.util.stream.Collectors;
  * </p>
  */
 @Path("/departamentos")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, EscritorCbor.APPLICATION_CBOR})
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class DepartamentoResource {
+    /**
+     * Consulta que conta pessoas e tarefas por departamento diretamente no banco.
+     * <p>
+     * Cada tabela é agregada separadamente pelo ID do departamento e os dois
+     * resultados são combinados por um segundo {@code GROUP BY}. A combinação é
+     * feita com {@code UNION ALL} (e não com {@code FULL OUTER JOIN}) para que
+     * pessoas e tarefas sem departamento caiam no mesmo grupo {@code NULL}. Os
+     * nomes não são lidos da tabela {@code Departamento}: são resolvidos pelo
+     * dicionário em memória.
+     * </p>
+     */
+    private static final String CONSULTA_DEPARTAMENTOS = """
+            SELECT departamento_id, SUM(quantidade_pessoas), SUM(quantidade_tarefas)
+              FROM (SELECT departamento_id, COUNT(*) AS quantidade_pessoas, 0 AS quantidade_tarefas
+                      FROM Pessoa
+                     GROUP BY departamento_id
+                    UNION ALL
+                    SELECT departamento_id, 0, COUNT(*)
+                      FROM Tarefa
+                     GROUP BY departamento_id) contagens
+             GROUP BY departamento_id
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    VersaoDados versaoDados;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    @Inject
+    InstantaneoTarefas instantaneoTarefas;
+
     /**
      * Lista todos os departamentos com a contagem total de pessoas e tarefas.
      * <p>
-     * O método coleta todos os dados de pessoas e tarefas, agrupa-os por
-     * departamento em memória e retorna um relatório consolidado.
+     * A agregação é feita inteiramente no banco de dados: apenas uma linha por
+     * departamento é trafegada e nenhuma entidade é carregada no contexto de
+     * persistência, de modo que o consumo de memória não cresce com o tamanho
+     * das tabelas.
+     * </p>
+     * <p>
+     * A resposta traz a versão atual dos dados como ETag. Se o cliente enviar a
+     * mesma versão em {@code If-None-Match}, a resposta é 304 Not Modified, sem
+     * consultar o banco nem serializar o corpo.
      * </p>
      *
-     * @return Uma resposta HTTP 200 OK contendo a lista de DTOs de departamento.
+     * @param request A requisição, usada para avaliar o {@code If-None-Match}.
+     * @return Uma resposta HTTP 200 OK contendo a lista de DTOs de departamento,
+     *         ou 304 Not Modified se os dados não mudaram.
      */
     @GET
-    public Response listarDepartamentos() {
-        // Passo 1: Busca todas as pessoas e tarefas do banco de dados.
-        List<Pessoa> todasAsPessoas = Pessoa.listAll();
-        List<Tarefa> todasAsTarefas = Tarefa.listAll();
-
-        // Passo 2: Agrupa e conta as pessoas por departamento usando Streams.
-        Map<String, Long> pessoasPorDepto = todasAsPessoas.stream()
-                .collect(Collectors.groupingBy(pessoa -> pessoa.departamento, Collectors.counting()));
-
-        // Passo 3: Agrupa e conta as tarefas por departamento usando Streams.
-        Map<String, Long> tarefasPorDepto = todasAsTarefas.stream()
-                .collect(Collectors.groupingBy(tarefa -> tarefa.departamento, Collectors.counting()));
-        
-        // Passo 4: Obtém um conjunto único com todos os nomes de departamento.
-        Set<String> todosOsDepartamentos = new HashSet<>();
-        todosOsDepartamentos.addAll(pessoasPorDepto.keySet());
-        todosOsDepartamentos.addAll(tarefasPorDepto.keySet());
-
-        // Passo 5: Constrói a lista final de DTOs para a resposta.
-        List<DepartamentoDTO> resultado = new ArrayList<>();
-        for (String deptoNome : todosOsDepartamentos) {
-            long numPessoas = pessoasPorDepto.getOrDefault(deptoNome, 0L);
-            long numTarefas = tarefasPorDepto.getOrDefault(deptoNome, 0L);
+    public Response listarDepartamentos(@Context Request request) {
+        EntityTag etag = RespostaCondicional.etag(request, versaoDados.atual());
+        Response naoModificado = RespostaCondicional.naoModificado(request, etag);
+        if (naoModificado != null) {
+            return naoModificado;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = registry.timer("gerenciador.agregacao", "consulta", "departamentos")
+                .record(() -> entityManager.createNativeQuery(CONSULTA_DEPARTAMENTOS).getResultList());
+
+        List<DepartamentoDTO> resultado = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            String deptoNome = departamentos.nome(linha[0] == null ? null : ((Number) linha[0]).intValue());
+            long numPessoas = ((Number) linha[1]).longValue();
+            long numTarefas = ((Number) linha[2]).longValue();
             resultado.add(new DepartamentoDTO(deptoNome, numPessoas, numTarefas));
         }
 
-        return Response.ok(resultado).build();
+        return RespostaCondicional.ok(resultado, etag).build();
+    }
+
+    /**
+     * Lista, por departamento, a quantidade de tarefas com prazo no período, o
+     * total de minutos e a média de minutos por tarefa.
+     * <p>
+     * Os valores vêm dos totais pré-agregados por mês e por dia de
+     * {@link GastosPorPeriodo}, de modo que o tempo da consulta depende do
+     * tamanho do período, e não da quantidade de tarefas. Departamentos sem
+     * tarefas no período não aparecem no resultado.
+     * </p>
+     *
+     * @param request       A requisição, usada para avaliar o {@code If-None-Match}.
+     * @param dataInicioStr A data de início do período (formato AAAA-MM-DD).
+     * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD).
+     * @return Uma resposta HTTP 200 OK com os gastos por departamento, 304 Not
+     *         Modified se os dados não mudaram, ou 400 Bad Request se as datas forem inválidas.
+     */
+    @GET
+    @Path("/gastos")
+    public Response buscarGastosPorDepartamento(
+            @Context Request request,
+            @QueryParam("dataInicio") String dataInicioStr,
+            @QueryParam("dataFim") String dataFimStr) {
+
+        if (dataInicioStr == null || dataFimStr == null) {
+            return dataInvalida();
+        }
+        LocalDate dataInicio;
+        LocalDate dataFim;
+        try {
+            dataInicio = LocalDate.parse(dataInicioStr);
+            dataFim = LocalDate.parse(dataFimStr);
+        } catch (DateTimeParseException e) {
+            return dataInvalida();
+        }
+
+        EntityTag etag = RespostaCondicional.etag(request, versaoDados.atual());
+        Response naoModificado = RespostaCondicional.naoModificado(request, etag);
+        if (naoModificado != null) {
+            return naoModificado;
+        }
+
+        List<DepartamentoGastosDTO> resultado = registry.timer("gerenciador.agregacao", "consulta", "gastos-departamentos")
+                .record(() -> gastosPorPeriodo.porDepartamento(dataInicio, dataFim));
+
+        return RespostaCondicional.ok(resultado, etag).build();
+    }
+
+    /**
+     * Resume as tarefas de cada departamento: quantidade, tarefas abertas, total
+     * de minutos e média de minutos por tarefa, opcionalmente apenas das tarefas com
+     * prazo em um período.
+     * <p>
+     * O resumo é calculado sobre a cópia em colunas das tarefas mantida em
+     * memória ({@link InstantaneoTarefas}), sem consultar o banco. Reflete as
+     * alterações já confirmadas pela API.
+     * </p>
+     * <p>
+     * Como as demais agregações, responde 304 Not Modified enquanto a versão
+     * dos dados for a informada em {@code If-None-Match}.
+     * </p>
+     *
+     * @param dataInicioStr A data de início do período (formato AAAA-MM-DD), ou ausente.
+     * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD), ou ausente.
+     * @param request       A requisição, usada para avaliar o {@code If-None-Match}.
+     * @return Uma resposta HTTP 200 OK com o resumo por departamento, 304 Not
+     *         Modified se os dados não mudaram, ou 400 Bad Request se apenas uma
+     *         das datas for informada ou se alguma for inválida.
+     */
+    @GET
+    @Path("/tarefas")
+    public Response resumirTarefasPorDepartamento(
+            @QueryParam("dataInicio") String dataInicioStr,
+            @QueryParam("dataFim") String dataFimStr,
+            @Context Request request) {
+
+        if ((dataInicioStr == null) != (dataFimStr == null)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("Informe dataInicio e dataFim, ou nenhuma das duas.")
+                           .build();
+        }
+        LocalDate dataInicio;
+        LocalDate dataFim;
+        try {
+            dataInicio = dataInicioStr == null ? null : LocalDate.parse(dataInicioStr);
+            dataFim = dataFimStr == null ? null : LocalDate.parse(dataFimStr);
+        } catch (DateTimeParseException e) {
+            return dataInvalida();
+        }
+
+        EntityTag etag = RespostaCondicional.etag(request, versaoDados.atual());
+        Response naoModificado = RespostaCondicional.naoModificado(request, etag);
+        if (naoModificado != null) {
+            return naoModificado;
+        }
+
+        List<DepartamentoTarefasDTO> resultado = registry.timer("gerenciador.agregacao", "consulta", "tarefas-departamentos")
+                .record(() -> instantaneoTarefas.porDepartamento(dataInicio, dataFim));
+
+        return RespostaCondicional.ok(resultado, etag).build();
+    }
+
+    private static Response dataInvalida() {
+        return Response.status(Response.Status.BAD_REQUEST)
+                       .entity("Formato de data inválido. Use o padrão AAAA-MM-DD.")
+                       .build();
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,41 @@
 package br.com.selecao.resource;
 
+import br.com.selecao.dto.ImportacaoDTO;
 import br.com.selecao.dto.PessoaComHorasDTO;
 import br.com.selecao.dto.PessoaDTO;
 import br.com.selecao.dto.PessoaMediaHorasDTO;
+import br.com.selecao.dto.PessoaResumoDTO;
+import br.com.selecao.dto.PessoaTarefasDTO;
+import br.com.selecao.evento.PessoaAlterada;
+import br.com.selecao.evento.PessoaEstado;
 import br.com.selecao.model.Pessoa;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import br.com.selecao.model.PessoaEstatistica;
+import br.com.selecao.serializacao.EscritorCbor;
+import br.com.selecao.service.DicionarioDepartamentos;
+import br.com.selecao.service.GastosPorPeriodo;
+import br.com.selecao.service.ImportacaoService;
+import br.com.selecao.service.InstantaneoTarefas;
+import br.com.selecao.service.VersaoDados;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Recurso REST para gerenciar as Pessoas no sistema.
@@ -22,37 +45,137 @@ import java.util.stream.Collectors;
  * </p>
  */
 @Path("/pessoas")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, EscritorCbor.APPLICATION_CBOR})
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class PessoaResource {
     /**
-     * Lista todas as pessoas, incluindo o total de horas gastas em suas tarefas.
+     * Consulta de projeção que pagina as pessoas por ID (paginação por chave),
+     * com o total de horas das tarefas de cada pessoa da página.
      * <p>
-     * Este método calcula a soma da duração de todas as tarefas para cada pessoa.
+     * O total vem de {@link PessoaEstatistica}, mantida a cada alteração de
+     * tarefa: cada pessoa da página lê uma única linha pela chave primária, sem
+     * percorrer as suas tarefas, e nenhuma entidade é carregada. O departamento
+     * vem como ID e o nome é resolvido pelo dicionário em memória.
+     * </p>
+     */
+    private static final String CONSULTA_PESSOAS_COM_HORAS = """
+            select p.id, p.nome, p.departamentoId, coalesce(e.horasTotais, 0)
+            from Pessoa p
+            left join PessoaEstatistica e on e.pessoaId = p.id
+            where p.id > :after
+            order by p.id
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Event<PessoaAlterada> pessoaAlterada;
+
+    @Inject
+    ImportacaoService importacaoService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    VersaoDados versaoDados;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    @Inject
+    InstantaneoTarefas instantaneoTarefas;
+
+    /**
+     * Quantidade de pessoas por página quando o cliente não informa o parâmetro {@code limit}.
+     */
+    @ConfigProperty(name = "gerenciador.pessoas.limite-padrao", defaultValue = "100")
+    int limitePadrao;
+
+    /**
+     * Maior quantidade de pessoas que pode ser pedida em uma única página.
+     */
+    @ConfigProperty(name = "gerenciador.pessoas.limite-maximo", defaultValue = "1000")
+    int limiteMaximo;
+
+    /**
+     * Lista as pessoas, incluindo o total de horas gastas em suas tarefas.
+     * <p>
+     * A listagem é paginada por chave: cada página traz até {@code limit} pessoas
+     * com ID maior que {@code after}, em ordem crescente de ID. Quando a página
+     * está cheia, o cabeçalho {@code Link} (rel="next") aponta para a próxima.
+     * </p>
+     * <p>
+     * A resposta traz a versão atual dos dados como ETag; se o cliente enviar a
+     * mesma versão em {@code If-None-Match}, a resposta é 304 Not Modified, sem
+     * consultar o banco.
      * </p>
      *
-     * @return Uma resposta HTTP 200 OK com a lista de pessoas e suas horas totais.
+     * @param after   O ID a partir do qual a página começa (exclusivo). Padrão: 0.
+     * @param limit   A quantidade máxima de pessoas na página.
+     * @param uriInfo Informações da requisição, usadas para montar o link da próxima página.
+     * @param request A requisição, usada para avaliar o {@code If-None-Match}.
+     * @return Uma resposta HTTP 200 OK com a página de pessoas e suas horas totais,
+     *         304 Not Modified se os dados não mudaram, ou 400 Bad Request se o limite for inválido.
      */
     @GET
-    public Response listarPessoas() {
-        List<Pessoa> todasAsPessoas = Pessoa.listAll();
-
-        // Transforma a lista de entidades Pessoa em uma lista de DTOs.
-        List<PessoaComHorasDTO> resultado = todasAsPessoas.stream().map(pessoa -> {
-            // Para cada pessoa, soma a duração de suas tarefas.
-            int totalHoras = pessoa.tarefas.stream()
-                                           .mapToInt(tarefa -> tarefa.duracao)
-                                           .sum();
-            
-            // Cria o DTO com os dados calculados.
-            return new PessoaComHorasDTO(pessoa.nome, pessoa.departamento, totalHoras);
-        }).collect(Collectors.toList());
+    public Response listarPessoas(
+            @QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") Integer limit,
+            @Context UriInfo uriInfo,
+            @Context Request request) {
 
-        return Response.ok(resultado).build();
+        int limite = limit == null ? limitePadrao : limit;
+        if (limite < 1 || limite > limiteMaximo) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("O parâmetro limit deve estar entre 1 e " + limiteMaximo + ".")
+                           .build();
+        }
+
+        EntityTag etag = RespostaCondicional.etag(request, versaoDados.atual());
+        Response naoModificado = RespostaCondicional.naoModificado(request, etag);
+        if (naoModificado != null) {
+            return naoModificado;
+        }
+
+        List<Object[]> linhas = registry.timer("gerenciador.agregacao", "consulta", "horas-por-pessoa")
+                .record(() -> entityManager
+                        .createQuery(CONSULTA_PESSOAS_COM_HORAS, Object[].class)
+                        .setParameter("after", after)
+                        .setMaxResults(limite)
+                        .getResultList());
+
+        List<PessoaComHorasDTO> resultado = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            resultado.add(new PessoaComHorasDTO((Long) linha[0], (String) linha[1],
+                    departamentos.nome((Integer) linha[2]), ((Number) linha[3]).longValue()));
+        }
+
+        Response.ResponseBuilder resposta = RespostaCondicional.ok(resultado, etag);
+
+        // Página cheia: pode haver mais pessoas após o último ID retornado.
+        if (resultado.size() == limite) {
+            Long ultimoId = resultado.get(resultado.size() - 1).id;
+            resposta.link(uriInfo.getRequestUriBuilder()
+                                 .replaceQueryParam("after", ultimoId)
+                                 .replaceQueryParam("limit", limite)
+                                 .build(), "next");
+        }
+
+        return resposta.build();
     }
 
     /**
      * Busca uma única pessoa pelo seu ID.
+     * <p>
+     * A entidade costuma vir do cache de segundo nível, sem consultar o banco;
+     * a resposta traz apenas os dados básicos da pessoa, sem a lista de tarefas.
+     * </p>
      *
      * @param id O ID da pessoa a ser encontrada.
      * @return Uma resposta HTTP 200 OK com os dados da pessoa, ou 404 Not Found caso não encontre.
@@ -64,23 +187,48 @@ public class PessoaResource {
         if (pessoa == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
-        return Response.ok(pessoa).build();
+        return Response.ok(PessoaResumoDTO.de(pessoa, departamentos::nome)).build();
     }
 
     /**
      * Busca pessoas por nome e período, retornando a média de horas gastas por tarefa.
+     * <p>
+     * A busca e a média são resolvidas em uma única consulta ao banco de dados,
+     * que soma os totais pré-agregados por mês e por dia de {@link GastosPorPeriodo}
+     * em vez de ler as tarefas do período.
+     * </p>
+     * <p>
+     * Como a listagem de pessoas, a busca é paginada por chave ({@code after} e
+     * {@code limit}), com o cabeçalho {@code Link} (rel="next") quando a página
+     * está cheia; assim um trecho comum a muitos nomes não soma os baldes de
+     * todas as pessoas encontradas em uma única resposta.
+     * </p>
      *
      * @param nome          O nome da pessoa para buscar (busca parcial, ignora maiúsculas/minúsculas).
      * @param dataInicioStr A data de início do período (formato AAAA-MM-DD).
      * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD).
-     * @return Uma lista de pessoas que correspondem aos critérios com sua média de horas por tarefa.
+     * @param after         O ID a partir do qual a página começa (exclusivo). Padrão: 0.
+     * @param limit         A quantidade máxima de pessoas na página.
+     * @param uriInfo       Informações da requisição, usadas para montar o link da próxima página.
+     * @return Uma resposta HTTP 200 OK com a página de pessoas que correspondem aos critérios e sua
+     *         média de horas por tarefa, ou 400 Bad Request se uma data ou o limite forem inválidos.
      */
     @GET
     @Path("/gastos")
     public Response buscarGastosPorPessoa(
             @QueryParam("nome") String nome,
             @QueryParam("dataInicio") String dataInicioStr,
-            @QueryParam("dataFim") String dataFimStr) {
+            @QueryParam("dataFim") String dataFimStr,
+            @QueryParam("after") @DefaultValue("0") long after,
+            @QueryParam("limit") Integer limit,
+            @Context UriInfo uriInfo) {
+
+        int limite = limit == null ? limitePadrao : limit;
+        if (limite < 1 || limite > limiteMaximo) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("O parâmetro limit deve estar entre 1 e " + limiteMaximo + ".")
+                           .build();
+        }
 
         LocalDate dataInicio;
         LocalDate dataFim;
@@ -95,46 +243,127 @@ public class PessoaResource {
                            .build();
         }
 
-        PanacheQuery<Pessoa> query = Pessoa.find("lower(nome) like ?1", "%" + nome.toLowerCase() + "%");
-        List<Pessoa> pessoasEncontradas = query.list();
+        String trecho = nome == null ? "" : nome.toLowerCase();
+
+        List<PessoaMediaHorasDTO> resultado = registry.timer("gerenciador.agregacao", "consulta", "media-horas-no-periodo")
+                .record(() -> gastosPorPeriodo.mediasPorPessoa(trecho, dataInicio, dataFim, after, limite));
 
-        List<PessoaMediaHorasDTO> resultado = pessoasEncontradas.stream().map(pessoa -> {
-            
-            // Calcula a média de horas das tarefas da pessoa dentro do período especificado.
-            double media = pessoa.tarefas.stream()
-                .filter(tarefa -> !tarefa.prazo.isBefore(dataInicio) && !tarefa.prazo.isAfter(dataFim))
-                .mapToInt(tarefa -> tarefa.duracao)
-                .average()
-                .orElse(0.0);
+        Response.ResponseBuilder resposta = Response.ok(resultado);
 
-            return new PessoaMediaHorasDTO(pessoa.nome, media);
+        // Página cheia: pode haver mais pessoas após o último ID retornado.
+        if (resultado.size() == limite) {
+            Long ultimoId = resultado.get(resultado.size() - 1).id;
+            resposta.link(uriInfo.getRequestUriBuilder()
+                                 .replaceQueryParam("after", ultimoId)
+                                 .replaceQueryParam("limit", limite)
+                                 .build(), "next");
+        }
 
-        }).collect(Collectors.toList());
+        return resposta.build();
+    }
 
-        return Response.ok(resultado).build();
+    /**
+     * Resume as tarefas alocadas a cada pessoa: quantidade, tarefas abertas,
+     * total de minutos e média de minutos por tarefa, opcionalmente apenas das
+     * tarefas com prazo em um período.
+     * <p>
+     * Como o resumo por departamento, é calculado sobre a cópia em colunas das
+     * tarefas mantida em memória ({@link InstantaneoTarefas}), sem consultar o
+     * banco, e responde 304 Not Modified enquanto os dados não mudarem.
+     * </p>
+     *
+     * @param dataInicioStr A data de início do período (formato AAAA-MM-DD), ou ausente.
+     * @param dataFimStr    A data de fim do período (formato AAAA-MM-DD), ou ausente.
+     * @param request       A requisição, usada para avaliar o {@code If-None-Match}.
+     * @return Uma resposta HTTP 200 OK com o resumo por pessoa, em ordem de ID,
+     *         304 Not Modified se os dados não mudaram, ou 400 Bad Request se
+     *         apenas uma das datas for informada ou se alguma for inválida.
+     */
+    @GET
+    @Path("/tarefas")
+    public Response resumirTarefasPorPessoa(
+            @QueryParam("dataInicio") String dataInicioStr,
+            @QueryParam("dataFim") String dataFimStr,
+            @Context Request request) {
+
+        if ((dataInicioStr == null) != (dataFimStr == null)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("Informe dataInicio e dataFim, ou nenhuma das duas.")
+                           .build();
+        }
+        LocalDate dataInicio;
+        LocalDate dataFim;
+        try {
+            dataInicio = dataInicioStr == null ? null : LocalDate.parse(dataInicioStr);
+            dataFim = dataFimStr == null ? null : LocalDate.parse(dataFimStr);
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("Formato de data inválido. Use o padrão AAAA-MM-DD.")
+                           .build();
+        }
+
+        EntityTag etag = RespostaCondicional.etag(request, versaoDados.atual());
+        Response naoModificado = RespostaCondicional.naoModificado(request, etag);
+        if (naoModificado != null) {
+            return naoModificado;
+        }
+
+        List<PessoaTarefasDTO> resultado = registry.timer("gerenciador.agregacao", "consulta", "tarefas-pessoas")
+                .record(() -> instantaneoTarefas.porPessoa(dataInicio, dataFim));
+
+        return RespostaCondicional.ok(resultado, etag).build();
     }
 
     /**
      * Cria uma nova Pessoa.
-     * O método é transacional para garantir a integridade dos dados.
+     * <p>
+     * O departamento é resolvido antes da transação que grava a pessoa, para
+     * que a criação de um departamento novo não ocupe uma segunda conexão.
+     * </p>
      *
      * @param pessoaDTO Os dados da nova pessoa, recebidos do corpo da requisição.
      * @return Uma resposta HTTP 201 Created com os dados da pessoa recém-criada.
      */
     @POST
-    @Transactional
     public Response adicionarPessoa(PessoaDTO pessoaDTO) {
-        Pessoa novaPessoa = new Pessoa();
-        novaPessoa.nome = pessoaDTO.nome;
-        novaPessoa.departamento = pessoaDTO.departamento;
+        Integer departamentoId = departamentos.registrar(pessoaDTO.departamento);
+
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Pessoa novaPessoa = new Pessoa();
+            novaPessoa.nome = pessoaDTO.nome;
+            novaPessoa.departamentoId = departamentoId;
 
-        novaPessoa.persist();
+            ConexaoTransacao.reservar(entityManager);
+            novaPessoa.persist();
+            pessoaAlterada.fire(new PessoaAlterada(null, PessoaEstado.de(novaPessoa)));
 
-        return Response.status(Response.Status.CREATED).entity(novaPessoa).build();
+            return Response.status(Response.Status.CREATED).entity(PessoaResumoDTO.de(novaPessoa, departamentos::nome)).build();
+        });
+    }
+
+    /**
+     * Importa pessoas em lote a partir de um corpo NDJSON, com um {@link PessoaDTO} por linha.
+     * <p>
+     * O corpo é lido de forma incremental e gravado em lotes, cada um em sua
+     * própria transação. Um lote com erro é descartado sem afetar os demais.
+     * </p>
+     *
+     * @param corpo O corpo da requisição.
+     * @return Uma resposta HTTP 200 OK com o resumo da importação e os erros por lote.
+     */
+    @POST
+    @Path("/importacao")
+    @Consumes(TarefaResource.APPLICATION_NDJSON)
+    public Response importarPessoas(InputStream corpo) {
+        ImportacaoDTO resultado = importacaoService.importarPessoas(corpo);
+        return Response.ok(resultado).build();
     }
 
     /**
      * Atualiza os dados de uma pessoa existente.
+     * <p>
+     * Como na criação, o departamento é resolvido antes da transação.
+     * </p>
      *
      * @param id        O ID da pessoa a ser atualizada.
      * @param pessoaDTO Os novos dados para a pessoa.
@@ -142,24 +371,33 @@ public class PessoaResource {
      */
     @PUT
     @Path("/{id}")
-    @Transactional
     public Response alterarPessoa(@PathParam("id") Long id, PessoaDTO pessoaDTO) {
-        Pessoa pessoa = Pessoa.findById(id);
-        if (pessoa == null) {
-            return Response.status(Response.Status.NOT_FOUND).build();
-        }
+        Integer departamentoId = departamentos.registrar(pessoaDTO.departamento);
+
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Pessoa pessoa = Pessoa.findById(id);
+            if (pessoa == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+
+            // Atualiza os campos da entidade com os dados do DTO.
+            PessoaEstado antes = PessoaEstado.de(pessoa);
+            pessoa.nome = pessoaDTO.nome;
+            pessoa.departamentoId = departamentoId;
+            pessoaAlterada.fire(new PessoaAlterada(antes, PessoaEstado.de(pessoa)));
 
-        // Atualiza os campos da entidade com os dados do DTO.
-        pessoa.nome = pessoaDTO.nome;
-        pessoa.departamento = pessoaDTO.departamento;
-        
-        // As alterações são salvas automaticamente ao final da transação.
-        
-        return Response.ok(pessoa).build();
+            // As alterações são salvas automaticamente ao final da transação.
+
+            return Response.ok(PessoaResumoDTO.de(pessoa, departamentos::nome)).build();
+        });
     }
 
     /**
      * Remove uma pessoa pelo seu ID.
+     * <p>
+     * Os totais da pessoa ({@link PessoaEstatistica}) são removidos pelo banco
+     * na mesma transação ({@code ON DELETE CASCADE}).
+     * </p>
      *
      * @param id O ID da pessoa a ser removida, recebido do caminho da URL.
      * @return Uma resposta HTTP 204 No Content em caso de sucesso, ou 404 Not Found.
@@ -172,6 +410,7 @@ public class PessoaResource {
 
         if (pessoa != null) {
             pessoa.delete();
+            pessoaAlterada.fire(new PessoaAlterada(PessoaEstado.de(pessoa), null));
             // A resposta padrão para um DELETE bem-sucedido é 204 No Content.
             return Response.noContent().build();
         }
@@ -0,0 +1,77 @@
+package br.com.selecao.resource;
+
+import br.com.selecao.serializacao.EscritorCbor;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Variant;
+
+import java.util.List;
+
+/**
+ * Apoio às respostas condicionais (ETag e {@code If-None-Match}) das listagens.
+ * <p>
+ * A mesma versão dos dados tem uma representação por formato (JSON ou CBOR),
+ * e cada uma recebe sua própria ETag, para que um cache nunca entregue o corpo
+ * de um formato a quem pediu o outro.
+ * </p>
+ */
+final class RespostaCondicional {
+    /**
+     * Permite que o cliente guarde a resposta, mas o obriga a revalidá-la pela ETag a cada uso.
+     */
+    static final CacheControl REVALIDAR = CacheControl.valueOf("no-cache");
+
+    /**
+     * Formatos em que as listagens podem ser representadas, na ordem de preferência.
+     */
+    private static final List<Variant> VARIANTES = Variant
+            .mediaTypes(MediaType.APPLICATION_JSON_TYPE, EscritorCbor.APPLICATION_CBOR_TYPE)
+            .build();
+
+    private RespostaCondicional() {
+    }
+
+    /**
+     * Monta a ETag da representação que será devolvida para esta requisição.
+     *
+     * @param request A requisição, cujo {@code Accept} define o formato.
+     * @param versao  A versão atual dos dados.
+     * @return A ETag da versão no formato negociado.
+     */
+    static EntityTag etag(Request request, String versao) {
+        Variant variante = request.selectVariant(VARIANTES);
+        MediaType formato = variante == null ? MediaType.APPLICATION_JSON_TYPE : variante.getMediaType();
+        return new EntityTag(versao + "-" + formato.getSubtype());
+    }
+
+    /**
+     * Avalia o {@code If-None-Match} da requisição contra a ETag atual.
+     *
+     * @param request A requisição.
+     * @param etag    A ETag da representação atual.
+     * @return Uma resposta 304 Not Modified, ou {@code null} se o corpo precisar ser gerado.
+     */
+    static Response naoModificado(Request request, EntityTag etag) {
+        Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+        return naoModificado == null ? null : condicional(naoModificado, etag).build();
+    }
+
+    /**
+     * Inicia uma resposta 200 OK com a ETag e os cabeçalhos de revalidação.
+     *
+     * @param corpo O corpo da resposta.
+     * @param etag  A ETag da representação.
+     * @return O construtor da resposta, para que o chamador acrescente outros cabeçalhos.
+     */
+    static Response.ResponseBuilder ok(Object corpo, EntityTag etag) {
+        return condicional(Response.ok(corpo), etag);
+    }
+
+    private static Response.ResponseBuilder condicional(Response.ResponseBuilder resposta, EntityTag etag) {
+        return resposta.tag(etag).cacheControl(REVALIDAR).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+}
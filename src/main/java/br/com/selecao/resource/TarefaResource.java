@@ -1,14 +1,65 @@
 package br.com.selecao.resource;
 
+import br.com.selecao.dto.AlocacaoLoteDTO;
+import br.com.selecao.dto.FinalizacaoLoteDTO;
+import br.com.selecao.dto.ImportacaoDTO;
 import br.com.selecao.dto.TarefaDTO;
+import br.com.selecao.dto.TarefaDetalheDTO;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
 import br.com.selecao.model.Pessoa;
 import br.com.selecao.model.Tarefa;
-import io.quarkus.panache.common.Sort;
+import br.com.selecao.serializacao.EscritorCbor;
+import br.com.selecao.service.AlocacaoLoteService;
+import br.com.selecao.service.AlocacaoService;
+import br.com.selecao.service.DicionarioDepartamentos;
+import br.com.selecao.service.EstatisticasPessoas;
+import br.com.selecao.service.FilaFinalizacao;
+import br.com.selecao.service.ImportacaoService;
+import br.com.selecao.service.IndiceTarefasPendentes;
+import br.com.selecao.service.ModoFinalizacao;
+import br.com.selecao.service.TarefaService;
+import br.com.selecao.service.TarefaService.TarefaComPessoa;
+import br.com.selecao.service.VersaoDados;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 /**
  * Recurso REST para o gerenciamento de Tarefas.
@@ -19,79 +70,437 @@ import java.util.List;
  * </p>
  */
 @Path("/tarefas")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, EscritorCbor.APPLICATION_CBOR})
 @Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
 public class TarefaResource {
+    /**
+     * Tipo de mídia do JSON delimitado por quebras de linha (um objeto por linha).
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /**
+     * Consulta de projeção da listagem de tarefas. A pessoa alocada é trazida
+     * pelo próprio {@code left join}, apenas com as colunas do resumo. Os
+     * departamentos vêm como IDs e os nomes são resolvidos pelo dicionário em memória.
+     */
+    private static final String CONSULTA_TAREFAS = """
+            select t.id, t.titulo, t.descricao, t.prazo, t.departamentoId, t.duracao, t.finalizado,
+                p.id, p.nome, p.departamentoId
+            from Tarefa t
+            left join t.pessoaAlocada p
+            order by t.id
+            """;
+
+    /**
+     * Consulta usada pela listagem em fluxo. A pessoa alocada é trazida pelo
+     * próprio {@code JOIN}, evitando uma consulta extra por tarefa.
+     */
+    private static final String CONSULTA_TAREFAS_EM_FLUXO = """
+            SELECT t.id, t.titulo, t.descricao, t.prazo, t.departamento_id, t.duracao, t.finalizado,
+                   p.id, p.nome, p.departamento_id
+              FROM Tarefa t
+              LEFT JOIN Pessoa p ON p.id = t.pessoaAlocada_id
+             ORDER BY t.id
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    AlocacaoService alocacaoService;
+
+    @Inject
+    AlocacaoLoteService alocacaoLoteService;
+
+    @Inject
+    ImportacaoService importacaoService;
+
+    @Inject
+    IndiceTarefasPendentes indiceTarefasPendentes;
+
+    @Inject
+    TarefaService tarefaService;
+
+    @Inject
+    FilaFinalizacao filaFinalizacao;
+
+    @Inject
+    VersaoDados versaoDados;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
+
+    @Inject
+    Event<TarefaAlterada> tarefaAlterada;
+
+    /**
+     * Quantidade de linhas buscadas do cursor do banco a cada ida ao servidor.
+     * Também define de quantas em quantas tarefas a resposta é descarregada para o cliente.
+     */
+    @ConfigProperty(name = "gerenciador.tarefas.fluxo.tamanho-busca", defaultValue = "500")
+    int tamanhoBusca;
+
+    /**
+     * Quantidade máxima de pessoas escolhidas para uma mesma alocação, quando
+     * as anteriores não existem mais no banco.
+     */
+    @ConfigProperty(name = "gerenciador.alocacao.tentativas", defaultValue = "3")
+    int tentativasAlocacao;
+
+    /**
+     * Tempo máximo que uma finalização no modo agrupado espera pela gravação
+     * do lote antes de responder 202 Accepted.
+     */
+    @ConfigProperty(name = "gerenciador.finalizacao.espera-maxima", defaultValue = "5s")
+    Duration esperaFinalizacao;
+
+    /**
+     * Quantidade de tarefas pendentes listadas quando o cliente não informa o parâmetro {@code limit}.
+     */
+    @ConfigProperty(name = "gerenciador.tarefas.pendentes.limite-padrao", defaultValue = "3")
+    int limitePendentesPadrao;
+
+    /**
+     * Maior quantidade de tarefas pendentes que pode ser pedida de uma vez.
+     */
+    @ConfigProperty(name = "gerenciador.tarefas.pendentes.limite-maximo", defaultValue = "100")
+    int limitePendentesMaximo;
+
     /**
      * Cria uma nova tarefa no sistema.
+     * <p>
+     * O departamento é resolvido antes da transação que grava a tarefa, para
+     * que a criação de um departamento novo não ocupe uma segunda conexão.
+     * </p>
      *
      * @param tarefaDTO Os dados da nova tarefa.
      * @return Uma resposta HTTP 201 Created com a nova tarefa, ou 404 Not Found se a pessoa informada não existir.
      */
     @POST
-    @Transactional
     public Response adicionarTarefa(TarefaDTO tarefaDTO) {
-        Pessoa pessoaAlocada = null;
-        // Verifica se foi fornecido o ID de uma pessoa para alocar na tarefa.
-        if (tarefaDTO.pessoaAlocadaId != null) {
-            pessoaAlocada = Pessoa.findById(tarefaDTO.pessoaAlocadaId);
-            if (pessoaAlocada == null) {
-                // Retorna 404 caso a pessoa especificada para alocação não exista.
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("Pessoa com id " + tarefaDTO.pessoaAlocadaId + " não encontrada.")
-                        .build();
+        Integer departamentoId = departamentos.registrar(tarefaDTO.departamento);
+
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Pessoa pessoaAlocada = null;
+            // Verifica se foi fornecido o ID de uma pessoa para alocar na tarefa.
+            if (tarefaDTO.pessoaAlocadaId != null) {
+                pessoaAlocada = Pessoa.findById(tarefaDTO.pessoaAlocadaId);
+                if (pessoaAlocada == null) {
+                    // Retorna 404 caso a pessoa especificada para alocação não exista.
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("Pessoa com id " + tarefaDTO.pessoaAlocadaId + " não encontrada.")
+                            .build();
+                }
             }
-        }
-        
-        // Cria uma nova entidade Tarefa a partir do DTO.
-        Tarefa novaTarefa = new Tarefa();
-        novaTarefa.titulo = tarefaDTO.titulo;
-        novaTarefa.descricao = tarefaDTO.descricao;
-        novaTarefa.prazo = tarefaDTO.prazo;
-        novaTarefa.departamento = tarefaDTO.departamento;
-        novaTarefa.duracao = tarefaDTO.duracao;
-        novaTarefa.pessoaAlocada = pessoaAlocada;
-        novaTarefa.finalizado = false; // Uma nova tarefa sempre começa como não finalizada.
-
-        // Persiste a nova entidade no banco de dados.
-        novaTarefa.persist();
-
-        return Response.status(Response.Status.CREATED).entity(novaTarefa).build();
+
+            // Cria uma nova entidade Tarefa a partir do DTO.
+            Tarefa novaTarefa = new Tarefa();
+            novaTarefa.titulo = tarefaDTO.titulo;
+            novaTarefa.descricao = tarefaDTO.descricao;
+            novaTarefa.prazo = tarefaDTO.prazo;
+            novaTarefa.departamentoId = departamentoId;
+            novaTarefa.duracao = tarefaDTO.duracao;
+            novaTarefa.pessoaAlocada = pessoaAlocada;
+            novaTarefa.finalizado = false; // Uma nova tarefa sempre começa como não finalizada.
+
+            // Persiste a nova entidade no banco de dados.
+            ConexaoTransacao.reservar(entityManager);
+            novaTarefa.persist();
+            TarefaAlterada criacao = new TarefaAlterada(null, TarefaEstado.de(novaTarefa));
+            estatisticas.registrar(List.of(criacao));
+            tarefaAlterada.fire(criacao);
+
+            return Response.status(Response.Status.CREATED).entity(TarefaDetalheDTO.de(novaTarefa, departamentos::nome)).build();
+        });
+    }
+
+    /**
+     * Importa tarefas em lote a partir de um corpo NDJSON, com um {@link TarefaDTO} por linha.
+     * <p>
+     * As pessoas referenciadas por {@code pessoaAlocadaId} são verificadas com
+     * uma única consulta por lote; tarefas que referenciam pessoas inexistentes
+     * são rejeitadas individualmente e aparecem nos erros do resultado.
+     * </p>
+     *
+     * @param corpo O corpo da requisição.
+     * @return Uma resposta HTTP 200 OK com o resumo da importação e os erros por lote.
+     */
+    @POST
+    @Path("/importacao")
+    @Consumes(APPLICATION_NDJSON)
+    public Response importarTarefas(InputStream corpo) {
+        ImportacaoDTO resultado = importacaoService.importarTarefas(corpo);
+        return Response.ok(resultado).build();
     }
 
     /**
      * Lista todas as tarefas cadastradas.
+     * <p>
+     * As tarefas e suas pessoas alocadas são lidas por uma única consulta de
+     * projeção, sem carregar entidades. A resposta traz a versão atual dos
+     * dados como ETag; se o cliente enviar a mesma versão em
+     * {@code If-None-Match}, a resposta é 304 Not Modified, sem consultar o banco.
+     * </p>
+     *
+     * @param request A requisição, usada para avaliar o {@code If-None-Match}.
+     * @return Uma resposta HTTP 200 OK com a lista de todas as tarefas, ou 304
+     *         Not Modified se os dados não mudaram.
+     */
+    @GET
+    public Response listarTarefas(@Context Request request) {
+        EntityTag etag = RespostaCondicional.etag(request, versaoDados.atual());
+        Response naoModificado = RespostaCondicional.naoModificado(request, etag);
+        if (naoModificado != null) {
+            return naoModificado;
+        }
+
+        List<Object[]> linhas = entityManager.createQuery(CONSULTA_TAREFAS, Object[].class).getResultList();
+
+        List<TarefaDetalheDTO> tarefas = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            tarefas.add(new TarefaDetalheDTO((Long) linha[0], (String) linha[1], (String) linha[2],
+                    (LocalDate) linha[3], departamentos.nome((Integer) linha[4]), (Integer) linha[5],
+                    (Boolean) linha[6], (Long) linha[7], (String) linha[8], departamentos.nome((Integer) linha[9])));
+        }
+        return RespostaCondicional.ok(tarefas, etag).build();
+    }
+
+    /**
+     * Lista todas as tarefas em fluxo, no formato NDJSON (uma tarefa por linha).
+     * <p>
+     * As tarefas são lidas de um cursor do banco de dados com tamanho de busca fixo
+     * e escritas na resposta à medida que chegam, sem que a lista completa seja
+     * montada em memória. Se o cliente se desconectar, a consulta é cancelada.
+     * </p>
      *
-     * @return Uma resposta HTTP 200 OK com a lista de todas as tarefas.
+     * @return Uma resposta HTTP 200 OK cujo corpo é escrito em partes.
      */
     @GET
-    public Response listarTarefas() {
-        List<Tarefa> tarefas = Tarefa.listAll();
-        return Response.ok(tarefas).build();
+    @Path("/fluxo")
+    @Produces(APPLICATION_NDJSON)
+    public Response listarTarefasEmFluxo() {
+        StreamingOutput fluxo = this::escreverTarefasEmFluxo;
+        return Response.ok(fluxo).build();
+    }
+
+    /**
+     * Percorre o cursor de tarefas e escreve cada linha como um objeto JSON.
+     *
+     * @param saida O corpo da resposta HTTP.
+     * @throws IOException Se a escrita falhar, por exemplo quando o cliente se desconecta.
+     */
+    private void escreverTarefasEmFluxo(OutputStream saida) throws IOException {
+        try (Connection conexao = dataSource.getConnection()) {
+            // O driver do PostgreSQL só usa cursor no servidor fora do modo auto-commit.
+            conexao.setAutoCommit(false);
+            try (PreparedStatement consulta = conexao.prepareStatement(CONSULTA_TAREFAS_EM_FLUXO)) {
+                consulta.setFetchSize(tamanhoBusca);
+                try (ResultSet linhas = consulta.executeQuery();
+                     JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                    // Cada objeto termina com sua própria quebra de linha; sem separador extra.
+                    gerador.setRootValueSeparator(null);
+                    escreverLinhas(linhas, gerador);
+                } catch (IOException e) {
+                    // O cliente se desconectou: interrompe a consulta em vez de ler o restante do cursor.
+                    consulta.cancel();
+                    throw e;
+                }
+            } finally {
+                conexao.rollback();
+                conexao.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Falha ao ler as tarefas do banco de dados.", e);
+        }
+    }
+
+    /**
+     * Escreve as linhas do cursor no formato NDJSON, com a mesma estrutura de
+     * campos da listagem em JSON.
+     */
+    private void escreverLinhas(ResultSet linhas, JsonGenerator gerador) throws SQLException, IOException {
+        int escritasDesdeDescarga = 0;
+        while (linhas.next()) {
+            gerador.writeStartObject();
+            gerador.writeNumberField("id", linhas.getLong(1));
+            gerador.writeStringField("titulo", linhas.getString(2));
+            gerador.writeStringField("descricao", linhas.getString(3));
+            Date prazo = linhas.getDate(4);
+            gerador.writeStringField("prazo", prazo == null ? null : prazo.toLocalDate().toString());
+            gerador.writeStringField("departamento", departamentos.nome(linhas.getObject(5, Integer.class)));
+            gerador.writeNumberField("duracao", linhas.getInt(6));
+            gerador.writeBooleanField("finalizado", linhas.getBoolean(7));
+
+            long pessoaId = linhas.getLong(8);
+            if (linhas.wasNull()) {
+                gerador.writeNullField("pessoaAlocada");
+            } else {
+                gerador.writeObjectFieldStart("pessoaAlocada");
+                gerador.writeNumberField("id", pessoaId);
+                gerador.writeStringField("nome", linhas.getString(9));
+                gerador.writeStringField("departamento", departamentos.nome(linhas.getObject(10, Integer.class)));
+                gerador.writeEndObject();
+            }
+            gerador.writeEndObject();
+            gerador.writeRaw('\n');
+
+            // Descarrega a cada lote buscado, para que o cliente receba os dados
+            // à medida que chegam e para detectar logo uma desconexão.
+            if (++escritasDesdeDescarga >= tamanhoBusca) {
+                gerador.flush();
+                escritasDesdeDescarga = 0;
+            }
+        }
+        gerador.flush();
     }
 
     /**
      * Marca uma tarefa como finalizada.
+     * <p>
+     * A tarefa é finalizada por um único {@code UPDATE} condicional, que só
+     * altera a linha se ela ainda não estiver finalizada. Assim, entre
+     * finalizações concorrentes da mesma tarefa, apenas uma desconta a carga da
+     * pessoa alocada; as demais respondem com o estado atual da tarefa.
+     * </p>
+     * <p>
+     * Com {@code gerenciador.finalizacao.modo} diferente de {@code imediata}, a
+     * finalização entra na {@link FilaFinalizacao} e é gravada em lote com as
+     * demais (ver {@link ModoFinalizacao}). No modo agrupado, a tarefa é lida
+     * pela chave primária depois da gravação do lote, para que a resposta seja
+     * a mesma do modo imediato.
+     * </p>
      *
      * @param id O ID da tarefa a ser finalizada.
-     * @return Uma resposta HTTP 200 OK com a tarefa atualizada, ou 404 Not Found.
+     * @return Nos modos imediato e agrupado, uma resposta HTTP 200 OK com a
+     *         tarefa atualizada, ou 404 Not Found. No modo adiado, ou se o lote
+     *         não for gravado a tempo, 202 Accepted. Com a fila cheia, 503
+     *         Service Unavailable.
      */
     @PUT
     @Path("/finalizar/{id}")
-    @Transactional
     public Response finalizarTarefa(@PathParam("id") Long id) {
-        Tarefa tarefa = Tarefa.findById(id);
-        if (tarefa == null) {
+        if (filaFinalizacao.modo() == ModoFinalizacao.IMEDIATA) {
+            return tarefaFinalizada(QuarkusTransaction.requiringNew().call(() -> {
+                Optional<TarefaComPessoa> finalizada = tarefaService.finalizar(id);
+                // Se nada foi alterado, a tarefa não existe ou já estava finalizada.
+                return finalizada.isPresent() ? finalizada : tarefaService.buscar(id);
+            }));
+        }
+
+        return aguardarFila(filaFinalizacao.enfileirar(List.of(id)), naoEncontradas -> naoEncontradas.isEmpty()
+                ? tarefaFinalizada(QuarkusTransaction.requiringNew().call(() -> tarefaService.buscar(id)))
+                : Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    private Response tarefaFinalizada(Optional<TarefaComPessoa> tarefa) {
+        if (tarefa.isEmpty()) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
+        return Response.ok(tarefa.get().paraDTO(departamentos::nome)).build();
+    }
+
+    /**
+     * Marca várias tarefas como finalizadas de uma vez.
+     * <p>
+     * As tarefas que ainda não estiverem finalizadas são gravadas por um único
+     * {@code UPDATE ... WHERE id IN (...)}, no modo imediato, ou pela
+     * {@link FilaFinalizacao}, nos demais modos. IDs repetidos na lista contam
+     * uma única vez.
+     * </p>
+     *
+     * @param ids Os IDs das tarefas a serem finalizadas.
+     * @return Uma resposta HTTP 200 OK com o resumo da finalização (no modo
+     *         adiado, 202 Accepted), 400 Bad Request se a lista estiver vazia ou
+     *         for maior que a fila, ou 503 Service Unavailable com a fila cheia.
+     */
+    @PUT
+    @Path("/finalizar")
+    public Response finalizarTarefas(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("Informe uma lista com os IDs das tarefas.")
+                           .build();
+        }
+        List<Long> distintos = ids.stream().distinct().toList();
+        if (distintos.size() > filaFinalizacao.capacidade()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("A lista deve ter no máximo " + filaFinalizacao.capacidade() + " tarefas.")
+                           .build();
+        }
+
+        if (filaFinalizacao.modo() == ModoFinalizacao.IMEDIATA) {
+            Set<Long> naoEncontradas = QuarkusTransaction.requiringNew()
+                    .call(() -> tarefaService.finalizarTodas(distintos));
+            return Response.ok(resumoFinalizacao(distintos, naoEncontradas)).build();
+        }
+
+        return aguardarFila(filaFinalizacao.enfileirar(distintos),
+                naoEncontradas -> Response.ok(resumoFinalizacao(distintos, naoEncontradas)).build());
+    }
+
+    /**
+     * Responde a uma finalização colocada na {@link FilaFinalizacao}, de acordo
+     * com o modo configurado.
+     *
+     * @param gravacao A gravação das finalizações, ou {@code null} se a fila estava cheia.
+     * @param aoGravar Monta a resposta a partir dos IDs não encontrados, no modo agrupado.
+     */
+    private Response aguardarFila(CompletableFuture<List<Long>> gravacao, Function<List<Long>, Response> aoGravar) {
+        if (gravacao == null) {
+            // Pede ao cliente que reduza o ritmo em vez de acumular finalizações sem limite.
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                           .header(HttpHeaders.RETRY_AFTER, 1)
+                           .entity("A fila de finalizações está cheia.")
+                           .build();
+        }
+        if (filaFinalizacao.modo() == ModoFinalizacao.ADIADA) {
+            return Response.accepted().build();
+        }
 
-        tarefa.finalizado = true;
+        try {
+            return aoGravar.apply(gravacao.get(esperaFinalizacao.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            // A finalização continua na fila e ainda será gravada.
+            return Response.accepted().build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        } catch (ExecutionException e) {
+            return Response.serverError().entity("Falha ao gravar as finalizações.").build();
+        }
+    }
 
-        return Response.ok(tarefa).build();
+    private static FinalizacaoLoteDTO resumoFinalizacao(List<Long> ids, Collection<Long> naoEncontradas) {
+        return new FinalizacaoLoteDTO(ids.size() - naoEncontradas.size(), List.copyOf(naoEncontradas));
     }
 
     /**
-     * Aloca uma tarefa para a primeira pessoa disponível do mesmo departamento.
+     * Aloca uma tarefa para a pessoa do mesmo departamento com a menor carga de
+     * trabalho em aberto.
+     * <p>
+     * A escolha é feita pelo {@link AlocacaoService}, sem consultar o banco, e a
+     * alocação é gravada por um único {@code UPDATE} condicional, que só altera
+     * a tarefa se ela continuar pendente e se a pessoa escolhida ainda existir.
+     * Entre alocações concorrentes da mesma tarefa, apenas uma é gravada; nas
+     * demais, a transação é desfeita, devolvendo ao motor a carga reservada.
+     * </p>
+     * <p>
+     * O departamento e a duração da tarefa vêm do {@link IndiceTarefasPendentes};
+     * a tarefa só é lida do banco se não estiver no índice. Se a pessoa escolhida
+     * não existir mais no banco (por ter sido removida por fora da API), ela é
+     * descartada do motor e a próxima é escolhida, até
+     * {@code gerenciador.alocacao.tentativas} vezes.
+     * </p>
      *
      * @param id O ID da tarefa a ser alocada.
      * @return Uma resposta HTTP 200 OK com a tarefa atualizada, ou um status de erro.
@@ -100,45 +509,97 @@ public class TarefaResource {
     @Path("/alocar/{id}")
     @Transactional
     public Response alocarPessoaNaTarefa(@PathParam("id") Long id) {
-        Tarefa tarefa = Tarefa.findById(id);
+        TarefaEstado tarefa = indiceTarefasPendentes.pendente(id);
         if (tarefa == null) {
-            return Response.status(Response.Status.NOT_FOUND).entity("Tarefa não encontrada.").build();
+            Optional<TarefaComPessoa> atual = tarefaService.buscar(id);
+            if (atual.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND).entity("Tarefa não encontrada.").build();
+            }
+            tarefa = atual.get().tarefa();
         }
-
-        if (tarefa.pessoaAlocada != null) {
+        if (tarefa.pessoaAlocadaId() != null) {
             return Response.status(Response.Status.BAD_REQUEST).entity("Esta tarefa já está alocada.").build();
         }
 
-        // Busca a primeira pessoa disponível no mesmo departamento da tarefa.
-        Pessoa pessoaParaAlocar = Pessoa.find("departamento", tarefa.departamento).firstResult();
-        
-        if (pessoaParaAlocar == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                           .entity("Nenhuma pessoa disponível no departamento: " + tarefa.departamento)
-                           .build();
+        for (int tentativa = 0; tentativa < tentativasAlocacao; tentativa++) {
+            // Busca a pessoa menos carregada do mesmo departamento da tarefa.
+            Long pessoaId = alocacaoService.reservar(tarefa.departamentoId(), tarefa.duracao());
+            if (pessoaId == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                               .entity("Nenhuma pessoa disponível no departamento: "
+                                       + departamentos.nome(tarefa.departamentoId()))
+                               .build();
+            }
+
+            Optional<TarefaComPessoa> alocada = tarefaService.alocar(id, pessoaId);
+            if (alocada.isPresent()) {
+                return Response.ok(alocada.get().paraDTO(departamentos::nome)).build();
+            }
+
+            // Nada foi alterado: a tarefa foi alocada ou removida por outra
+            // requisição, ou a pessoa escolhida não existe mais.
+            Optional<TarefaComPessoa> atual = tarefaService.buscar(id);
+            if (atual.isEmpty() || atual.get().tarefa().pessoaAlocadaId() != null) {
+                // Desfaz a transação, o que devolve ao motor a carga reservada.
+                QuarkusTransaction.setRollbackOnly();
+                return atual.isEmpty()
+                        ? Response.status(Response.Status.NOT_FOUND).entity("Tarefa não encontrada.").build()
+                        : Response.status(Response.Status.BAD_REQUEST).entity("Esta tarefa já está alocada.").build();
+            }
+            alocacaoService.descartar(pessoaId);
         }
 
-        tarefa.pessoaAlocada = pessoaParaAlocar;
+        return Response.status(Response.Status.CONFLICT)
+                       .entity("Não foi possível alocar a tarefa após " + tentativasAlocacao + " tentativas.")
+                       .build();
+    }
 
-        return Response.ok(tarefa).build();
+    /**
+     * Aloca de uma só vez todas as tarefas pendentes que têm departamento.
+     * <p>
+     * Em cada departamento, as tarefas são distribuídas da mais urgente para a
+     * menos urgente, sempre para a pessoa menos carregada, equilibrando a carga
+     * total entre as pessoas. Todas as atribuições são gravadas em uma única
+     * transação.
+     * </p>
+     * <p>
+     * O endpoint não tem corpo: aceita qualquer {@code Content-Type}, inclusive
+     * nenhum, em vez do JSON exigido pelos demais métodos do recurso.
+     * </p>
+     *
+     * @return Uma resposta HTTP 200 OK com o resumo do lote.
+     */
+    @POST
+    @Path("/alocar-lote")
+    @Consumes(MediaType.WILDCARD)
+    public Response alocarTarefasPendentesEmLote() {
+        AlocacaoLoteDTO resultado = alocacaoLoteService.alocarPendentes();
+        return Response.ok(resultado).build();
     }
 
     /**
-     * Lista as 3 tarefas pendentes com os prazos mais antigos.
+     * Lista as tarefas pendentes com os prazos mais antigos.
      * <p>
-     * Tarefas pendentes são aquelas que não possuem pessoa alocada.
+     * Tarefas pendentes são aquelas que não possuem pessoa alocada. A listagem
+     * é atendida pelo {@link IndiceTarefasPendentes}, em memória, sem consultar
+     * o banco de dados.
      * </p>
      *
-     * @return Uma resposta HTTP 200 OK com a lista de até 3 tarefas.
+     * @param limit A quantidade máxima de tarefas. Padrão: 3.
+     * @return Uma resposta HTTP 200 OK com a lista de até {@code limit} tarefas,
+     *         ou 400 Bad Request se o limite for inválido.
      */
     @GET
     @Path("/pendentes")
-    public Response listarTarefasPendentes() {
-        List<Tarefa> tarefasPendentes = Tarefa.find(
-            "pessoaAlocada is null",
-            Sort.by("prazo", Sort.Direction.Ascending)
-        ).page(0, 3).list();
+    public Response listarTarefasPendentes(@QueryParam("limit") Integer limit) {
+        int quantidade = limit == null ? limitePendentesPadrao : limit;
+        if (quantidade < 1 || quantidade > limitePendentesMaximo) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity("O parâmetro limit deve estar entre 1 e " + limitePendentesMaximo + ".")
+                           .build();
+        }
 
+        List<TarefaDetalheDTO> tarefasPendentes = indiceTarefasPendentes.maisAntigas(quantidade);
         return Response.ok(tarefasPendentes).build();
     }
-}
\ No newline at end of file
+}
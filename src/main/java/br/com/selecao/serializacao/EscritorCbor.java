@@ -0,0 +1,65 @@
+package br.com.selecao.serializacao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Escreve as respostas da API em CBOR (RFC 8949), uma codificação binária do
+ * mesmo modelo de dados do JSON.
+ * <p>
+ * Os campos, nomes e valores são exatamente os da resposta JSON: o mapeador
+ * CBOR é uma cópia do {@link ObjectMapper} da aplicação, com os mesmos módulos
+ * e serializadores. Números e booleanos ocupam poucos bytes e não precisam ser
+ * formatados como texto, o que reduz o tamanho e o custo de serialização das
+ * listagens grandes para consumidores internos que pedirem
+ * {@code Accept: application/cbor}.
+ * </p>
+ */
+@Provider
+@Produces(EscritorCbor.APPLICATION_CBOR)
+public class EscritorCbor implements MessageBodyWriter<Object> {
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    public static final MediaType APPLICATION_CBOR_TYPE = new MediaType("application", "cbor");
+
+    private final ObjectMapper cbor;
+
+    @Inject
+    public EscritorCbor(ObjectMapper objectMapper) {
+        this.cbor = mapeador(objectMapper);
+    }
+
+    /**
+     * Cria um mapeador CBOR com a mesma configuração do mapeador JSON informado.
+     *
+     * @param objectMapper O mapeador JSON de referência.
+     * @return O mapeador CBOR.
+     */
+    public static ObjectMapper mapeador(ObjectMapper objectMapper) {
+        return objectMapper.copyWith(new CBORFactory())
+                .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> tipo, Type tipoGenerico, Annotation[] anotacoes, MediaType mediaType) {
+        return APPLICATION_CBOR_TYPE.isCompatible(mediaType);
+    }
+
+    @Override
+    public void writeTo(Object corpo, Class<?> tipo, Type tipoGenerico, Annotation[] anotacoes, MediaType mediaType,
+                        MultivaluedMap<String, Object> cabecalhos, OutputStream saida) throws IOException {
+        cbor.writeValue(saida, corpo);
+    }
+}
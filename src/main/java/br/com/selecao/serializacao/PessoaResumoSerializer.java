@@ -0,0 +1,51 @@
+package br.com.selecao.serializacao;
+
+import br.com.selecao.dto.PessoaResumoDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializador escrito à mão do {@link PessoaResumoDTO}.
+ * <p>
+ * Escreve os campos diretamente no {@link JsonGenerator}, com os nomes já
+ * codificados, sem reflexão nem introspecção do Jackson.
+ * </p>
+ */
+public class PessoaResumoSerializer extends StdSerializer<PessoaResumoDTO> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NOME = new SerializedString("nome");
+    private static final SerializedString DEPARTAMENTO = new SerializedString("departamento");
+
+    public PessoaResumoSerializer() {
+        super(PessoaResumoDTO.class);
+    }
+
+    @Override
+    public void serialize(PessoaResumoDTO pessoa, JsonGenerator gerador, SerializerProvider provider)
+            throws IOException {
+        escrever(pessoa, gerador);
+    }
+
+    /**
+     * Escreve a pessoa como um objeto JSON. Também usado pelo {@link TarefaDetalheSerializer}
+     * para a pessoa alocada, sem passar de novo pela busca de serializadores.
+     */
+    static void escrever(PessoaResumoDTO pessoa, JsonGenerator gerador) throws IOException {
+        gerador.writeStartObject(pessoa);
+        gerador.writeFieldName(ID);
+        if (pessoa.id == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(pessoa.id);
+        }
+        gerador.writeFieldName(NOME);
+        gerador.writeString(pessoa.nome);
+        gerador.writeFieldName(DEPARTAMENTO);
+        gerador.writeString(pessoa.departamento);
+        gerador.writeEndObject();
+    }
+}
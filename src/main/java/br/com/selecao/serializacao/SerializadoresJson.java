@@ -0,0 +1,34 @@
+package br.com.selecao.serializacao;
+
+import br.com.selecao.dto.PessoaResumoDTO;
+import br.com.selecao.dto.TarefaDetalheDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.quarkus.jackson.ObjectMapperCustomizer;
+import jakarta.inject.Singleton;
+
+/**
+ * Registra no {@link ObjectMapper} da aplicação os serializadores escritos à
+ * mão dos DTOs de leitura mais frequentes.
+ * <p>
+ * Com eles, o Jackson não monta serializadores por reflexão para esses tipos
+ * e cada resposta escreve apenas os campos do DTO.
+ * </p>
+ */
+@Singleton
+public class SerializadoresJson implements ObjectMapperCustomizer {
+    @Override
+    public void customize(ObjectMapper objectMapper) {
+        objectMapper.registerModule(modulo());
+    }
+
+    /**
+     * @return O módulo Jackson com os serializadores dos DTOs de leitura.
+     */
+    public static SimpleModule modulo() {
+        SimpleModule modulo = new SimpleModule("gerenciador-dtos-leitura");
+        modulo.addSerializer(TarefaDetalheDTO.class, new TarefaDetalheSerializer());
+        modulo.addSerializer(PessoaResumoDTO.class, new PessoaResumoSerializer());
+        return modulo;
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.selecao.serializacao;
+
+import io.vertx.ext.web.RoutingContext;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Deixa sem compressão as respostas menores que
+ * {@code gerenciador.compressao.tamanho-minimo} bytes.
+ * <p>
+ * A compressão HTTP ({@code quarkus.http.enable-compression}) vale para toda
+ * resposta de um tipo compressível, mas em corpos pequenos o custo de CPU não
+ * compensa: o cabeçalho e o dicionário do gzip podem até deixar a resposta
+ * maior. Os primeiros bytes do corpo são retidos em memória: se o corpo
+ * terminar antes do limite, recebe {@code Content-Encoding: identity}, que faz
+ * a camada HTTP enviá-lo como está; assim que o limite é atingido, os bytes
+ * retidos e o restante seguem direto para a resposta, sem que o corpo inteiro
+ * seja acumulado.
+ * </p>
+ * <p>
+ * O cabeçalho é gravado na resposta do Vert.x quando os cabeçalhos são
+ * enviados, e não nos cabeçalhos JAX-RS: ao enviá-los, o Quarkus remove
+ * {@code identity} das respostas de tipos compressíveis, e só um tratador
+ * registrado depois do dele consegue mantê-lo.
+ * </p>
+ * <p>
+ * Respostas em fluxo ({@link StreamingOutput}) não são medidas, para não
+ * serem acumuladas em memória.
+ * </p>
+ */
+@Provider
+public class TamanhoMinimoCompressao implements WriterInterceptor {
+    private static final String SEM_COMPRESSAO = "identity";
+
+    @ConfigProperty(name = "gerenciador.compressao.tamanho-minimo", defaultValue = "1024")
+    int tamanhoMinimo;
+
+    @Inject
+    RoutingContext requisicao;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext contexto) throws IOException {
+        if (contexto.getEntity() instanceof StreamingOutput
+                || contexto.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            contexto.proceed();
+            return;
+        }
+
+        OutputStream saida = contexto.getOutputStream();
+        InicioDoCorpo corpo = new InicioDoCorpo(saida);
+        contexto.setOutputStream(corpo);
+        try {
+            contexto.proceed();
+        } finally {
+            contexto.setOutputStream(saida);
+        }
+
+        if (!corpo.repassando) {
+            requisicao.addHeadersEndHandler(fim -> requisicao.response().headers()
+                    .set(HttpHeaders.CONTENT_ENCODING, SEM_COMPRESSAO));
+            corpo.retidos.writeTo(saida);
+        }
+    }
+
+    /**
+     * Retém os bytes do corpo enquanto ele for menor que o tamanho mínimo e,
+     * ao atingi-lo, passa a repassá-los para a saída original.
+     */
+    private final class InicioDoCorpo extends OutputStream {
+        private final OutputStream saida;
+
+        private final ByteArrayOutputStream retidos = new ByteArrayOutputStream(tamanhoMinimo);
+
+        private boolean repassando;
+
+        InicioDoCorpo(OutputStream saida) {
+            this.saida = saida;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int inicio, int tamanho) throws IOException {
+            if (!repassando && retidos.size() + tamanho >= tamanhoMinimo) {
+                repassando = true;
+                retidos.writeTo(saida);
+            }
+            if (repassando) {
+                saida.write(bytes, inicio, tamanho);
+            } else {
+                retidos.write(bytes, inicio, tamanho);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (repassando) {
+                saida.flush();
+            }
+        }
+
+        /**
+         * Não fecha a saída original: os bytes retidos ainda são gravados nela
+         * depois que o serializador termina.
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
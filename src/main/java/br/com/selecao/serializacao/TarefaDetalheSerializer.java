@@ -0,0 +1,62 @@
+package br.com.selecao.serializacao;
+
+import br.com.selecao.dto.TarefaDetalheDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializador escrito à mão do {@link TarefaDetalheDTO}.
+ * <p>
+ * Produz os mesmos campos, na mesma ordem, que a listagem em fluxo
+ * {@code GET /tarefas/fluxo}, com o prazo no formato ISO-8601 (AAAA-MM-DD).
+ * </p>
+ */
+public class TarefaDetalheSerializer extends StdSerializer<TarefaDetalheDTO> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITULO = new SerializedString("titulo");
+    private static final SerializedString DESCRICAO = new SerializedString("descricao");
+    private static final SerializedString PRAZO = new SerializedString("prazo");
+    private static final SerializedString DEPARTAMENTO = new SerializedString("departamento");
+    private static final SerializedString DURACAO = new SerializedString("duracao");
+    private static final SerializedString FINALIZADO = new SerializedString("finalizado");
+    private static final SerializedString PESSOA_ALOCADA = new SerializedString("pessoaAlocada");
+
+    public TarefaDetalheSerializer() {
+        super(TarefaDetalheDTO.class);
+    }
+
+    @Override
+    public void serialize(TarefaDetalheDTO tarefa, JsonGenerator gerador, SerializerProvider provider)
+            throws IOException {
+        gerador.writeStartObject(tarefa);
+        gerador.writeFieldName(ID);
+        if (tarefa.id == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(tarefa.id);
+        }
+        gerador.writeFieldName(TITULO);
+        gerador.writeString(tarefa.titulo);
+        gerador.writeFieldName(DESCRICAO);
+        gerador.writeString(tarefa.descricao);
+        gerador.writeFieldName(PRAZO);
+        gerador.writeString(tarefa.prazo == null ? null : tarefa.prazo.toString());
+        gerador.writeFieldName(DEPARTAMENTO);
+        gerador.writeString(tarefa.departamento);
+        gerador.writeFieldName(DURACAO);
+        gerador.writeNumber(tarefa.duracao);
+        gerador.writeFieldName(FINALIZADO);
+        gerador.writeBoolean(tarefa.finalizado);
+        gerador.writeFieldName(PESSOA_ALOCADA);
+        if (tarefa.pessoaAlocada == null) {
+            gerador.writeNull();
+        } else {
+            PessoaResumoSerializer.escrever(tarefa.pessoaAlocada, gerador);
+        }
+        gerador.writeEndObject();
+    }
+}
@@ -0,0 +1,154 @@
+package br.com.selecao.service;
+
+import br.com.selecao.dto.AlocacaoLoteDTO;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import br.com.selecao.model.Tarefa;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aloca de uma só vez todas as tarefas pendentes, departamento por departamento.
+ * <p>
+ * A escolha das pessoas é feita pelo {@link AlocacaoService} e todas as
+ * atribuições são gravadas em uma única transação, com {@code UPDATE}s
+ * enviados em lotes JDBC.
+ * </p>
+ */
+@ApplicationScoped
+public class AlocacaoLoteService {
+    /**
+     * Consulta das tarefas pendentes que têm departamento.
+     */
+    private static final String CONSULTA_PENDENTES = """
+            select t.id, t.titulo, t.descricao, t.prazo, t.departamentoId, t.duracao, t.finalizado
+            from Tarefa t
+            where t.pessoaAlocada is null and t.departamentoId is not null
+            """;
+
+    /**
+     * Grava a atribuição apenas se a tarefa continuar pendente, para não
+     * sobrescrever uma alocação feita por outra requisição durante o lote, e se
+     * a pessoa ainda existir, para que uma única pessoa removida não desfaça o lote inteiro.
+     */
+    private static final String ATUALIZACAO_ATRIBUICAO = """
+            UPDATE Tarefa SET pessoaAlocada_id = ?, versao = versao + 1
+             WHERE id = ? AND pessoaAlocada_id IS NULL
+               AND EXISTS (SELECT 1 FROM Pessoa WHERE id = ?)
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    AlocacaoService alocacaoService;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
+
+    @Inject
+    Event<TarefaAlterada> tarefaAlterada;
+
+    /**
+     * Quantidade de {@code UPDATE}s enviados ao banco em cada lote JDBC.
+     */
+    @ConfigProperty(name = "gerenciador.alocacao.lote.tamanho-batch", defaultValue = "1000")
+    int tamanhoBatch;
+
+    /**
+     * Aloca todas as tarefas pendentes.
+     *
+     * @return O resumo do lote.
+     */
+    @Transactional
+    public AlocacaoLoteDTO alocarPendentes() {
+        long inicio = System.nanoTime();
+
+        Map<Integer, List<TarefaEstado>> pendentesPorDepartamento = new LinkedHashMap<>();
+        for (Object[] linha : entityManager.createQuery(CONSULTA_PENDENTES, Object[].class).getResultList()) {
+            TarefaEstado tarefa = new TarefaEstado((Long) linha[0], (String) linha[1], (String) linha[2],
+                    (LocalDate) linha[3], (Integer) linha[4], (Integer) linha[5], (Boolean) linha[6], null);
+            pendentesPorDepartamento.computeIfAbsent(tarefa.departamentoId(), d -> new ArrayList<>()).add(tarefa);
+        }
+
+        int totalPendentes = 0;
+        List<Atribuicao> atribuicoes = new ArrayList<>();
+        for (Map.Entry<Integer, List<TarefaEstado>> departamento : pendentesPorDepartamento.entrySet()) {
+            totalPendentes += departamento.getValue().size();
+            atribuicoes.addAll(alocacaoService.alocarLote(departamento.getKey(), departamento.getValue()));
+        }
+
+        List<Atribuicao> gravadas = gravar(atribuicoes);
+        alocacaoService.desfazerSeNaoConfirmar(gravadas);
+        List<TarefaAlterada> alocacoes = new ArrayList<>(gravadas.size());
+        for (Atribuicao atribuicao : gravadas) {
+            alocacoes.add(new TarefaAlterada(atribuicao.tarefa(), atribuicao.tarefaAlocada()));
+        }
+        estatisticas.registrar(alocacoes);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (TarefaAlterada alocacao : alocacoes) {
+            // O UPDATE foi feito por JDBC: a versão em cache da tarefa ficou desatualizada.
+            cache.evict(Tarefa.class, alocacao.depois().id());
+            tarefaAlterada.fire(alocacao);
+        }
+
+        long makespan = 0;
+        for (Integer departamento : pendentesPorDepartamento.keySet()) {
+            makespan = Math.max(makespan, alocacaoService.maiorCarga(departamento));
+        }
+
+        long tempoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        return new AlocacaoLoteDTO(gravadas.size(), totalPendentes - gravadas.size(), makespan, tempoMs);
+    }
+
+    /**
+     * Grava as atribuições em lotes JDBC na transação atual.
+     * <p>
+     * As atribuições cuja tarefa deixou de estar pendente, ou cuja pessoa não
+     * existe mais, não são gravadas e têm sua carga devolvida ao motor imediatamente.
+     * </p>
+     *
+     * @return As atribuições efetivamente gravadas.
+     */
+    private List<Atribuicao> gravar(List<Atribuicao> atribuicoes) {
+        List<Atribuicao> gravadas = new ArrayList<>(atribuicoes.size());
+        Session sessao = entityManager.unwrap(Session.class);
+        sessao.doWork(conexao -> {
+            try (PreparedStatement atualizacao = conexao.prepareStatement(ATUALIZACAO_ATRIBUICAO)) {
+                for (int inicio = 0; inicio < atribuicoes.size(); inicio += tamanhoBatch) {
+                    List<Atribuicao> lote = atribuicoes.subList(inicio, Math.min(inicio + tamanhoBatch, atribuicoes.size()));
+                    for (Atribuicao atribuicao : lote) {
+                        atualizacao.setLong(1, atribuicao.pessoaId());
+                        atualizacao.setLong(2, atribuicao.tarefa().id());
+                        atualizacao.setLong(3, atribuicao.pessoaId());
+                        atualizacao.addBatch();
+                    }
+                    int[] linhasAlteradas = atualizacao.executeBatch();
+                    for (int i = 0; i < lote.size(); i++) {
+                        if (linhasAlteradas[i] > 0 || linhasAlteradas[i] == Statement.SUCCESS_NO_INFO) {
+                            gravadas.add(lote.get(i));
+                        } else {
+                            alocacaoService.liberar(lote.get(i));
+                        }
+                    }
+                }
+            }
+        });
+        return gravadas;
+    }
+}
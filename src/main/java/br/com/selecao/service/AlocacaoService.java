@@ -0,0 +1,443 @@
+package br.com.selecao.service;
+
+import br.com.selecao.evento.PessoaAlterada;
+import br.com.selecao.evento.PessoaEstado;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de alocação que escolhe, para cada tarefa, a pessoa do departamento
+ * com a menor carga de trabalho em aberto.
+ * <p>
+ * As cargas ficam em memória, em uma {@link FilaCargaDepartamento} por
+ * departamento. Elas são reconstruídas a partir do banco na inicialização e
+ * depois mantidas de forma incremental pelos eventos {@link TarefaAlterada} e
+ * {@link PessoaAlterada}. Cada departamento é protegido por uma trava escolhida
+ * em um conjunto fixo de travas (faixas), de modo que alocações em
+ * departamentos diferentes não disputam a mesma trava.
+ * </p>
+ * <p>
+ * Os departamentos são identificados pelo ID inteiro do dicionário de
+ * departamentos, e não pelo nome.
+ * </p>
+ */
+@ApplicationScoped
+public class AlocacaoService implements ProjecaoEmMemoria {
+    private static final Logger LOG = Logger.getLogger(AlocacaoService.class);
+
+    /**
+     * Consulta que calcula a carga de trabalho em aberto de todas as pessoas.
+     */
+    private static final String CONSULTA_CARGAS = """
+            select p.id, p.departamentoId,
+                (select coalesce(sum(t.duracao), 0) from Tarefa t
+                  where t.pessoaAlocada = p and t.finalizado = false)
+            from Pessoa p
+            """;
+
+    /**
+     * Ordem em que as tarefas de um lote são distribuídas: prazo mais próximo
+     * primeiro (sem prazo por último), depois a mais longa primeiro.
+     */
+    private static final Comparator<TarefaEstado> ORDEM_DO_LOTE = Comparator
+            .comparing(TarefaEstado::prazo, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(Comparator.comparingInt(TarefaEstado::duracao).reversed())
+            .thenComparing(TarefaEstado::id);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    TransactionSynchronizationRegistry transacoes;
+
+    /**
+     * Quantidade de travas entre as quais os departamentos são distribuídos.
+     */
+    @ConfigProperty(name = "gerenciador.alocacao.faixas-de-trava", defaultValue = "64")
+    int quantidadeFaixas;
+
+    private ReentrantLock[] faixas;
+
+    private final Map<Integer, FilaCargaDepartamento> filas = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> departamentoPorPessoa = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void inicializarFaixas() {
+        faixas = new ReentrantLock[quantidadeFaixas];
+        for (int i = 0; i < faixas.length; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Carrega as cargas de trabalho do banco de dados quando a aplicação inicia.
+     */
+    @Transactional
+    void aoIniciar(@Observes StartupEvent evento) {
+        recarregar();
+    }
+
+    /**
+     * Descarta o estado em memória e recalcula as cargas de todas as pessoas a partir do banco.
+     */
+    @Override
+    @Transactional
+    public void recarregar() {
+        List<Object[]> linhas = entityManager.createQuery(CONSULTA_CARGAS, Object[].class).getResultList();
+
+        for (ReentrantLock faixa : faixas) {
+            faixa.lock();
+        }
+        try {
+            filas.clear();
+            departamentoPorPessoa.clear();
+            for (Object[] linha : linhas) {
+                incluir((Long) linha[0], (Integer) linha[1], ((Number) linha[2]).longValue());
+            }
+        } finally {
+            for (ReentrantLock faixa : faixas) {
+                faixa.unlock();
+            }
+        }
+        LOG.infof("Motor de alocação carregado com %d pessoas em %d departamentos.",
+                departamentoPorPessoa.size(), filas.size());
+    }
+
+    /**
+     * Escolhe a pessoa menos carregada do departamento e já soma a duração da
+     * tarefa à carga dela.
+     * <p>
+     * Se houver uma transação ativa e ela não for confirmada, a reserva é desfeita
+     * automaticamente ao final da transação.
+     * </p>
+     *
+     * @param departamento O ID do departamento da tarefa.
+     * @param duracao      A duração da tarefa.
+     * @return O ID da pessoa escolhida, ou {@code null} se o departamento não tiver pessoas.
+     */
+    public Long reservar(Integer departamento, int duracao) {
+        if (departamento == null) {
+            return null;
+        }
+
+        Long pessoaId;
+        ReentrantLock faixa = faixa(departamento);
+        faixa.lock();
+        try {
+            FilaCargaDepartamento fila = filas.get(departamento);
+            pessoaId = fila == null ? null : fila.menosCarregada();
+            if (pessoaId == null) {
+                return null;
+            }
+            fila.somar(pessoaId, duracao);
+        } finally {
+            faixa.unlock();
+        }
+
+        Long escolhida = pessoaId;
+        aoNaoConfirmar(() -> liberar(escolhida, duracao));
+        return pessoaId;
+    }
+
+    /**
+     * Distribui um lote de tarefas pendentes de um departamento entre as suas pessoas.
+     * <p>
+     * As tarefas são atendidas em ordem de prazo (as mais urgentes primeiro, as
+     * sem prazo por último) e, entre as de mesmo prazo, da mais longa para a mais
+     * curta. Cada uma vai para a pessoa menos carregada naquele momento, o que
+     * equilibra a carga total entre as pessoas. O departamento fica travado
+     * durante toda a distribuição.
+     * </p>
+     * <p>
+     * As cargas já são somadas no motor. Quem chama deve, depois de gravar as
+     * atribuições, devolver as que não puderam ser gravadas com
+     * {@link #liberar(Atribuicao)} e registrar as demais com
+     * {@link #desfazerSeNaoConfirmar(List)}.
+     * </p>
+     *
+     * @param departamento O ID do departamento das tarefas.
+     * @param tarefas      As tarefas pendentes do departamento.
+     * @return As atribuições feitas; vazia se o departamento não tiver pessoas.
+     */
+    public List<Atribuicao> alocarLote(Integer departamento, List<TarefaEstado> tarefas) {
+        List<TarefaEstado> ordenadas = new ArrayList<>(tarefas);
+        ordenadas.sort(ORDEM_DO_LOTE);
+
+        List<Atribuicao> atribuicoes = new ArrayList<>(ordenadas.size());
+        comTrava(departamento, () -> {
+            FilaCargaDepartamento fila = filas.get(departamento);
+            if (fila == null) {
+                return;
+            }
+            for (TarefaEstado tarefa : ordenadas) {
+                Long pessoaId = fila.menosCarregada();
+                fila.somar(pessoaId, tarefa.duracao());
+                atribuicoes.add(new Atribuicao(tarefa, pessoaId));
+            }
+        });
+        return atribuicoes;
+    }
+
+    /**
+     * Devolve imediatamente a carga de uma atribuição que não chegou a ser gravada.
+     *
+     * @param atribuicao A atribuição a desfazer.
+     */
+    public void liberar(Atribuicao atribuicao) {
+        liberar(atribuicao.pessoaId(), atribuicao.tarefa().duracao());
+    }
+
+    /**
+     * Devolve imediatamente a carga reservada para uma pessoa.
+     *
+     * @param pessoaId O ID da pessoa.
+     * @param duracao  A duração reservada.
+     */
+    public void liberar(Long pessoaId, int duracao) {
+        somar(pessoaId, -duracao);
+    }
+
+    /**
+     * Registra na transação ativa a devolução da carga das atribuições, caso ela
+     * não seja confirmada.
+     *
+     * @param atribuicoes As atribuições gravadas na transação ativa.
+     */
+    public void desfazerSeNaoConfirmar(List<Atribuicao> atribuicoes) {
+        if (!atribuicoes.isEmpty()) {
+            aoNaoConfirmar(() -> atribuicoes.forEach(this::liberar));
+        }
+    }
+
+    /**
+     * Executa uma ação ao final da transação ativa, caso ela não seja confirmada.
+     * Sem transação ativa, nada é feito.
+     *
+     * @param desfazer A ação que desfaz uma reserva.
+     */
+    private void aoNaoConfirmar(Runnable desfazer) {
+        if (transacoes.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return;
+        }
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    desfazer.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Retorna a maior carga de trabalho em aberto entre as pessoas de um departamento.
+     *
+     * @param departamento O ID do departamento.
+     * @return A maior carga do departamento, ou {@code 0} se ele não tiver pessoas.
+     */
+    public long maiorCarga(Integer departamento) {
+        long[] maior = new long[1];
+        comTrava(departamento, () -> {
+            FilaCargaDepartamento fila = filas.get(departamento);
+            maior[0] = fila == null ? 0 : fila.maiorCarga();
+        });
+        return maior[0];
+    }
+
+    /**
+     * Retira uma pessoa do motor, por exemplo quando ela não existe mais no banco de dados.
+     *
+     * @param pessoaId O ID da pessoa.
+     */
+    public void descartar(Long pessoaId) {
+        Integer departamento = departamentoPorPessoa.get(pessoaId);
+        if (departamento != null) {
+            comTrava(departamento, () -> retirar(pessoaId));
+        }
+    }
+
+    /**
+     * Retorna a carga de trabalho em aberto de uma pessoa, segundo o motor.
+     *
+     * @param pessoaId O ID da pessoa.
+     * @return A carga da pessoa, ou {@code -1} se ela não for conhecida pelo motor.
+     */
+    public long carga(Long pessoaId) {
+        Integer departamento = departamentoPorPessoa.get(pessoaId);
+        if (departamento == null) {
+            return -1;
+        }
+        ReentrantLock faixa = faixa(departamento);
+        faixa.lock();
+        try {
+            FilaCargaDepartamento fila = filas.get(departamento);
+            return fila == null ? -1 : fila.carga(pessoaId);
+        } finally {
+            faixa.unlock();
+        }
+    }
+
+    /**
+     * Mantém as cargas atualizadas quando tarefas são criadas ou alteradas.
+     * <p>
+     * Alocações não são tratadas aqui, pois a carga já foi somada por
+     * {@link #reservar(Integer, int)} no momento da escolha da pessoa.
+     * </p>
+     */
+    void aoAlterarTarefa(@Observes(during = TransactionPhase.AFTER_SUCCESS) TarefaAlterada evento) {
+        TarefaEstado antes = evento.antes();
+        TarefaEstado depois = evento.depois();
+
+        boolean alocacao = antes != null && antes.pessoaAlocadaId() == null && depois.pessoaAlocadaId() != null;
+        if (alocacao) {
+            return;
+        }
+
+        if (contaNaCarga(antes)) {
+            somar(antes.pessoaAlocadaId(), -antes.duracao());
+        }
+        if (contaNaCarga(depois)) {
+            somar(depois.pessoaAlocadaId(), depois.duracao());
+        }
+    }
+
+    /**
+     * Mantém as filas atualizadas quando pessoas são criadas, alteradas ou removidas.
+     */
+    void aoAlterarPessoa(@Observes(during = TransactionPhase.AFTER_SUCCESS) PessoaAlterada evento) {
+        PessoaEstado antes = evento.antes();
+        PessoaEstado depois = evento.depois();
+
+        if (antes == null) {
+            comTrava(depois.departamentoId(), () -> incluir(depois.id(), depois.departamentoId(), 0));
+        } else if (depois == null) {
+            descartar(antes.id());
+        } else if (!Objects.equals(antes.departamentoId(), depois.departamentoId())) {
+            // Muda de departamento levando consigo a carga que já tinha. As duas
+            // filas ficam travadas juntas, para que uma reserva concorrente
+            // encontre a pessoa em uma delas.
+            Integer atual = departamentoPorPessoa.getOrDefault(antes.id(), antes.departamentoId());
+            comTravas(atual, depois.departamentoId(), () -> {
+                long carga = retirar(antes.id());
+                incluir(depois.id(), depois.departamentoId(), carga < 0 ? 0 : carga);
+            });
+        }
+    }
+
+    /**
+     * Indica se o estado da tarefa contribui para a carga de alguma pessoa.
+     */
+    private static boolean contaNaCarga(TarefaEstado estado) {
+        return estado != null && estado.pessoaAlocadaId() != null && !estado.finalizado();
+    }
+
+    private void somar(Long pessoaId, long delta) {
+        Integer departamento = departamentoPorPessoa.get(pessoaId);
+        if (departamento == null) {
+            return;
+        }
+        comTrava(departamento, () -> {
+            FilaCargaDepartamento fila = filas.get(departamento);
+            if (fila != null) {
+                fila.somar(pessoaId, delta);
+            }
+        });
+    }
+
+    /**
+     * Inclui a pessoa na fila do departamento. Deve ser chamado com a trava do departamento.
+     */
+    private void incluir(Long pessoaId, Integer departamento, long carga) {
+        if (departamento == null) {
+            return;
+        }
+        filas.computeIfAbsent(departamento, d -> new FilaCargaDepartamento()).adicionar(pessoaId, carga);
+        departamentoPorPessoa.put(pessoaId, departamento);
+    }
+
+    /**
+     * Retira a pessoa da fila do seu departamento. Deve ser chamado com a trava do departamento.
+     *
+     * @return A carga que a pessoa tinha, ou {@code -1} se ela não estava no motor.
+     */
+    private long retirar(Long pessoaId) {
+        Integer departamento = departamentoPorPessoa.remove(pessoaId);
+        if (departamento == null) {
+            return -1;
+        }
+        FilaCargaDepartamento fila = filas.get(departamento);
+        if (fila == null) {
+            return -1;
+        }
+        long carga = fila.remover(pessoaId);
+        if (fila.tamanho() == 0) {
+            filas.remove(departamento);
+        }
+        return carga;
+    }
+
+    private void comTrava(Integer departamento, Runnable acao) {
+        if (departamento == null) {
+            return;
+        }
+        ReentrantLock faixa = faixa(departamento);
+        faixa.lock();
+        try {
+            acao.run();
+        } finally {
+            faixa.unlock();
+        }
+    }
+
+    /**
+     * Executa a ação com as travas de dois departamentos, adquiridas sempre na
+     * ordem das faixas para que duas mudanças em sentidos opostos não se bloqueiem.
+     * Um departamento {@code null} é ignorado.
+     */
+    private void comTravas(Integer departamento, Integer outro, Runnable acao) {
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (Integer d : new Integer[] {departamento, outro}) {
+            if (d != null) {
+                indices.add(Math.floorMod(d, faixas.length));
+            }
+        }
+        indices.forEach(i -> faixas[i].lock());
+        try {
+            acao.run();
+        } finally {
+            indices.descendingSet().forEach(i -> faixas[i].unlock());
+        }
+    }
+
+    private ReentrantLock faixa(Integer departamento) {
+        return faixas[Math.floorMod(departamento, faixas.length)];
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.selecao.service;
+
+import br.com.selecao.evento.TarefaEstado;
+
+/**
+ * Resultado da escolha de uma pessoa para uma tarefa pendente pelo motor de alocação.
+ *
+ * @param tarefa   O estado da tarefa pendente, antes da alocação.
+ * @param pessoaId O ID da pessoa escolhida.
+ */
+public record Atribuicao(TarefaEstado tarefa, Long pessoaId) {
+
+    /**
+     * @return O estado que a tarefa terá depois de alocada para a pessoa escolhida.
+     */
+    public TarefaEstado tarefaAlocada() {
+        return new TarefaEstado(tarefa.id(), tarefa.titulo(), tarefa.descricao(), tarefa.prazo(),
+                tarefa.departamentoId(), tarefa.duracao(), tarefa.finalizado(), pessoaId);
+    }
+}
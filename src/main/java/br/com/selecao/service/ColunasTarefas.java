@@ -0,0 +1,305 @@
+package br.com.selecao.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Tarefas guardadas em colunas de tipos primitivos, uma posição por tarefa,
+ * em ordem de ID: duração (em minutos, como {@code Tarefa.duracao}), prazo
+ * (em dias desde 1970-01-01), ID do departamento, índice da pessoa alocada e
+ * se a tarefa está finalizada.
+ * <p>
+ * As pessoas são guardadas por um índice denso, atribuído na primeira tarefa
+ * de cada uma, para que a coluna seja de {@code int} e os totais por pessoa
+ * caibam em arrays indexados como os por departamento.
+ * </p>
+ * <p>
+ * Cada tarefa ocupa cerca de 25 bytes, contra centenas de bytes de uma
+ * entidade {@code Tarefa} com seus textos, e as agregações leem arrays
+ * contíguos em vez de percorrer objetos. As agregações dividem as posições em
+ * fatias de {@value #LINHAS_POR_FATIA} tarefas, somadas em paralelo por um
+ * {@link ForkJoinPool}.
+ * </p>
+ * <p>
+ * Esta classe não é thread-safe: quem a usa deve impedir que ela seja
+ * alterada durante uma agregação (ver {@link InstantaneoTarefas}).
+ * </p>
+ */
+public final class ColunasTarefas {
+    /**
+     * Prazo gravado para tarefas sem prazo. É menor que qualquer data, de modo
+     * que um filtro de período nunca o inclui.
+     */
+    static final int SEM_PRAZO = Integer.MIN_VALUE;
+
+    /**
+     * Departamento gravado para tarefas sem departamento. Os IDs do dicionário começam em 1.
+     */
+    static final int SEM_DEPARTAMENTO = 0;
+
+    /**
+     * Índice gravado para tarefas sem pessoa alocada. Os índices das pessoas começam em 1.
+     */
+    static final int SEM_PESSOA = 0;
+
+    /**
+     * Quantidade de tarefas somadas por uma única tarefa do {@link ForkJoinPool}.
+     */
+    static final int LINHAS_POR_FATIA = 1 << 16;
+
+    private long[] ids;
+    private int[] duracoes;
+    private int[] prazos;
+    private int[] departamentos;
+    private int[] pessoas;
+    private boolean[] finalizadas;
+    private int tamanho;
+    private int maiorDepartamento;
+
+    /**
+     * O ID de cada pessoa, pelo seu índice; a posição {@link #SEM_PESSOA} não é usada.
+     */
+    private long[] pessoaPorIndice = new long[16];
+    private final Map<Long, Integer> indicePorPessoa = new HashMap<>();
+
+    /**
+     * Totais de uma agregação, indexados pelo ID do departamento ou pelo
+     * índice da pessoa ({@link #SEM_DEPARTAMENTO} ou {@link #SEM_PESSOA} para
+     * as tarefas sem departamento ou sem pessoa).
+     */
+    public static final class Totais {
+        /**
+         * A quantidade de tarefas de cada grupo.
+         */
+        public final int[] tarefas;
+
+        /**
+         * A quantidade de tarefas não finalizadas de cada grupo.
+         */
+        public final int[] abertas;
+
+        /**
+         * A soma das durações, em minutos, das tarefas de cada grupo.
+         */
+        public final long[] duracoes;
+
+        Totais(int grupos) {
+            tarefas = new int[grupos];
+            abertas = new int[grupos];
+            duracoes = new long[grupos];
+        }
+
+        Totais somar(Totais outros) {
+            for (int g = 0; g < tarefas.length; g++) {
+                tarefas[g] += outros.tarefas[g];
+                abertas[g] += outros.abertas[g];
+                duracoes[g] += outros.duracoes[g];
+            }
+            return this;
+        }
+    }
+
+    /**
+     * @param capacidade A quantidade de tarefas para a qual as colunas são
+     *                   criadas; elas crescem conforme necessário.
+     */
+    public ColunasTarefas(int capacidade) {
+        int inicial = Math.max(capacidade, 16);
+        ids = new long[inicial];
+        duracoes = new int[inicial];
+        prazos = new int[inicial];
+        departamentos = new int[inicial];
+        pessoas = new int[inicial];
+        finalizadas = new boolean[inicial];
+    }
+
+    /**
+     * @return A quantidade de tarefas gravadas.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * @param indice O índice de uma pessoa, maior que {@link #SEM_PESSOA}.
+     * @return O ID da pessoa.
+     */
+    public long pessoaId(int indice) {
+        return pessoaPorIndice[indice];
+    }
+
+    /**
+     * Grava o estado de uma tarefa, incluindo-a se ela ainda não estiver nas colunas.
+     * <p>
+     * As tarefas costumam chegar em ordem de ID e são acrescentadas ao final.
+     * Uma tarefa com ID menor que o da última (por exemplo, criada por uma
+     * transação que terminou depois de outra) é inserida na sua posição,
+     * deslocando apenas as tarefas com ID maior. Uma tarefa realocada passa
+     * para a nova pessoa.
+     * </p>
+     *
+     * @param id             O ID da tarefa.
+     * @param departamentoId O ID do departamento, ou {@code null}.
+     * @param prazo          O prazo, ou {@code null}.
+     * @param duracao        A duração, em minutos.
+     * @param finalizado     Se a tarefa está finalizada.
+     * @param pessoaId       O ID da pessoa alocada, ou {@code null}.
+     */
+    public void gravar(long id, Integer departamentoId, LocalDate prazo, int duracao, boolean finalizado,
+                       Long pessoaId) {
+        int posicao = posicao(id);
+        if (posicao < 0) {
+            posicao = -posicao - 1;
+            inserir(posicao, id);
+        }
+        int departamento = departamentoId == null ? SEM_DEPARTAMENTO : departamentoId;
+        duracoes[posicao] = duracao;
+        prazos[posicao] = prazo == null ? SEM_PRAZO : Math.toIntExact(prazo.toEpochDay());
+        departamentos[posicao] = departamento;
+        pessoas[posicao] = pessoaId == null ? SEM_PESSOA : indicePessoa(pessoaId);
+        finalizadas[posicao] = finalizado;
+        maiorDepartamento = Math.max(maiorDepartamento, departamento);
+    }
+
+    /**
+     * Soma, por departamento, as tarefas com prazo no período, ou todas as
+     * tarefas, inclusive as sem prazo, se o período não for informado.
+     *
+     * @param varreduras O pool que soma as fatias em paralelo.
+     * @param dataInicio O primeiro dia do período, ou {@code null}.
+     * @param dataFim    O último dia do período, ou {@code null}.
+     * @return Os totais por departamento.
+     */
+    public Totais totaisPorDepartamento(ForkJoinPool varreduras, LocalDate dataInicio, LocalDate dataFim) {
+        return totais(varreduras, departamentos, maiorDepartamento + 1, dataInicio, dataFim);
+    }
+
+    /**
+     * Soma, por pessoa, as tarefas com prazo no período, ou todas as tarefas,
+     * inclusive as sem prazo, se o período não for informado.
+     *
+     * @param varreduras O pool que soma as fatias em paralelo.
+     * @param dataInicio O primeiro dia do período, ou {@code null}.
+     * @param dataFim    O último dia do período, ou {@code null}.
+     * @return Os totais por índice de pessoa (ver {@link #pessoaId(int)}).
+     */
+    public Totais totaisPorPessoa(ForkJoinPool varreduras, LocalDate dataInicio, LocalDate dataFim) {
+        return totais(varreduras, pessoas, indicePorPessoa.size() + 1, dataInicio, dataFim);
+    }
+
+    private Totais totais(ForkJoinPool varreduras, int[] grupos, int quantidadeGrupos,
+                          LocalDate dataInicio, LocalDate dataFim) {
+        int prazoMinimo = dataInicio == null ? Integer.MIN_VALUE : Math.toIntExact(dataInicio.toEpochDay());
+        int prazoMaximo = dataFim == null ? Integer.MAX_VALUE : Math.toIntExact(dataFim.toEpochDay());
+        Varredura varredura = new Varredura(grupos, quantidadeGrupos, 0, tamanho, prazoMinimo, prazoMaximo);
+        // Poucas tarefas são somadas mais depressa na própria thread do que distribuídas pelo pool.
+        return tamanho <= LINHAS_POR_FATIA ? varredura.somar() : varreduras.invoke(varredura);
+    }
+
+    /**
+     * Soma as tarefas das posições {@code [inicio, fim)} pelo grupo de cada
+     * uma na coluna {@code grupos} (departamento ou pessoa), dividindo-as ao
+     * meio até que cada parte tenha no máximo {@link #LINHAS_POR_FATIA} tarefas.
+     */
+    private final class Varredura extends RecursiveTask<Totais> {
+        private final int[] grupos;
+        private final int quantidadeGrupos;
+        private final int inicio;
+        private final int fim;
+        private final int prazoMinimo;
+        private final int prazoMaximo;
+
+        Varredura(int[] grupos, int quantidadeGrupos, int inicio, int fim, int prazoMinimo, int prazoMaximo) {
+            this.grupos = grupos;
+            this.quantidadeGrupos = quantidadeGrupos;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.prazoMinimo = prazoMinimo;
+            this.prazoMaximo = prazoMaximo;
+        }
+
+        @Override
+        protected Totais compute() {
+            if (fim - inicio <= LINHAS_POR_FATIA) {
+                return somar();
+            }
+            int meio = (inicio + fim) >>> 1;
+            Varredura esquerda = new Varredura(grupos, quantidadeGrupos, inicio, meio, prazoMinimo, prazoMaximo);
+            esquerda.fork();
+            Totais direita = new Varredura(grupos, quantidadeGrupos, meio, fim, prazoMinimo, prazoMaximo).compute();
+            return esquerda.join().somar(direita);
+        }
+
+        Totais somar() {
+            int[] prazos = ColunasTarefas.this.prazos;
+            int[] duracoes = ColunasTarefas.this.duracoes;
+            boolean[] finalizadas = ColunasTarefas.this.finalizadas;
+            Totais totais = new Totais(quantidadeGrupos);
+            int[] tarefas = totais.tarefas;
+            int[] abertas = totais.abertas;
+            long[] somaDuracoes = totais.duracoes;
+            for (int i = inicio; i < fim; i++) {
+                int prazo = prazos[i];
+                if (prazo < prazoMinimo || prazo > prazoMaximo) {
+                    continue;
+                }
+                int grupo = grupos[i];
+                tarefas[grupo]++;
+                somaDuracoes[grupo] += duracoes[i];
+                abertas[grupo] += finalizadas[i] ? 0 : 1;
+            }
+            return totais;
+        }
+    }
+
+    /**
+     * @return A posição da tarefa, ou {@code -(posição de inserção) - 1} se ela não estiver nas colunas.
+     */
+    private int posicao(long id) {
+        if (tamanho == 0 || id > ids[tamanho - 1]) {
+            return -tamanho - 1;
+        }
+        return Arrays.binarySearch(ids, 0, tamanho, id);
+    }
+
+    private int indicePessoa(long pessoaId) {
+        Integer indice = indicePorPessoa.get(pessoaId);
+        if (indice != null) {
+            return indice;
+        }
+        int novo = indicePorPessoa.size() + 1;
+        if (novo == pessoaPorIndice.length) {
+            pessoaPorIndice = Arrays.copyOf(pessoaPorIndice, novo * 2);
+        }
+        pessoaPorIndice[novo] = pessoaId;
+        indicePorPessoa.put(pessoaId, novo);
+        return novo;
+    }
+
+    private void inserir(int posicao, long id) {
+        if (tamanho == ids.length) {
+            int capacidade = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            duracoes = Arrays.copyOf(duracoes, capacidade);
+            prazos = Arrays.copyOf(prazos, capacidade);
+            departamentos = Arrays.copyOf(departamentos, capacidade);
+            pessoas = Arrays.copyOf(pessoas, capacidade);
+            finalizadas = Arrays.copyOf(finalizadas, capacidade);
+        }
+        int deslocadas = tamanho - posicao;
+        if (deslocadas > 0) {
+            System.arraycopy(ids, posicao, ids, posicao + 1, deslocadas);
+            System.arraycopy(duracoes, posicao, duracoes, posicao + 1, deslocadas);
+            System.arraycopy(prazos, posicao, prazos, posicao + 1, deslocadas);
+            System.arraycopy(departamentos, posicao, departamentos, posicao + 1, deslocadas);
+            System.arraycopy(pessoas, posicao, pessoas, posicao + 1, deslocadas);
+            System.arraycopy(finalizadas, posicao, finalizadas, posicao + 1, deslocadas);
+        }
+        ids[posicao] = id;
+        tamanho++;
+    }
+}
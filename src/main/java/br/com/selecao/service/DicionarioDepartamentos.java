@@ -0,0 +1,147 @@
+package br.com.selecao.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário em memória dos departamentos, nos dois sentidos: nome para ID e
+ * ID para nome.
+ * <p>
+ * O banco guarda apenas o ID inteiro do departamento em cada pessoa e tarefa,
+ * e o motor de alocação, os índices e as agregações trabalham com esses IDs.
+ * O nome só é resolvido aqui, ao receber uma requisição e ao montar a
+ * resposta, sem consultar o banco.
+ * </p>
+ * <p>
+ * Como os departamentos nunca são alterados nem removidos, uma entrada do
+ * dicionário nunca fica desatualizada: a recarga apenas acrescenta os
+ * departamentos criados por fora desta instância.
+ * </p>
+ */
+@ApplicationScoped
+public class DicionarioDepartamentos implements ProjecaoEmMemoria {
+    private static final Logger LOG = Logger.getLogger(DicionarioDepartamentos.class);
+
+    private static final String CONSULTA_DEPARTAMENTOS = "select d.id, d.nome from Departamento d";
+
+    private static final String CONSULTA_NOME = "select d.nome from Departamento d where d.id = :id";
+
+    /**
+     * Grava o departamento, se ainda não existir, e devolve o seu ID. O
+     * {@code DO UPDATE} sem efeito faz o {@code RETURNING} devolver também o
+     * ID de um departamento já existente, inclusive quando duas requisições
+     * criam o mesmo nome ao mesmo tempo.
+     */
+    private static final String INSERCAO_DEPARTAMENTO = """
+            INSERT INTO Departamento (nome) VALUES (?1)
+            ON CONFLICT (nome) DO UPDATE SET nome = EXCLUDED.nome
+            RETURNING id
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    private final Map<String, Integer> idPorNome = new ConcurrentHashMap<>();
+
+    private final Map<Integer, String> nomePorId = new ConcurrentHashMap<>();
+
+    /**
+     * Carrega o dicionário quando a aplicação inicia.
+     */
+    @Transactional
+    void aoIniciar(@Observes StartupEvent evento) {
+        recarregar();
+    }
+
+    @Override
+    @Transactional
+    public void recarregar() {
+        List<Object[]> linhas = entityManager.createQuery(CONSULTA_DEPARTAMENTOS, Object[].class).getResultList();
+        for (Object[] linha : linhas) {
+            incluir((Integer) linha[0], (String) linha[1]);
+        }
+        LOG.infof("Dicionário de departamentos carregado com %d departamentos.", nomePorId.size());
+    }
+
+    /**
+     * Retorna o ID de um departamento, criando-o se ainda não existir.
+     * <p>
+     * O departamento novo é gravado em uma transação própria, confirmada antes
+     * de entrar no dicionário. Assim, o dicionário nunca aponta para um ID que
+     * não existe no banco, mesmo que a transação de quem chamou seja desfeita;
+     * nesse caso, sobra apenas um departamento sem pessoas nem tarefas, que não
+     * aparece nas agregações.
+     * </p>
+     * <p>
+     * Deve ser chamado fora de qualquer transação: dentro de uma, a transação
+     * própria ocuparia uma segunda conexão do pool enquanto a primeira espera.
+     * Quem grava pessoas ou tarefas resolve os departamentos antes de abrir a
+     * sua transação.
+     * </p>
+     *
+     * @param nome O nome do departamento.
+     * @return O ID do departamento, ou {@code null} se o nome for {@code null}.
+     * @throws IllegalStateException Se o departamento for novo e houver uma transação ativa.
+     */
+    public Integer registrar(String nome) {
+        if (nome == null) {
+            return null;
+        }
+        Integer id = idPorNome.get(nome);
+        if (id != null) {
+            return id;
+        }
+        if (QuarkusTransaction.isActive()) {
+            throw new IllegalStateException("O departamento " + nome + " deve ser registrado antes de abrir a transação.");
+        }
+
+        Integer gravado = QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager
+                .createNativeQuery(INSERCAO_DEPARTAMENTO)
+                .setParameter(1, nome)
+                .getSingleResult()).intValue());
+        incluir(gravado, nome);
+        return gravado;
+    }
+
+    /**
+     * Retorna o nome de um departamento.
+     * <p>
+     * Um ID desconhecido (criado por outra instância da aplicação) é buscado no
+     * banco uma única vez e passa a fazer parte do dicionário.
+     * </p>
+     *
+     * @param id O ID do departamento.
+     * @return O nome do departamento, ou {@code null} se o ID for {@code null}.
+     */
+    public String nome(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        String nome = nomePorId.get(id);
+        if (nome != null) {
+            return nome;
+        }
+
+        String gravado = QuarkusTransaction.joiningExisting().call(() -> entityManager
+                .createQuery(CONSULTA_NOME, String.class)
+                .setParameter("id", id)
+                .getSingleResult());
+        incluir(id, gravado);
+        return gravado;
+    }
+
+    private void incluir(Integer id, String nome) {
+        nomePorId.put(id, nome);
+        idPorNome.put(nome, id);
+    }
+}
@@ -0,0 +1,272 @@
+package br.com.selecao.service;
+
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import br.com.selecao.model.PessoaEstatistica;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.jboss.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém os totais de tarefas de cada pessoa ({@link PessoaEstatistica}).
+ * <p>
+ * Cada operação que cria, aloca ou finaliza tarefas chama
+ * {@link #registrar(Collection)} na sua própria transação, com as alterações
+ * feitas. As variações são somadas por pessoa e gravadas com um único
+ * {@code INSERT ... ON CONFLICT DO UPDATE}, que incrementa os totais na linha
+ * de cada pessoa, independentemente de quantas tarefas foram alteradas. As
+ * pessoas são gravadas em ordem de ID, para que transações concorrentes
+ * travem as linhas sempre na mesma ordem.
+ * </p>
+ * <p>
+ * Alterações feitas por fora da API, diretamente no banco, deixam os totais
+ * divergentes. A verificação periódica ({@link #verificar()}) compara os
+ * totais com as tarefas e corrige as pessoas divergentes.
+ * </p>
+ */
+@ApplicationScoped
+public class EstatisticasPessoas {
+    private static final Logger LOG = Logger.getLogger(EstatisticasPessoas.class);
+
+    /**
+     * Quantidade de pessoas corrigidas em cada transação da verificação.
+     */
+    private static final int PESSOAS_POR_CORRECAO = 500;
+
+    /**
+     * Soma as variações de cada pessoa aos totais, criando a linha da pessoa se
+     * ela ainda não existir. Os parâmetros são arrays paralelos, um elemento por pessoa.
+     */
+    private static final String ACUMULO = """
+            INSERT INTO PessoaEstatistica AS e (pessoa_id, horasTotais, quantidadeTarefas, tarefasAbertas)
+            SELECT v.pessoa_id, v.horas, v.tarefas, v.abertas
+              FROM unnest(?::bigint[], ?::bigint[], ?::int[], ?::int[]) AS v (pessoa_id, horas, tarefas, abertas)
+             ORDER BY v.pessoa_id
+            ON CONFLICT (pessoa_id) DO UPDATE
+               SET horasTotais = e.horasTotais + EXCLUDED.horasTotais,
+                   quantidadeTarefas = e.quantidadeTarefas + EXCLUDED.quantidadeTarefas,
+                   tarefasAbertas = e.tarefasAbertas + EXCLUDED.tarefasAbertas
+            """;
+
+    /**
+     * Totais calculados a partir das tarefas, para todas as pessoas ou apenas
+     * para as de {@code :ids}.
+     */
+    private static final String TOTAIS_REAIS = """
+            SELECT p.id AS pessoa_id,
+                   coalesce(sum(t.duracao), 0) AS horas,
+                   count(t.id) AS tarefas,
+                   count(t.id) FILTER (WHERE NOT t.finalizado) AS abertas
+              FROM Pessoa p
+              LEFT JOIN Tarefa t ON t.pessoaAlocada_id = p.id
+            """;
+
+    /**
+     * Pessoas cujos totais gravados diferem dos calculados a partir das
+     * tarefas. Os dois lados são lidos no mesmo comando, e portanto no mesmo
+     * instante, de modo que alterações em andamento não aparecem como divergência.
+     */
+    private static final String CONSULTA_DIVERGENTES = "SELECT r.pessoa_id\n  FROM (" + TOTAIS_REAIS + """
+             GROUP BY p.id) r
+              LEFT JOIN PessoaEstatistica e ON e.pessoa_id = r.pessoa_id
+             WHERE coalesce(e.horasTotais, 0) <> r.horas
+                OR coalesce(e.quantidadeTarefas, 0) <> r.tarefas
+                OR coalesce(e.tarefasAbertas, 0) <> r.abertas
+             ORDER BY r.pessoa_id
+            """;
+
+    private static final String CRIACAO_LINHAS = """
+            INSERT INTO PessoaEstatistica (pessoa_id)
+            SELECT id FROM Pessoa WHERE id IN (:ids) ORDER BY id
+            ON CONFLICT (pessoa_id) DO NOTHING
+            """;
+
+    private static final String TRAVA_LINHAS = """
+            SELECT pessoa_id FROM PessoaEstatistica WHERE pessoa_id IN (:ids) ORDER BY pessoa_id FOR UPDATE
+            """;
+
+    private static final String CORRECAO = "UPDATE PessoaEstatistica e\n"
+            + "   SET horasTotais = r.horas, quantidadeTarefas = r.tarefas, tarefasAbertas = r.abertas\n"
+            + "  FROM (" + TOTAIS_REAIS + """
+             WHERE p.id IN (:ids)
+             GROUP BY p.id) r
+             WHERE e.pessoa_id = r.pessoa_id
+            """;
+
+    /**
+     * Variação dos totais de uma pessoa.
+     */
+    private static final class Variacao {
+        long horas;
+        int tarefas;
+        int abertas;
+
+        void somar(TarefaEstado tarefa, int sinal) {
+            horas += (long) sinal * tarefa.duracao();
+            tarefas += sinal;
+            if (!tarefa.finalizado()) {
+                abertas += sinal;
+            }
+        }
+
+        boolean nula() {
+            return horas == 0 && tarefas == 0 && abertas == 0;
+        }
+    }
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Counter correcoes;
+
+    @PostConstruct
+    void registrarMetricas() {
+        correcoes = Counter.builder("gerenciador.estatisticas.correcoes")
+                .description("Pessoas cujos totais de tarefas divergiam das tarefas e foram corrigidos")
+                .register(registry);
+    }
+
+    /**
+     * Soma aos totais das pessoas, e aos baldes de {@link GastosPorPeriodo}, as
+     * alterações de tarefas feitas na transação atual.
+     *
+     * @param alteracoes As alterações das tarefas.
+     */
+    public void registrar(Collection<TarefaAlterada> alteracoes) {
+        entityManager.unwrap(Session.class).doWork(conexao -> registrar(conexao, alteracoes));
+    }
+
+    /**
+     * Igual a {@link #registrar(Collection)}, para quem já grava as tarefas
+     * diretamente na conexão JDBC da transação atual.
+     *
+     * @param conexao    A conexão da transação atual.
+     * @param alteracoes As alterações das tarefas.
+     */
+    void registrar(Connection conexao, Collection<TarefaAlterada> alteracoes) throws SQLException {
+        Map<Long, Variacao> variacoes = variacoes(alteracoes);
+        if (!variacoes.isEmpty()) {
+            gravar(conexao, variacoes);
+        }
+        gastosPorPeriodo.registrar(conexao, alteracoes);
+    }
+
+    /**
+     * Executa a verificação de consistência no intervalo
+     * {@code gerenciador.estatisticas.verificacao.intervalo}.
+     */
+    @Scheduled(every = "${gerenciador.estatisticas.verificacao.intervalo}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void verificarPeriodicamente() {
+        verificar();
+    }
+
+    /**
+     * Compara os totais gravados com os calculados a partir das tarefas e
+     * corrige as pessoas divergentes.
+     * <p>
+     * Cada grupo de pessoas é corrigido em uma transação própria. As linhas das
+     * pessoas são travadas antes de os totais serem recalculados: uma
+     * alteração de tarefa concorrente ou termina antes (e entra no recálculo),
+     * ou espera a correção terminar para somar a sua variação ao total corrigido.
+     * </p>
+     *
+     * @return A quantidade de pessoas corrigidas.
+     */
+    public int verificar() {
+        List<Long> divergentes = QuarkusTransaction.requiringNew().call(() -> {
+            List<?> ids = entityManager.createNativeQuery(CONSULTA_DIVERGENTES).getResultList();
+            List<Long> pessoas = new ArrayList<>(ids.size());
+            ids.forEach(id -> pessoas.add(((Number) id).longValue()));
+            return pessoas;
+        });
+        if (divergentes.isEmpty()) {
+            return 0;
+        }
+
+        LOG.warnf("Totais de tarefas divergentes para %d pessoas; corrigindo.", divergentes.size());
+        for (int inicio = 0; inicio < divergentes.size(); inicio += PESSOAS_POR_CORRECAO) {
+            List<Long> grupo = divergentes.subList(inicio, Math.min(inicio + PESSOAS_POR_CORRECAO, divergentes.size()));
+            QuarkusTransaction.requiringNew().run(() -> {
+                executar(CRIACAO_LINHAS, grupo).executeUpdate();
+                executar(TRAVA_LINHAS, grupo).getResultList();
+                executar(CORRECAO, grupo).executeUpdate();
+            });
+        }
+        correcoes.increment(divergentes.size());
+        return divergentes.size();
+    }
+
+    private NativeQuery<?> executar(String sql, List<Long> ids) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .setParameterList("ids", ids);
+    }
+
+    /**
+     * Soma, por pessoa, a variação de cada alteração: o estado anterior da
+     * tarefa sai dos totais da pessoa em que estava e o novo entra nos da nova pessoa.
+     * As pessoas ficam em ordem de ID.
+     */
+    private static Map<Long, Variacao> variacoes(Collection<TarefaAlterada> alteracoes) {
+        Map<Long, Variacao> variacoes = new TreeMap<>();
+        for (TarefaAlterada alteracao : alteracoes) {
+            if (alteracao.antes() != null && alteracao.antes().pessoaAlocadaId() != null) {
+                variacoes.computeIfAbsent(alteracao.antes().pessoaAlocadaId(), id -> new Variacao())
+                        .somar(alteracao.antes(), -1);
+            }
+            if (alteracao.depois() != null && alteracao.depois().pessoaAlocadaId() != null) {
+                variacoes.computeIfAbsent(alteracao.depois().pessoaAlocadaId(), id -> new Variacao())
+                        .somar(alteracao.depois(), 1);
+            }
+        }
+        variacoes.values().removeIf(Variacao::nula);
+        return variacoes;
+    }
+
+    private static void gravar(Connection conexao, Map<Long, Variacao> variacoes) throws SQLException {
+        Long[] pessoas = new Long[variacoes.size()];
+        Long[] horas = new Long[variacoes.size()];
+        Integer[] tarefas = new Integer[variacoes.size()];
+        Integer[] abertas = new Integer[variacoes.size()];
+        int i = 0;
+        for (Map.Entry<Long, Variacao> variacao : variacoes.entrySet()) {
+            pessoas[i] = variacao.getKey();
+            horas[i] = variacao.getValue().horas;
+            tarefas[i] = variacao.getValue().tarefas;
+            abertas[i] = variacao.getValue().abertas;
+            i++;
+        }
+
+        try (PreparedStatement acumulo = conexao.prepareStatement(ACUMULO)) {
+            acumulo.setArray(1, conexao.createArrayOf("bigint", pessoas));
+            acumulo.setArray(2, conexao.createArrayOf("bigint", horas));
+            acumulo.setArray(3, conexao.createArrayOf("integer", tarefas));
+            acumulo.setArray(4, conexao.createArrayOf("integer", abertas));
+            acumulo.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.selecao.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Fila de prioridade das pessoas de um departamento, ordenada pela carga de
+ * trabalho em aberto (soma da duração das tarefas alocadas e não finalizadas).
+ * <p>
+ * A pessoa menos carregada fica sempre no início da fila; em caso de empate,
+ * vence a de menor ID. Diferente de uma {@code PriorityQueue}, a carga de
+ * qualquer pessoa pode ser atualizada em tempo logarítmico.
+ * </p>
+ * <p>
+ * Esta classe não é segura para uso concorrente: quem a utiliza deve
+ * garantir a exclusão mútua (veja {@link AlocacaoService}).
+ * </p>
+ */
+public class FilaCargaDepartamento {
+    /**
+     * Ordena as entradas pela carga e, em seguida, pelo ID da pessoa.
+     */
+    private static final Comparator<Entrada> ORDEM = Comparator
+            .comparingLong(Entrada::carga)
+            .thenComparingLong(Entrada::pessoaId);
+
+    /**
+     * Uma pessoa da fila e sua carga de trabalho em aberto.
+     */
+    private record Entrada(long pessoaId, long carga) {
+    }
+
+    private final TreeSet<Entrada> ordem = new TreeSet<>(ORDEM);
+
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+
+    /**
+     * Inclui uma pessoa na fila. Se ela já estiver na fila, sua carga é substituída.
+     *
+     * @param pessoaId O ID da pessoa.
+     * @param carga    A carga de trabalho em aberto da pessoa.
+     */
+    public void adicionar(long pessoaId, long carga) {
+        remover(pessoaId);
+        Entrada entrada = new Entrada(pessoaId, carga);
+        entradas.put(pessoaId, entrada);
+        ordem.add(entrada);
+    }
+
+    /**
+     * Retira uma pessoa da fila.
+     *
+     * @param pessoaId O ID da pessoa.
+     * @return A carga que a pessoa tinha, ou {@code -1} se ela não estava na fila.
+     */
+    public long remover(long pessoaId) {
+        Entrada entrada = entradas.remove(pessoaId);
+        if (entrada == null) {
+            return -1;
+        }
+        ordem.remove(entrada);
+        return entrada.carga();
+    }
+
+    /**
+     * Soma um valor (positivo ou negativo) à carga de uma pessoa.
+     * Não faz nada se a pessoa não estiver na fila.
+     *
+     * @param pessoaId O ID da pessoa.
+     * @param delta    O valor a somar à carga.
+     * @throws IllegalStateException Se a carga ficasse negativa, o que indica que
+     *                               uma duração foi descontada sem ter sido somada.
+     */
+    public void somar(long pessoaId, long delta) {
+        Entrada entrada = entradas.get(pessoaId);
+        if (entrada == null) {
+            return;
+        }
+        long carga = entrada.carga() + delta;
+        if (carga < 0) {
+            throw new IllegalStateException("A carga da pessoa " + pessoaId + " ficaria negativa ("
+                    + entrada.carga() + " " + delta + ").");
+        }
+        adicionar(pessoaId, carga);
+    }
+
+    /**
+     * Retorna a pessoa com a menor carga de trabalho em aberto, sem retirá-la da fila.
+     *
+     * @return O ID da pessoa menos carregada, ou {@code null} se a fila estiver vazia.
+     */
+    public Long menosCarregada() {
+        return ordem.isEmpty() ? null : ordem.first().pessoaId();
+    }
+
+    /**
+     * Retorna a maior carga entre as pessoas da fila.
+     *
+     * @return A maior carga, ou {@code 0} se a fila estiver vazia.
+     */
+    public long maiorCarga() {
+        return ordem.isEmpty() ? 0 : ordem.last().carga();
+    }
+
+    /**
+     * Retorna a carga atual de uma pessoa.
+     *
+     * @param pessoaId O ID da pessoa.
+     * @return A carga da pessoa, ou {@code -1} se ela não estiver na fila.
+     */
+    public long carga(long pessoaId) {
+        Entrada entrada = entradas.get(pessoaId);
+        return entrada == null ? -1 : entrada.carga();
+    }
+
+    /**
+     * @return A quantidade de pessoas na fila.
+     */
+    public int tamanho() {
+        return entradas.size();
+    }
+}
@@ -0,0 +1,273 @@
+package br.com.selecao.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fila em memória das finalizações de tarefas gravadas em lote (modos
+ * {@link ModoFinalizacao#ADIADA} e {@link ModoFinalizacao#AGRUPADA}).
+ * <p>
+ * Em vez de uma transação por requisição, os IDs recebidos se acumulam na
+ * fila e uma única thread os grava com um {@code UPDATE ... WHERE id IN (...)}
+ * por lote, quando a fila atinge {@code gerenciador.finalizacao.lote.tamanho}
+ * IDs ou quando o mais antigo espera há {@code gerenciador.finalizacao.lote.intervalo}.
+ * Um ID que já está na fila não ocupa outra posição: as requisições repetidas
+ * aguardam a mesma gravação.
+ * </p>
+ * <p>
+ * A fila tem capacidade limitada ({@code gerenciador.finalizacao.fila.capacidade}
+ * IDs distintos). Quando ela está cheia, novas finalizações são recusadas, e
+ * quem chama deve pedir ao cliente que tente de novo mais tarde. Ao encerrar a
+ * aplicação, os IDs restantes são gravados antes de a thread terminar.
+ * </p>
+ */
+@ApplicationScoped
+public class FilaFinalizacao {
+    private static final Logger LOG = Logger.getLogger(FilaFinalizacao.class);
+
+    /**
+     * Tempo máximo de espera, ao encerrar a aplicação, pela gravação dos IDs restantes.
+     */
+    private static final long ESPERA_ENCERRAMENTO_MS = 10_000;
+
+    @Inject
+    TarefaService tarefaService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "gerenciador.finalizacao.modo", defaultValue = "imediata")
+    ModoFinalizacao modo;
+
+    @ConfigProperty(name = "gerenciador.finalizacao.fila.capacidade", defaultValue = "10000")
+    int capacidade;
+
+    @ConfigProperty(name = "gerenciador.finalizacao.lote.tamanho", defaultValue = "500")
+    int tamanhoLote;
+
+    @ConfigProperty(name = "gerenciador.finalizacao.lote.intervalo", defaultValue = "50ms")
+    Duration intervalo;
+
+    /**
+     * Protege a fila. É uma trava explícita, e não {@code synchronized}, para
+     * que as requisições que a disputam não prendam a virtual thread à carrier thread.
+     */
+    private final ReentrantLock trava = new ReentrantLock();
+
+    private final Condition loteDisponivel = trava.newCondition();
+
+    /**
+     * IDs aguardando gravação, na ordem de chegada, cada um com a gravação que o
+     * inclui: {@code true} se a tarefa existe, {@code false} se não existe.
+     */
+    private final Map<Long, CompletableFuture<Boolean>> pendentes = new LinkedHashMap<>();
+
+    /**
+     * Instante ({@link System#nanoTime()}) em que chegou o ID mais antigo da fila.
+     */
+    private long chegadaMaisAntiga;
+
+    private boolean encerrando;
+
+    private Thread gravador;
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        if (modo == ModoFinalizacao.IMEDIATA) {
+            return;
+        }
+        Gauge.builder("gerenciador.finalizacao.fila", this, FilaFinalizacao::tamanho)
+                .description("Finalizações de tarefas aguardando gravação em lote")
+                .register(registry);
+
+        gravador = Thread.ofPlatform().name("gravador-finalizacoes").daemon().start(this::gravarContinuamente);
+        LOG.infof("Finalizações em modo %s: lotes de até %d tarefas a cada %d ms, fila de %d tarefas.",
+                modo, tamanhoLote, intervalo.toMillis(), capacidade);
+    }
+
+    void aoEncerrar(@Observes ShutdownEvent evento) {
+        if (gravador == null) {
+            return;
+        }
+        trava.lock();
+        try {
+            encerrando = true;
+            loteDisponivel.signal();
+        } finally {
+            trava.unlock();
+        }
+        try {
+            gravador.join(ESPERA_ENCERRAMENTO_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Como as finalizações são gravadas.
+     */
+    public ModoFinalizacao modo() {
+        return modo;
+    }
+
+    /**
+     * @return A maior quantidade de IDs distintos que a fila comporta.
+     */
+    public int capacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Coloca as finalizações na fila.
+     * <p>
+     * Ou todos os IDs entram na fila, ou nenhum: se não houver espaço para os
+     * IDs que ainda não estão nela, a chamada é recusada.
+     * </p>
+     *
+     * @param ids Os IDs das tarefas, sem repetições.
+     * @return A gravação das finalizações, que termina com os IDs que não
+     *         correspondem a nenhuma tarefa; ou {@code null} se a fila estiver cheia.
+     */
+    public CompletableFuture<List<Long>> enfileirar(List<Long> ids) {
+        List<CompletableFuture<Boolean>> gravacoes = new ArrayList<>(ids.size());
+        trava.lock();
+        try {
+            long novos = ids.stream().filter(id -> !pendentes.containsKey(id)).count();
+            if (encerrando || pendentes.size() + novos > capacidade) {
+                return null;
+            }
+            boolean estavaVazia = pendentes.isEmpty();
+            if (estavaVazia) {
+                chegadaMaisAntiga = System.nanoTime();
+            }
+            for (Long id : ids) {
+                gravacoes.add(pendentes.computeIfAbsent(id, novo -> new CompletableFuture<>()));
+            }
+            // Acorda o gravador para contar o intervalo a partir do primeiro ID, ou para gravar o lote cheio.
+            if (estavaVazia || pendentes.size() >= tamanhoLote) {
+                loteDisponivel.signal();
+            }
+        } finally {
+            trava.unlock();
+        }
+
+        return CompletableFuture.allOf(gravacoes.toArray(CompletableFuture[]::new)).thenApply(concluidas -> {
+            List<Long> naoEncontradas = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                if (!gravacoes.get(i).join()) {
+                    naoEncontradas.add(ids.get(i));
+                }
+            }
+            return naoEncontradas;
+        });
+    }
+
+    /**
+     * @return A quantidade de IDs aguardando gravação.
+     */
+    public int tamanho() {
+        trava.lock();
+        try {
+            return pendentes.size();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void gravarContinuamente() {
+        Map<Long, CompletableFuture<Boolean>> lote;
+        while ((lote = proximoLote()) != null) {
+            gravar(lote);
+        }
+    }
+
+    /**
+     * Aguarda até que haja um lote a gravar e o retira da fila.
+     *
+     * @return O lote, ou {@code null} se a aplicação estiver encerrando e a fila estiver vazia.
+     */
+    private Map<Long, CompletableFuture<Boolean>> proximoLote() {
+        trava.lock();
+        try {
+            while (true) {
+                if (pendentes.isEmpty()) {
+                    if (encerrando) {
+                        return null;
+                    }
+                    loteDisponivel.await();
+                    continue;
+                }
+                long restante = intervalo.toNanos() - (System.nanoTime() - chegadaMaisAntiga);
+                if (encerrando || pendentes.size() >= tamanhoLote || restante <= 0) {
+                    break;
+                }
+                loteDisponivel.awaitNanos(restante);
+            }
+
+            // Os IDs que ficarem na fila já esperaram o intervalo e vão no próximo lote.
+            Map<Long, CompletableFuture<Boolean>> lote = new LinkedHashMap<>();
+            Iterator<Map.Entry<Long, CompletableFuture<Boolean>>> iterador = pendentes.entrySet().iterator();
+            while (iterador.hasNext() && lote.size() < tamanhoLote) {
+                Map.Entry<Long, CompletableFuture<Boolean>> pendente = iterador.next();
+                lote.put(pendente.getKey(), pendente.getValue());
+                iterador.remove();
+            }
+            return lote;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandonarPendentes();
+            return null;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Encerra a fila quando o gravador é interrompido: as finalizações que
+     * aguardavam terminam com erro, em vez de esperarem uma gravação que não
+     * acontecerá, e as próximas são recusadas. Deve ser chamado com a trava.
+     */
+    private void abandonarPendentes() {
+        encerrando = true;
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        LOG.errorf("Gravador de finalizações interrompido com %d finalizações na fila.", pendentes.size());
+        IllegalStateException erro = new IllegalStateException("O gravador de finalizações foi interrompido.");
+        pendentes.values().forEach(gravacao -> gravacao.completeExceptionally(erro));
+        pendentes.clear();
+    }
+
+    private void gravar(Map<Long, CompletableFuture<Boolean>> lote) {
+        long inicio = System.nanoTime();
+        try {
+            Set<Long> naoEncontradas = QuarkusTransaction.requiringNew()
+                    .call(() -> tarefaService.finalizarTodas(lote.keySet()));
+            lote.forEach((id, gravacao) -> gravacao.complete(!naoEncontradas.contains(id)));
+            LOG.debugf("Lote de %d finalizações gravado em %d ms.", lote.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Falha ao gravar um lote de %d finalizações.", lote.size());
+            lote.values().forEach(gravacao -> gravacao.completeExceptionally(e));
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package br.com.selecao.service;
+
+import br.com.selecao.dto.DepartamentoGastosDTO;
+import br.com.selecao.dto.PessoaMediaHorasDTO;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.transaction.Transactional;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Somas de horas e quantidades de tarefas por prazo, em baldes diários e
+ * mensais, por pessoa ({@code GastoPessoa}) e por departamento
+ * ({@code GastoDepartamento}).
+ * <p>
+ * Os baldes são atualizados por {@link EstatisticasPessoas#registrar(Collection)},
+ * na mesma transação que altera as tarefas. A média de um período é calculada
+ * somando os baldes mensais inteiramente contidos no período e os baldes
+ * diários das bordas (no máximo dois meses incompletos), de modo que a
+ * quantidade de linhas lidas depende do tamanho do período, e não da
+ * quantidade de tarefas.
+ * </p>
+ * <p>
+ * Como nas demais estruturas mantidas pelas alterações da API, tarefas
+ * gravadas por fora dela exigem uma reconstrução ({@link #reconstruir()}).
+ * </p>
+ */
+@ApplicationScoped
+public class GastosPorPeriodo {
+    /**
+     * Soma as variações aos baldes de cada pessoa, criando os baldes que ainda
+     * não existem. Os parâmetros são arrays paralelos, um elemento por balde.
+     */
+    private static final String ACUMULO_PESSOAS = """
+            INSERT INTO GastoPessoa AS g (pessoa_id, mensal, inicio, horas, tarefas)
+            SELECT v.dono, v.mensal, v.inicio, v.horas, v.tarefas
+              FROM unnest(?::bigint[], ?::boolean[], ?::date[], ?::bigint[], ?::int[])
+                   AS v (dono, mensal, inicio, horas, tarefas)
+             ORDER BY v.dono, v.mensal, v.inicio
+            ON CONFLICT (pessoa_id, mensal, inicio) DO UPDATE
+               SET horas = g.horas + EXCLUDED.horas,
+                   tarefas = g.tarefas + EXCLUDED.tarefas
+            """;
+
+    /**
+     * Quantidade de faixas de cada balde de departamento.
+     */
+    static final int FAIXAS = 16;
+
+    /**
+     * Como {@link #ACUMULO_PESSOAS}, mas na faixa da transação atual, dada pelo
+     * seu ID módulo {@value #FAIXAS}.
+     * <p>
+     * Todas as tarefas criadas em um departamento no mesmo dia caem no mesmo
+     * balde; com uma única linha por balde, as transações que criam essas
+     * tarefas se enfileirariam na trava dessa linha. Transações concorrentes
+     * recebem IDs consecutivos e, portanto, faixas diferentes, e o ID não muda
+     * durante a transação, de modo que a ordem das travas continua a mesma em
+     * todas elas. As faixas são somadas na leitura.
+     * </p>
+     */
+    private static final String ACUMULO_DEPARTAMENTOS = """
+            INSERT INTO GastoDepartamento AS g (departamento_id, mensal, inicio, faixa, horas, tarefas)
+            SELECT v.dono::int, v.mensal, v.inicio, txid_current() %% %d, v.horas, v.tarefas
+              FROM unnest(?::bigint[], ?::boolean[], ?::date[], ?::bigint[], ?::int[])
+                   AS v (dono, mensal, inicio, horas, tarefas)
+             ORDER BY v.mensal, v.inicio, v.dono
+            ON CONFLICT (mensal, inicio, departamento_id, faixa) DO UPDATE
+               SET horas = g.horas + EXCLUDED.horas,
+                   tarefas = g.tarefas + EXCLUDED.tarefas
+            """.formatted(FAIXAS);
+
+    /**
+     * Baldes que compõem um período: os meses inteiros em
+     * {@code [:mesInicial, :mesFinal)} e os dias das bordas, antes de
+     * {@code :mesInicial} e a partir de {@code :mesFinal}. Cada parte é lida
+     * por um intervalo da chave primária.
+     */
+    private static final String BALDES_PESSOA = """
+            SELECT horas, tarefas FROM GastoPessoa
+             WHERE pessoa_id = p.id AND mensal AND inicio >= :mesInicial AND inicio < :mesFinal
+            UNION ALL
+            SELECT horas, tarefas FROM GastoPessoa
+             WHERE pessoa_id = p.id AND NOT mensal AND inicio >= :dataInicio AND inicio < :mesInicial
+            UNION ALL
+            SELECT horas, tarefas FROM GastoPessoa
+             WHERE pessoa_id = p.id AND NOT mensal AND inicio >= :mesFinal AND inicio <= :dataFim
+            """;
+
+    /**
+     * Busca uma página das pessoas por trecho do nome (índice de trigramas
+     * {@code idx_pessoa_nome_trgm}) e soma, apenas para as pessoas da página,
+     * os baldes do período.
+     */
+    private static final String CONSULTA_PESSOAS = """
+            SELECT p.id, p.nome, coalesce(g.horas, 0), coalesce(g.tarefas, 0)
+              FROM (SELECT id, nome FROM Pessoa
+                     WHERE lower(nome) LIKE :nome AND id > :after
+                     ORDER BY id
+                     LIMIT :limite) p
+              LEFT JOIN LATERAL (SELECT sum(horas) AS horas, sum(tarefas) AS tarefas FROM (
+            """ + BALDES_PESSOA + """
+                   ) baldes) g ON true
+             ORDER BY p.id
+            """;
+
+    /**
+     * Soma os baldes do período de todos os departamentos, com todas as faixas
+     * de cada balde.
+     */
+    private static final String CONSULTA_DEPARTAMENTOS = """
+            SELECT departamento_id, sum(horas), sum(tarefas) FROM (
+                SELECT departamento_id, horas, tarefas FROM GastoDepartamento
+                 WHERE mensal AND inicio >= :mesInicial AND inicio < :mesFinal
+                UNION ALL
+                SELECT departamento_id, horas, tarefas FROM GastoDepartamento
+                 WHERE NOT mensal AND inicio >= :dataInicio AND inicio < :mesInicial
+                UNION ALL
+                SELECT departamento_id, horas, tarefas FROM GastoDepartamento
+                 WHERE NOT mensal AND inicio >= :mesFinal AND inicio <= :dataFim
+            ) baldes
+             GROUP BY departamento_id
+            HAVING sum(tarefas) > 0
+             ORDER BY departamento_id
+            """;
+
+    /**
+     * Baldes diário e mensal de cada tarefa com prazo, por pessoa ou departamento.
+     */
+    private static final String BALDES_DAS_TAREFAS = """
+              FROM Tarefa
+             CROSS JOIN LATERAL (VALUES (false, prazo), (true, CAST(date_trunc('month', prazo) AS date))) AS b (mensal, inicio)
+            """;
+
+    private static final String RECONSTRUCAO_PESSOAS = """
+            INSERT INTO GastoPessoa (pessoa_id, mensal, inicio, horas, tarefas)
+            SELECT pessoaAlocada_id, b.mensal, b.inicio, coalesce(sum(duracao), 0), count(*)
+            """ + BALDES_DAS_TAREFAS + """
+             WHERE pessoaAlocada_id IS NOT NULL AND prazo IS NOT NULL
+             GROUP BY pessoaAlocada_id, b.mensal, b.inicio
+            """;
+
+    /**
+     * Recalcula os baldes dos departamentos, cada um em uma única faixa.
+     */
+    private static final String RECONSTRUCAO_DEPARTAMENTOS = """
+            INSERT INTO GastoDepartamento (departamento_id, mensal, inicio, faixa, horas, tarefas)
+            SELECT departamento_id, b.mensal, b.inicio, 0, coalesce(sum(duracao), 0), count(*)
+            """ + BALDES_DAS_TAREFAS + """
+             WHERE departamento_id IS NOT NULL AND prazo IS NOT NULL
+             GROUP BY departamento_id, b.mensal, b.inicio
+            """;
+
+    /**
+     * Ordem em que os baldes são gravados, para que transações concorrentes
+     * travem as linhas sempre na mesma ordem.
+     */
+    private static final Comparator<Balde> ORDEM = Comparator.comparingLong(Balde::dono)
+            .thenComparing(Balde::mensal)
+            .thenComparing(Balde::inicio);
+
+    /**
+     * Um balde de uma pessoa ou de um departamento.
+     *
+     * @param dono   O ID da pessoa ou do departamento.
+     * @param mensal Se o balde é mensal ({@code true}) ou diário.
+     * @param inicio O dia do balde diário, ou o primeiro dia do mês do balde mensal.
+     */
+    private record Balde(long dono, boolean mensal, LocalDate inicio) {
+    }
+
+    /**
+     * Variação de um balde.
+     */
+    private static final class Variacao {
+        long horas;
+        int tarefas;
+
+        boolean nula() {
+            return horas == 0 && tarefas == 0;
+        }
+    }
+
+    /**
+     * Limites de um período: os dias {@code [dataInicio, dataFim]}, dos quais
+     * os meses {@code [mesInicial, mesFinal)} são lidos dos baldes mensais.
+     * Quando o período não contém nenhum mês inteiro, {@code mesInicial} e
+     * {@code mesFinal} são o dia seguinte a {@code dataFim}, e todo o período
+     * é lido dos baldes diários.
+     */
+    private record Periodo(LocalDate dataInicio, LocalDate dataFim, LocalDate mesInicial, LocalDate mesFinal) {
+        static Periodo de(LocalDate dataInicio, LocalDate dataFim) {
+            LocalDate diaSeguinte = dataFim.plusDays(1);
+            LocalDate mesInicial = dataInicio.getDayOfMonth() == 1 ? dataInicio : dataInicio.withDayOfMonth(1).plusMonths(1);
+            LocalDate mesFinal = diaSeguinte.withDayOfMonth(1);
+            if (!mesInicial.isBefore(mesFinal)) {
+                mesInicial = diaSeguinte;
+                mesFinal = diaSeguinte;
+            }
+            return new Periodo(dataInicio, dataFim, mesInicial, mesFinal);
+        }
+
+        Query parametros(Query consulta) {
+            return consulta.setParameter("dataInicio", dataInicio)
+                    .setParameter("dataFim", dataFim)
+                    .setParameter("mesInicial", mesInicial)
+                    .setParameter("mesFinal", mesFinal);
+        }
+    }
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    /**
+     * Calcula a média de horas por tarefa, com prazo no período, de cada pessoa
+     * cujo nome contém o trecho informado, uma página por vez.
+     *
+     * @param trecho     O trecho do nome, em letras minúsculas.
+     * @param dataInicio O primeiro dia do período.
+     * @param dataFim    O último dia do período.
+     * @param after      O ID a partir do qual a página começa (exclusivo).
+     * @param limite     A quantidade máxima de pessoas na página.
+     * @return As pessoas encontradas, em ordem de ID; pessoas sem tarefas no período têm média zero.
+     */
+    @SuppressWarnings("unchecked")
+    public List<PessoaMediaHorasDTO> mediasPorPessoa(String trecho, LocalDate dataInicio, LocalDate dataFim,
+                                                     long after, int limite) {
+        List<Object[]> linhas = Periodo.de(dataInicio, dataFim)
+                .parametros(entityManager.createNativeQuery(CONSULTA_PESSOAS))
+                .setParameter("nome", "%" + trecho + "%")
+                .setParameter("after", after)
+                .setParameter("limite", limite)
+                .getResultList();
+
+        List<PessoaMediaHorasDTO> resultado = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            resultado.add(new PessoaMediaHorasDTO(((Number) linha[0]).longValue(), (String) linha[1],
+                    media(((Number) linha[2]).longValue(), ((Number) linha[3]).longValue())));
+        }
+        return resultado;
+    }
+
+    /**
+     * Soma a duração, em minutos, e as tarefas, com prazo no período, de cada departamento.
+     *
+     * @param dataInicio O primeiro dia do período.
+     * @param dataFim    O último dia do período.
+     * @return Os departamentos com tarefas no período, em ordem de ID.
+     */
+    @SuppressWarnings("unchecked")
+    public List<DepartamentoGastosDTO> porDepartamento(LocalDate dataInicio, LocalDate dataFim) {
+        List<Object[]> linhas = Periodo.de(dataInicio, dataFim)
+                .parametros(entityManager.createNativeQuery(CONSULTA_DEPARTAMENTOS))
+                .getResultList();
+
+        List<DepartamentoGastosDTO> resultado = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            long minutos = ((Number) linha[1]).longValue();
+            long tarefas = ((Number) linha[2]).longValue();
+            resultado.add(new DepartamentoGastosDTO(departamentos.nome(((Number) linha[0]).intValue()),
+                    tarefas, minutos, media(minutos, tarefas)));
+        }
+        return resultado;
+    }
+
+    /**
+     * Descarta os baldes e os recalcula a partir das tarefas.
+     */
+    @Transactional
+    public void reconstruir() {
+        entityManager.createNativeQuery("DELETE FROM GastoPessoa").executeUpdate();
+        entityManager.createNativeQuery("DELETE FROM GastoDepartamento").executeUpdate();
+        entityManager.createNativeQuery(RECONSTRUCAO_PESSOAS).executeUpdate();
+        entityManager.createNativeQuery(RECONSTRUCAO_DEPARTAMENTOS).executeUpdate();
+    }
+
+    /**
+     * Soma aos baldes as alterações de tarefas feitas na transação da conexão.
+     *
+     * @param conexao    A conexão da transação atual.
+     * @param alteracoes As alterações das tarefas.
+     */
+    void registrar(Connection conexao, Collection<TarefaAlterada> alteracoes) throws SQLException {
+        gravar(conexao, ACUMULO_PESSOAS, variacoes(alteracoes, TarefaEstado::pessoaAlocadaId));
+        gravar(conexao, ACUMULO_DEPARTAMENTOS, variacoes(alteracoes,
+                tarefa -> tarefa.departamentoId() == null ? null : tarefa.departamentoId().longValue()));
+    }
+
+    private static double media(long horas, long tarefas) {
+        return tarefas == 0 ? 0.0 : (double) horas / tarefas;
+    }
+
+    /**
+     * Soma, por balde, a variação de cada alteração: o estado anterior da
+     * tarefa sai dos baldes em que estava e o novo entra nos seus baldes.
+     *
+     * @param dono Extrai da tarefa o ID da pessoa ou do departamento, ou {@code null}.
+     */
+    private static Map<Balde, Variacao> variacoes(Collection<TarefaAlterada> alteracoes,
+                                                   Function<TarefaEstado, Long> dono) {
+        Map<Balde, Variacao> variacoes = new TreeMap<>(ORDEM);
+        for (TarefaAlterada alteracao : alteracoes) {
+            somar(variacoes, alteracao.antes(), dono, -1);
+            somar(variacoes, alteracao.depois(), dono, 1);
+        }
+        variacoes.values().removeIf(Variacao::nula);
+        return variacoes;
+    }
+
+    private static void somar(Map<Balde, Variacao> variacoes, TarefaEstado tarefa,
+                              Function<TarefaEstado, Long> dono, int sinal) {
+        if (tarefa == null || tarefa.prazo() == null || dono.apply(tarefa) == null) {
+            return;
+        }
+        long id = dono.apply(tarefa);
+        for (Balde balde : List.of(new Balde(id, false, tarefa.prazo()),
+                new Balde(id, true, tarefa.prazo().withDayOfMonth(1)))) {
+            Variacao variacao = variacoes.computeIfAbsent(balde, b -> new Variacao());
+            variacao.horas += (long) sinal * tarefa.duracao();
+            variacao.tarefas += sinal;
+        }
+    }
+
+    private static void gravar(Connection conexao, String sql, Map<Balde, Variacao> variacoes) throws SQLException {
+        if (variacoes.isEmpty()) {
+            return;
+        }
+        Long[] donos = new Long[variacoes.size()];
+        Boolean[] mensais = new Boolean[variacoes.size()];
+        Date[] inicios = new Date[variacoes.size()];
+        Long[] horas = new Long[variacoes.size()];
+        Integer[] tarefas = new Integer[variacoes.size()];
+        int i = 0;
+        for (Map.Entry<Balde, Variacao> variacao : variacoes.entrySet()) {
+            donos[i] = variacao.getKey().dono();
+            mensais[i] = variacao.getKey().mensal();
+            inicios[i] = Date.valueOf(variacao.getKey().inicio());
+            horas[i] = variacao.getValue().horas;
+            tarefas[i] = variacao.getValue().tarefas;
+            i++;
+        }
+
+        try (PreparedStatement acumulo = conexao.prepareStatement(sql)) {
+            acumulo.setArray(1, conexao.createArrayOf("bigint", donos));
+            acumulo.setArray(2, conexao.createArrayOf("boolean", mensais));
+            acumulo.setArray(3, conexao.createArrayOf("date", inicios));
+            acumulo.setArray(4, conexao.createArrayOf("bigint", horas));
+            acumulo.setArray(5, conexao.createArrayOf("integer", tarefas));
+            acumulo.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package br.com.selecao.service;
+
+import br.com.selecao.dto.ErroImportacaoDTO;
+import br.com.selecao.dto.ImportacaoDTO;
+import br.com.selecao.dto.PessoaDTO;
+import br.com.selecao.dto.TarefaDTO;
+import br.com.selecao.evento.PessoaAlterada;
+import br.com.selecao.evento.PessoaEstado;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Importação em lote de pessoas e tarefas a partir de NDJSON (um objeto JSON por linha).
+ * <p>
+ * O corpo da requisição é lido de forma incremental e os registros são gravados
+ * em lotes de tamanho configurável, cada um em sua própria transação, com
+ * {@code INSERT}s enviados em lotes JDBC. Os IDs são reservados em blocos nas
+ * mesmas sequences usadas pelo Hibernate.
+ * </p>
+ */
+@ApplicationScoped
+public class ImportacaoService {
+    private static final Logger LOG = Logger.getLogger(ImportacaoService.class);
+
+    /**
+     * Incremento das sequences {@code Pessoa_SEQ} e {@code Tarefa_SEQ}. Cada valor
+     * devolvido por {@code nextval()} é o menor ID de um bloco com esta quantidade
+     * de IDs, a mesma convenção do otimizador "pooled-lo", o padrão do Hibernate no Quarkus.
+     */
+    static final int INCREMENTO_SEQUENCE = 50;
+
+    private static final String INSERCAO_PESSOA =
+            "INSERT INTO Pessoa (id, nome, departamento_id) VALUES (?, ?, ?)";
+
+    private static final String INSERCAO_TAREFA = """
+            INSERT INTO Tarefa (id, titulo, descricao, prazo, departamento_id, duracao, finalizado, pessoaAlocada_id)
+            VALUES (?, ?, ?, ?, ?, ?, false, ?)
+            """;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    Event<PessoaAlterada> pessoaAlterada;
+
+    @Inject
+    Event<TarefaAlterada> tarefaAlterada;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
+
+    /**
+     * Quantidade de registros gravados em cada transação.
+     */
+    @ConfigProperty(name = "gerenciador.importacao.tamanho-lote", defaultValue = "5000")
+    int tamanhoLote;
+
+    /**
+     * Grava os registros de um lote e retorna quantos foram gravados.
+     * Erros de registros individuais devem ser acrescentados à lista de erros.
+     */
+    @FunctionalInterface
+    private interface GravadorLote<T> {
+        int gravar(Connection conexao, Lote<T> lote, List<ErroImportacaoDTO> erros) throws SQLException;
+    }
+
+    /**
+     * Um lote de registros lidos do corpo da requisição.
+     *
+     * @param numero           O número do lote, começando em 1.
+     * @param primeiroRegistro A posição no arquivo do primeiro registro do lote.
+     * @param registros        Os registros do lote.
+     * @param departamentoIds  O ID de cada departamento citado pelos registros, por nome.
+     */
+    private record Lote<T>(int numero, long primeiroRegistro, List<T> registros,
+                           Map<String, Integer> departamentoIds) {
+    }
+
+    /**
+     * Importa pessoas a partir de um corpo NDJSON de {@link PessoaDTO}.
+     *
+     * @param corpo O corpo da requisição.
+     * @return O resumo da importação.
+     */
+    public ImportacaoDTO importarPessoas(InputStream corpo) {
+        return importar(corpo, PessoaDTO.class, pessoa -> pessoa.departamento, this::gravarPessoas);
+    }
+
+    /**
+     * Importa tarefas a partir de um corpo NDJSON de {@link TarefaDTO}.
+     *
+     * @param corpo O corpo da requisição.
+     * @return O resumo da importação.
+     */
+    public ImportacaoDTO importarTarefas(InputStream corpo) {
+        return importar(corpo, TarefaDTO.class, tarefa -> tarefa.departamento, this::gravarTarefas);
+    }
+
+    /**
+     * Lê os registros do corpo e os grava lote a lote.
+     * <p>
+     * Um registro com JSON malformado interrompe a leitura; os lotes anteriores a
+     * ele, inclusive o que estava sendo montado, ainda são gravados.
+     * </p>
+     */
+    private <T> ImportacaoDTO importar(InputStream corpo, Class<T> tipo, Function<T, String> departamento,
+                                       GravadorLote<T> gravador) {
+        long inicio = System.nanoTime();
+        ImportacaoDTO resultado = new ImportacaoDTO();
+
+        List<T> registros = new ArrayList<>(tamanhoLote);
+        int numeroLote = 1;
+        try (MappingIterator<T> leitor = objectMapper.readerFor(tipo).readValues(corpo)) {
+            while (leitor.hasNextValue()) {
+                registros.add(leitor.nextValue());
+                resultado.registrosLidos++;
+                if (registros.size() == tamanhoLote) {
+                    gravarLote(new Lote<>(numeroLote++, resultado.registrosLidos - registros.size() + 1, registros,
+                            registrarDepartamentos(registros, departamento)), gravador, resultado);
+                    registros = new ArrayList<>(tamanhoLote);
+                }
+            }
+        } catch (IOException e) {
+            resultado.erros.add(new ErroImportacaoDTO(numeroLote, resultado.registrosLidos + 1,
+                    "Registro inválido, importação interrompida: " + e.getMessage()));
+        }
+        if (!registros.isEmpty()) {
+            gravarLote(new Lote<>(numeroLote, resultado.registrosLidos - registros.size() + 1, registros,
+                    registrarDepartamentos(registros, departamento)), gravador, resultado);
+        }
+
+        resultado.tempoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        LOG.infof("Importação de %s: %d registros lidos, %d importados em %d ms.",
+                tipo.getSimpleName(), resultado.registrosLidos, resultado.registrosImportados, resultado.tempoMs);
+        return resultado;
+    }
+
+    /**
+     * Obtém o ID de cada departamento citado pelos registros, criando os que
+     * ainda não existem.
+     * <p>
+     * É feito antes da transação do lote: um departamento novo é gravado pelo
+     * {@link DicionarioDepartamentos} em uma transação própria, que, dentro da
+     * do lote, ocuparia uma segunda conexão do pool.
+     * </p>
+     */
+    private <T> Map<String, Integer> registrarDepartamentos(List<T> registros, Function<T, String> departamento) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (T registro : registros) {
+            String nome = departamento.apply(registro);
+            if (nome != null && !ids.containsKey(nome)) {
+                ids.put(nome, departamentos.registrar(nome));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Grava um lote em uma transação própria. Se a gravação falhar, o lote
+     * inteiro é descartado e o erro é registrado no resultado.
+     */
+    private <T> void gravarLote(Lote<T> lote, GravadorLote<T> gravador, ImportacaoDTO resultado) {
+        List<ErroImportacaoDTO> errosDoLote = new ArrayList<>();
+        try {
+            int gravados = QuarkusTransaction.requiringNew().call(() -> entityManager.unwrap(Session.class)
+                    .doReturningWork(conexao -> gravador.gravar(conexao, lote, errosDoLote)));
+            resultado.registrosImportados += gravados;
+            resultado.lotesGravados++;
+            resultado.erros.addAll(errosDoLote);
+        } catch (RuntimeException e) {
+            LOG.warnf(e, "Lote %d da importação descartado.", lote.numero());
+            resultado.erros.add(new ErroImportacaoDTO(lote.numero(), null,
+                    "Lote descartado: " + mensagemDaCausa(e)));
+        }
+    }
+
+    private int gravarPessoas(Connection conexao, Lote<PessoaDTO> lote, List<ErroImportacaoDTO> erros)
+            throws SQLException {
+        List<PessoaDTO> pessoas = lote.registros();
+        long[] ids = reservarIds(conexao, "Pessoa_SEQ", pessoas.size());
+        Integer[] departamentoIds = new Integer[pessoas.size()];
+
+        try (PreparedStatement insercao = conexao.prepareStatement(INSERCAO_PESSOA)) {
+            for (int i = 0; i < pessoas.size(); i++) {
+                PessoaDTO pessoa = pessoas.get(i);
+                departamentoIds[i] = lote.departamentoIds().get(pessoa.departamento);
+                insercao.setLong(1, ids[i]);
+                insercao.setString(2, pessoa.nome);
+                definirDepartamento(insercao, 3, departamentoIds[i]);
+                insercao.addBatch();
+            }
+            insercao.executeBatch();
+        }
+
+        for (int i = 0; i < pessoas.size(); i++) {
+            PessoaDTO pessoa = pessoas.get(i);
+            pessoaAlterada.fire(new PessoaAlterada(null, new PessoaEstado(ids[i], pessoa.nome, departamentoIds[i])));
+        }
+        return pessoas.size();
+    }
+
+    private int gravarTarefas(Connection conexao, Lote<TarefaDTO> lote, List<ErroImportacaoDTO> erros)
+            throws SQLException {
+        Set<Long> pessoasExistentes = pessoasExistentes(conexao, lote.registros());
+
+        // Descarta os registros que referenciam pessoas inexistentes.
+        List<TarefaDTO> tarefas = new ArrayList<>(lote.registros().size());
+        for (int i = 0; i < lote.registros().size(); i++) {
+            TarefaDTO tarefa = lote.registros().get(i);
+            if (tarefa.pessoaAlocadaId != null && !pessoasExistentes.contains(tarefa.pessoaAlocadaId)) {
+                erros.add(new ErroImportacaoDTO(lote.numero(), lote.primeiroRegistro() + i,
+                        "Pessoa com id " + tarefa.pessoaAlocadaId + " não encontrada."));
+            } else {
+                tarefas.add(tarefa);
+            }
+        }
+
+        long[] ids = reservarIds(conexao, "Tarefa_SEQ", tarefas.size());
+        Integer[] departamentoIds = new Integer[tarefas.size()];
+        try (PreparedStatement insercao = conexao.prepareStatement(INSERCAO_TAREFA)) {
+            for (int i = 0; i < tarefas.size(); i++) {
+                TarefaDTO tarefa = tarefas.get(i);
+                departamentoIds[i] = lote.departamentoIds().get(tarefa.departamento);
+                insercao.setLong(1, ids[i]);
+                insercao.setString(2, tarefa.titulo);
+                insercao.setString(3, tarefa.descricao);
+                insercao.setDate(4, tarefa.prazo == null ? null : Date.valueOf(tarefa.prazo));
+                definirDepartamento(insercao, 5, departamentoIds[i]);
+                insercao.setInt(6, tarefa.duracao);
+                if (tarefa.pessoaAlocadaId == null) {
+                    insercao.setNull(7, Types.BIGINT);
+                } else {
+                    insercao.setLong(7, tarefa.pessoaAlocadaId);
+                }
+                insercao.addBatch();
+            }
+            insercao.executeBatch();
+        }
+
+        List<TarefaAlterada> criacoes = new ArrayList<>(tarefas.size());
+        for (int i = 0; i < tarefas.size(); i++) {
+            TarefaDTO tarefa = tarefas.get(i);
+            criacoes.add(new TarefaAlterada(null, new TarefaEstado(ids[i], tarefa.titulo, tarefa.descricao,
+                    tarefa.prazo, departamentoIds[i], tarefa.duracao, false, tarefa.pessoaAlocadaId)));
+        }
+        estatisticas.registrar(conexao, criacoes);
+        criacoes.forEach(tarefaAlterada::fire);
+        return tarefas.size();
+    }
+
+    /**
+     * Grava o ID do departamento no parâmetro informado, ou {@code NULL} se não houver departamento.
+     */
+    private static void definirDepartamento(PreparedStatement insercao, int parametro, Integer departamentoId)
+            throws SQLException {
+        if (departamentoId == null) {
+            insercao.setNull(parametro, Types.INTEGER);
+        } else {
+            insercao.setInt(parametro, departamentoId);
+        }
+    }
+
+    /**
+     * Verifica, com uma única consulta, quais das pessoas referenciadas pelo lote existem.
+     */
+    private Set<Long> pessoasExistentes(Connection conexao, List<TarefaDTO> tarefas) throws SQLException {
+        Set<Long> referenciadas = new HashSet<>();
+        for (TarefaDTO tarefa : tarefas) {
+            if (tarefa.pessoaAlocadaId != null) {
+                referenciadas.add(tarefa.pessoaAlocadaId);
+            }
+        }
+
+        Set<Long> existentes = new HashSet<>();
+        if (referenciadas.isEmpty()) {
+            return existentes;
+        }
+        try (PreparedStatement consulta = conexao.prepareStatement("SELECT id FROM Pessoa WHERE id = ANY (?)")) {
+            consulta.setArray(1, conexao.createArrayOf("bigint", referenciadas.toArray()));
+            try (ResultSet linhas = consulta.executeQuery()) {
+                while (linhas.next()) {
+                    existentes.add(linhas.getLong(1));
+                }
+            }
+        }
+        return existentes;
+    }
+
+    /**
+     * Reserva a quantidade de IDs pedida na sequence, em blocos de
+     * {@link #INCREMENTO_SEQUENCE}, com uma única consulta.
+     */
+    private long[] reservarIds(Connection conexao, String sequence, int quantidade) throws SQLException {
+        long[] ids = new long[quantidade];
+        if (quantidade == 0) {
+            return ids;
+        }
+
+        int blocos = (quantidade + INCREMENTO_SEQUENCE - 1) / INCREMENTO_SEQUENCE;
+        try (PreparedStatement consulta = conexao.prepareStatement(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)")) {
+            consulta.setInt(1, blocos);
+            try (ResultSet linhas = consulta.executeQuery()) {
+                int proximo = 0;
+                while (linhas.next() && proximo < quantidade) {
+                    long menorIdDoBloco = linhas.getLong(1);
+                    for (long id = menorIdDoBloco; id < menorIdDoBloco + INCREMENTO_SEQUENCE && proximo < quantidade; id++) {
+                        ids[proximo++] = id;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String mensagemDaCausa(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null) {
+            causa = causa.getCause();
+        }
+        return causa.getMessage();
+    }
+}
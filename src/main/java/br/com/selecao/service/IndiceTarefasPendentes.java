@@ -0,0 +1,157 @@
+package br.com.selecao.service;
+
+import br.com.selecao.dto.TarefaDetalheDTO;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice em memória das tarefas pendentes (sem pessoa alocada), ordenado por
+ * prazo e ID.
+ * <p>
+ * Atende a listagem das tarefas pendentes mais antigas sem consultar o banco.
+ * As tarefas ficam em um {@link ConcurrentSkipListMap}, que pode ser lido e
+ * alterado por várias threads ao mesmo tempo sem travas. O índice é carregado
+ * na inicialização e mantido pelo evento {@link TarefaAlterada}.
+ * </p>
+ */
+@ApplicationScoped
+public class IndiceTarefasPendentes implements ProjecaoEmMemoria {
+    private static final Logger LOG = Logger.getLogger(IndiceTarefasPendentes.class);
+
+    /**
+     * Mesma ordem da listagem no banco: prazo mais antigo primeiro, sem prazo
+     * por último e, em caso de empate, menor ID primeiro.
+     */
+    private static final Comparator<Chave> ORDEM = Comparator
+            .comparing(Chave::prazo, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparingLong(Chave::id);
+
+    private static final String CONSULTA_PENDENTES = """
+            select t.id, t.titulo, t.descricao, t.prazo, t.departamentoId, t.duracao, t.finalizado
+            from Tarefa t
+            where t.pessoaAlocada is null
+            """;
+
+    /**
+     * Chave de ordenação de uma tarefa pendente.
+     */
+    private record Chave(LocalDate prazo, long id) {
+    }
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    private final ConcurrentSkipListMap<Chave, TarefaEstado> pendentes = new ConcurrentSkipListMap<>(ORDEM);
+
+    private final Map<Long, Chave> chavePorId = new ConcurrentHashMap<>();
+
+    /**
+     * Serializa as recargas. É uma trava explícita, e não {@code synchronized},
+     * para que a consulta ao banco não prenda a virtual thread à carrier thread.
+     */
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    /**
+     * Carrega as tarefas pendentes do banco de dados quando a aplicação inicia.
+     */
+    @Transactional
+    void aoIniciar(@Observes StartupEvent evento) {
+        recarregar();
+    }
+
+    @Override
+    @Transactional
+    public void recarregar() {
+        recarga.lock();
+        try {
+            List<Object[]> linhas = entityManager.createQuery(CONSULTA_PENDENTES, Object[].class).getResultList();
+
+            pendentes.clear();
+            chavePorId.clear();
+            for (Object[] linha : linhas) {
+                incluir(new TarefaEstado((Long) linha[0], (String) linha[1], (String) linha[2], (LocalDate) linha[3],
+                        (Integer) linha[4], (Integer) linha[5], (Boolean) linha[6], null));
+            }
+            LOG.infof("Índice de tarefas pendentes carregado com %d tarefas.", pendentes.size());
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    /**
+     * Retorna as tarefas pendentes com os prazos mais antigos.
+     *
+     * @param limite A quantidade máxima de tarefas.
+     * @return Até {@code limite} tarefas, da mais antiga para a mais recente.
+     */
+    public List<TarefaDetalheDTO> maisAntigas(int limite) {
+        List<TarefaDetalheDTO> resultado = new ArrayList<>(limite);
+        for (TarefaEstado tarefa : pendentes.values()) {
+            if (resultado.size() == limite) {
+                break;
+            }
+            resultado.add(new TarefaDetalheDTO(tarefa.id(), tarefa.titulo(), tarefa.descricao(), tarefa.prazo(),
+                    departamentos.nome(tarefa.departamentoId()), tarefa.duracao(), tarefa.finalizado(), null, null, null));
+        }
+        return resultado;
+    }
+
+    /**
+     * Retorna uma tarefa pendente pelo ID.
+     * <p>
+     * O índice reflete apenas as alterações já confirmadas: uma tarefa
+     * retornada aqui pode ter sido alocada por uma transação ainda em andamento.
+     * </p>
+     *
+     * @param id O ID da tarefa.
+     * @return O estado da tarefa, ou {@code null} se ela não estiver no índice.
+     */
+    public TarefaEstado pendente(Long id) {
+        Chave chave = chavePorId.get(id);
+        return chave == null ? null : pendentes.get(chave);
+    }
+
+    /**
+     * Mantém o índice atualizado quando tarefas são criadas, alocadas ou finalizadas.
+     */
+    void aoAlterarTarefa(@Observes(during = TransactionPhase.AFTER_SUCCESS) TarefaAlterada evento) {
+        TarefaEstado depois = evento.depois();
+        retirar(depois.id());
+        if (depois.pessoaAlocadaId() == null) {
+            incluir(depois);
+        }
+    }
+
+    private void incluir(TarefaEstado tarefa) {
+        Chave chave = new Chave(tarefa.prazo(), tarefa.id());
+        pendentes.put(chave, tarefa);
+        chavePorId.put(tarefa.id(), chave);
+    }
+
+    private void retirar(Long id) {
+        Chave chave = chavePorId.remove(id);
+        if (chave != null) {
+            pendentes.remove(chave);
+        }
+    }
+}
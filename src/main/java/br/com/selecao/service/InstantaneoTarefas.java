@@ -0,0 +1,189 @@
+package br.com.selecao.service;
+
+import br.com.selecao.dto.DepartamentoTarefasDTO;
+import br.com.selecao.dto.PessoaTarefasDTO;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cópia em memória, em colunas ({@link ColunasTarefas}), de todas as tarefas,
+ * para agregações que leem a tabela inteira sem consultar o banco.
+ * <p>
+ * As colunas são carregadas na inicialização e mantidas pelo evento
+ * {@link TarefaAlterada}, uma tarefa por vez. As agregações somam as colunas
+ * em paralelo em um {@link ForkJoinPool} próprio, com uma thread por processador,
+ * para não disputar o pool comum com o restante da aplicação.
+ * </p>
+ */
+@ApplicationScoped
+public class InstantaneoTarefas implements ProjecaoEmMemoria {
+    private static final Logger LOG = Logger.getLogger(InstantaneoTarefas.class);
+
+    private static final String CONSULTA_TAREFAS = """
+            SELECT id, departamento_id, prazo, duracao, finalizado, pessoaAlocada_id FROM Tarefa ORDER BY id
+            """;
+
+    /**
+     * Quantidade de linhas trazidas do banco por vez na carga, para que a
+     * tabela inteira não fique na memória do driver JDBC.
+     */
+    private static final int LINHAS_POR_LEITURA = 10_000;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    /**
+     * Várias agregações podem ler as colunas ao mesmo tempo; as alterações e a
+     * recarga esperam que elas terminem. É uma trava explícita, e não
+     * {@code synchronized}, para que a espera não prenda a virtual thread à carrier thread.
+     */
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private final ForkJoinPool varreduras = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private ColunasTarefas colunas = new ColunasTarefas(0);
+
+    /**
+     * Carrega as tarefas do banco de dados quando a aplicação inicia.
+     */
+    @Transactional
+    void aoIniciar(@Observes StartupEvent evento) {
+        recarregar();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        varreduras.shutdownNow();
+    }
+
+    @Override
+    @Transactional
+    public void recarregar() {
+        trava.writeLock().lock();
+        try {
+            ColunasTarefas novas = new ColunasTarefas(0);
+            entityManager.unwrap(Session.class).doWork(conexao -> {
+                try (PreparedStatement consulta = conexao.prepareStatement(CONSULTA_TAREFAS)) {
+                    consulta.setFetchSize(LINHAS_POR_LEITURA);
+                    try (ResultSet linhas = consulta.executeQuery()) {
+                        while (linhas.next()) {
+                            int departamentoId = linhas.getInt(2);
+                            Integer departamento = linhas.wasNull() ? null : departamentoId;
+                            Date prazo = linhas.getDate(3);
+                            long pessoaId = linhas.getLong(6);
+                            Long pessoa = linhas.wasNull() ? null : pessoaId;
+                            novas.gravar(linhas.getLong(1), departamento, prazo == null ? null : prazo.toLocalDate(),
+                                    linhas.getInt(4), linhas.getBoolean(5), pessoa);
+                        }
+                    }
+                }
+            });
+            colunas = novas;
+            LOG.infof("Colunas de tarefas carregadas com %d tarefas.", novas.tamanho());
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Conta e soma as tarefas de cada departamento, sem consultar o banco.
+     * <p>
+     * As colunas refletem apenas as alterações já confirmadas: uma tarefa
+     * alterada por uma transação em andamento aparece com o estado anterior.
+     * </p>
+     *
+     * @param dataInicio O primeiro dia do período, ou {@code null} para todas as tarefas.
+     * @param dataFim    O último dia do período, ou {@code null} para todas as tarefas.
+     * @return Os departamentos com tarefas, em ordem de ID; as tarefas sem
+     *         departamento, se houver, vêm primeiro, com departamento {@code null}.
+     */
+    public List<DepartamentoTarefasDTO> porDepartamento(LocalDate dataInicio, LocalDate dataFim) {
+        ColunasTarefas.Totais totais;
+        trava.readLock().lock();
+        try {
+            totais = colunas.totaisPorDepartamento(varreduras, dataInicio, dataFim);
+        } finally {
+            trava.readLock().unlock();
+        }
+
+        List<DepartamentoTarefasDTO> resultado = new ArrayList<>();
+        for (int d = 0; d < totais.tarefas.length; d++) {
+            int tarefas = totais.tarefas[d];
+            if (tarefas == 0) {
+                continue;
+            }
+            String nome = departamentos.nome(d == ColunasTarefas.SEM_DEPARTAMENTO ? null : d);
+            resultado.add(new DepartamentoTarefasDTO(nome, tarefas, totais.abertas[d], totais.duracoes[d],
+                    (double) totais.duracoes[d] / tarefas));
+        }
+        return resultado;
+    }
+
+    /**
+     * Conta e soma as tarefas alocadas a cada pessoa, sem consultar o banco.
+     * <p>
+     * Como em {@link #porDepartamento(LocalDate, LocalDate)}, as colunas
+     * refletem apenas as alterações já confirmadas.
+     * </p>
+     *
+     * @param dataInicio O primeiro dia do período, ou {@code null} para todas as tarefas.
+     * @param dataFim    O último dia do período, ou {@code null} para todas as tarefas.
+     * @return As pessoas com tarefas, em ordem de ID; as tarefas sem pessoa alocada não entram.
+     */
+    public List<PessoaTarefasDTO> porPessoa(LocalDate dataInicio, LocalDate dataFim) {
+        List<PessoaTarefasDTO> resultado = new ArrayList<>();
+        trava.readLock().lock();
+        try {
+            ColunasTarefas.Totais totais = colunas.totaisPorPessoa(varreduras, dataInicio, dataFim);
+            // O ID de cada índice é lido sob a mesma trava, pois uma alteração pode incluir pessoas.
+            for (int p = ColunasTarefas.SEM_PESSOA + 1; p < totais.tarefas.length; p++) {
+                int tarefas = totais.tarefas[p];
+                if (tarefas > 0) {
+                    resultado.add(new PessoaTarefasDTO(colunas.pessoaId(p), tarefas, totais.abertas[p],
+                            totais.duracoes[p], (double) totais.duracoes[p] / tarefas));
+                }
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        resultado.sort(Comparator.comparingLong(pessoa -> pessoa.pessoaId));
+        return resultado;
+    }
+
+    /**
+     * Mantém as colunas atualizadas quando tarefas são criadas, alocadas, realocadas ou finalizadas.
+     */
+    void aoAlterarTarefa(@Observes(during = TransactionPhase.AFTER_SUCCESS) TarefaAlterada evento) {
+        TarefaEstado tarefa = evento.depois();
+        trava.writeLock().lock();
+        try {
+            colunas.gravar(tarefa.id(), tarefa.departamentoId(), tarefa.prazo(), tarefa.duracao(), tarefa.finalizado(),
+                    tarefa.pessoaAlocadaId());
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.selecao.service;
+
+/**
+ * Como as finalizações de tarefas ({@code PUT /tarefas/finalizar}) são gravadas,
+ * conforme {@code gerenciador.finalizacao.modo}.
+ */
+public enum ModoFinalizacao {
+    /**
+     * Cada requisição grava as suas finalizações na própria transação, antes de responder.
+     */
+    IMEDIATA,
+
+    /**
+     * As finalizações entram na {@link FilaFinalizacao} e a requisição é
+     * respondida logo em seguida (202 Accepted), antes da gravação. Finalizações
+     * ainda na fila se perdem se a aplicação for interrompida abruptamente.
+     */
+    ADIADA,
+
+    /**
+     * As finalizações entram na {@link FilaFinalizacao}, como em {@link #ADIADA},
+     * mas a requisição só é respondida depois que o lote que as contém é gravado.
+     */
+    AGRUPADA
+}
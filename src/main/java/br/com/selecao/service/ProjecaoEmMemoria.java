@@ -0,0 +1,17 @@
+package br.com.selecao.service;
+
+/**
+ * Estrutura mantida em memória a partir dos dados do banco.
+ * <p>
+ * Cada projeção é carregada na inicialização e depois mantida pelos eventos de
+ * alteração disparados pelos endpoints. Alterações feitas por fora da API
+ * (por exemplo, diretamente no banco) exigem uma nova carga completa.
+ * </p>
+ */
+public interface ProjecaoEmMemoria {
+
+    /**
+     * Descarta o estado em memória e o reconstrói a partir do banco de dados.
+     */
+    void recarregar();
+}
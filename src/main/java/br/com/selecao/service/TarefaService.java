@@ -0,0 +1,241 @@
+package br.com.selecao.service;
+
+import br.com.selecao.dto.TarefaDetalheDTO;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import br.com.selecao.model.Tarefa;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Alterações de estado de uma tarefa feitas por {@code UPDATE}s condicionais,
+ * em um único comando SQL cada.
+ * <p>
+ * A condição de cada {@code UPDATE} (por exemplo, {@code pessoaAlocada_id IS NULL}
+ * na alocação) é avaliada pelo banco com a linha travada. Entre requisições
+ * concorrentes sobre a mesma tarefa, apenas uma altera a linha; as demais não
+ * alteram nada e recebem um resultado vazio, em vez de sobrescrever a
+ * alteração da primeira. O {@code RETURNING} devolve a tarefa alterada, com o
+ * resumo da pessoa alocada, sem uma consulta antes nem depois.
+ * </p>
+ * <p>
+ * Os métodos devem ser chamados dentro de uma transação. O evento
+ * {@link TarefaAlterada} só é disparado, e os totais da pessoa alocada
+ * ({@link EstatisticasPessoas}) só são atualizados, quando a linha foi de fato alterada.
+ * </p>
+ */
+@ApplicationScoped
+public class TarefaService {
+    /**
+     * Colunas da tarefa e do resumo da pessoa alocada, lidas de uma tabela ou
+     * de um {@code UPDATE ... RETURNING} de apelido {@code t}.
+     */
+    private static final String PROJECAO = """
+            SELECT t.id, t.titulo, t.descricao, t.prazo, t.departamento_id, t.duracao, t.finalizado,
+                   t.pessoaAlocada_id AS pessoa_id, p.nome AS pessoa_nome, p.departamento_id AS pessoa_departamento_id
+            """;
+
+    private static final String RETORNO = """
+            RETURNING id, titulo, descricao, prazo, departamento_id, duracao, finalizado, pessoaAlocada_id)
+            """;
+
+    private static final String JUNCAO_PESSOA = "  LEFT JOIN Pessoa p ON p.id = t.pessoaAlocada_id\n";
+
+    private static final String CONSULTA_TAREFA = PROJECAO + "  FROM Tarefa t\n" + JUNCAO_PESSOA + " WHERE t.id = :id";
+
+    /**
+     * Finaliza a tarefa apenas se ela ainda não estiver finalizada, para que a
+     * carga dela seja descontada da pessoa uma única vez.
+     */
+    private static final String FINALIZACAO = """
+            WITH t AS (
+                UPDATE Tarefa SET finalizado = true, versao = versao + 1
+                 WHERE id = :id AND finalizado = false
+            """ + RETORNO + PROJECAO + "  FROM t\n" + JUNCAO_PESSOA;
+
+    /**
+     * Aloca a tarefa apenas se ela continuar pendente e se a pessoa ainda existir.
+     */
+    private static final String ALOCACAO = """
+            WITH t AS (
+                UPDATE Tarefa SET pessoaAlocada_id = :pessoa, versao = versao + 1
+                 WHERE id = :id AND pessoaAlocada_id IS NULL
+                   AND EXISTS (SELECT 1 FROM Pessoa WHERE id = :pessoa)
+            """ + RETORNO + PROJECAO + "  FROM t\n" + JUNCAO_PESSOA;
+
+    /**
+     * Finaliza de uma vez as tarefas da lista que ainda não estiverem finalizadas.
+     */
+    private static final String FINALIZACAO_LOTE = """
+            WITH t AS (
+                UPDATE Tarefa SET finalizado = true, versao = versao + 1
+                 WHERE id IN (:ids) AND finalizado = false
+            """ + RETORNO + PROJECAO + "  FROM t\n" + JUNCAO_PESSOA;
+
+    private static final String CONSULTA_EXISTENTES = "SELECT id FROM Tarefa WHERE id IN (:ids)";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
+
+    @Inject
+    Event<TarefaAlterada> tarefaAlterada;
+
+    /**
+     * Tarefa lida ou alterada, com o resumo da pessoa alocada.
+     *
+     * @param tarefa                O estado da tarefa.
+     * @param pessoaNome            O nome da pessoa alocada, ou {@code null}.
+     * @param pessoaDepartamentoId  O ID do departamento da pessoa alocada, ou {@code null}.
+     */
+    public record TarefaComPessoa(TarefaEstado tarefa, String pessoaNome, Integer pessoaDepartamentoId) {
+        /**
+         * @param nomeDepartamento Resolve o nome de um departamento a partir do seu ID.
+         * @return O DTO de resposta da tarefa.
+         */
+        public TarefaDetalheDTO paraDTO(Function<Integer, String> nomeDepartamento) {
+            return new TarefaDetalheDTO(tarefa.id(), tarefa.titulo(), tarefa.descricao(), tarefa.prazo(),
+                    nomeDepartamento.apply(tarefa.departamentoId()), tarefa.duracao(), tarefa.finalizado(),
+                    tarefa.pessoaAlocadaId(), pessoaNome, nomeDepartamento.apply(pessoaDepartamentoId));
+        }
+    }
+
+    /**
+     * Lê uma tarefa, sem carregar a entidade.
+     *
+     * @param id O ID da tarefa.
+     * @return A tarefa, ou vazio se ela não existir.
+     */
+    public Optional<TarefaComPessoa> buscar(Long id) {
+        return primeira(executar(CONSULTA_TAREFA, Map.of("id", id)));
+    }
+
+    /**
+     * Marca a tarefa como finalizada, se ainda não estiver.
+     *
+     * @param id O ID da tarefa.
+     * @return A tarefa finalizada, ou vazio se ela não existir ou já estiver finalizada.
+     */
+    public Optional<TarefaComPessoa> finalizar(Long id) {
+        Optional<TarefaComPessoa> finalizada = primeira(executar(FINALIZACAO, Map.of("id", id)));
+        finalizada.ifPresent(depois -> alteradas(List.of(finalizacao(depois))));
+        return finalizada;
+    }
+
+    /**
+     * Aloca a pessoa na tarefa, se a tarefa estiver pendente e a pessoa existir.
+     *
+     * @param id       O ID da tarefa.
+     * @param pessoaId O ID da pessoa.
+     * @return A tarefa alocada, ou vazio se a tarefa não existir, já estiver
+     *         alocada ou se a pessoa não existir.
+     */
+    public Optional<TarefaComPessoa> alocar(Long id, Long pessoaId) {
+        Optional<TarefaComPessoa> alocada = primeira(executar(ALOCACAO, Map.of("id", id, "pessoa", pessoaId)));
+        alocada.ifPresent(depois -> {
+            TarefaEstado t = depois.tarefa();
+            alteradas(List.of(new TarefaAlterada(new TarefaEstado(t.id(), t.titulo(), t.descricao(), t.prazo(),
+                    t.departamentoId(), t.duracao(), t.finalizado(), null), t)));
+        });
+        return alocada;
+    }
+
+    /**
+     * Finaliza de uma vez, com um único {@code UPDATE}, as tarefas da lista que
+     * ainda não estiverem finalizadas.
+     *
+     * @param ids Os IDs das tarefas, sem repetições.
+     * @return Os IDs da lista que não correspondem a nenhuma tarefa.
+     */
+    public Set<Long> finalizarTodas(Collection<Long> ids) {
+        Set<Long> naoEncontradas = new HashSet<>(ids);
+        List<TarefaAlterada> finalizacoes = new ArrayList<>();
+        for (TarefaComPessoa tarefa : executar(FINALIZACAO_LOTE, Map.of("ids", ids))) {
+            finalizacoes.add(finalizacao(tarefa));
+            naoEncontradas.remove(tarefa.tarefa().id());
+        }
+        alteradas(finalizacoes);
+        if (!naoEncontradas.isEmpty()) {
+            // As demais já estavam finalizadas ou não existem.
+            List<?> existentes = entityManager.createNativeQuery(CONSULTA_EXISTENTES)
+                    .unwrap(NativeQuery.class)
+                    .setParameterList("ids", naoEncontradas)
+                    .getResultList();
+            existentes.forEach(id -> naoEncontradas.remove(((Number) id).longValue()));
+        }
+        return naoEncontradas;
+    }
+
+    private static TarefaAlterada finalizacao(TarefaComPessoa depois) {
+        TarefaEstado t = depois.tarefa();
+        return new TarefaAlterada(new TarefaEstado(t.id(), t.titulo(), t.descricao(), t.prazo(), t.departamentoId(),
+                t.duracao(), false, t.pessoaAlocadaId()), t);
+    }
+
+    private void alteradas(List<TarefaAlterada> alteracoes) {
+        if (alteracoes.isEmpty()) {
+            return;
+        }
+        estatisticas.registrar(alteracoes);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        for (TarefaAlterada alteracao : alteracoes) {
+            // O UPDATE foi feito por SQL: a versão em cache da tarefa ficou desatualizada.
+            cache.evict(Tarefa.class, alteracao.depois().id());
+            tarefaAlterada.fire(alteracao);
+        }
+    }
+
+    private static Optional<TarefaComPessoa> primeira(List<TarefaComPessoa> tarefas) {
+        return tarefas.isEmpty() ? Optional.empty() : Optional.of(tarefas.get(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TarefaComPessoa> executar(String sql, Map<String, Object> parametros) {
+        NativeQuery<Object[]> consulta = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("titulo", String.class)
+                .addScalar("descricao", String.class)
+                .addScalar("prazo", LocalDate.class)
+                .addScalar("departamento_id", Integer.class)
+                .addScalar("duracao", Integer.class)
+                .addScalar("finalizado", Boolean.class)
+                .addScalar("pessoa_id", Long.class)
+                .addScalar("pessoa_nome", String.class)
+                .addScalar("pessoa_departamento_id", Integer.class);
+        parametros.forEach((nome, valor) -> {
+            if (valor instanceof Collection<?> lista) {
+                consulta.setParameterList(nome, lista);
+            } else {
+                consulta.setParameter(nome, valor);
+            }
+        });
+
+        List<Object[]> linhas = consulta.getResultList();
+        List<TarefaComPessoa> tarefas = new ArrayList<>(linhas.size());
+        for (Object[] linha : linhas) {
+            Integer duracao = (Integer) linha[5];
+            TarefaEstado tarefa = new TarefaEstado((Long) linha[0], (String) linha[1], (String) linha[2],
+                    (LocalDate) linha[3], (Integer) linha[4], duracao == null ? 0 : duracao, (Boolean) linha[6],
+                    (Long) linha[7]);
+            tarefas.add(new TarefaComPessoa(tarefa, (String) linha[8], (Integer) linha[9]));
+        }
+        return tarefas;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.selecao.service;
+
+import br.com.selecao.evento.PessoaAlterada;
+import br.com.selecao.evento.TarefaAlterada;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versão dos dados de pessoas e tarefas, usado como ETag das
+ * listagens e agregações.
+ * <p>
+ * A versão é incrementada após cada alteração confirmada, pelos eventos
+ * {@link TarefaAlterada} e {@link PessoaAlterada}. Todas as listagens
+ * dependem das duas tabelas (as horas por pessoa somam tarefas e a listagem de
+ * tarefas traz o nome da pessoa alocada), por isso há um único contador.
+ * </p>
+ * <p>
+ * O valor inclui um prefixo sorteado a cada inicialização, para que uma ETag
+ * emitida antes de um reinício, ou por outra instância, nunca coincida com a
+ * versão atual. Quem usa a versão deve lê-la <em>antes</em> de consultar o
+ * banco: assim, uma alteração concorrente pode no máximo associar dados novos
+ * a uma versão antiga, o que só causa uma resposta completa a mais, nunca um
+ * 304 indevido.
+ * </p>
+ */
+@ApplicationScoped
+public class VersaoDados implements ProjecaoEmMemoria {
+    private final String epoca = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final AtomicLong versao = new AtomicLong();
+
+    /**
+     * @return O identificador da versão atual dos dados.
+     */
+    public String atual() {
+        return epoca + "-" + versao.get();
+    }
+
+    /**
+     * Como a versão não é lida do banco, recarregar apenas a invalida.
+     */
+    @Override
+    public void recarregar() {
+        versao.incrementAndGet();
+    }
+
+    void aoAlterarTarefa(@Observes(during = TransactionPhase.AFTER_SUCCESS) TarefaAlterada evento) {
+        versao.incrementAndGet();
+    }
+
+    void aoAlterarPessoa(@Observes(during = TransactionPhase.AFTER_SUCCESS) PessoaAlterada evento) {
+        versao.incrementAndGet();
+    }
+}
@@ -0,0 +1,7 @@
+-- Habilita a extensão pg_trgm, que permite indexar buscas por trechos de texto.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Índice GIN de trigramas sobre o nome em minúsculas.
+-- Atende a busca parcial "lower(nome) LIKE '%...%'" de GET /pessoas/gastos,
+-- que sem ele sempre percorre a tabela 'Pessoa' inteira.
+CREATE INDEX idx_pessoa_nome_trgm ON Pessoa USING GIN (lower(nome) gin_trgm_ops);
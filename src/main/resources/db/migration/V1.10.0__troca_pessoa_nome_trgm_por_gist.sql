@@ -0,0 +1,10 @@
+-- Troca o índice GIN de trigramas do nome por um GiST.
+-- Nomes com um trecho em comum (sobrenomes, prefixos) repetem os mesmos
+-- trigramas em boa parte das linhas, e o GIN lê a lista inteira de linhas de
+-- cada trigrama da busca: com 1.000.000 de pessoas, buscar um nome completo
+-- lia cerca de 3.700 páginas e levava de 70 a 100 ms, mesmo encontrando uma
+-- única pessoa. O GiST guarda uma assinatura dos trigramas de cada nome e
+-- descarta as linhas que não têm todos eles; a mesma busca lê cerca de 370
+-- páginas e leva de 2 a 7 ms.
+DROP INDEX idx_pessoa_nome_trgm;
+CREATE INDEX idx_pessoa_nome_trgm ON Pessoa USING GIST (lower(nome) gist_trgm_ops(siglen = 64));
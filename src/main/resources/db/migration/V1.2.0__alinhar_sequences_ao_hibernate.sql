@@ -0,0 +1,13 @@
+-- O Hibernate ORM reserva IDs em blocos de 50 (otimizador "pooled-lo", o padrão
+-- no Quarkus): cada chamada a nextval() devolve o menor ID de um bloco de 50
+-- valores, e os 49 seguintes são atribuídos sem consultar o banco. As
+-- sequences, porém, foram criadas com INCREMENT BY 1, o que obriga uma ida ao
+-- banco por registro e faz os blocos se sobreporem. O incremento passa a ser 50,
+-- o mesmo usado pela importação em lote (ImportacaoService).
+ALTER SEQUENCE Pessoa_SEQ INCREMENT BY 50;
+ALTER SEQUENCE Tarefa_SEQ INCREMENT BY 50;
+
+-- Reposiciona as sequences acima do maior ID já gravado, para que os próximos
+-- blocos não colidam com IDs gerados enquanto o incremento era 1.
+SELECT setval('Pessoa_SEQ', GREATEST((SELECT COALESCE(MAX(id), 0) FROM Pessoa), (SELECT last_value FROM Pessoa_SEQ)));
+SELECT setval('Tarefa_SEQ', GREATEST((SELECT COALESCE(MAX(id), 0) FROM Tarefa), (SELECT last_value FROM Tarefa_SEQ)));
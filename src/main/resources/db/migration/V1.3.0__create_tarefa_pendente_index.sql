@@ -0,0 +1,5 @@
+-- Índice parcial das tarefas pendentes (sem pessoa alocada), na ordem em que
+-- GET /tarefas/pendentes as lista: prazo mais antigo primeiro, sem prazo por último.
+-- Por ser parcial, o índice só contém as tarefas pendentes e continua pequeno
+-- mesmo com um histórico grande de tarefas já alocadas.
+CREATE INDEX idx_tarefa_pendente_prazo ON Tarefa (prazo, id) WHERE pessoaAlocada_id IS NULL;
@@ -0,0 +1,30 @@
+-- Dicionário de departamentos: cada nome é gravado uma única vez e as tabelas
+-- 'Pessoa' e 'Tarefa' passam a referenciá-lo por um ID inteiro, em vez de
+-- repetir o nome (VARCHAR) em cada linha.
+CREATE TABLE Departamento (
+    id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL,
+    CONSTRAINT uk_departamento_nome UNIQUE (nome)
+);
+
+-- Preenche o dicionário com todos os nomes já usados por pessoas e tarefas.
+INSERT INTO Departamento (nome)
+SELECT departamento FROM Pessoa WHERE departamento IS NOT NULL
+UNION
+SELECT departamento FROM Tarefa WHERE departamento IS NOT NULL
+ORDER BY 1;
+
+-- Troca a coluna de texto pela chave estrangeira, preservando os dados.
+ALTER TABLE Pessoa ADD COLUMN departamento_id INT
+    CONSTRAINT fk_pessoa_departamento REFERENCES Departamento (id);
+UPDATE Pessoa p SET departamento_id = d.id FROM Departamento d WHERE d.nome = p.departamento;
+ALTER TABLE Pessoa DROP COLUMN departamento;
+
+ALTER TABLE Tarefa ADD COLUMN departamento_id INT
+    CONSTRAINT fk_tarefa_departamento REFERENCES Departamento (id);
+UPDATE Tarefa t SET departamento_id = d.id FROM Departamento d WHERE d.nome = t.departamento;
+ALTER TABLE Tarefa DROP COLUMN departamento;
+
+-- Atendem o agrupamento de GET /departamentos e a busca das pessoas e tarefas de um departamento.
+CREATE INDEX idx_pessoa_departamento ON Pessoa (departamento_id);
+CREATE INDEX idx_tarefa_departamento ON Tarefa (departamento_id);
@@ -0,0 +1,12 @@
+-- Índice das tarefas de cada pessoa. A chave estrangeira 'pessoaAlocada_id'
+-- não tinha índice, e toda consulta que parte da pessoa para as suas tarefas
+-- varria a tabela 'Tarefa' inteira:
+--   * a soma de horas de cada pessoa em GET /pessoas (subconsulta correlacionada);
+--   * a média de horas no período em GET /pessoas/gastos (LEFT JOIN filtrado por prazo);
+--   * a carga em aberto de cada pessoa, calculada pelo motor de alocação;
+--   * a carga lazy da coleção Pessoa.tarefas;
+--   * a verificação da chave estrangeira ao remover uma pessoa.
+-- O prazo vem logo depois da pessoa para atender o filtro de período, e
+-- 'duracao' e 'finalizado' ficam no INCLUDE para que as somas e a média sejam
+-- respondidas apenas pelo índice, sem ler as linhas da tabela.
+CREATE INDEX idx_tarefa_pessoa_prazo ON Tarefa (pessoaAlocada_id, prazo) INCLUDE (duracao, finalizado);
@@ -0,0 +1,5 @@
+-- Versão de cada tarefa, para o controle de concorrência otimista do Hibernate
+-- (@Version). Os UPDATEs condicionais feitos por SQL (alocação, finalização e
+-- alocação em lote) também incrementam a versão, de modo que uma entidade
+-- carregada antes deles não sobrescreve a alteração ao ser gravada.
+ALTER TABLE Tarefa ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,24 @@
+-- Totais das tarefas de cada pessoa, mantidos a cada alteração de tarefa, para
+-- que GET /pessoas leia uma linha por pessoa em vez de somar todas as tarefas
+-- de cada pessoa a cada requisição. Pessoas sem linha aqui não têm tarefas.
+-- A linha é removida junto com a pessoa.
+CREATE TABLE PessoaEstatistica (
+    pessoa_id BIGINT NOT NULL PRIMARY KEY,
+    horasTotais BIGINT NOT NULL DEFAULT 0,
+    quantidadeTarefas INT NOT NULL DEFAULT 0,
+    tarefasAbertas INT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_estatistica_pessoa
+        FOREIGN KEY (pessoa_id)
+        REFERENCES Pessoa (id)
+        ON DELETE CASCADE
+);
+
+-- Preenche os totais a partir das tarefas já existentes.
+INSERT INTO PessoaEstatistica (pessoa_id, horasTotais, quantidadeTarefas, tarefasAbertas)
+SELECT pessoaAlocada_id,
+       coalesce(sum(duracao), 0),
+       count(*),
+       count(*) FILTER (WHERE NOT finalizado)
+  FROM Tarefa
+ WHERE pessoaAlocada_id IS NOT NULL
+ GROUP BY pessoaAlocada_id;
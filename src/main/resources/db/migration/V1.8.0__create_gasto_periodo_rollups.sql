@@ -0,0 +1,54 @@
+-- Somas de horas e quantidades de tarefas por prazo, em baldes diários e
+-- mensais, mantidas a cada alteração de tarefa. As médias por período de
+-- GET /pessoas/gastos e GET /departamentos/gastos combinam os baldes mensais
+-- inteiramente contidos no período com os baldes diários das bordas, em vez
+-- de ler as tarefas com prazo no período.
+--   * mensal = false: 'inicio' é o dia do prazo;
+--   * mensal = true: 'inicio' é o primeiro dia do mês do prazo.
+-- Tarefas sem prazo não entram em nenhum balde. 'tarefas' conta todas as
+-- tarefas com prazo; uma tarefa sem duração entra com zero horas, como nas
+-- alterações feitas pela API.
+
+-- Baldes das tarefas alocadas a cada pessoa, removidos junto com a pessoa. A
+-- chave começa pela pessoa, pois a consulta parte das pessoas encontradas pelo nome.
+CREATE TABLE GastoPessoa (
+    pessoa_id BIGINT NOT NULL,
+    mensal BOOLEAN NOT NULL,
+    inicio DATE NOT NULL,
+    horas BIGINT NOT NULL,
+    tarefas INT NOT NULL,
+    CONSTRAINT pk_gasto_pessoa PRIMARY KEY (pessoa_id, mensal, inicio),
+    CONSTRAINT fk_gasto_pessoa
+        FOREIGN KEY (pessoa_id)
+        REFERENCES Pessoa (id)
+        ON DELETE CASCADE
+);
+
+-- Baldes das tarefas de cada departamento, alocadas ou não. A chave começa
+-- pelo período, pois a consulta lê todos os departamentos de um período.
+CREATE TABLE GastoDepartamento (
+    departamento_id INT NOT NULL,
+    mensal BOOLEAN NOT NULL,
+    inicio DATE NOT NULL,
+    horas BIGINT NOT NULL,
+    tarefas INT NOT NULL,
+    CONSTRAINT pk_gasto_departamento PRIMARY KEY (mensal, inicio, departamento_id),
+    CONSTRAINT fk_gasto_departamento
+        FOREIGN KEY (departamento_id)
+        REFERENCES Departamento (id)
+);
+
+-- Preenche os baldes a partir das tarefas já existentes.
+INSERT INTO GastoPessoa (pessoa_id, mensal, inicio, horas, tarefas)
+SELECT pessoaAlocada_id, b.mensal, b.inicio, coalesce(sum(duracao), 0), count(*)
+  FROM Tarefa
+ CROSS JOIN LATERAL (VALUES (false, prazo), (true, date_trunc('month', prazo)::date)) AS b (mensal, inicio)
+ WHERE pessoaAlocada_id IS NOT NULL AND prazo IS NOT NULL
+ GROUP BY pessoaAlocada_id, b.mensal, b.inicio;
+
+INSERT INTO GastoDepartamento (departamento_id, mensal, inicio, horas, tarefas)
+SELECT departamento_id, b.mensal, b.inicio, coalesce(sum(duracao), 0), count(*)
+  FROM Tarefa
+ CROSS JOIN LATERAL (VALUES (false, prazo), (true, date_trunc('month', prazo)::date)) AS b (mensal, inicio)
+ WHERE departamento_id IS NOT NULL AND prazo IS NOT NULL
+ GROUP BY departamento_id, b.mensal, b.inicio;
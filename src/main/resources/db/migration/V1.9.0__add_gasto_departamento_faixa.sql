@@ -0,0 +1,12 @@
+-- Divide cada balde de GastoDepartamento em faixas. Com uma única linha por
+-- (mensal, inicio, departamento_id), todas as transações que criam tarefas de
+-- um departamento com prazo no mesmo dia atualizam a mesma linha e esperam,
+-- uma a uma, pela trava dela. Cada transação passa a somar a sua variação na
+-- faixa dada pelo seu ID módulo 16, e a consulta soma as faixas de cada balde.
+-- Os baldes já existentes ficam na faixa 0.
+ALTER TABLE GastoDepartamento ADD COLUMN faixa SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE GastoDepartamento ALTER COLUMN faixa DROP DEFAULT;
+
+ALTER TABLE GastoDepartamento DROP CONSTRAINT pk_gasto_departamento;
+ALTER TABLE GastoDepartamento
+    ADD CONSTRAINT pk_gasto_departamento PRIMARY KEY (mensal, inicio, departamento_id, faixa);
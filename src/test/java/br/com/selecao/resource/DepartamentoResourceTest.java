@@ -0,0 +1,448 @@
+package br.com.selecao.resource;
+
+import br.com.selecao.dto.TarefaDTO;
+import br.com.selecao.evento.TarefaAlterada;
+import br.com.selecao.evento.TarefaEstado;
+import br.com.selecao.model.Departamento;
+import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.Tarefa;
+import br.com.selecao.service.DicionarioDepartamentos;
+import br.com.selecao.service.EstatisticasPessoas;
+import br.com.selecao.service.GastosPorPeriodo;
+import br.com.selecao.service.InstantaneoTarefas;
+import br.com.selecao.suporte.OrcamentoConsultas;
+import br.com.selecao.suporte.OrcamentoConsultas.Orcamento;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Classe de teste para o endpoint do DepartamentoResource.
+ */
+@QuarkusTest
+public class DepartamentoResourceTest {
+    /**
+     * Orçamento de acesso ao banco da listagem: um comando SQL, nenhuma entidade e nenhuma coleção.
+     */
+    private static final Orcamento ORCAMENTO_LISTAR = new Orcamento(1, 0, 0);
+
+    /**
+     * Orçamento da listagem respondida com 304 Not Modified: nenhum acesso ao banco.
+     */
+    private static final Orcamento ORCAMENTO_NAO_MODIFICADO = new Orcamento(0, 0, 0);
+
+    /**
+     * Orçamento dos gastos por departamento: um comando SQL sobre os totais por período.
+     */
+    private static final Orcamento ORCAMENTO_GASTOS = new Orcamento(1, 0, 0);
+
+    /**
+     * Orçamento do resumo de tarefas por departamento: calculado em memória, sem acesso ao banco.
+     */
+    private static final Orcamento ORCAMENTO_RESUMO_TAREFAS = new Orcamento(0, 0, 0);
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    OrcamentoConsultas orcamentos;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
+
+    @Inject
+    InstantaneoTarefas instantaneoTarefas;
+
+    /**
+     * Limpa o banco de dados antes de cada teste para garantir a independência,
+     * inclusive os totais por período dos departamentos, que não dependem das
+     * linhas apagadas, e a cópia das tarefas em memória.
+     */
+    @BeforeEach
+    @Transactional
+    public void setup() {
+        Tarefa.deleteAll();
+        Pessoa.deleteAll();
+        gastosPorPeriodo.reconstruir();
+        instantaneoTarefas.recarregar();
+    }
+
+    /**
+     * Testa se a contagem de pessoas e tarefas por departamento está correta,
+     * inclusive para departamentos que só possuem pessoas ou só possuem tarefas.
+     */
+    @Test
+    public void deveContarPessoasETarefasPorDepartamento() {
+        criarDados("Financeiro", 2, 3);
+        criarDados("Jurídico", 1, 0);
+        criarDados("Marketing", 0, 4);
+
+        given()
+        .when()
+            .get("/departamentos")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(3))
+            .body("find { it.departamento == 'Financeiro' }.quantidadePessoas", equalTo(2))
+            .body("find { it.departamento == 'Financeiro' }.quantidadeTarefas", equalTo(3))
+            .body("find { it.departamento == 'Jurídico' }.quantidadePessoas", equalTo(1))
+            .body("find { it.departamento == 'Jurídico' }.quantidadeTarefas", equalTo(0))
+            .body("find { it.departamento == 'Marketing' }.quantidadePessoas", equalTo(0))
+            .body("find { it.departamento == 'Marketing' }.quantidadeTarefas", equalTo(4));
+    }
+
+    /**
+     * Testa que cada nome de departamento é gravado uma única vez no dicionário
+     * e que pessoas e tarefas continuam expondo o nome, e não o ID, no JSON.
+     */
+    @Test
+    public void deveGravarCadaDepartamentoUmaUnicaVez() {
+        given()
+            .contentType("application/json")
+            .body("{\"nome\": \"Ana\", \"departamento\": \"Compras\"}")
+            .post("/pessoas")
+        .then()
+            .statusCode(201)
+            .body("departamento", equalTo("Compras"));
+
+        given()
+            .contentType("application/json")
+            .body("{\"titulo\": \"Cotação\", \"departamento\": \"Compras\", \"duracao\": 2}")
+            .post("/tarefas")
+        .then()
+            .statusCode(201)
+            .body("departamento", equalTo("Compras"));
+
+        long gravados = QuarkusTransaction.requiringNew().call(() -> Departamento.count("nome", "Compras"));
+        assertEquals(1, gravados);
+        assertEquals("Compras", departamentos.nome(departamentos.registrar("Compras")));
+
+        given()
+        .when()
+            .get("/departamentos")
+        .then()
+            .statusCode(200)
+            .body("find { it.departamento == 'Compras' }.quantidadePessoas", equalTo(1))
+            .body("find { it.departamento == 'Compras' }.quantidadeTarefas", equalTo(1));
+    }
+
+    /**
+     * Testa que um departamento novo não é gravado dentro de uma transação já
+     * aberta, o que ocuparia uma segunda conexão do pool, e que um departamento
+     * conhecido continua sendo resolvido normalmente.
+     */
+    @Test
+    public void naoDeveRegistrarDepartamentoNovoDentroDeTransacao() {
+        Integer compras = departamentos.registrar("Compras");
+        // Os departamentos não são apagados entre os testes: o nome precisa ser inédito.
+        String novo = "Auditoria " + System.nanoTime();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            assertEquals(compras, departamentos.registrar("Compras"));
+            assertThrows(IllegalStateException.class, () -> departamentos.registrar(novo));
+        });
+
+        long gravados = QuarkusTransaction.requiringNew().call(() -> Departamento.count("nome", novo));
+        assertEquals(0, gravados);
+    }
+
+    /**
+     * Testa que o endpoint não materializa entidades, independentemente do volume
+     * de dados: o consumo de memória deve depender apenas da quantidade de
+     * departamentos, e não da quantidade de pessoas e tarefas.
+     */
+    @Test
+    public void naoDeveCarregarEntidadesIndependentementeDoVolume() {
+        criarDados("Operações", 10, 50);
+        assertEquals(0, entidadesCarregadasAoListar());
+
+        criarDados("Operações", 100, 500);
+        assertEquals(0, entidadesCarregadasAoListar());
+
+        orcamentos.verificar("DepartamentoResource.listarDepartamentos", ORCAMENTO_LISTAR,
+                () -> given().get("/departamentos").then().statusCode(200));
+
+        given()
+        .when()
+            .get("/departamentos")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].quantidadePessoas", equalTo(110))
+            .body("[0].quantidadeTarefas", equalTo(550));
+    }
+
+    /**
+     * Testa que a listagem responde 304 sem acessar o banco enquanto nada muda,
+     * e volta a responder 200 depois de uma alteração feita pela API.
+     */
+    @Test
+    public void deveResponderNaoModificadoEnquantoOsDadosNaoMudarem() {
+        criarDados("Financeiro", 1, 1);
+
+        String etag = given().get("/departamentos").then().statusCode(200).extract().header("ETag");
+        assertNotNull(etag);
+
+        orcamentos.verificar("DepartamentoResource.listarDepartamentos", ORCAMENTO_NAO_MODIFICADO,
+                () -> given().header("If-None-Match", etag).get("/departamentos").then().statusCode(304));
+
+        given()
+            .contentType("application/json")
+            .body("{\"nome\": \"Nova\", \"departamento\": \"Financeiro\"}")
+            .post("/pessoas")
+        .then()
+            .statusCode(201);
+
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/departamentos")
+        .then()
+            .statusCode(200)
+            .body("[0].quantidadePessoas", equalTo(2));
+    }
+
+    /**
+     * Testa que a listagem publica a latência HTTP, o tempo da agregação e os
+     * contadores de acesso ao banco por requisição em /q/metrics.
+     */
+    @Test
+    public void devePublicarMetricasDaListagem() {
+        criarDados("Financeiro", 1, 1);
+
+        given().when().get("/departamentos").then().statusCode(200);
+
+        given()
+        .when()
+            .get("/q/metrics")
+        .then()
+            .statusCode(200)
+            .body(containsString("http_server_requests_seconds_bucket{"))
+            .body(containsString("gerenciador_agregacao_seconds_count{consulta=\"departamentos\""))
+            .body(containsString("gerenciador_requisicao_sql_comandos_count{endpoint=\"DepartamentoResource.listarDepartamentos\""))
+            .body(containsString("agroal_blocking_time"));
+    }
+
+    /**
+     * Testa o endpoint GET /departamentos/gastos: as tarefas criadas pela API
+     * entram nos totais por período, e um período que começa no meio do mês
+     * combina os dias da borda com os meses inteiros.
+     */
+    @Test
+    public void deveSomarGastosPorDepartamentoNoPeriodo() {
+        criarTarefa("Contábil", 2, LocalDate.of(2025, 1, 31));
+        criarTarefa("Contábil", 4, LocalDate.of(2025, 2, 15));
+        criarTarefa("Contábil", 6, LocalDate.of(2025, 3, 1));
+        criarTarefa("Contábil", 8, LocalDate.of(2025, 4, 10)); // Fora do período
+        criarTarefa("Fiscal", 3, LocalDate.of(2025, 2, 20));
+        criarTarefa("Fiscal", 9, LocalDate.of(2025, 1, 30)); // Fora do período
+
+        given()
+            .queryParam("dataInicio", "2025-01-31")
+            .queryParam("dataFim", "2025-03-31")
+        .when()
+            .get("/departamentos/gastos")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .body("find { it.departamento == 'Contábil' }.quantidadeTarefas", equalTo(3))
+            .body("find { it.departamento == 'Contábil' }.totalMinutos", equalTo(12))
+            .body("find { it.departamento == 'Contábil' }.mediaMinutosPorTarefa", equalTo(4.0f))
+            .body("find { it.departamento == 'Fiscal' }.quantidadeTarefas", equalTo(1))
+            .body("find { it.departamento == 'Fiscal' }.mediaMinutosPorTarefa", equalTo(3.0f));
+
+        given()
+            .queryParam("dataInicio", "2025-02-16")
+            .queryParam("dataFim", "2025-02-28")
+        .when()
+            .get("/departamentos/gastos")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].departamento", equalTo("Fiscal"));
+
+        orcamentos.verificar("DepartamentoResource.buscarGastosPorDepartamento", ORCAMENTO_GASTOS,
+                () -> given()
+                        .queryParam("dataInicio", "2025-01-01")
+                        .queryParam("dataFim", "2025-12-31")
+                        .get("/departamentos/gastos").then().statusCode(200));
+
+        given()
+            .queryParam("dataInicio", "31/01/2025")
+            .queryParam("dataFim", "2025-03-31")
+        .when()
+            .get("/departamentos/gastos")
+        .then()
+            .statusCode(400);
+    }
+
+    /**
+     * Testa que criar uma tarefa não espera por outra transação que ainda soma
+     * uma variação ao mesmo balde do departamento: cada transação grava em uma
+     * faixa própria do balde, e a consulta e a reconstrução somam as faixas.
+     */
+    @Test
+    public void naoDeveEsperarPorOutraTransacaoNoMesmoBalde() {
+        LocalDate prazo = LocalDate.of(2025, 5, 12);
+        criarTarefa("Concorrido", 2, prazo);
+        Integer departamentoId = departamentos.registrar("Concorrido");
+
+        QuarkusTransaction.begin();
+        try {
+            // Trava o balde diário e o mensal do departamento até o fim da transação, que é desfeita.
+            estatisticas.registrar(List.of(new TarefaAlterada(null,
+                    new TarefaEstado(-1L, "Em aberto", null, prazo, departamentoId, 7, false, null))));
+
+            Integer criada = CompletableFuture.supplyAsync(() -> criarTarefa("Concorrido", 3, prazo))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+            assertNotNull(criada);
+        } finally {
+            QuarkusTransaction.rollback();
+        }
+
+        for (int i = 0; i < 2; i++) {
+            given()
+                .queryParam("dataInicio", "2025-05-01")
+                .queryParam("dataFim", "2025-05-31")
+            .when()
+                .get("/departamentos/gastos")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(1))
+                .body("[0].quantidadeTarefas", equalTo(2))
+                .body("[0].totalMinutos", equalTo(5));
+
+            gastosPorPeriodo.reconstruir();
+        }
+    }
+
+    /**
+     * Testa o endpoint GET /departamentos/tarefas: o resumo acompanha as
+     * tarefas criadas e finalizadas pela API sem consultar o banco, filtra por
+     * prazo quando o período é informado, coincide com o resumo recarregado do
+     * banco e responde 304 enquanto nenhuma tarefa muda.
+     */
+    @Test
+    public void deveResumirTarefasPorDepartamentoEmMemoria() {
+        criarTarefa("Resumo A", 2, LocalDate.of(2025, 1, 10));
+        Integer finalizada = criarTarefa("Resumo A", 4, LocalDate.of(2025, 2, 10));
+        criarTarefa("Resumo A", 6, null);
+        criarTarefa("Resumo B", 3, LocalDate.of(2025, 1, 20));
+        given().pathParam("id", finalizada).put("/tarefas/finalizar/{id}").then().statusCode(200);
+
+        for (int i = 0; i < 2; i++) {
+            given()
+            .when()
+                .get("/departamentos/tarefas")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(2))
+                .body("find { it.departamento == 'Resumo A' }.quantidadeTarefas", equalTo(3))
+                .body("find { it.departamento == 'Resumo A' }.tarefasAbertas", equalTo(2))
+                .body("find { it.departamento == 'Resumo A' }.totalMinutos", equalTo(12))
+                .body("find { it.departamento == 'Resumo A' }.mediaMinutosPorTarefa", equalTo(4.0f))
+                .body("find { it.departamento == 'Resumo B' }.quantidadeTarefas", equalTo(1))
+                .body("find { it.departamento == 'Resumo B' }.tarefasAbertas", equalTo(1));
+
+            given()
+                .queryParam("dataInicio", "2025-01-01")
+                .queryParam("dataFim", "2025-01-31")
+            .when()
+                .get("/departamentos/tarefas")
+            .then()
+                .statusCode(200)
+                .body("find { it.departamento == 'Resumo A' }.quantidadeTarefas", equalTo(1))
+                .body("find { it.departamento == 'Resumo A' }.totalMinutos", equalTo(2))
+                .body("find { it.departamento == 'Resumo B' }.totalMinutos", equalTo(3));
+
+            instantaneoTarefas.recarregar();
+        }
+
+        orcamentos.verificar("DepartamentoResource.resumirTarefasPorDepartamento", ORCAMENTO_RESUMO_TAREFAS,
+                () -> given().get("/departamentos/tarefas").then().statusCode(200));
+
+        String etag = given().get("/departamentos/tarefas").then().statusCode(200).extract().header("ETag");
+        given().header("If-None-Match", etag).get("/departamentos/tarefas").then().statusCode(304);
+        criarTarefa("Resumo B", 1, null);
+        given().header("If-None-Match", etag).get("/departamentos/tarefas").then().statusCode(200);
+
+        given()
+            .queryParam("dataInicio", "2025-01-01")
+        .when()
+            .get("/departamentos/tarefas")
+        .then()
+            .statusCode(400);
+    }
+
+    /**
+     * Chama o endpoint e retorna quantas entidades o Hibernate carregou durante a chamada.
+     */
+    private long entidadesCarregadasAoListar() {
+        Statistics estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+
+        given().when().get("/departamentos").then().statusCode(200);
+
+        return estatisticas.getEntityLoadCount() + estatisticas.getEntityFetchCount();
+    }
+
+    /**
+     * Método auxiliar que cria pessoas e tarefas em um departamento.
+     */
+    private void criarDados(String departamento, int quantidadePessoas, int quantidadeTarefas) {
+        Integer departamentoId = departamentos.registrar(departamento);
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < quantidadePessoas; i++) {
+                Pessoa pessoa = new Pessoa();
+                pessoa.nome = "Pessoa " + i;
+                pessoa.departamentoId = departamentoId;
+                pessoa.persist();
+            }
+            for (int i = 0; i < quantidadeTarefas; i++) {
+                Tarefa tarefa = new Tarefa();
+                tarefa.titulo = "Tarefa " + i;
+                tarefa.departamentoId = departamentoId;
+                tarefa.persist();
+            }
+        });
+    }
+
+    /**
+     * Método auxiliar que cria, pela API, uma tarefa com prazo em um departamento e retorna o seu ID.
+     */
+    private Integer criarTarefa(String departamento, int duracao, LocalDate prazo) {
+        TarefaDTO tarefaDTO = new TarefaDTO();
+        tarefaDTO.titulo = "Tarefa de " + duracao + " horas";
+        tarefaDTO.departamento = departamento;
+        tarefaDTO.prazo = prazo;
+        tarefaDTO.duracao = duracao;
+        return given().contentType(ContentType.JSON).body(tarefaDTO).post("/tarefas").then().statusCode(201)
+                .extract().path("id");
+    }
+}
@@ -0,0 +1,174 @@
+package br.com.selecao.resource;
+
+import br.com.selecao.dto.PessoaDTO;
+import br.com.selecao.dto.TarefaDTO;
+import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.Tarefa;
+import br.com.selecao.service.AlocacaoService;
+import br.com.selecao.service.FilaFinalizacao;
+import br.com.selecao.service.ProjecaoEmMemoria;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes das finalizações gravadas em lote pela {@link FilaFinalizacao}, no
+ * modo agrupado, com uma fila pequena para que o limite possa ser atingido.
+ */
+@QuarkusTest
+@TestProfile(FinalizacaoAgrupadaTest.ModoAgrupado.class)
+public class FinalizacaoAgrupadaTest {
+    private static final int CAPACIDADE = 4;
+
+    /**
+     * Modo agrupado, com uma fila de {@value #CAPACIDADE} tarefas e um
+     * intervalo longo o bastante para que a fila possa ser observada cheia.
+     */
+    public static class ModoAgrupado implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "gerenciador.finalizacao.modo", "agrupada",
+                    "gerenciador.finalizacao.fila.capacidade", String.valueOf(CAPACIDADE),
+                    "gerenciador.finalizacao.lote.tamanho", "100",
+                    "gerenciador.finalizacao.lote.intervalo", "500ms");
+        }
+    }
+
+    @Inject
+    @Any
+    Instance<ProjecaoEmMemoria> projecoes;
+
+    @Inject
+    FilaFinalizacao filaFinalizacao;
+
+    @Inject
+    AlocacaoService alocacaoService;
+
+    /**
+     * Limpa o banco de dados antes de cada teste e recarrega as projeções em memória.
+     */
+    @BeforeEach
+    @Transactional
+    public void setup() {
+        Tarefa.deleteAll();
+        Pessoa.deleteAll();
+        projecoes.forEach(ProjecaoEmMemoria::recarregar);
+    }
+
+    /**
+     * Testa que a finalização só responde depois da gravação, que finalizações
+     * repetidas da mesma tarefa descontam a carga da pessoa uma única vez e que
+     * um ID inexistente responde 404.
+     */
+    @Test
+    public void deveResponderDepoisDeGravarAsFinalizacoes() throws Exception {
+        Long pessoaId = criarPessoa("Pessoa Agrupada", "Agrupamento").longValue();
+        Integer tarefaId = criarTarefa("Agrupada", "Agrupamento", 5);
+        given().pathParam("id", tarefaId).put("/tarefas/alocar/{id}").then().statusCode(200);
+        assertEquals(5, alocacaoService.carga(pessoaId));
+
+        List<CompletableFuture<Integer>> finalizacoes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            finalizacoes.add(CompletableFuture.supplyAsync(
+                    () -> given().pathParam("id", tarefaId).put("/tarefas/finalizar/{id}").statusCode()));
+        }
+        for (CompletableFuture<Integer> finalizacao : finalizacoes) {
+            assertEquals(200, finalizacao.get(10, TimeUnit.SECONDS).intValue());
+        }
+        // A resposta tem o mesmo formato da finalização imediata.
+        given().pathParam("id", tarefaId).put("/tarefas/finalizar/{id}").then()
+            .statusCode(200)
+            .body("id", equalTo(tarefaId))
+            .body("finalizado", equalTo(true))
+            .body("pessoaAlocada.id", equalTo(pessoaId.intValue()));
+
+        given().get("/tarefas").then().statusCode(200).body("[0].finalizado", equalTo(true));
+        assertEquals(0, alocacaoService.carga(pessoaId));
+        given().pathParam("id", 999999999).put("/tarefas/finalizar/{id}").then().statusCode(404);
+    }
+
+    /**
+     * Testa que, com a fila cheia, novas finalizações são recusadas com 503 e
+     * {@code Retry-After}, e que as que já estavam na fila são gravadas.
+     */
+    @Test
+    public void deveRecusarFinalizacoesComFilaCheia() throws Exception {
+        List<Integer> tarefas = new ArrayList<>();
+        for (int i = 1; i <= CAPACIDADE; i++) {
+            tarefas.add(criarTarefa("Enfileirada " + i, "Agrupamento", i));
+        }
+
+        CompletableFuture<Response> lote = CompletableFuture.supplyAsync(
+                () -> given().contentType(ContentType.JSON).body(tarefas).put("/tarefas/finalizar"));
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (filaFinalizacao.tamanho() < CAPACIDADE && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+        assertEquals(CAPACIDADE, filaFinalizacao.tamanho());
+
+        Integer excedente = criarTarefa("Excedente", "Agrupamento", 1);
+        given()
+            .pathParam("id", excedente)
+        .when()
+            .put("/tarefas/finalizar/{id}")
+        .then()
+            .statusCode(503)
+            .header("Retry-After", notNullValue());
+
+        lote.get(10, TimeUnit.SECONDS).then()
+            .statusCode(200)
+            .body("tarefasFinalizadas", equalTo(CAPACIDADE))
+            .body("tarefasNaoEncontradas", empty());
+        long pendentes = QuarkusTransaction.requiringNew().call(() -> Tarefa.count("finalizado = false"));
+        assertEquals(1, pendentes);
+
+        // Uma lista maior que a fila nunca caberia nela.
+        List<Integer> grande = new ArrayList<>(tarefas);
+        grande.add(excedente);
+        given().contentType(ContentType.JSON).body(grande).put("/tarefas/finalizar").then().statusCode(400);
+        assertEquals(0, filaFinalizacao.tamanho());
+    }
+
+    /**
+     * Método auxiliar que cria uma pessoa e retorna o seu ID.
+     */
+    private Integer criarPessoa(String nome, String departamento) {
+        PessoaDTO pessoaDTO = new PessoaDTO();
+        pessoaDTO.nome = nome;
+        pessoaDTO.departamento = departamento;
+        return given().contentType(ContentType.JSON).body(pessoaDTO).post("/pessoas").then().extract().path("id");
+    }
+
+    /**
+     * Método auxiliar que cria uma tarefa pendente em um departamento e retorna o seu ID.
+     */
+    private Integer criarTarefa(String titulo, String departamento, int duracao) {
+        TarefaDTO tarefa = new TarefaDTO();
+        tarefa.titulo = titulo;
+        tarefa.departamento = departamento;
+        tarefa.duracao = duracao;
+        return given().contentType(ContentType.JSON).body(tarefa).post("/tarefas").then().extract().path("id");
+    }
+}
@@ -1,23 +1,74 @@
 package br.com.selecao.resource;
 
 import br.com.selecao.dto.PessoaDTO;
+import br.com.selecao.dto.TarefaDTO;
 import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.PessoaEstatistica;
 import br.com.selecao.model.Tarefa;
+import br.com.selecao.service.EstatisticasPessoas;
+import br.com.selecao.service.GastosPorPeriodo;
+import br.com.selecao.service.InstantaneoTarefas;
+import br.com.selecao.suporte.OrcamentoConsultas;
+import br.com.selecao.suporte.OrcamentoConsultas.Orcamento;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Classe de teste para todos os endpoints do PessoaResource.
  */
 @QuarkusTest
 public class PessoaResourceTest {
+    /*
+     * Orçamentos de acesso ao banco por endpoint: comandos SQL, entidades
+     * carregadas e coleções lazy inicializadas por requisição.
+     */
+    private static final Orcamento ORCAMENTO_LISTAR = new Orcamento(1, 0, 0);
+    private static final Orcamento ORCAMENTO_BUSCAR_POR_ID = new Orcamento(1, 1, 0);
+    private static final Orcamento ORCAMENTO_GASTOS = new Orcamento(1, 0, 0);
+    private static final Orcamento ORCAMENTO_ADICIONAR = new Orcamento(2, 0, 0);
+    private static final Orcamento ORCAMENTO_IMPORTAR = new Orcamento(0, 0, 0);
+    private static final Orcamento ORCAMENTO_ALTERAR = new Orcamento(2, 1, 0);
+    private static final Orcamento ORCAMENTO_REMOVER = new Orcamento(2, 1, 0);
+    private static final Orcamento ORCAMENTO_NAO_MODIFICADO = new Orcamento(0, 0, 0);
+    private static final Orcamento ORCAMENTO_RESUMO_TAREFAS = new Orcamento(0, 0, 0);
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    OrcamentoConsultas orcamentos;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    @Inject
+    InstantaneoTarefas instantaneoTarefas;
 
     /**
      * Este método é executado ANTES de CADA teste.
@@ -140,4 +191,458 @@ public class PessoaResourceTest {
         .then()
             .statusCode(404); // Espera-se 404 Not Found
     }
+
+    /**
+     * Testa o endpoint GET /pessoas, verificando a soma das horas e a paginação por chave.
+     */
+    @Test
+    public void deveListarPessoasPaginadasComTotalDeHoras() {
+        Integer primeiraId = criarPessoa("Primeira", "Vendas");
+        Integer segundaId = criarPessoa("Segunda", "Vendas");
+        criarPessoa("Terceira", "Vendas");
+        criarTarefa(primeiraId, 3);
+        criarTarefa(primeiraId, 5);
+
+        // Primeira página: cheia, portanto com link para a próxima.
+        given()
+            .queryParam("limit", 2)
+        .when()
+            .get("/pessoas")
+        .then()
+            .statusCode(200)
+            .header("Link", containsString("after=" + segundaId))
+            .body("$", hasSize(2))
+            .body("[0].nome", equalTo("Primeira"))
+            .body("[0].totalHorasGastas", equalTo(8))
+            .body("[1].nome", equalTo("Segunda"))
+            .body("[1].totalHorasGastas", equalTo(0));
+
+        // Segunda página: começa após o último ID da primeira.
+        given()
+            .queryParam("after", segundaId)
+            .queryParam("limit", 2)
+        .when()
+            .get("/pessoas")
+        .then()
+            .statusCode(200)
+            .header("Link", nullValue())
+            .body("$", hasSize(1))
+            .body("[0].nome", equalTo("Terceira"));
+    }
+
+    /**
+     * Testa que um limite fora do intervalo permitido é rejeitado com 400 Bad Request.
+     */
+    @Test
+    public void deveRejeitarLimiteInvalido() {
+        given()
+            .queryParam("limit", 0)
+        .when()
+            .get("/pessoas")
+        .then()
+            .statusCode(400);
+    }
+
+    /**
+     * Testa o endpoint GET /pessoas/gastos: a busca é parcial e ignora maiúsculas,
+     * e a média considera apenas as tarefas com prazo dentro do período.
+     */
+    @Test
+    public void deveCalcularMediaDeHorasNoPeriodo() {
+        Integer anaId = criarPessoa("Ana Souza", "Financeiro");
+        Integer marianaId = criarPessoa("Mariana Lima", "Financeiro");
+        criarPessoa("Bruno Costa", "Financeiro");
+        criarTarefa(anaId, 2, LocalDate.of(2025, 3, 1));
+        criarTarefa(anaId, 4, LocalDate.of(2025, 3, 31));
+        criarTarefa(anaId, 10, LocalDate.of(2025, 4, 1)); // Fora do período
+        criarTarefa(marianaId, 8, LocalDate.of(2025, 2, 28)); // Fora do período
+
+        given()
+            .queryParam("nome", "ANA")
+            .queryParam("dataInicio", "2025-03-01")
+            .queryParam("dataFim", "2025-03-31")
+        .when()
+            .get("/pessoas/gastos")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .body("find { it.nome == 'Ana Souza' }.mediaHorasPorTarefa", equalTo(3.0f))
+            .body("find { it.nome == 'Mariana Lima' }.mediaHorasPorTarefa", equalTo(0.0f));
+    }
+
+    /**
+     * Testa a média em um período que começa e termina no meio do mês e
+     * atravessa meses inteiros, antes e depois de reconstruir os totais por
+     * período a partir das tarefas.
+     */
+    @Test
+    public void deveCombinarMesesInteirosEDiasDasBordasNoPeriodo() {
+        Integer pessoaId = criarPessoa("Paula Periodo", "Períodos");
+        criarTarefa(pessoaId, 50, LocalDate.of(2024, 12, 31)); // Fora do período
+        criarTarefa(pessoaId, 1, LocalDate.of(2025, 1, 15)); // Fora do período
+        criarTarefa(pessoaId, 3, LocalDate.of(2025, 1, 31));
+        criarTarefa(pessoaId, 5, LocalDate.of(2025, 2, 10));
+        criarTarefa(pessoaId, 7, LocalDate.of(2025, 3, 5));
+        criarTarefa(pessoaId, 100, LocalDate.of(2025, 3, 20)); // Fora do período
+
+        for (int i = 0; i < 2; i++) {
+            given()
+                .queryParam("nome", "paula")
+                .queryParam("dataInicio", "2025-01-20")
+                .queryParam("dataFim", "2025-03-10")
+            .when()
+                .get("/pessoas/gastos")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(1))
+                .body("[0].mediaHorasPorTarefa", equalTo(5.0f));
+
+            given()
+                .queryParam("nome", "paula")
+                .queryParam("dataInicio", "2025-01-01")
+                .queryParam("dataFim", "2025-01-31")
+            .when()
+                .get("/pessoas/gastos")
+            .then()
+                .statusCode(200)
+                .body("[0].mediaHorasPorTarefa", equalTo(2.0f));
+
+            gastosPorPeriodo.reconstruir();
+        }
+    }
+
+    /**
+     * Testa a paginação por chave de GET /pessoas/gastos e a rejeição de um limite inválido.
+     */
+    @Test
+    public void deveBuscarGastosPaginados() {
+        Integer primeiraId = criarPessoa("Gasto Paginado Um", "Períodos");
+        Integer segundaId = criarPessoa("Gasto Paginado Dois", "Períodos");
+        criarPessoa("Gasto Paginado Tres", "Períodos");
+        criarTarefa(primeiraId, 6, LocalDate.of(2025, 3, 10));
+
+        // Primeira página: cheia, portanto com link para a próxima.
+        given()
+            .queryParam("nome", "gasto paginado")
+            .queryParam("dataInicio", "2025-03-01")
+            .queryParam("dataFim", "2025-03-31")
+            .queryParam("limit", 2)
+        .when()
+            .get("/pessoas/gastos")
+        .then()
+            .statusCode(200)
+            .header("Link", containsString("after=" + segundaId))
+            .body("$", hasSize(2))
+            .body("[0].id", equalTo(primeiraId))
+            .body("[0].mediaHorasPorTarefa", equalTo(6.0f))
+            .body("[1].id", equalTo(segundaId));
+
+        // Segunda página: começa após o último ID da primeira.
+        given()
+            .queryParam("nome", "gasto paginado")
+            .queryParam("dataInicio", "2025-03-01")
+            .queryParam("dataFim", "2025-03-31")
+            .queryParam("after", segundaId)
+            .queryParam("limit", 2)
+        .when()
+            .get("/pessoas/gastos")
+        .then()
+            .statusCode(200)
+            .header("Link", nullValue())
+            .body("$", hasSize(1))
+            .body("[0].nome", equalTo("Gasto Paginado Tres"));
+
+        given()
+            .queryParam("nome", "gasto paginado")
+            .queryParam("dataInicio", "2025-03-01")
+            .queryParam("dataFim", "2025-03-31")
+            .queryParam("limit", 0)
+        .when()
+            .get("/pessoas/gastos")
+        .then()
+            .statusCode(400);
+    }
+
+    /**
+     * Testa que a busca por ID é atendida pelo cache de segundo nível e que o
+     * cache reflete as alterações feitas pelo endpoint PUT /pessoas/{id}.
+     */
+    @Test
+    public void deveBuscarPessoaPeloCacheERefletirAlteracoes() {
+        Integer pessoaId = criarPessoa("Pessoa em Cache", "Infraestrutura");
+
+        Statistics estatisticas = sessionFactory.getStatistics();
+        estatisticas.clear();
+        given().pathParam("id", pessoaId).get("/pessoas/{id}").then().statusCode(200);
+        given().pathParam("id", pessoaId).get("/pessoas/{id}").then().statusCode(200);
+        assertTrue(estatisticas.getSecondLevelCacheHitCount() > 0);
+
+        PessoaDTO pessoaAlterada = new PessoaDTO();
+        pessoaAlterada.nome = "Pessoa Alterada em Cache";
+        pessoaAlterada.departamento = "Infraestrutura";
+        given().pathParam("id", pessoaId).contentType(ContentType.JSON).body(pessoaAlterada)
+            .put("/pessoas/{id}").then().statusCode(200);
+
+        given()
+            .pathParam("id", pessoaId)
+        .when()
+            .get("/pessoas/{id}")
+        .then()
+            .statusCode(200)
+            .body("nome", equalTo("Pessoa Alterada em Cache"));
+    }
+
+    /**
+     * Testa a importação em lote de pessoas via NDJSON.
+     */
+    @Test
+    public void deveImportarPessoasEmLote() {
+        String corpo = """
+                {"nome": "Importada 1", "departamento": "Logística"}
+                {"nome": "Importada 2", "departamento": "Logística"}
+                {"nome": "Importada 3", "departamento": "Compras"}
+                """;
+
+        given()
+            .contentType(TarefaResource.APPLICATION_NDJSON)
+            .body(corpo)
+        .when()
+            .post("/pessoas/importacao")
+        .then()
+            .statusCode(200)
+            .body("registrosLidos", equalTo(3))
+            .body("registrosImportados", equalTo(3))
+            .body("erros", hasSize(0));
+
+        given()
+        .when()
+            .get("/pessoas")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(3))
+            .body("[2].nome", equalTo("Importada 3"));
+    }
+
+    /**
+     * Testa o endpoint GET /pessoas/tarefas: o resumo por pessoa acompanha as
+     * tarefas criadas, alocadas e finalizadas pela API sem consultar o banco,
+     * filtra por prazo quando o período é informado e coincide com o resumo
+     * recarregado do banco.
+     */
+    @Test
+    public void deveResumirTarefasPorPessoaEmMemoria() {
+        instantaneoTarefas.recarregar();
+        Integer ana = criarPessoa("Ana Resumo", "Resumo Pessoas");
+        Integer bruno = criarPessoa("Bruno Resumo", "Outro Resumo");
+        criarTarefa(ana, 2, LocalDate.of(2025, 1, 10));
+        criarTarefa(ana, 4, LocalDate.of(2025, 2, 10));
+        criarTarefa(bruno, 3, null);
+
+        TarefaDTO pendente = new TarefaDTO();
+        pendente.titulo = "Pendente";
+        pendente.departamento = "Resumo Pessoas";
+        pendente.duracao = 6;
+        Integer pendenteId = given().contentType(ContentType.JSON).body(pendente).post("/tarefas")
+                .then().statusCode(201).extract().path("id");
+        given().pathParam("id", pendenteId).put("/tarefas/alocar/{id}").then().statusCode(200);
+        given().pathParam("id", pendenteId).put("/tarefas/finalizar/{id}").then().statusCode(200);
+
+        for (int i = 0; i < 2; i++) {
+            given()
+            .when()
+                .get("/pessoas/tarefas")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(2))
+                .body("[0].pessoaId", equalTo(ana))
+                .body("[0].quantidadeTarefas", equalTo(3))
+                .body("[0].tarefasAbertas", equalTo(2))
+                .body("[0].totalMinutos", equalTo(12))
+                .body("[0].mediaMinutosPorTarefa", equalTo(4.0f))
+                .body("[1].pessoaId", equalTo(bruno))
+                .body("[1].totalMinutos", equalTo(3));
+
+            given()
+                .queryParam("dataInicio", "2025-01-01")
+                .queryParam("dataFim", "2025-01-31")
+            .when()
+                .get("/pessoas/tarefas")
+            .then()
+                .statusCode(200)
+                .body("$", hasSize(1))
+                .body("[0].pessoaId", equalTo(ana))
+                .body("[0].totalMinutos", equalTo(2));
+
+            instantaneoTarefas.recarregar();
+        }
+
+        orcamentos.verificar("PessoaResource.resumirTarefasPorPessoa", ORCAMENTO_RESUMO_TAREFAS,
+                () -> given().get("/pessoas/tarefas").then().statusCode(200));
+
+        given()
+            .queryParam("dataFim", "2025-01-31")
+        .when()
+            .get("/pessoas/tarefas")
+        .then()
+            .statusCode(400);
+    }
+
+    /**
+     * Testa que os totais de tarefas de cada pessoa acompanham a criação, a
+     * alocação, a importação e a finalização de tarefas, sem a verificação de consistência.
+     */
+    @Test
+    public void deveManterTotaisDeTarefasDaPessoa() {
+        Integer pessoaId = criarPessoa("Estatística", "Estatísticas");
+        criarTarefa(pessoaId, 4);
+
+        TarefaDTO pendente = new TarefaDTO();
+        pendente.titulo = "Pendente";
+        pendente.departamento = "Estatísticas";
+        pendente.duracao = 2;
+        Integer pendenteId = given().contentType(ContentType.JSON).body(pendente).post("/tarefas")
+                .then().statusCode(201).extract().path("id");
+        given().pathParam("id", pendenteId).put("/tarefas/alocar/{id}").then().statusCode(200);
+        given().pathParam("id", pendenteId).put("/tarefas/finalizar/{id}").then().statusCode(200);
+        given()
+            .contentType(TarefaResource.APPLICATION_NDJSON)
+            .body("{\"titulo\":\"Importada\",\"duracao\":5,\"pessoaAlocadaId\":" + pessoaId + "}\n")
+            .post("/tarefas/importacao")
+            .then().statusCode(200).body("registrosImportados", equalTo(1));
+
+        PessoaEstatistica totais = QuarkusTransaction.requiringNew()
+                .call(() -> PessoaEstatistica.<PessoaEstatistica>findById(pessoaId.longValue()));
+        assertEquals(11, totais.horasTotais);
+        assertEquals(3, totais.quantidadeTarefas);
+        assertEquals(2, totais.tarefasAbertas);
+        given().get("/pessoas").then().statusCode(200).body("[0].totalHorasGastas", equalTo(11));
+        assertEquals(0, estatisticas.verificar());
+    }
+
+    /**
+     * Testa que a verificação de consistência corrige os totais de uma pessoa
+     * depois de alterações feitas diretamente no banco, e apenas dessa pessoa.
+     */
+    @Test
+    public void deveCorrigirTotaisDivergentesDasTarefas() {
+        Integer alteradaId = criarPessoa("Alterada por fora", "Correções");
+        Integer intactaId = criarPessoa("Intacta", "Correções");
+        criarTarefa(alteradaId, 3);
+        criarTarefa(intactaId, 7);
+
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .createNativeQuery("UPDATE Tarefa SET duracao = 10, finalizado = true WHERE pessoaAlocada_id = ?1")
+                .setParameter(1, alteradaId)
+                .executeUpdate());
+        given().get("/pessoas").then().statusCode(200).body("[0].totalHorasGastas", equalTo(3));
+
+        assertEquals(1, estatisticas.verificar());
+
+        given()
+        .when()
+            .get("/pessoas")
+        .then()
+            .statusCode(200)
+            .body("[0].totalHorasGastas", equalTo(10))
+            .body("[1].totalHorasGastas", equalTo(7));
+        PessoaEstatistica totais = QuarkusTransaction.requiringNew()
+                .call(() -> PessoaEstatistica.<PessoaEstatistica>findById(alteradaId.longValue()));
+        assertEquals(0, totais.tarefasAbertas);
+        assertEquals(0, estatisticas.verificar());
+    }
+
+    /**
+     * Testa que a listagem responde 304 sem acessar o banco enquanto nada muda,
+     * e que uma nova tarefa (que altera as horas totais) invalida a ETag.
+     */
+    @Test
+    public void deveResponderNaoModificadoEnquantoAsPessoasNaoMudarem() {
+        Integer pessoaId = criarPessoa("Versionada", "Suporte");
+
+        String etag = given().get("/pessoas").then().statusCode(200).extract().header("ETag");
+        assertNotNull(etag);
+
+        orcamentos.verificar("PessoaResource.listarPessoas", ORCAMENTO_NAO_MODIFICADO,
+                () -> given().header("If-None-Match", etag).get("/pessoas").then().statusCode(304));
+
+        criarTarefa(pessoaId, 6);
+
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/pessoas")
+        .then()
+            .statusCode(200)
+            .body("[0].totalHorasGastas", equalTo(6));
+    }
+
+    /**
+     * Testa que cada endpoint respeita seu orçamento de acesso ao banco. As
+     * listagens não podem crescer com a quantidade de pessoas e tarefas (N+1).
+     */
+    @Test
+    public void deveRespeitarOrcamentoDeAcessoAoBanco() {
+        for (int i = 1; i <= 5; i++) {
+            Integer pessoaId = criarPessoa("Orçada " + i, "Orçamento");
+            criarTarefa(pessoaId, i, LocalDate.of(2025, 3, i));
+            criarTarefa(pessoaId, i + 1, LocalDate.of(2025, 4, i));
+        }
+        Integer semTarefas = criarPessoa("Sem Tarefas", "Orçamento");
+
+        PessoaDTO pessoaDTO = new PessoaDTO();
+        pessoaDTO.nome = "Nova";
+        pessoaDTO.departamento = "Orçamento";
+
+        orcamentos.verificar("PessoaResource.listarPessoas", ORCAMENTO_LISTAR,
+                () -> given().get("/pessoas").then().statusCode(200));
+        orcamentos.verificar("PessoaResource.buscarGastosPorPessoa", ORCAMENTO_GASTOS,
+                () -> given()
+                        .queryParam("nome", "orçada")
+                        .queryParam("dataInicio", "2025-01-01")
+                        .queryParam("dataFim", "2025-12-31")
+                        .get("/pessoas/gastos").then().statusCode(200));
+        orcamentos.verificar("PessoaResource.buscarPessoaPorId", ORCAMENTO_BUSCAR_POR_ID,
+                () -> given().pathParam("id", semTarefas).get("/pessoas/{id}").then().statusCode(200));
+        orcamentos.verificar("PessoaResource.adicionarPessoa", ORCAMENTO_ADICIONAR,
+                () -> given().contentType(ContentType.JSON).body(pessoaDTO).post("/pessoas").then().statusCode(201));
+        orcamentos.verificar("PessoaResource.importarPessoas", ORCAMENTO_IMPORTAR,
+                () -> given()
+                        .contentType(TarefaResource.APPLICATION_NDJSON)
+                        .body("{\"nome\":\"Importada\",\"departamento\":\"Orçamento\"}\n")
+                        .post("/pessoas/importacao").then().statusCode(200));
+        orcamentos.verificar("PessoaResource.alterarPessoa", ORCAMENTO_ALTERAR,
+                () -> given().contentType(ContentType.JSON).body(pessoaDTO).pathParam("id", semTarefas)
+                        .put("/pessoas/{id}").then().statusCode(200));
+        orcamentos.verificar("PessoaResource.removerPessoa", ORCAMENTO_REMOVER,
+                () -> given().pathParam("id", semTarefas).delete("/pessoas/{id}").then().statusCode(204));
+    }
+
+    /**
+     * Método auxiliar que cria uma pessoa e retorna o seu ID.
+     */
+    private Integer criarPessoa(String nome, String departamento) {
+        PessoaDTO pessoaDTO = new PessoaDTO();
+        pessoaDTO.nome = nome;
+        pessoaDTO.departamento = departamento;
+        return given().contentType(ContentType.JSON).body(pessoaDTO).post("/pessoas").then().extract().path("id");
+    }
+
+    /**
+     * Método auxiliar que cria uma tarefa alocada para a pessoa informada.
+     */
+    private void criarTarefa(Integer pessoaId, int duracao) {
+        criarTarefa(pessoaId, duracao, null);
+    }
+
+    /**
+     * Método auxiliar que cria uma tarefa com prazo, alocada para a pessoa informada.
+     */
+    private void criarTarefa(Integer pessoaId, int duracao, LocalDate prazo) {
+        TarefaDTO tarefaDTO = new TarefaDTO();
+        tarefaDTO.titulo = "Tarefa de " + duracao + " horas";
+        tarefaDTO.prazo = prazo;
+        tarefaDTO.duracao = duracao;
+        tarefaDTO.pessoaAlocadaId = Long.valueOf(pessoaId);
+        given().contentType(ContentType.JSON).body(tarefaDTO).post("/tarefas").then().statusCode(201);
+    }
 }
\ No newline at end of file
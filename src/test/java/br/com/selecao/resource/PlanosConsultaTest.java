@@ -0,0 +1,258 @@
+package br.com.selecao.resource;
+
+import br.com.selecao.model.Pessoa;
+import br.com.selecao.model.Tarefa;
+import br.com.selecao.monitoramento.RequisicaoMedida;
+import br.com.selecao.service.DicionarioDepartamentos;
+import br.com.selecao.service.EstatisticasPessoas;
+import br.com.selecao.service.GastosPorPeriodo;
+import br.com.selecao.service.ProjecaoEmMemoria;
+import br.com.selecao.suporte.OrcamentoConsultas;
+import br.com.selecao.suporte.PlanosConsulta;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Verifica o plano de execução dos comandos SQL que os endpoints enviam ao
+ * banco, contra uma massa de dados grande o bastante para que o PostgreSQL
+ * prefira um índice a ler a tabela inteira, sempre que houver um índice que
+ * atenda a consulta.
+ * <p>
+ * Apenas as listagens completas e as agregações sobre todos os dados podem
+ * ler tabelas por inteiro; os demais endpoints precisam ser atendidos por
+ * índices (ver {@link PlanosConsulta}).
+ * </p>
+ */
+@QuarkusTest
+public class PlanosConsultaTest {
+    private static final int QUANTIDADE_DEPARTAMENTOS = 10;
+    private static final int QUANTIDADE_PESSOAS = 20_000;
+    private static final int TAREFAS_POR_PESSOA = 5;
+    private static final int QUANTIDADE_PENDENTES = 2_000;
+
+    private static final String INSERCAO_PESSOAS = """
+            INSERT INTO Pessoa (id, nome, departamento_id)
+            SELECT nextval('Pessoa_SEQ'), 'Pessoa ' || s, d.id
+              FROM generate_series(1, ?1) s
+              JOIN Departamento d ON d.nome = 'Plano ' || (s % ?2)
+            """;
+
+    private static final String INSERCAO_TAREFAS_ALOCADAS = """
+            INSERT INTO Tarefa (id, titulo, prazo, departamento_id, duracao, finalizado, pessoaAlocada_id)
+            SELECT nextval('Tarefa_SEQ'), 'Tarefa ' || p.id || '-' || s, DATE '2026-01-01' + s * 30,
+                   p.departamento_id, 1 + s % 8, s % 2 = 0, p.id
+              FROM Pessoa p
+             CROSS JOIN generate_series(1, ?1) s
+            """;
+
+    private static final String INSERCAO_TAREFAS_PENDENTES = """
+            INSERT INTO Tarefa (id, titulo, prazo, departamento_id, duracao, finalizado, pessoaAlocada_id)
+            SELECT nextval('Tarefa_SEQ'), 'Pendente ' || s, DATE '2026-01-01' + s % 365,
+                   d.id, 1 + s % 8, false, NULL
+              FROM generate_series(1, ?1) s
+              JOIN Departamento d ON d.nome = 'Plano ' || (s % ?2)
+            """;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    @Any
+    Instance<ProjecaoEmMemoria> projecoes;
+
+    @Inject
+    DicionarioDepartamentos departamentos;
+
+    @Inject
+    OrcamentoConsultas orcamentos;
+
+    @Inject
+    PlanosConsulta planos;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
+
+    @Inject
+    GastosPorPeriodo gastosPorPeriodo;
+
+    /**
+     * Grava a massa de dados diretamente no banco, atualiza as estatísticas
+     * usadas pelo planejador e recarrega as projeções em memória.
+     */
+    @BeforeEach
+    public void setup() {
+        limpar();
+        for (int i = 0; i < QUANTIDADE_DEPARTAMENTOS; i++) {
+            departamentos.registrar("Plano " + i);
+        }
+
+        QuarkusTransaction.requiringNew().run(() -> entityManager.createNativeQuery(INSERCAO_PESSOAS)
+                .setParameter(1, QUANTIDADE_PESSOAS)
+                .setParameter(2, QUANTIDADE_DEPARTAMENTOS)
+                .executeUpdate());
+        // Sem estatísticas de Pessoa, a verificação da chave estrangeira de cada
+        // tarefa pode varrer a tabela inteira, e a gravação passa do tempo limite.
+        atualizarEstatisticas("ANALYZE Pessoa");
+        QuarkusTransaction.requiringNew().run(() -> {
+            entityManager.createNativeQuery(INSERCAO_TAREFAS_ALOCADAS)
+                    .setParameter(1, TAREFAS_POR_PESSOA)
+                    .executeUpdate();
+            entityManager.createNativeQuery(INSERCAO_TAREFAS_PENDENTES)
+                    .setParameter(1, QUANTIDADE_PENDENTES)
+                    .setParameter(2, QUANTIDADE_DEPARTAMENTOS)
+                    .executeUpdate();
+        });
+        // Os totais de tarefas das pessoas e os totais por período não acompanham a massa gravada por SQL.
+        estatisticas.verificar();
+        gastosPorPeriodo.reconstruir();
+        atualizarEstatisticas("VACUUM ANALYZE Pessoa, Tarefa, PessoaEstatistica, GastoPessoa, GastoDepartamento");
+        projecoes.forEach(ProjecaoEmMemoria::recarregar);
+    }
+
+    /**
+     * Executa um {@code ANALYZE} ou {@code VACUUM ANALYZE} sobre as tabelas da massa de dados.
+     * <p>
+     * Ao final da semeadura não basta o {@code ANALYZE}: as linhas gravadas em
+     * bloco ficam na lista de pendências do índice GIN de trigramas, que
+     * encarece o índice no plano até o próximo {@code VACUUM}, que em produção
+     * o autovacuum faz. O {@code VACUUM} não roda dentro de uma transação, por
+     * isso usa uma conexão própria, em modo de confirmação automática.
+     * </p>
+     *
+     * @param comando O comando a executar.
+     */
+    private void atualizarEstatisticas(String comando) {
+        try (Connection conexao = dataSource.getConnection(); Statement sql = conexao.createStatement()) {
+            sql.execute(comando);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível atualizar as estatísticas das tabelas.", e);
+        }
+    }
+
+    /**
+     * Remove a massa de dados, para não pesar nas demais classes de teste.
+     */
+    @AfterEach
+    public void limpar() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Tarefa.deleteAll();
+            Pessoa.deleteAll();
+        });
+        gastosPorPeriodo.reconstruir();
+        projecoes.forEach(ProjecaoEmMemoria::recarregar);
+    }
+
+    /**
+     * A paginação por chave e os totais de cada pessoa da página devem usar as
+     * chaves primárias de Pessoa e de PessoaEstatistica.
+     */
+    @Test
+    public void deveListarPessoasPorIndice() {
+        RequisicaoMedida medicao = orcamentos.medir("PessoaResource.listarPessoas",
+                () -> given().get("/pessoas?after=0&limit=50").then().statusCode(200));
+
+        planos.verificar(medicao);
+    }
+
+    /**
+     * A busca por nome deve usar o índice de trigramas e a média no período, a
+     * chave primária dos totais por período de cada pessoa.
+     */
+    @Test
+    public void deveBuscarGastosPorIndice() {
+        RequisicaoMedida medicao = orcamentos.medir("PessoaResource.buscarGastosPorPessoa",
+                () -> given()
+                        .queryParam("nome", "Pessoa 12")
+                        .queryParam("dataInicio", "2026-01-15")
+                        .queryParam("dataFim", "2026-06-10")
+                        .get("/pessoas/gastos")
+                        .then().statusCode(200));
+
+        planos.verificar(medicao);
+    }
+
+    /**
+     * Os gastos por departamento devem ler apenas os totais por período do
+     * intervalo pedido, pela chave primária, e não as tarefas.
+     */
+    @Test
+    public void deveBuscarGastosPorDepartamentoPorIndice() {
+        RequisicaoMedida medicao = orcamentos.medir("DepartamentoResource.buscarGastosPorDepartamento",
+                () -> given()
+                        .queryParam("dataInicio", "2026-01-15")
+                        .queryParam("dataFim", "2026-06-10")
+                        .get("/departamentos/gastos")
+                        .then().statusCode(200));
+
+        planos.verificar(medicao);
+    }
+
+    /**
+     * A finalização e a alocação de uma tarefa devem buscar a tarefa e a pessoa pela chave primária.
+     */
+    @Test
+    public void deveFinalizarEAlocarTarefaPorIndice() {
+        Long id = QuarkusTransaction.requiringNew().call(() -> entityManager
+                .createQuery("select t.id from Tarefa t where t.pessoaAlocada is null order by t.id", Long.class)
+                .setMaxResults(1)
+                .getSingleResult());
+
+        RequisicaoMedida alocacao = orcamentos.medir("TarefaResource.alocarPessoaNaTarefa",
+                () -> given().put("/tarefas/alocar/" + id).then().statusCode(200));
+        planos.verificar(alocacao);
+
+        RequisicaoMedida finalizacao = orcamentos.medir("TarefaResource.finalizarTarefa",
+                () -> given().put("/tarefas/finalizar/" + id).then().statusCode(200));
+        planos.verificar(finalizacao);
+    }
+
+    /**
+     * A alocação em lote deve ler apenas as tarefas pendentes, pelo índice parcial.
+     */
+    @Test
+    public void deveAlocarEmLotePorIndice() {
+        RequisicaoMedida medicao = orcamentos.medir("TarefaResource.alocarTarefasPendentesEmLote",
+                () -> given().post("/tarefas/alocar-lote").then().statusCode(200));
+
+        planos.verificar(medicao);
+    }
+
+    /**
+     * A listagem completa de tarefas pode ler as tabelas por inteiro, já que devolve todas as linhas.
+     */
+    @Test
+    public void deveListarTarefasSemVarrerOutrasTabelas() {
+        RequisicaoMedida medicao = orcamentos.medir("TarefaResource.listarTarefas",
+                () -> given().get("/tarefas").then().statusCode(200));
+
+        planos.verificar(medicao, "Tarefa", "Pessoa");
+    }
+
+    /**
+     * A contagem por departamento agrega todas as pessoas e tarefas e pode ler as duas tabelas por inteiro.
+     */
+    @Test
+    public void deveContarPorDepartamentoSemVarrerOutrasTabelas() {
+        RequisicaoMedida medicao = orcamentos.medir("DepartamentoResource.listarDepartamentos",
+                () -> given().get("/departamentos").then().statusCode(200));
+
+        planos.verificar(medicao, "Pessoa", "Tarefa");
+    }
+}
@@ -4,32 +4,109 @@ import br.com.selecao.dto.PessoaDTO;
 import br.com.selecao.dto.TarefaDTO;
 import br.com.selecao.model.Pessoa;
 import br.com.selecao.model.Tarefa;
+import br.com.selecao.serializacao.EscritorCbor;
+import br.com.selecao.service.AlocacaoService;
+import br.com.selecao.service.EstatisticasPessoas;
+import br.com.selecao.service.ProjecaoEmMemoria;
+import br.com.selecao.suporte.OrcamentoConsultas;
+import br.com.selecao.suporte.OrcamentoConsultas.Orcamento;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Classe de teste para os endpoints do TarefaResource.
  */
 @QuarkusTest
 public class TarefaResourceTest {
+    /*
+     * Orçamentos de acesso ao banco por endpoint: comandos SQL, entidades
+     * carregadas e coleções lazy inicializadas por requisição.
+     */
+    private static final Orcamento ORCAMENTO_ADICIONAR = new Orcamento(2, 0, 0);
+    private static final Orcamento ORCAMENTO_IMPORTAR = new Orcamento(0, 0, 0);
+    private static final Orcamento ORCAMENTO_LISTAR = new Orcamento(1, 0, 0);
+    private static final Orcamento ORCAMENTO_FLUXO = new Orcamento(0, 0, 0);
+    private static final Orcamento ORCAMENTO_FINALIZAR = new Orcamento(1, 0, 0);
+    private static final Orcamento ORCAMENTO_FINALIZAR_LOTE = new Orcamento(2, 0, 0);
+    private static final Orcamento ORCAMENTO_ALOCAR = new Orcamento(1, 0, 0);
+    private static final Orcamento ORCAMENTO_ALOCAR_LOTE = new Orcamento(1, 0, 0);
+    private static final Orcamento ORCAMENTO_PENDENTES = new Orcamento(0, 0, 0);
+    private static final Orcamento ORCAMENTO_NAO_MODIFICADO = new Orcamento(0, 0, 0);
+
+    private static final Logger LOG = Logger.getLogger(TarefaResourceTest.class);
+
+    /**
+     * Quantidade de clientes simultâneos nos testes de concorrência.
+     */
+    private static final int CLIENTES_CONCORRENTES = 64;
+
+    @Inject
+    @Any
+    Instance<ProjecaoEmMemoria> projecoes;
+
+    @Inject
+    OrcamentoConsultas orcamentos;
+
+    @Inject
+    AlocacaoService alocacaoService;
+
+    @Inject
+    EstatisticasPessoas estatisticas;
 
     /**
      * Limpa o banco de dados antes de cada teste para garantir a independência.
+     * Como a limpeza não passa pela API, as projeções em memória são recarregadas em seguida.
      */
     @BeforeEach
     @Transactional
     public void setup() {
         Tarefa.deleteAll();
         Pessoa.deleteAll();
+        projecoes.forEach(ProjecaoEmMemoria::recarregar);
     }
 
     /**
@@ -102,6 +179,33 @@ public class TarefaResourceTest {
             .body("finalizado", equalTo(true));
     }
 
+    /**
+     * Testa a finalização em lote: IDs repetidos contam uma vez, tarefas já
+     * finalizadas contam como finalizadas e IDs inexistentes são listados à parte.
+     */
+    @Test
+    public void deveFinalizarTarefasEmLote() {
+        criarPessoa("Pessoa do Lote", "Fechamento");
+        Integer alocadaId = criarTarefaNoDepartamento("Alocada", "Fechamento", 6);
+        given().pathParam("id", alocadaId).put("/tarefas/alocar/{id}").then().statusCode(200);
+        Integer pendenteId = criarTarefaNoDepartamento("Pendente", "Fechamento", 2);
+        Integer finalizadaId = criarTarefaNoDepartamento("Já finalizada", "Fechamento", 1);
+        given().pathParam("id", finalizadaId).put("/tarefas/finalizar/{id}").then().statusCode(200);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(List.of(alocadaId, pendenteId, alocadaId, finalizadaId, 999999999))
+        .when()
+            .put("/tarefas/finalizar")
+        .then()
+            .statusCode(200)
+            .body("tarefasFinalizadas", equalTo(3))
+            .body("tarefasNaoEncontradas", equalTo(List.of(999999999)));
+
+        given().get("/tarefas").then().statusCode(200).body("finalizado", everyItem(equalTo(true)));
+        given().contentType(ContentType.JSON).body(List.of()).put("/tarefas/finalizar").then().statusCode(400);
+    }
+
     /**
      * Testa a alocação de uma pessoa a uma tarefa.
      */
@@ -129,6 +233,118 @@ public class TarefaResourceTest {
             .body("pessoaAlocada.id", equalTo(pessoaId));
     }
 
+    /**
+     * Testa que a alocação escolhe sempre a pessoa do departamento com a menor
+     * carga de trabalho em aberto, em vez de sempre a mesma pessoa.
+     */
+    @Test
+    public void deveAlocarParaPessoaMenosCarregada() {
+        Integer primeiraId = criarPessoa("Primeira Analista", "Análise");
+        Integer segundaId = criarPessoa("Segunda Analista", "Análise");
+
+        Integer tarefaLonga = criarTarefaNoDepartamento("Tarefa longa", "Análise", 5);
+        Integer tarefaMedia = criarTarefaNoDepartamento("Tarefa média", "Análise", 3);
+        Integer tarefaCurta = criarTarefaNoDepartamento("Tarefa curta", "Análise", 1);
+
+        // Ambas sem carga: empate resolvido pelo menor ID.
+        given().pathParam("id", tarefaLonga).put("/tarefas/alocar/{id}")
+            .then().statusCode(200).body("pessoaAlocada.id", equalTo(primeiraId));
+        // Primeira com 5 horas em aberto, segunda com 0.
+        given().pathParam("id", tarefaMedia).put("/tarefas/alocar/{id}")
+            .then().statusCode(200).body("pessoaAlocada.id", equalTo(segundaId));
+        // Primeira com 5 horas, segunda com 3.
+        given().pathParam("id", tarefaCurta).put("/tarefas/alocar/{id}")
+            .then().statusCode(200).body("pessoaAlocada.id", equalTo(segundaId));
+    }
+
+    /**
+     * Testa que uma pessoa que muda de departamento leva a sua carga para o novo
+     * departamento e que a finalização depois da mudança a devolve a zero.
+     */
+    @Test
+    public void deveLevarACargaAoMudarPessoaDeDepartamento() {
+        Integer mudandoId = criarPessoa("Analista em Mudança", "Origem");
+        Integer destinoId = criarPessoa("Analista do Destino", "Destino");
+
+        Integer tarefaOrigem = criarTarefaNoDepartamento("Tarefa na origem", "Origem", 5);
+        given().pathParam("id", tarefaOrigem).put("/tarefas/alocar/{id}")
+            .then().statusCode(200).body("pessoaAlocada.id", equalTo(mudandoId));
+
+        PessoaDTO mudanca = new PessoaDTO();
+        mudanca.nome = "Analista em Mudança";
+        mudanca.departamento = "Destino";
+        given().pathParam("id", mudandoId).contentType(ContentType.JSON).body(mudanca)
+            .put("/pessoas/{id}").then().statusCode(200);
+        assertEquals(5, alocacaoService.carga(mudandoId.longValue()));
+
+        // No destino, a pessoa que chegou já tem 5 minutos em aberto.
+        Integer tarefaDestino = criarTarefaNoDepartamento("Tarefa no destino", "Destino", 2);
+        given().pathParam("id", tarefaDestino).put("/tarefas/alocar/{id}")
+            .then().statusCode(200).body("pessoaAlocada.id", equalTo(destinoId));
+
+        given().pathParam("id", tarefaOrigem).put("/tarefas/finalizar/{id}").then().statusCode(200);
+        assertEquals(0, alocacaoService.carga(mudandoId.longValue()));
+    }
+
+    /**
+     * Testa a alocação em lote: as tarefas pendentes são distribuídas equilibrando
+     * a carga, e as de departamentos sem pessoas continuam pendentes.
+     */
+    @Test
+    public void deveAlocarTarefasPendentesEmLote() {
+        criarPessoa("Primeira Auditora", "Auditoria");
+        criarPessoa("Segunda Auditora", "Auditoria");
+        criarTarefaNoDepartamento("Auditoria 1", "Auditoria", 4);
+        criarTarefaNoDepartamento("Auditoria 2", "Auditoria", 3);
+        criarTarefaNoDepartamento("Auditoria 3", "Auditoria", 2);
+        criarTarefaNoDepartamento("Auditoria 4", "Auditoria", 1);
+        criarTarefaNoDepartamento("Sem equipe", "Departamento Vazio", 8);
+
+        given()
+        .when()
+            .post("/tarefas/alocar-lote")
+        .then()
+            .statusCode(200)
+            .body("tarefasAlocadas", equalTo(4))
+            .body("tarefasNaoAlocadas", equalTo(1))
+            .body("makespan", equalTo(5));
+
+        given()
+        .when()
+            .get("/tarefas/pendentes")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(1))
+            .body("[0].titulo", equalTo("Sem equipe"));
+    }
+
+    /**
+     * Testa a importação em lote de tarefas via NDJSON: tarefas que referenciam
+     * pessoas inexistentes são rejeitadas individualmente e as demais são gravadas.
+     */
+    @Test
+    public void deveImportarTarefasEmLoteRejeitandoPessoasInexistentes() {
+        Integer pessoaId = criarPessoa("Pessoa Importadora", "Logística");
+        String corpo = "{\"titulo\": \"Importada alocada\", \"duracao\": 2, \"pessoaAlocadaId\": " + pessoaId + "}\n"
+                + "{\"titulo\": \"Importada órfã\", \"pessoaAlocadaId\": 999999999}\n"
+                + "{\"titulo\": \"Importada pendente\", \"prazo\": \"2030-05-01\"}\n";
+
+        given()
+            .contentType(TarefaResource.APPLICATION_NDJSON)
+            .body(corpo)
+        .when()
+            .post("/tarefas/importacao")
+        .then()
+            .statusCode(200)
+            .body("registrosLidos", equalTo(3))
+            .body("registrosImportados", equalTo(2))
+            .body("erros", hasSize(1))
+            .body("erros[0].registro", equalTo(2));
+
+        String gravadas = given().when().get("/tarefas/fluxo").then().statusCode(200).extract().asString();
+        assertEquals(2, gravadas.split("\n").length);
+    }
+
     /**
      * Testa a listagem de tarefas pendentes, verificando a ordenação e o limite.
      */
@@ -151,6 +367,291 @@ public class TarefaResourceTest {
             .body("[2].titulo", equalTo("Tarefa Urgente"));
     }
 
+    /**
+     * Testa a listagem em fluxo, que deve trazer uma tarefa por linha no formato NDJSON.
+     */
+    @Test
+    public void deveListarTarefasEmFluxoComUmaTarefaPorLinha() {
+        PessoaDTO pessoaDTO = new PessoaDTO();
+        pessoaDTO.nome = "Pessoa do Fluxo";
+        pessoaDTO.departamento = "Suporte";
+        Integer pessoaId = given().contentType(ContentType.JSON).body(pessoaDTO).post("/pessoas").then().extract().path("id");
+
+        TarefaDTO alocada = new TarefaDTO();
+        alocada.titulo = "Tarefa alocada";
+        alocada.prazo = LocalDate.of(2030, 1, 15);
+        alocada.pessoaAlocadaId = Long.valueOf(pessoaId);
+        given().contentType(ContentType.JSON).body(alocada).post("/tarefas").then().statusCode(201);
+        criarTarefaPendente("Tarefa sem pessoa", null);
+
+        String corpo = given()
+        .when()
+            .get("/tarefas/fluxo")
+        .then()
+            .statusCode(200)
+            .contentType(TarefaResource.APPLICATION_NDJSON)
+            .extract().asString();
+
+        String[] linhas = corpo.split("\n");
+        assertEquals(2, linhas.length);
+
+        JsonPath primeira = new JsonPath(linhas[0]);
+        assertEquals("Tarefa alocada", primeira.getString("titulo"));
+        assertEquals("2030-01-15", primeira.getString("prazo"));
+        assertEquals(pessoaId, primeira.getInt("pessoaAlocada.id"));
+
+        JsonPath segunda = new JsonPath(linhas[1]);
+        assertEquals("Tarefa sem pessoa", segunda.getString("titulo"));
+        assertNull(segunda.get("pessoaAlocada"));
+    }
+
+    /**
+     * Testa que a listagem de tarefas pendentes respeita o limite informado e
+     * deixa de trazer as tarefas que foram alocadas.
+     */
+    @Test
+    public void deveListarTarefasPendentesComLimiteInformado() {
+        criarPessoa("Pessoa do Plantão", "Plantão");
+        TarefaDTO alocavel = new TarefaDTO();
+        alocavel.titulo = "Tarefa alocável";
+        alocavel.prazo = LocalDate.now().minusDays(5);
+        alocavel.departamento = "Plantão";
+        Integer alocavelId = given().contentType(ContentType.JSON).body(alocavel).post("/tarefas").then().extract().path("id");
+        criarTarefaPendente("Segunda pendente", LocalDate.now().minusDays(3));
+        criarTarefaPendente("Terceira pendente", LocalDate.now().minusDays(1));
+        criarTarefaPendente("Sem prazo", null);
+
+        given().queryParam("limit", 10).when().get("/tarefas/pendentes")
+            .then().statusCode(200).body("$", hasSize(4)).body("[0].titulo", equalTo("Tarefa alocável"))
+            .body("[3].titulo", equalTo("Sem prazo"));
+
+        given().pathParam("id", alocavelId).put("/tarefas/alocar/{id}").then().statusCode(200);
+
+        given().queryParam("limit", 1).when().get("/tarefas/pendentes")
+            .then().statusCode(200).body("$", hasSize(1)).body("[0].titulo", equalTo("Segunda pendente"));
+
+        given().queryParam("limit", 0).when().get("/tarefas/pendentes").then().statusCode(400);
+    }
+
+    /**
+     * Testa que a listagem traz a pessoa alocada apenas com seus dados básicos,
+     * sem a lista de tarefas dela.
+     */
+    @Test
+    public void deveListarTarefasComResumoDaPessoaAlocada() {
+        Integer pessoaId = criarPessoa("Responsável", "Suporte");
+        Integer tarefaId = criarTarefaNoDepartamento("Atender chamado", "Suporte", 2);
+        given().pathParam("id", tarefaId).put("/tarefas/alocar/{id}").then().statusCode(200);
+        criarTarefaNoDepartamento("Sem responsável", "Sem Pessoas", 1);
+
+        given()
+        .when()
+            .get("/tarefas")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(2))
+            .body("[0].titulo", equalTo("Atender chamado"))
+            .body("[0].pessoaAlocada.id", equalTo(pessoaId))
+            .body("[0].pessoaAlocada.nome", equalTo("Responsável"))
+            .body("[0].pessoaAlocada.tarefas", nullValue())
+            .body("[1].pessoaAlocada", nullValue());
+    }
+
+    /**
+     * Testa que a listagem responde 304 sem acessar o banco enquanto as tarefas
+     * não mudam, e volta a responder 200 depois de uma alteração.
+     */
+    @Test
+    public void deveResponderNaoModificadoEnquantoAsTarefasNaoMudarem() {
+        criarTarefaNoDepartamento("Versionada", "Suporte", 1);
+
+        String etag = given().get("/tarefas").then().statusCode(200).extract().header("ETag");
+        assertNotNull(etag);
+
+        orcamentos.verificar("TarefaResource.listarTarefas", ORCAMENTO_NAO_MODIFICADO,
+                () -> given().header("If-None-Match", etag).get("/tarefas").then().statusCode(304));
+
+        criarTarefaNoDepartamento("Nova", "Suporte", 1);
+
+        given()
+            .header("If-None-Match", etag)
+        .when()
+            .get("/tarefas")
+        .then()
+            .statusCode(200)
+            .body("$", hasSize(2));
+    }
+
+    /**
+     * Testa que a listagem pode ser pedida em CBOR, com os mesmos campos da
+     * resposta JSON e uma ETag própria do formato.
+     */
+    @Test
+    public void deveListarTarefasEmCbor() throws IOException {
+        criarTarefaNoDepartamento("Binária", "Suporte", 5);
+
+        String etagJson = given().get("/tarefas").then().statusCode(200).extract().header("ETag");
+
+        byte[] corpo = given()
+            .accept(EscritorCbor.APPLICATION_CBOR)
+        .when()
+            .get("/tarefas")
+        .then()
+            .statusCode(200)
+            .contentType(EscritorCbor.APPLICATION_CBOR)
+            .header("Vary", containsString("Accept"))
+            .extract().asByteArray();
+
+        JsonNode tarefas = new CBORMapper().readTree(corpo);
+        assertEquals(1, tarefas.size());
+        assertEquals("Binária", tarefas.get(0).get("titulo").asText());
+        assertEquals(5, tarefas.get(0).get("duracao").asInt());
+        assertTrue(tarefas.get(0).get("pessoaAlocada").isNull());
+
+        // A ETag da representação JSON não vale para a representação CBOR.
+        given()
+            .accept(EscritorCbor.APPLICATION_CBOR)
+            .header("If-None-Match", etagJson)
+        .when()
+            .get("/tarefas")
+        .then()
+            .statusCode(200)
+            .header("ETag", not(equalTo(etagJson)));
+    }
+
+    /**
+     * Testa que apenas as respostas acima do tamanho mínimo são comprimidas.
+     */
+    @Test
+    public void deveComprimirApenasRespostasGrandes() throws IOException {
+        RestAssuredConfig semDescompressao = RestAssured.config()
+                .decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+
+        given()
+            .config(semDescompressao)
+            .header("Accept-Encoding", "gzip")
+        .when()
+            .get("/tarefas")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", not(equalTo("gzip")));
+
+        for (int i = 1; i <= 20; i++) {
+            criarTarefaNoDepartamento("Tarefa comprimida " + i, "Suporte", i);
+        }
+
+        byte[] comprimido = given()
+            .config(semDescompressao)
+            .header("Accept-Encoding", "gzip")
+        .when()
+            .get("/tarefas")
+        .then()
+            .statusCode(200)
+            .header("Content-Encoding", equalTo("gzip"))
+            .extract().asByteArray();
+
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            JsonPath tarefas = new JsonPath(entrada);
+            assertEquals(20, tarefas.getList("$").size());
+        }
+    }
+
+    /**
+     * Testa que, com {@value #CLIENTES_CONCORRENTES} clientes disputando as
+     * mesmas tarefas ao mesmo tempo, cada tarefa é alocada e finalizada uma
+     * única vez: cada alocação responde 200 para um único cliente e 400 para os
+     * demais, a carga de cada pessoa no motor de alocação bate com o banco, e
+     * volta a zero depois que todas as tarefas são finalizadas.
+     * <p>
+     * A vazão de cada fase é registrada no log do teste.
+     * </p>
+     */
+    @Test
+    public void deveAlocarEFinalizarCadaTarefaUmaUnicaVezSobConcorrencia() throws Exception {
+        List<Long> pessoas = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            pessoas.add(criarPessoa("Concorrente " + i, "Concorrência").longValue());
+        }
+        List<Integer> tarefas = new ArrayList<>();
+        long duracaoTotal = 0;
+        for (int i = 1; i <= 32; i++) {
+            tarefas.add(criarTarefaNoDepartamento("Disputada " + i, "Concorrência", i));
+            duracaoTotal += i;
+        }
+
+        Map<Integer, Integer> alocacoesPorTarefa = new HashMap<>();
+        for (int[] resposta : disputar("Alocação concorrente", tarefas, "/tarefas/alocar/{id}")) {
+            if (resposta[1] == 200) {
+                alocacoesPorTarefa.merge(resposta[0], 1, Integer::sum);
+            } else {
+                assertEquals(400, resposta[1], "Resposta inesperada para a tarefa " + resposta[0]);
+            }
+        }
+        for (Integer tarefaId : tarefas) {
+            assertEquals(1, alocacoesPorTarefa.getOrDefault(tarefaId, 0).intValue(), "Alocações da tarefa " + tarefaId);
+        }
+
+        Map<Long, Long> cargasNoBanco = new HashMap<>();
+        QuarkusTransaction.requiringNew().run(() -> Tarefa.<Tarefa>list("finalizado = false and pessoaAlocada is not null")
+                .forEach(tarefa -> cargasNoBanco.merge(tarefa.pessoaAlocada.id, (long) tarefa.duracao, Long::sum)));
+        long cargaTotal = 0;
+        for (Long pessoaId : pessoas) {
+            assertEquals(cargasNoBanco.getOrDefault(pessoaId, 0L).longValue(), alocacaoService.carga(pessoaId),
+                    "Carga da pessoa " + pessoaId);
+            cargaTotal += alocacaoService.carga(pessoaId);
+        }
+        assertEquals(duracaoTotal, cargaTotal);
+
+        for (int[] resposta : disputar("Finalização concorrente", tarefas, "/tarefas/finalizar/{id}")) {
+            assertEquals(200, resposta[1], "Resposta inesperada para a tarefa " + resposta[0]);
+        }
+        for (Long pessoaId : pessoas) {
+            assertEquals(0, alocacaoService.carga(pessoaId), "Carga da pessoa " + pessoaId);
+        }
+        assertEquals(0, estatisticas.verificar(), "Pessoas com totais de tarefas divergentes");
+    }
+
+    /**
+     * Testa que cada endpoint respeita seu orçamento de acesso ao banco. A
+     * listagem de tarefas é uma única consulta de projeção, sem entidades.
+     */
+    @Test
+    public void deveRespeitarOrcamentoDeAcessoAoBanco() {
+        criarPessoa("Orçada", "Orçamento");
+        Integer alocavelId = criarTarefaNoDepartamento("Alocável", "Orçamento", 3);
+        Integer finalizavelId = criarTarefaNoDepartamento("Finalizável", "Orçamento", 2);
+        for (int i = 1; i <= 3; i++) {
+            criarTarefaNoDepartamento("Pendente " + i, "Sem Pessoas", i);
+        }
+
+        orcamentos.verificar("TarefaResource.listarTarefas", ORCAMENTO_LISTAR,
+                () -> given().get("/tarefas").then().statusCode(200));
+        orcamentos.verificar("TarefaResource.listarTarefasEmFluxo", ORCAMENTO_FLUXO,
+                () -> given().get("/tarefas/fluxo").then().statusCode(200));
+        orcamentos.verificar("TarefaResource.listarTarefasPendentes", ORCAMENTO_PENDENTES,
+                () -> given().get("/tarefas/pendentes").then().statusCode(200));
+        orcamentos.verificar("TarefaResource.finalizarTarefa", ORCAMENTO_FINALIZAR,
+                () -> given().pathParam("id", finalizavelId).put("/tarefas/finalizar/{id}").then().statusCode(200));
+        orcamentos.verificar("TarefaResource.finalizarTarefas", ORCAMENTO_FINALIZAR_LOTE,
+                () -> given().contentType(ContentType.JSON).body(List.of(finalizavelId, 999999999))
+                        .put("/tarefas/finalizar").then().statusCode(200));
+        orcamentos.verificar("TarefaResource.alocarPessoaNaTarefa", ORCAMENTO_ALOCAR,
+                () -> given().pathParam("id", alocavelId).put("/tarefas/alocar/{id}").then().statusCode(200));
+        orcamentos.verificar("TarefaResource.alocarTarefasPendentesEmLote", ORCAMENTO_ALOCAR_LOTE,
+                () -> given().post("/tarefas/alocar-lote").then().statusCode(200));
+
+        TarefaDTO tarefaDTO = new TarefaDTO();
+        tarefaDTO.titulo = "Nova";
+        tarefaDTO.departamento = "Orçamento";
+        orcamentos.verificar("TarefaResource.adicionarTarefa", ORCAMENTO_ADICIONAR,
+                () -> given().contentType(ContentType.JSON).body(tarefaDTO).post("/tarefas").then().statusCode(201));
+        orcamentos.verificar("TarefaResource.importarTarefas", ORCAMENTO_IMPORTAR,
+                () -> given()
+                        .contentType(TarefaResource.APPLICATION_NDJSON)
+                        .body("{\"titulo\":\"Importada\",\"departamento\":\"Orçamento\",\"duracao\":1}\n")
+                        .post("/tarefas/importacao").then().statusCode(200));
+    }
+
     /**
      * Método auxiliar para criar tarefas pendentes para o teste acima.
      */
@@ -160,4 +661,64 @@ public class TarefaResourceTest {
         tarefa.prazo = prazo;
         given().contentType(ContentType.JSON).body(tarefa).post("/tarefas");
     }
-}
\ No newline at end of file
+
+    /**
+     * Método auxiliar que cria uma pessoa e retorna o seu ID.
+     */
+    private Integer criarPessoa(String nome, String departamento) {
+        PessoaDTO pessoaDTO = new PessoaDTO();
+        pessoaDTO.nome = nome;
+        pessoaDTO.departamento = departamento;
+        return given().contentType(ContentType.JSON).body(pessoaDTO).post("/pessoas").then().extract().path("id");
+    }
+
+    /**
+     * Método auxiliar que cria uma tarefa pendente em um departamento e retorna o seu ID.
+     */
+    private Integer criarTarefaNoDepartamento(String titulo, String departamento, int duracao) {
+        TarefaDTO tarefa = new TarefaDTO();
+        tarefa.titulo = titulo;
+        tarefa.departamento = departamento;
+        tarefa.duracao = duracao;
+        return given().contentType(ContentType.JSON).body(tarefa).post("/tarefas").then().extract().path("id");
+    }
+
+    /**
+     * Método auxiliar que faz {@value #CLIENTES_CONCORRENTES} clientes chamarem,
+     * ao mesmo tempo, o endpoint de cada tarefa, cada um em uma ordem diferente.
+     *
+     * @return Pares {@code {ID da tarefa, status HTTP}}, um por requisição.
+     */
+    private List<int[]> disputar(String operacao, List<Integer> tarefas, String caminho) throws Exception {
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES_CONCORRENTES);
+        CountDownLatch largada = new CountDownLatch(1);
+        Queue<int[]> respostas = new ConcurrentLinkedQueue<>();
+        try {
+            List<Future<?>> execucoes = new ArrayList<>();
+            for (int cliente = 0; cliente < CLIENTES_CONCORRENTES; cliente++) {
+                List<Integer> ordem = new ArrayList<>(tarefas);
+                Collections.shuffle(ordem, new Random(cliente));
+                execucoes.add(clientes.submit(() -> {
+                    largada.await();
+                    for (Integer tarefaId : ordem) {
+                        int status = given().pathParam("id", tarefaId).put(caminho).statusCode();
+                        respostas.add(new int[] {tarefaId, status});
+                    }
+                    return null;
+                }));
+            }
+
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> execucao : execucoes) {
+                execucao.get(2, TimeUnit.MINUTES);
+            }
+            long decorridoMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            LOG.infof("%s: %d requisições de %d clientes em %d ms (%d requisições/s).", operacao,
+                    respostas.size(), CLIENTES_CONCORRENTES, decorridoMs, respostas.size() * 1000L / decorridoMs);
+        } finally {
+            clientes.shutdownNow();
+        }
+        return new ArrayList<>(respostas);
+    }
+}
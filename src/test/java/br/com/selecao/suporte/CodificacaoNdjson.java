@@ -0,0 +1,28 @@
+package br.com.selecao.suporte;
+
+import br.com.selecao.resource.TarefaResource;
+import io.quarkus.test.junit.callback.QuarkusTestBeforeEachCallback;
+import io.quarkus.test.junit.callback.QuarkusTestMethodContext;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Ensina o RestAssured a enviar corpos {@code application/x-ndjson} como texto
+ * em UTF-8, antes de cada teste de todas as classes {@code @QuarkusTest}.
+ * <p>
+ * Sem isso, o RestAssured não sabe serializar o corpo das importações e o
+ * teste falha no cliente, sem chegar à API; sem o charset, o texto seria
+ * enviado em ISO-8859-1, e a API lê o NDJSON como UTF-8. Registrado em
+ * {@code META-INF/services/io.quarkus.test.junit.callback.QuarkusTestBeforeEachCallback}.
+ * </p>
+ */
+public class CodificacaoNdjson implements QuarkusTestBeforeEachCallback {
+    @Override
+    public void beforeEach(QuarkusTestMethodContext contexto) {
+        RestAssured.config = RestAssured.config().encoderConfig(RestAssured.config().getEncoderConfig()
+                .encodeContentTypeAs(TarefaResource.APPLICATION_NDJSON, ContentType.TEXT)
+                .defaultCharsetForContentType(StandardCharsets.UTF_8.name(), TarefaResource.APPLICATION_NDJSON));
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.selecao.suporte;
+
+import br.com.selecao.monitoramento.RequisicaoMedida;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifica, nos testes, quantos comandos SQL, cargas de entidades e buscas de
+ * coleções uma requisição HTTP provoca, para que regressões do tipo "N+1"
+ * quebrem o build.
+ * <p>
+ * Cada endpoint declara seu {@link Orcamento}; a requisição é feita dentro de
+ * {@link #verificar(String, Orcamento, Runnable)}, que falha listando os
+ * comandos SQL executados quando algum limite é ultrapassado. As medições vêm
+ * do evento {@link RequisicaoMedida}, disparado pela aplicação ao encerrar o
+ * contexto de cada requisição.
+ * </p>
+ */
+@ApplicationScoped
+public class OrcamentoConsultas {
+    /**
+     * Tempo máximo de espera pela medição, que é publicada ao encerrar o
+     * contexto da requisição e pode chegar logo depois da resposta.
+     */
+    private static final long ESPERA_MAXIMA_MS = 5000;
+
+    /**
+     * Limites de acesso ao banco de uma requisição.
+     *
+     * @param comandos   A quantidade máxima de comandos SQL.
+     * @param entidades  A quantidade máxima de entidades carregadas.
+     * @param colecoes   A quantidade máxima de coleções lazy inicializadas.
+     */
+    public record Orcamento(int comandos, long entidades, long colecoes) {
+    }
+
+    private final Queue<RequisicaoMedida> medicoes = new ConcurrentLinkedQueue<>();
+
+    void aoMedir(@Observes RequisicaoMedida medicao) {
+        medicoes.add(medicao);
+    }
+
+    /**
+     * Executa a chamada e verifica se a requisição ao endpoint respeitou o orçamento.
+     *
+     * @param endpoint  O método de recurso, no formato {@code Classe.metodo}.
+     * @param orcamento Os limites do endpoint.
+     * @param chamada   A chamada HTTP (RestAssured) ao endpoint.
+     * @return A medição da requisição.
+     */
+    public RequisicaoMedida verificar(String endpoint, Orcamento orcamento, Runnable chamada) {
+        RequisicaoMedida medicao = medir(endpoint, chamada);
+
+        if (medicao.comandos().size() > orcamento.comandos()
+                || medicao.entidadesCarregadas() > orcamento.entidades()
+                || medicao.colecoesBuscadas() > orcamento.colecoes()) {
+            StringBuilder mensagem = new StringBuilder()
+                    .append(endpoint).append(" excedeu o orçamento de acesso ao banco: ")
+                    .append(medicao.comandos().size()).append(" comandos SQL (máximo ")
+                    .append(orcamento.comandos()).append("), ")
+                    .append(medicao.entidadesCarregadas()).append(" entidades carregadas (máximo ")
+                    .append(orcamento.entidades()).append("), ")
+                    .append(medicao.colecoesBuscadas()).append(" coleções buscadas (máximo ")
+                    .append(orcamento.colecoes()).append("). Comandos executados:");
+            for (int i = 0; i < medicao.comandos().size(); i++) {
+                mensagem.append("\n  ").append(i + 1).append(". ").append(medicao.comandos().get(i));
+            }
+            fail(mensagem.toString());
+        }
+        return medicao;
+    }
+
+    /**
+     * Executa a chamada e retorna a medição da requisição ao endpoint, sem verificar limites.
+     *
+     * @param endpoint O método de recurso, no formato {@code Classe.metodo}.
+     * @param chamada  A chamada HTTP (RestAssured) ao endpoint.
+     * @return A medição da requisição.
+     */
+    public RequisicaoMedida medir(String endpoint, Runnable chamada) {
+        medicoes.clear();
+        long inicio = System.nanoTime();
+        chamada.run();
+        return aguardar(endpoint, inicio);
+    }
+
+    /**
+     * Aguarda a medição da requisição ao endpoint iniciada depois de {@code inicio}.
+     * A medição de uma requisição anterior ao mesmo endpoint pode chegar só
+     * agora, pois é publicada depois da resposta, e é ignorada.
+     */
+    private RequisicaoMedida aguardar(String endpoint, long inicio) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_MAXIMA_MS);
+        while (System.nanoTime() < limite) {
+            for (RequisicaoMedida medicao : medicoes) {
+                if (medicao.endpoint().equals(endpoint) && medicao.inicio() - inicio >= 0) {
+                    return medicao;
+                }
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fail("Nenhuma medição recebida para " + endpoint + ".");
+    }
+}
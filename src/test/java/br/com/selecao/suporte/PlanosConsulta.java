@@ -0,0 +1,183 @@
+package br.com.selecao.suporte;
+
+import br.com.selecao.monitoramento.RequisicaoMedida;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Verifica, nos testes, o plano de execução de cada comando SQL que uma
+ * requisição HTTP envia ao banco, para que uma consulta que deixe de usar
+ * índice quebre o build.
+ * <p>
+ * Os comandos vêm da {@link RequisicaoMedida} (ver
+ * {@link OrcamentoConsultas#medir(String, Runnable)}) e são analisados com
+ * {@code EXPLAIN} contra os dados que o teste gravou. O teste falha quando
+ * algum comando lê por inteiro ({@code Seq Scan}) uma tabela com mais de
+ * {@code gerenciador.testes.planos.limite-linhas-varredura} linhas, exceto as
+ * tabelas que o endpoint declara ler por inteiro, como as listagens completas.
+ * </p>
+ * <p>
+ * Os comandos chegam com os parâmetros ({@code ?}) sem valor. Por isso são
+ * preparados no banco e analisados com o plano genérico
+ * ({@code plan_cache_mode = force_generic_plan}), que não depende dos valores
+ * e é o mesmo que o PostgreSQL passa a reutilizar para os comandos preparados
+ * pelo driver JDBC. As estatísticas das tabelas precisam estar atualizadas
+ * ({@code ANALYZE}) para que o plano seja o de produção.
+ * </p>
+ */
+@ApplicationScoped
+public class PlanosConsulta {
+    private static final String VARREDURA_SEQUENCIAL = "Seq Scan";
+
+    private static final String CONSULTA_LINHAS_TABELA = "SELECT reltuples::bigint FROM pg_class WHERE oid = ?::regclass";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    /**
+     * Maior quantidade de linhas que uma tabela pode ter para ser lida por inteiro.
+     */
+    @ConfigProperty(name = "gerenciador.testes.planos.limite-linhas-varredura", defaultValue = "1000")
+    long limiteLinhas;
+
+    /**
+     * Verifica se nenhum comando da requisição lê por inteiro uma tabela grande.
+     *
+     * @param medicao                A medição da requisição, com os comandos SQL executados.
+     * @param tabelasLidasPorInteiro As tabelas que o endpoint pode ler por inteiro.
+     */
+    public void verificar(RequisicaoMedida medicao, String... tabelasLidasPorInteiro) {
+        Set<String> permitidas = Stream.of(tabelasLidasPorInteiro)
+                .map(tabela -> tabela.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        StringBuilder mensagem = new StringBuilder();
+        try (Connection conexao = dataSource.getConnection()) {
+            for (String comando : medicao.comandos()) {
+                JsonNode plano = objectMapper.readTree(explicar(conexao, comando, "FORMAT JSON")).get(0).get("Plan");
+                List<String> tabelas = new ArrayList<>();
+                coletarVarreduras(plano, tabelas);
+
+                for (String tabela : tabelas) {
+                    if (permitidas.contains(tabela)) {
+                        continue;
+                    }
+                    long linhas = linhasDaTabela(conexao, tabela);
+                    if (linhas > limiteLinhas) {
+                        mensagem.append("\n  ").append(tabela).append(" (").append(linhas)
+                                .append(" linhas) em: ").append(comando)
+                                .append("\n").append(explicar(conexao, comando, "FORMAT TEXT"));
+                    }
+                }
+            }
+        } catch (IOException | SQLException e) {
+            fail("Não foi possível obter o plano dos comandos de " + medicao.endpoint() + ".", e);
+        }
+
+        if (!mensagem.isEmpty()) {
+            fail(medicao.endpoint() + " lê por inteiro tabelas com mais de " + limiteLinhas
+                    + " linhas:" + mensagem);
+        }
+    }
+
+    /**
+     * Executa o {@code EXPLAIN} do plano genérico de um comando com parâmetros JDBC.
+     */
+    private static String explicar(Connection conexao, String comando, String formato) throws SQLException {
+        StringBuilder preparado = new StringBuilder();
+        int parametros = numerarParametros(comando, preparado);
+
+        StringBuilder valores = new StringBuilder();
+        for (int i = 0; i < parametros; i++) {
+            valores.append(i == 0 ? "(" : ", ").append("NULL");
+        }
+        if (parametros > 0) {
+            valores.append(")");
+        }
+
+        try (Statement sql = conexao.createStatement()) {
+            sql.execute("SET plan_cache_mode = force_generic_plan");
+            try {
+                sql.execute("PREPARE plano_verificado AS " + preparado);
+                try (ResultSet plano = sql.executeQuery("EXPLAIN (" + formato + ") EXECUTE plano_verificado" + valores)) {
+                    StringBuilder saida = new StringBuilder();
+                    while (plano.next()) {
+                        saida.append(plano.getString(1)).append("\n");
+                    }
+                    return saida.toString();
+                } finally {
+                    sql.execute("DEALLOCATE plano_verificado");
+                }
+            } finally {
+                sql.execute("RESET plan_cache_mode");
+            }
+        }
+    }
+
+    /**
+     * Troca os parâmetros JDBC ({@code ?}) pelos parâmetros numerados do
+     * PostgreSQL ({@code $1}, {@code $2}...), ignorando os que estiverem dentro
+     * de literais de texto.
+     *
+     * @return A quantidade de parâmetros.
+     */
+    private static int numerarParametros(String comando, StringBuilder destino) {
+        int parametros = 0;
+        boolean emLiteral = false;
+        for (int i = 0; i < comando.length(); i++) {
+            char c = comando.charAt(i);
+            if (c == '\'') {
+                emLiteral = !emLiteral;
+            }
+            if (c == '?' && !emLiteral) {
+                destino.append('$').append(++parametros);
+            } else {
+                destino.append(c);
+            }
+        }
+        return parametros;
+    }
+
+    /**
+     * Coleta, percorrendo a árvore do plano, as tabelas lidas por varredura sequencial.
+     */
+    private static void coletarVarreduras(JsonNode no, List<String> tabelas) {
+        if (VARREDURA_SEQUENCIAL.equals(no.path("Node Type").asText())) {
+            tabelas.add(no.path("Relation Name").asText().toLowerCase(Locale.ROOT));
+        }
+        for (JsonNode filho : no.path("Plans")) {
+            coletarVarreduras(filho, tabelas);
+        }
+    }
+
+    private static long linhasDaTabela(Connection conexao, String tabela) throws SQLException {
+        try (PreparedStatement consulta = conexao.prepareStatement(CONSULTA_LINHAS_TABELA)) {
+            consulta.setString(1, tabela);
+            try (ResultSet linhas = consulta.executeQuery()) {
+                return linhas.next() ? linhas.getLong(1) : 0;
+            }
+        }
+    }
+}